@@ -0,0 +1,14 @@
+package com.publicis.sapient.recipeapi.binding;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class RecipeBatchRequest {
+
+	@NotEmpty(message = "At least one recipe id is required.")
+	private List<@NotNull(message = "Recipe ids cannot be null.") Integer> ids;
+}
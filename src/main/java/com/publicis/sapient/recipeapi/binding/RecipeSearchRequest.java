@@ -1,16 +1,116 @@
 package com.publicis.sapient.recipeapi.binding;
 
-import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 
 @Data
 public class RecipeSearchRequest {
 
-	@NotBlank(message = "Recipe name is required.")
 	@Pattern(regexp = "^[a-zA-Z \\(\\)-]+$", message = "Invalid 'name': Only letters and spaces allowed.")
 	private String name;
 
 	@Pattern(regexp = "^[a-zA-Z ]+$", message = "Invalid 'cuisine': Only letters and spaces allowed.")
 	private String cuisine;
+
+	private List<String> ingredient;
+
+	private List<String> tag;
+
+	private List<String> mealType;
+
+	@Pattern(regexp = "^(?i)(all|any)$", message = "Invalid 'match': Use 'all' or 'any'.")
+	private String match;
+
+	@Min(value = 1, message = "Invalid 'limit': Must be at least 1.")
+	@Max(value = 100, message = "Invalid 'limit': Must be at most 100.")
+	private Integer limit;
+
+	@Pattern(regexp = "^-?(id|rating|reviewCount|prepTimeMinutes|cookTimeMinutes|caloriesPerServing)$",
+			message = "Invalid 'sort': Use id, rating, reviewCount, prepTimeMinutes, cookTimeMinutes or caloriesPerServing, prefixed with '-' for descending order.")
+	private String sort;
+
+	private String cursor;
+
+	private List<String> fields;
+
+	private List<String> facets;
+
+	private Float minRating;
+
+	private Float maxRating;
+
+	@Min(value = 0, message = "Invalid 'minReviewCount': Must not be negative.")
+	private Integer minReviewCount;
+
+	private Integer maxReviewCount;
+
+	@Min(value = 0, message = "Invalid 'minPrepMinutes': Must not be negative.")
+	private Integer minPrepMinutes;
+
+	private Integer maxPrepMinutes;
+
+	@Min(value = 0, message = "Invalid 'minCookMinutes': Must not be negative.")
+	private Integer minCookMinutes;
+
+	private Integer maxCookMinutes;
+
+	@Min(value = 0, message = "Invalid 'minTotalMinutes': Must not be negative.")
+	private Integer minTotalMinutes;
+
+	private Integer maxTotalMinutes;
+
+	@Min(value = 0, message = "Invalid 'minCalories': Must not be negative.")
+	private Integer minCalories;
+
+	private Integer maxCalories;
+
+	@Min(value = 0, message = "Invalid 'minServings': Must not be negative.")
+	private Integer minServings;
+
+	private Integer maxServings;
+
+	@AssertTrue(message = "Recipe name is required unless an ingredient, tag, meal type or range is given.")
+	public boolean isNameOrFilterPresent() {
+		return (name != null && !name.isBlank()) || hasFilters();
+	}
+
+	public boolean hasFilters() {
+		return isPresent(ingredient) || isPresent(tag) || isPresent(mealType) || hasRanges();
+	}
+
+	public boolean hasRanges() {
+		return Stream.of(minRating, maxRating, minReviewCount, maxReviewCount, minPrepMinutes, maxPrepMinutes,
+				minCookMinutes, maxCookMinutes, minTotalMinutes, maxTotalMinutes, minCalories, maxCalories,
+				minServings, maxServings).anyMatch(Objects::nonNull);
+	}
+
+	/**
+	 * Whether a recipe needs every listed value of a dimension ({@code match=all}, the
+	 * default) or just one of them ({@code match=any}).
+	 */
+	public boolean matchAll() {
+		return !"any".equalsIgnoreCase(match);
+	}
+
+	/**
+	 * The sort field without its direction; recipes are sorted by id unless told otherwise.
+	 */
+	public String sortField() {
+		return sort == null ? "id" : sort.replaceFirst("^-", "");
+	}
+
+	public boolean sortDescending() {
+		return sort != null && sort.startsWith("-");
+	}
+
+	private static boolean isPresent(List<String> values) {
+		return values != null && values.stream().anyMatch(value -> value != null && !value.isBlank());
+	}
 }
@@ -1,10 +1,16 @@
 package com.publicis.sapient.recipeapi.config;
 
+import java.time.Duration;
+
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.publicis.sapient.recipeapi.ingestion.FeedHttpMetrics;
+import com.publicis.sapient.recipeapi.ingestion.MeteredHttpRequestFactory;
+
 @Configuration
 public class ApplicationConfig {
 
@@ -14,7 +20,17 @@ public class ApplicationConfig {
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public MeteredHttpRequestFactory feedRequestFactory(FeedHttpMetrics feedHttpMetrics,
+			@Value("${recipes.api.http.connect-timeout:PT5S}") Duration connectTimeout,
+			@Value("${recipes.api.http.read-timeout:PT30S}") Duration readTimeout,
+			@Value("${recipes.api.http.total-timeout:PT2M}") Duration totalTimeout,
+			@Value("${recipes.api.http.max-connections:8}") int maxConnections) {
+		return new MeteredHttpRequestFactory(connectTimeout, readTimeout, totalTimeout, maxConnections,
+				feedHttpMetrics);
+	}
+
+	@Bean
+	public RestTemplate restTemplate(MeteredHttpRequestFactory feedRequestFactory) {
+		return new RestTemplate(feedRequestFactory);
 	}
 }
@@ -0,0 +1,15 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DimensionCacheStatsDto {
+	private String dimension;
+	private long size;
+	private long hits;
+	private long misses;
+}
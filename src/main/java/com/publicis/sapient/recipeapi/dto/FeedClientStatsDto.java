@@ -0,0 +1,26 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedClientStatsDto {
+	private long requests;
+	private long failures;
+	private long deadlinesExceeded;
+	private long hedgedRequests;
+	private long hedgeWins;
+	private long compressedResponses;
+	private long bytesReceived;
+	private long bytesDecoded;
+	private long decompressionMillis;
+	private double averageLatencyMillis;
+	private long p50LatencyMillis;
+	private long p95LatencyMillis;
+	private long maxLatencyMillis;
+}
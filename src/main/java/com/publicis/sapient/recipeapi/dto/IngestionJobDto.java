@@ -0,0 +1,26 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionJobDto {
+	private String id;
+	private String type;
+	private String phase;
+	private long recordsProcessed;
+	private double recordsPerSecond;
+	private LocalDateTime createdAt;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+	private List<String> errors;
+	private IngestionSummary summary;
+}
@@ -0,0 +1,23 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionSummary {
+	private long processed;
+	private long added;
+	private long updated;
+	private long unchanged;
+	private long removed;
+	private int pagesFetched;
+	private int pagesNotModified;
+	private long resumedFromOffset;
+
+	public boolean hasChanges() {
+		return added + updated + removed > 0;
+	}
+}
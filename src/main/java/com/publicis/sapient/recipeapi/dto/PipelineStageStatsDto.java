@@ -0,0 +1,24 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStageStatsDto {
+	private String stage;
+	private int workers;
+	private long items;
+	private long records;
+	private double recordsPerSecond;
+	private int queueDepth;
+	private int maxQueueDepth;
+	private int queueCapacity;
+	private long busyMillis;
+	private long blockedMillis;
+	private long idleMillis;
+}
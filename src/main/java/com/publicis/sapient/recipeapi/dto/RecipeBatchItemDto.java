@@ -0,0 +1,22 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One requested id of a batch lookup and, when it exists, its recipe.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeBatchItemDto {
+	private Integer id;
+	private boolean found;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Object recipe;
+}
@@ -0,0 +1,22 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeCacheStatsDto {
+	private long entries;
+	private long usedBytes;
+	private long maxBytes;
+	private long hits;
+	private long misses;
+	private double hitRate;
+	private long evictions;
+	private long rejections;
+	private long invalidations;
+}
@@ -0,0 +1,23 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipePage<T> {
+	private List<T> recipes;
+	private String nextCursor;
+	private Map<String, Map<String, Integer>> facets;
+
+	public RecipePage(List<T> recipes, String nextCursor) {
+		this(recipes, nextCursor, null);
+	}
+}
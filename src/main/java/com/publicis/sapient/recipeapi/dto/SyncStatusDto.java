@@ -0,0 +1,22 @@
+package com.publicis.sapient.recipeapi.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncStatusDto {
+	private boolean scheduled;
+	private String interval;
+	private LocalDateTime lastSyncAt;
+	private String lastOutcome;
+	private IngestionJobDto lastJob;
+	private long recipeCount;
+	private long catalogVersion;
+}
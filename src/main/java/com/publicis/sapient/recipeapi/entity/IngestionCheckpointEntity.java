@@ -0,0 +1,37 @@
+package com.publicis.sapient.recipeapi.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progress of an unfinished ingestion run, written in the same transaction as each
+ * committed chunk so it never runs ahead of the data.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_ingestion_checkpoint")
+public class IngestionCheckpointEntity {
+
+	@Id
+	private String jobType;
+
+	private String sourceUrl;
+
+	private long feedOffset;
+
+	private Integer lastRecipeId;
+
+	private LocalDateTime updatedAt;
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -31,7 +32,8 @@ import lombok.Setter;
 @Table(name = "t_instructions")
 public class InstructionsEntity {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instructionsSequence")
+	@SequenceGenerator(name = "instructionsSequence", sequenceName = "t_instructions_seq", allocationSize = 50)
 	private Integer instructionsId;
 
 	@Column(unique = true, nullable = false)
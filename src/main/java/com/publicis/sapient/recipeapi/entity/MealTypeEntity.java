@@ -9,6 +9,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,7 +27,8 @@ import lombok.Setter;
 @Table(name = "t_mealType")
 public class MealTypeEntity {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mealTypeSequence")
+	@SequenceGenerator(name = "mealTypeSequence", sequenceName = "t_mealtype_seq", allocationSize = 50)
 	private Integer mealTypeId;
 
 	@Column(nullable = false, unique = true)
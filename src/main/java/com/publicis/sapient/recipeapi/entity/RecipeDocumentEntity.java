@@ -0,0 +1,38 @@
+package com.publicis.sapient.recipeapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read model of a recipe: the assembled {@code RecipeDto} serialized as JSON, so a read
+ * is one indexed row instead of a five-table join. Name and cuisine are copied out of
+ * the document for search. Ingestion rewrites the row in the same transaction as the
+ * recipe it was built from.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_recipe_document")
+public class RecipeDocumentEntity {
+
+	@Id
+	private Integer id;
+
+	@Column(nullable = false)
+	private String name;
+
+	private String cuisine;
+
+	@Column(nullable = false, length = 1048576)
+	private String document;
+}
@@ -2,6 +2,10 @@ package com.publicis.sapient.recipeapi.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.springframework.data.domain.Persistable;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -16,6 +20,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -29,7 +34,7 @@ import lombok.Setter;
 @Builder
 @Entity
 @Table(name = "t_recipes")
-public class RecipeEntity {
+public class RecipeEntity implements Persistable<Integer> {
 
 	@Id
 	private Integer id;
@@ -37,21 +42,30 @@ public class RecipeEntity {
 	@Column(nullable = false, unique = true)
 	private String name;
 
-	@ManyToMany(fetch = FetchType.EAGER)
+	/*
+	 * The four collections load lazily and by subselect: the first access to one of them
+	 * loads it for every recipe the owning query returned, so reading N recipes costs one
+	 * query per collection rather than a cartesian join or a select per recipe.
+	 */
+	@ManyToMany(fetch = FetchType.LAZY)
+	@Fetch(FetchMode.SUBSELECT)
 	@JoinTable(name = "t_recipes_ingredients", joinColumns = @JoinColumn(name = "recipe_id"), inverseJoinColumns = @JoinColumn(name = "ingredients_id"))
 	private List<IngredientsEntity> ingredients;
 
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany(fetch = FetchType.LAZY)
+	@Fetch(FetchMode.SUBSELECT)
 	@JoinTable(name = "t_recipes_mealtype", joinColumns = @JoinColumn(name = "recipe_id"), inverseJoinColumns = @JoinColumn(name = "mealtype_id"))
 
 	private List<MealTypeEntity> mealTypes;
 
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany(fetch = FetchType.LAZY)
+	@Fetch(FetchMode.SUBSELECT)
 	@JoinTable(name = "t_recipes_tags", joinColumns = @JoinColumn(name = "recipe_id"), inverseJoinColumns = @JoinColumn(name = "tags_id"))
 
 	private List<TagsEntity> tags;
 
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany(fetch = FetchType.LAZY)
+	@Fetch(FetchMode.SUBSELECT)
 	@JoinTable(name = "t_recipe_instruction", joinColumns = @JoinColumn(name = "recipe_id"), inverseJoinColumns = @JoinColumn(name = "instruction_id"))
 	private List<InstructionsEntity> instructions;
 
@@ -75,4 +89,23 @@ public class RecipeEntity {
 
 	private Integer reviewCount;
 
+	/**
+	 * Fingerprint of the feed content this row was written from, used by delta sync to
+	 * skip recipes that have not changed.
+	 */
+	@Column(length = 64)
+	private String contentHash;
+
+	/**
+	 * Ids are assigned by the feed, so Spring Data cannot tell new recipes apart on its
+	 * own; ingestion sets this flag so new rows are persisted instead of merged.
+	 */
+	@Transient
+	private boolean newRecipe;
+
+	@Override
+	public boolean isNew() {
+		return newRecipe;
+	}
+
 }
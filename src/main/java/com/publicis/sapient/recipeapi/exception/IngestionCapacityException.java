@@ -0,0 +1,8 @@
+package com.publicis.sapient.recipeapi.exception;
+
+public class IngestionCapacityException extends RuntimeException {
+
+	public IngestionCapacityException(String message) {
+		super(message);
+	}
+}
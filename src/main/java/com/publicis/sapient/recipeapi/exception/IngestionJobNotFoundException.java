@@ -0,0 +1,8 @@
+package com.publicis.sapient.recipeapi.exception;
+
+public class IngestionJobNotFoundException extends RuntimeException {
+
+	public IngestionJobNotFoundException(String message) {
+		super(message);
+	}
+}
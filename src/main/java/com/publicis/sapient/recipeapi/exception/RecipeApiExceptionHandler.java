@@ -5,7 +5,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.hibernate.boot.MappingException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +39,24 @@ public class RecipeApiExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(IngestionJobNotFoundException.class)
+    public ResponseEntity<RecipeApiResponse> handleIngestionJobNFException(IngestionJobNotFoundException e) {
+        log.warn("RecipeAppExceptionHandler::handleIngestionJobNFException: {}", e.getMessage());
+        RecipeApiResponse response = new RecipeApiResponse(HttpStatus.NOT_FOUND.value(),
+                e.getMessage(), LocalDateTime.now(), null);
+        log.warn("RecipeAppExceptionHandler :: handleIngestionJobNFException :: response : {}", response);
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IngestionCapacityException.class)
+    public ResponseEntity<RecipeApiResponse> handleIngestionCapacityException(IngestionCapacityException e) {
+        log.warn("RecipeAppExceptionHandler::handleIngestionCapacityException: {}", e.getMessage());
+        RecipeApiResponse response = new RecipeApiResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                e.getMessage(), LocalDateTime.now(), null);
+        log.warn("RecipeAppExceptionHandler :: handleIngestionCapacityException :: response : {}", response);
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(InvalidInputException.class)
     public ResponseEntity<RecipeApiResponse> handleInvalidInputException(InvalidInputException e) {
         log.warn("RecipeAppExceptionHandler::handleInvalidInputException: {}", e.getMessage());
@@ -44,7 +64,7 @@ public class RecipeApiExceptionHandler {
                 e.getMessage(), LocalDateTime.now(), null);
         log.warn("RecipeAppExceptionHandler :: handleInvalidInputException :: response : {}", response);
         
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(response, jsonHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(IllegalStateException.class)
@@ -71,7 +91,7 @@ public class RecipeApiExceptionHandler {
         errorResponse.put("errors", fieldErrors);
         log.warn("RecipeAppExceptionHandler::handleValidationErrors :: response : {}", errorResponse);
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errorResponse, jsonHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
@@ -188,4 +208,14 @@ public class RecipeApiExceptionHandler {
 
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+
+    /**
+     * Pins error bodies to JSON, so requests for a streamed media type such as
+     * {@code application/x-ndjson} still get their 400 explained.
+     */
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+}
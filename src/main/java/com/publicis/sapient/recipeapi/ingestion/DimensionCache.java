@@ -0,0 +1,131 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.publicis.sapient.recipeapi.dto.DimensionCacheStatsDto;
+import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
+import com.publicis.sapient.recipeapi.entity.InstructionsEntity;
+import com.publicis.sapient.recipeapi.entity.MealTypeEntity;
+import com.publicis.sapient.recipeapi.entity.TagsEntity;
+import com.publicis.sapient.recipeapi.repo.IngredientsRepo;
+import com.publicis.sapient.recipeapi.repo.InstructionsRepo;
+import com.publicis.sapient.recipeapi.repo.MealTypeRepo;
+import com.publicis.sapient.recipeapi.repo.TagsRepo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide dictionaries for the ingredient, tag, meal type and instruction tables.
+ * They are warmed at startup and filled as ingestion creates new values.
+ */
+@Slf4j
+@Component
+public class DimensionCache {
+
+	static final int MAX_CREATE_ATTEMPTS = 3;
+
+	@Autowired
+	IngredientsRepo ingredientsRepo;
+
+	@Autowired
+	TagsRepo tagsRepo;
+
+	@Autowired
+	MealTypeRepo mealRepo;
+
+	@Autowired
+	InstructionsRepo instructionsRepo;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	TransactionOperations requiresNewTransaction;
+
+	private final DimensionDictionary<IngredientsEntity> ingredients = new DimensionDictionary<>("ingredients",
+			IngredientsEntity::getIngredientsid, IngredientsEntity::getIngredientsname, IngredientsEntity::new);
+
+	private final DimensionDictionary<TagsEntity> tags = new DimensionDictionary<>("tags", TagsEntity::getTagsId,
+			TagsEntity::getTag, TagsEntity::new);
+
+	private final DimensionDictionary<MealTypeEntity> mealTypes = new DimensionDictionary<>("mealTypes",
+			MealTypeEntity::getMealTypeId, MealTypeEntity::getMealType, MealTypeEntity::new);
+
+	private final DimensionDictionary<InstructionsEntity> instructions = new DimensionDictionary<>("instructions",
+			InstructionsEntity::getInstructionsId, InstructionsEntity::getInstruction, InstructionsEntity::new);
+
+	@PostConstruct
+	void configureTransactions() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		requiresNewTransaction = transactionTemplate;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		ingredientsRepo.findAll().forEach(ingredients::register);
+		tagsRepo.findAll().forEach(tags::register);
+		mealRepo.findAll().forEach(mealTypes::register);
+		instructionsRepo.findAll().forEach(instructions::register);
+		log.info("DimensionCache :: warmUp :: Loaded dimension dictionaries: {}", stats());
+	}
+
+	/**
+	 * Looks up and inserts the given cache misses in their own short transaction so a
+	 * unique-constraint clash with a concurrent ingestion can be retried: the retry finds
+	 * the row the other thread committed instead of inserting it again.
+	 * <p>
+	 * Names are inserted in sorted order, so concurrent callers take their row locks in
+	 * the same order and wait on each other's commits instead of deadlocking.
+	 */
+	public <R> List<R> fetchOrCreate(DimensionDictionary<R> dictionary, List<String> names,
+			Function<List<String>, List<R>> fetchOrCreateFunction) {
+		List<String> sortedNames = names.stream().distinct().sorted().collect(Collectors.toList());
+		for (int attempt = 1;; attempt++) {
+			try {
+				List<R> resolved = requiresNewTransaction.execute(status -> fetchOrCreateFunction.apply(sortedNames));
+				return resolved.stream().map(dictionary::register).collect(Collectors.toList());
+			} catch (DataIntegrityViolationException e) {
+				if (attempt >= MAX_CREATE_ATTEMPTS) {
+					throw e;
+				}
+				log.warn("DimensionCache :: fetchOrCreate :: Concurrent insert into {} detected, retrying (attempt {})",
+						dictionary.getDimension(), attempt);
+			}
+		}
+	}
+
+	public DimensionDictionary<IngredientsEntity> ingredients() {
+		return ingredients;
+	}
+
+	public DimensionDictionary<TagsEntity> tags() {
+		return tags;
+	}
+
+	public DimensionDictionary<MealTypeEntity> mealTypes() {
+		return mealTypes;
+	}
+
+	public DimensionDictionary<InstructionsEntity> instructions() {
+		return instructions;
+	}
+
+	public List<DimensionCacheStatsDto> stats() {
+		return Stream.of(ingredients, tags, mealTypes, instructions).map(DimensionDictionary::stats)
+				.collect(Collectors.toList());
+	}
+}
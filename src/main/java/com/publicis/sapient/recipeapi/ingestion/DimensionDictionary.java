@@ -0,0 +1,69 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.publicis.sapient.recipeapi.dto.DimensionCacheStatsDto;
+
+/**
+ * Lock-free name to id dictionary for one dimension table. Lookups hand back a detached
+ * reference built from the cached id, which is all a recipe needs to be linked to it.
+ */
+public class DimensionDictionary<R> {
+
+	private final String dimension;
+
+	private final Function<R, Integer> idExtractor;
+
+	private final Function<R, String> nameExtractor;
+
+	private final BiFunction<Integer, String, R> referenceFactory;
+
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	public DimensionDictionary(String dimension, Function<R, Integer> idExtractor, Function<R, String> nameExtractor,
+			BiFunction<Integer, String, R> referenceFactory) {
+		this.dimension = dimension;
+		this.idExtractor = idExtractor;
+		this.nameExtractor = nameExtractor;
+		this.referenceFactory = referenceFactory;
+	}
+
+	public String getDimension() {
+		return dimension;
+	}
+
+	public Optional<R> lookup(String name) {
+		Integer id = ids.get(name);
+		if (id == null) {
+			misses.increment();
+			return Optional.empty();
+		}
+		hits.increment();
+		return Optional.of(referenceFactory.apply(id, name));
+	}
+
+	public R register(R entity) {
+		Integer id = idExtractor.apply(entity);
+		String name = nameExtractor.apply(entity);
+		if (id != null && name != null) {
+			ids.putIfAbsent(name, id);
+		}
+		return entity;
+	}
+
+	public void clear() {
+		ids.clear();
+	}
+
+	public DimensionCacheStatsDto stats() {
+		return new DimensionCacheStatsDto(dimension, ids.size(), hits.sum(), misses.sum());
+	}
+}
@@ -0,0 +1,107 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.dto.FeedClientStatsDto;
+
+/**
+ * Counters for requests made to the external recipe feed. Latency covers the whole
+ * exchange, from sending the request until the body has been read and closed; the
+ * percentiles are taken over the most recent {@value #LATENCY_WINDOW} requests.
+ */
+@Component
+public class FeedHttpMetrics {
+
+	static final int LATENCY_WINDOW = 1024;
+
+	private final AtomicLong requests = new AtomicLong();
+
+	private final AtomicLong failures = new AtomicLong();
+
+	private final AtomicLong deadlinesExceeded = new AtomicLong();
+
+	private final AtomicLong hedgedRequests = new AtomicLong();
+
+	private final AtomicLong hedgeWins = new AtomicLong();
+
+	private final AtomicLong compressedResponses = new AtomicLong();
+
+	private final AtomicLong bytesReceived = new AtomicLong();
+
+	private final AtomicLong bytesDecoded = new AtomicLong();
+
+	private final AtomicLong decompressionNanos = new AtomicLong();
+
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	private final long[] recentLatencyNanos = new long[LATENCY_WINDOW];
+
+	private long recorded;
+
+	void recordExchange(long latencyNanos, long wireBytes, long decodedBytes, long inflateNanos, boolean compressed) {
+		requests.incrementAndGet();
+		bytesReceived.addAndGet(wireBytes);
+		bytesDecoded.addAndGet(decodedBytes);
+		decompressionNanos.addAndGet(inflateNanos);
+		if (compressed) {
+			compressedResponses.incrementAndGet();
+		}
+		recordLatency(latencyNanos);
+	}
+
+	void recordFailure(long latencyNanos, boolean deadlineExceeded) {
+		requests.incrementAndGet();
+		failures.incrementAndGet();
+		if (deadlineExceeded) {
+			deadlinesExceeded.incrementAndGet();
+		}
+		recordLatency(latencyNanos);
+	}
+
+	void recordHedge(boolean won) {
+		hedgedRequests.incrementAndGet();
+		if (won) {
+			hedgeWins.incrementAndGet();
+		}
+	}
+
+	private void recordLatency(long latencyNanos) {
+		totalLatencyNanos.addAndGet(latencyNanos);
+		maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+		synchronized (recentLatencyNanos) {
+			recentLatencyNanos[(int) (recorded++ % LATENCY_WINDOW)] = latencyNanos;
+		}
+	}
+
+	public FeedClientStatsDto stats() {
+		long[] window;
+		synchronized (recentLatencyNanos) {
+			window = Arrays.copyOf(recentLatencyNanos, (int) Math.min(recorded, LATENCY_WINDOW));
+		}
+		Arrays.sort(window);
+
+		long count = requests.get();
+		return FeedClientStatsDto.builder().requests(count).failures(failures.get())
+				.deadlinesExceeded(deadlinesExceeded.get()).hedgedRequests(hedgedRequests.get())
+				.hedgeWins(hedgeWins.get()).compressedResponses(compressedResponses.get())
+				.bytesReceived(bytesReceived.get()).bytesDecoded(bytesDecoded.get())
+				.decompressionMillis(TimeUnit.NANOSECONDS.toMillis(decompressionNanos.get()))
+				.averageLatencyMillis(count == 0 ? 0 : totalLatencyNanos.get() / 1_000_000.0 / count)
+				.p50LatencyMillis(percentileMillis(window, 0.50)).p95LatencyMillis(percentileMillis(window, 0.95))
+				.maxLatencyMillis(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get())).build();
+	}
+
+	private static long percentileMillis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+	}
+}
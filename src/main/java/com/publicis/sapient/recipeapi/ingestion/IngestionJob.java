@@ -0,0 +1,93 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.publicis.sapient.recipeapi.dto.IngestionJobDto;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+
+import lombok.Getter;
+
+/**
+ * A background ingestion run. The worker thread records progress here and request
+ * threads read it, so all mutable state is atomic or volatile.
+ */
+@Getter
+public class IngestionJob {
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final String type;
+
+	private final Instant createdAt = Instant.now();
+
+	private volatile Instant startedAt;
+
+	private volatile Instant finishedAt;
+
+	private volatile IngestionPhase phase = IngestionPhase.QUEUED;
+
+	private volatile IngestionSummary summary;
+
+	private final AtomicLong recordsProcessed = new AtomicLong();
+
+	private final List<String> errors = new CopyOnWriteArrayList<>();
+
+	IngestionJob(String type) {
+		this.type = type;
+	}
+
+	public boolean isFinished() {
+		return phase == IngestionPhase.COMPLETED || phase == IngestionPhase.FAILED;
+	}
+
+	public void recordProgress(long processed) {
+		recordsProcessed.set(processed);
+	}
+
+	void start() {
+		startedAt = Instant.now();
+		phase = IngestionPhase.RUNNING;
+	}
+
+	void complete(IngestionSummary result) {
+		summary = result;
+		recordsProcessed.set(result.getProcessed());
+		finishedAt = Instant.now();
+		phase = IngestionPhase.COMPLETED;
+	}
+
+	void fail(Throwable error) {
+		errors.add(error.getClass().getSimpleName() + ": " + error.getMessage());
+		finishedAt = Instant.now();
+		phase = IngestionPhase.FAILED;
+	}
+
+	public double recordsPerSecond() {
+		Instant start = startedAt;
+		if (start == null) {
+			return 0;
+		}
+		Instant end = finishedAt == null ? Instant.now() : finishedAt;
+		long millis = Math.max(1, Duration.between(start, end).toMillis());
+		return recordsProcessed.get() * 1000.0 / millis;
+	}
+
+	public IngestionJobDto toDto() {
+		return IngestionJobDto.builder().id(id).type(type).phase(phase.name())
+				.recordsProcessed(recordsProcessed.get()).recordsPerSecond(recordsPerSecond())
+				.createdAt(toLocal(createdAt)).startedAt(toLocal(startedAt)).finishedAt(toLocal(finishedAt))
+				.errors(new ArrayList<>(errors)).summary(summary).build();
+	}
+
+	private static LocalDateTime toLocal(Instant instant) {
+		return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+	}
+}
@@ -0,0 +1,149 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.exception.IngestionCapacityException;
+import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs ingestion off the request thread on a small, bounded executor. Jobs are keyed by
+ * what they do, so asking for a job that is already queued or running joins it instead
+ * of starting a duplicate. Finished jobs are kept for status queries up to a fixed
+ * history size.
+ */
+@Slf4j
+@Component
+public class IngestionJobService {
+
+	public static final String DELTA_SYNC = "delta-sync";
+
+	public static final String BULK_IMPORT = "bulk-import";
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Value("${recipes.ingestion.jobs.pool-size:1}")
+	int poolSize;
+
+	@Value("${recipes.ingestion.jobs.queue-capacity:10}")
+	int queueCapacity;
+
+	@Value("${recipes.ingestion.jobs.history-size:100}")
+	int historySize;
+
+	private ThreadPoolExecutor executor;
+
+	private final Map<String, IngestionJob> activeJobs = new HashMap<>();
+
+	private final Map<String, IngestionJob> lastFinishedJobs = new HashMap<>();
+
+	private Map<String, IngestionJob> jobs;
+
+	@PostConstruct
+	void start() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> new Thread(runnable, "ingestion-job-" + threadNumber.incrementAndGet()));
+		jobs = new LinkedHashMap<>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, IngestionJob> eldest) {
+				return size() > historySize && eldest.getValue().isFinished();
+			}
+		};
+	}
+
+	@PreDestroy
+	void stop() {
+		executor.shutdownNow();
+	}
+
+	public Submission submitDeltaSync() {
+		return submit(DELTA_SYNC, job -> recipeApiService
+				.streamExternalApiDataAndPersist(progress -> job.recordProgress(progress.getProcessed())));
+	}
+
+	/**
+	 * Imports of the same file join each other; imports of different files queue up.
+	 */
+	public Submission submitImport(Path file) {
+		return submit(BULK_IMPORT + ":" + file, job -> recipeApiService.importRecipes(file,
+				progress -> job.recordProgress(progress.getProcessed())));
+	}
+
+	public synchronized Submission submit(String type, Function<IngestionJob, IngestionSummary> work) {
+		IngestionJob running = activeJobs.get(type);
+		if (running != null) {
+			log.info("IngestionJobService :: submit :: Joining {} job {} in phase {}", type, running.getId(),
+					running.getPhase());
+			return new Submission(running, true);
+		}
+
+		IngestionJob job = new IngestionJob(type);
+		try {
+			executor.execute(() -> run(job, work));
+		} catch (RejectedExecutionException e) {
+			log.warn("IngestionJobService :: submit :: Rejected {} job, executor queue is full", type);
+			throw new IngestionCapacityException("Ingestion queue is full. Please try again later.");
+		}
+
+		activeJobs.put(type, job);
+		jobs.put(job.getId(), job);
+		log.info("IngestionJobService :: submit :: Queued {} job {}", type, job.getId());
+		return new Submission(job, false);
+	}
+
+	public synchronized Optional<IngestionJob> find(String jobId) {
+		return Optional.ofNullable(jobs.get(jobId));
+	}
+
+	public synchronized Optional<IngestionJob> lastFinished(String type) {
+		return Optional.ofNullable(lastFinishedJobs.get(type));
+	}
+
+	private void run(IngestionJob job, Function<IngestionJob, IngestionSummary> work) {
+		job.start();
+		log.info("IngestionJobService :: run :: Started {} job {}", job.getType(), job.getId());
+		try {
+			job.complete(work.apply(job));
+			log.info("IngestionJobService :: run :: Completed {} job {} at {} records/s", job.getType(), job.getId(),
+					Math.round(job.recordsPerSecond()));
+		} catch (Throwable e) {
+			// Errors fail the job too, or it would be reported as running for good; they are
+			// still rethrown to the executor afterwards.
+			log.error("IngestionJobService :: run :: {} job {} failed: {}", job.getType(), job.getId(),
+					e.getMessage(), e);
+			job.fail(e);
+			if (e instanceof Error error) {
+				throw error;
+			}
+		} finally {
+			synchronized (this) {
+				activeJobs.remove(job.getType(), job);
+				lastFinishedJobs.put(job.getType(), job);
+			}
+		}
+	}
+
+	public record Submission(IngestionJob job, boolean joined) {
+	}
+}
@@ -0,0 +1,5 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+public enum IngestionPhase {
+	QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,27 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.dto.PipelineStageStatsDto;
+
+/**
+ * Keeps the most recent ingestion pipeline so its per-stage statistics can be read while
+ * it runs and after it finishes.
+ */
+@Component
+public class IngestionPipelineMonitor {
+
+	private volatile StagedPipeline<?> latest;
+
+	public void track(StagedPipeline<?> pipeline) {
+		latest = pipeline;
+	}
+
+	public List<PipelineStageStatsDto> stats() {
+		StagedPipeline<?> pipeline = latest;
+		return pipeline == null ? Collections.emptyList() : pipeline.stats();
+	}
+}
@@ -0,0 +1,94 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through read-only memory mappings, one region at a time, so the parser
+ * pulls bytes straight from the page cache without copying them through a read buffer.
+ * Regions are bounded because a single mapping cannot exceed 2 GB.
+ */
+public class MappedFileInputStream extends InputStream {
+
+	private final FileChannel channel;
+
+	private final long size;
+
+	private final long regionSize;
+
+	private long regionStart;
+
+	private MappedByteBuffer region;
+
+	public MappedFileInputStream(Path file, long regionSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.regionSize = Math.max(1, Math.min(regionSize, Integer.MAX_VALUE));
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureRegion()) {
+			return -1;
+		}
+		return region.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (!ensureRegion()) {
+			return -1;
+		}
+		int count = Math.min(length, region.remaining());
+		region.get(bytes, offset, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long count) throws IOException {
+		long position = Math.min(size, position() + Math.max(0, count));
+		long skipped = position - position();
+		mapRegion(position);
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return region == null ? 0 : region.remaining();
+	}
+
+	@Override
+	public void close() throws IOException {
+		region = null;
+		channel.close();
+	}
+
+	private long position() {
+		return region == null ? regionStart : regionStart + region.position();
+	}
+
+	private boolean ensureRegion() throws IOException {
+		if (region != null && region.hasRemaining()) {
+			return true;
+		}
+		long next = position();
+		if (next >= size) {
+			return false;
+		}
+		mapRegion(next);
+		return true;
+	}
+
+	private void mapRegion(long position) throws IOException {
+		regionStart = position;
+		region = position >= size ? null
+				: channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, size - position));
+	}
+}
@@ -0,0 +1,416 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Request factory for the external recipe feed. Connections come from a keep-alive pool;
+ * connect and read timeouts bound each step of an exchange, and a total deadline bounds
+ * the whole of it, so a feed that trickles bytes cannot hold an ingestion forever.
+ * Responses are negotiated as gzip or deflate and decoded here rather than inside the
+ * HTTP client, so bytes on the wire, decoded bytes and the time spent inflating can be
+ * recorded in {@link FeedHttpMetrics}.
+ */
+@Slf4j
+public class MeteredHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+	private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+	private final Duration totalTimeout;
+
+	private final FeedHttpMetrics metrics;
+
+	private final ScheduledThreadPoolExecutor deadlines;
+
+	private final ThreadLocal<Cancellable> createdRequest = new ThreadLocal<>();
+
+	public MeteredHttpRequestFactory(Duration connectTimeout, Duration readTimeout, Duration totalTimeout,
+			int maxConnections, FeedHttpMetrics metrics) {
+		super(HttpClients.custom().setConnectionManager(connectionManager(connectTimeout, readTimeout, maxConnections))
+				.setDefaultRequestConfig(RequestConfig.custom().setConnectionRequestTimeout(Timeout.of(connectTimeout))
+						.setResponseTimeout(Timeout.of(readTimeout)).build())
+				.evictIdleConnections(TimeValue.ofSeconds(30)).disableContentCompression().build());
+		this.totalTimeout = totalTimeout;
+		this.metrics = metrics;
+		this.deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "feed-request-deadline");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.deadlines.setRemoveOnCancelPolicy(true);
+	}
+
+	private static PoolingHttpClientConnectionManager connectionManager(Duration connectTimeout, Duration readTimeout,
+			int maxConnections) {
+		return PoolingHttpClientConnectionManagerBuilder.create().setMaxConnTotal(maxConnections)
+				.setMaxConnPerRoute(maxConnections)
+				.setDefaultConnectionConfig(ConnectionConfig.custom().setConnectTimeout(Timeout.of(connectTimeout))
+						.setSocketTimeout(Timeout.of(readTimeout)).setTimeToLive(TimeValue.ofMinutes(5)).build())
+				.build();
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		ClientHttpRequest request = super.createRequest(uri, httpMethod);
+		Cancellable cancellable = createdRequest.get();
+		createdRequest.remove();
+		request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+		return new MeteredRequest(request, cancellable);
+	}
+
+	@Override
+	protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+		ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+		if (request instanceof Cancellable cancellable) {
+			createdRequest.set(cancellable);
+		}
+		return request;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		deadlines.shutdownNow();
+		super.destroy();
+	}
+
+	private final class MeteredRequest implements ClientHttpRequest {
+
+		private final ClientHttpRequest delegate;
+
+		private final Cancellable cancellable;
+
+		MeteredRequest(ClientHttpRequest delegate, Cancellable cancellable) {
+			this.delegate = delegate;
+			this.cancellable = cancellable;
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			Exchange exchange = new Exchange(delegate.getURI(), cancellable);
+			try {
+				return new MeteredResponse(delegate.execute(), exchange);
+			} catch (IOException e) {
+				exchange.failed();
+				throw exchange.translate(e);
+			} catch (RuntimeException e) {
+				exchange.failed();
+				throw e;
+			}
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return delegate.getBody();
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return delegate.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return delegate.getURI();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return delegate.getAttributes();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+	}
+
+	/**
+	 * One request from send to close, with the timer that aborts it at the total deadline.
+	 */
+	private final class Exchange {
+
+		private final URI uri;
+
+		private final long startedAt = System.nanoTime();
+
+		private final AtomicBoolean deadlineExceeded = new AtomicBoolean();
+
+		private final AtomicBoolean recorded = new AtomicBoolean();
+
+		private final ScheduledFuture<?> deadline;
+
+		Exchange(URI uri, Cancellable cancellable) {
+			this.uri = uri;
+			this.deadline = cancellable == null ? null : deadlines.schedule(() -> {
+				deadlineExceeded.set(true);
+				log.warn("MeteredHttpRequestFactory :: deadline :: Aborting {} after {}", uri, totalTimeout);
+				cancellable.cancel();
+			}, totalTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+
+		void completed(long wireBytes, long decodedBytes, long inflateNanos, boolean compressed) {
+			if (finish()) {
+				metrics.recordExchange(System.nanoTime() - startedAt, wireBytes, decodedBytes, inflateNanos,
+						compressed);
+			}
+		}
+
+		void failed() {
+			if (finish()) {
+				metrics.recordFailure(System.nanoTime() - startedAt, deadlineExceeded.get());
+			}
+		}
+
+		private boolean finish() {
+			if (deadline != null) {
+				deadline.cancel(false);
+			}
+			return recorded.compareAndSet(false, true);
+		}
+
+		IOException translate(IOException error) {
+			if (!deadlineExceeded.get()) {
+				return error;
+			}
+			SocketTimeoutException timeout = new SocketTimeoutException(
+					"Request to " + uri + " exceeded the total deadline of " + totalTimeout);
+			timeout.initCause(error);
+			return timeout;
+		}
+	}
+
+	private static final class MeteredResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+
+		private final Exchange exchange;
+
+		private HttpHeaders headers;
+
+		private MeteredBody body;
+
+		MeteredResponse(ClientHttpResponse delegate, Exchange exchange) {
+			this.delegate = delegate;
+			this.exchange = exchange;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		/**
+		 * The body is handed out decoded, so the encoding and length headers describing the
+		 * wire format are dropped.
+		 */
+		@Override
+		public HttpHeaders getHeaders() {
+			if (headers == null) {
+				HttpHeaders decoded = new HttpHeaders();
+				decoded.putAll(delegate.getHeaders());
+				if (contentEncoding() != null) {
+					decoded.remove(HttpHeaders.CONTENT_ENCODING);
+					decoded.remove(HttpHeaders.CONTENT_LENGTH);
+				}
+				headers = HttpHeaders.readOnlyHttpHeaders(decoded);
+			}
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				body = new MeteredBody(delegate.getBody(), contentEncoding(), exchange);
+			}
+			return body;
+		}
+
+		private String contentEncoding() {
+			String encoding = delegate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+			return encoding == null || encoding.isBlank() || "identity".equalsIgnoreCase(encoding.trim()) ? null
+					: encoding.trim().toLowerCase();
+		}
+
+		@Override
+		public void close() {
+			try {
+				if (body != null) {
+					body.close();
+				}
+			} catch (IOException e) {
+				log.debug("MeteredHttpRequestFactory :: close :: Discarding response body: {}", e.getMessage());
+			}
+			try {
+				delegate.close();
+			} finally {
+				if (body != null && body.failed) {
+					exchange.failed();
+				} else if (body != null) {
+					exchange.completed(body.wireBytes, body.decodedBytes, body.inflateNanos, body.decoder != body.wire);
+				} else {
+					exchange.completed(0, 0, 0, false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Counts what arrives on the wire and what is handed to the parser. Inflate time is
+	 * the time spent in the decoder less the time it spent waiting on the wire.
+	 */
+	private static final class MeteredBody extends InputStream {
+
+		private final Exchange exchange;
+
+		private final String encoding;
+
+		private final PushbackInputStream wire;
+
+		private InputStream decoder;
+
+		private Inflater inflater;
+
+		private long wireBytes;
+
+		private long wireNanos;
+
+		private long decodedBytes;
+
+		private long inflateNanos;
+
+		private boolean failed;
+
+		MeteredBody(InputStream source, String encoding, Exchange exchange) {
+			this.exchange = exchange;
+			this.encoding = encoding;
+			this.wire = new PushbackInputStream(new InputStream() {
+				@Override
+				public int read() throws IOException {
+					byte[] single = new byte[1];
+					return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) throws IOException {
+					long start = System.nanoTime();
+					int read = source.read(buffer, offset, length);
+					wireNanos += System.nanoTime() - start;
+					if (read > 0) {
+						wireBytes += read;
+					}
+					return read;
+				}
+
+				@Override
+				public void close() throws IOException {
+					source.close();
+				}
+			}, 2);
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			try {
+				if (decoder == null) {
+					decoder = openDecoder();
+				}
+				long start = System.nanoTime();
+				long waitedBefore = wireNanos;
+				int read = decoder.read(buffer, offset, length);
+				if (decoder != wire) {
+					inflateNanos += System.nanoTime() - start - (wireNanos - waitedBefore);
+				}
+				if (read > 0) {
+					decodedBytes += read;
+				}
+				return read;
+			} catch (IOException e) {
+				failed = true;
+				throw exchange.translate(e);
+			}
+		}
+
+		/**
+		 * Opened on first read so an empty body, as on a {@code 304}, never reaches the
+		 * decoder. {@code deflate} is sent both zlib-wrapped and raw in the wild, so the
+		 * first two bytes decide.
+		 */
+		private InputStream openDecoder() throws IOException {
+			if (encoding == null) {
+				return wire;
+			}
+			int first = wire.read();
+			if (first == -1) {
+				return wire;
+			}
+			int second = wire.read();
+			if (second != -1) {
+				wire.unread(second);
+			}
+			wire.unread(first);
+
+			if (encoding.contains("gzip")) {
+				return new GZIPInputStream(wire, 8192);
+			}
+			if (encoding.contains("deflate")) {
+				boolean zlibWrapped = second != -1 && (first & 0x0f) == 8 && ((first << 8) | second) % 31 == 0;
+				inflater = new Inflater(!zlibWrapped);
+				return new InflaterInputStream(wire, inflater, 8192);
+			}
+			throw new IOException("Unsupported content encoding: " + encoding);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				(decoder == null ? wire : decoder).close();
+			} finally {
+				if (inflater != null) {
+					inflater.end();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.entity.RecipeEntity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A batch of feed recipes on its way through the ingestion pipeline. Each stage fills in
+ * what the next one needs; only one stage holds a chunk at a time.
+ */
+@Getter
+@Setter
+public class RecipeChunk {
+
+	private final List<RecipeBinding> recipes;
+
+	/** Recipes on {@code 304} pages walked since the previous chunk. */
+	private final long notModified;
+
+	/** Feed offset just past the last recipe walked for this chunk. */
+	private final long feedOffset;
+
+	private List<String> contentHashes = Collections.emptyList();
+
+	private List<RecipeEntity> changedEntities = Collections.emptyList();
+
+	private long added;
+
+	private long updated;
+
+	private long unchanged;
+
+	public RecipeChunk(List<RecipeBinding> recipes, long notModified, long feedOffset) {
+		this.recipes = recipes;
+		this.notModified = notModified;
+		this.feedOffset = feedOffset;
+	}
+
+	public long recordCount() {
+		return recipes.size() + notModified;
+	}
+
+	public void addTo(IngestionSummary summary) {
+		summary.setProcessed(summary.getProcessed() + recordCount());
+		summary.setAdded(summary.getAdded() + added);
+		summary.setUpdated(summary.getUpdated() + updated);
+		summary.setUnchanged(summary.getUnchanged() + unchanged + notModified);
+	}
+}
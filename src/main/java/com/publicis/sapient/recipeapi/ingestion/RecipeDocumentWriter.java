@@ -0,0 +1,245 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
+import com.publicis.sapient.recipeapi.entity.InstructionsEntity;
+import com.publicis.sapient.recipeapi.entity.MealTypeEntity;
+import com.publicis.sapient.recipeapi.entity.RecipeEntity;
+import com.publicis.sapient.recipeapi.entity.TagsEntity;
+import com.publicis.sapient.recipeapi.service.CatalogState;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Row;
+import com.publicis.sapient.recipeapi.service.RecipeFacetIndex;
+import com.publicis.sapient.recipeapi.service.RecipeFacetIndex.FacetedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeFilterIndex;
+import com.publicis.sapient.recipeapi.service.RecipeFilterIndex.FilteredRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeJsonCache;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeSearchIndex;
+import com.publicis.sapient.recipeapi.service.RecipeSearchIndex.IndexedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.SuggestedRecipe;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code t_recipe_document} in step with the recipes ingestion writes. Documents
+ * are assembled straight from the resolved entities and written with JDBC batches on
+ * the caller's transaction, so a recipe and its document commit or roll back together.
+ * Once that transaction commits, cached lookups of the rewritten ids are dropped, the
+ * search, filter, facet and suggestion indexes, the sort columns and the leaderboards
+ * are updated and the {@link CatalogState} is told how the catalog changed.
+ */
+@Slf4j
+@Component
+public class RecipeDocumentWriter {
+
+	static final String DELETE_DOCUMENT = "DELETE FROM t_recipe_document WHERE id = ?";
+
+	static final String INSERT_DOCUMENT = "INSERT INTO t_recipe_document (id, name, cuisine, document) VALUES (?, ?, ?, ?)";
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	RecipeJsonCache recipeJsonCache;
+
+	@Autowired
+	CatalogState catalogState;
+
+	@Autowired
+	RecipeSearchIndex searchIndex;
+
+	@Autowired
+	RecipeFilterIndex filterIndex;
+
+	@Autowired
+	RecipeColumnStore columnStore;
+
+	@Autowired
+	RecipeSuggestIndex suggestIndex;
+
+	@Autowired
+	RecipeFacetIndex facetIndex;
+
+	@Autowired
+	RecipeLeaderboard leaderboard;
+
+	@Value("${recipes.ingestion.jdbc-batch-size:500}")
+	int jdbcBatchSize;
+
+	/**
+	 * Replaces the documents of the given recipes, inserting the ones that do not exist yet.
+	 */
+	public void refresh(List<RecipeEntity> recipes) {
+		if (recipes.isEmpty()) {
+			return;
+		}
+
+		List<String> documents = recipes.stream().map(recipe -> serialize(toDocument(recipe)))
+				.collect(Collectors.toList());
+
+		List<Integer> recipeIds = recipes.stream().map(RecipeEntity::getId).collect(Collectors.toList());
+		int replaced = deleteDocuments(recipeIds);
+		jdbcTemplate.batchUpdate(INSERT_DOCUMENT, IntStream.range(0, recipes.size()).boxed().toList(), jdbcBatchSize,
+				(ps, i) -> {
+					RecipeEntity recipe = recipes.get(i);
+					ps.setInt(1, recipe.getId());
+					ps.setString(2, recipe.getName());
+					ps.setString(3, recipe.getCuisine());
+					ps.setString(4, documents.get(i));
+				});
+		List<IndexedRecipe> indexed = recipes.stream()
+				.map(recipe -> new IndexedRecipe(recipe.getId(), recipe.getName(), recipe.getCuisine()))
+				.collect(Collectors.toList());
+		List<FilteredRecipe> filtered = recipes.stream()
+				.map(recipe -> new FilteredRecipe(recipe.getId(),
+						names(recipe.getIngredients(), IngredientsEntity::getIngredientsname),
+						names(recipe.getTags(), TagsEntity::getTag),
+						names(recipe.getMealTypes(), MealTypeEntity::getMealType)))
+				.collect(Collectors.toList());
+		List<Row> columns = recipes.stream()
+				.map(recipe -> new Row(recipe.getId(), recipe.getRating(), recipe.getReviewCount(),
+						recipe.getPrepTimeMinutes(), recipe.getCookTimeMinutes(), recipe.getCaloriesPerServing(),
+						recipe.getServings()))
+				.collect(Collectors.toList());
+		List<FacetedRecipe> faceted = recipes.stream()
+				.map(recipe -> new FacetedRecipe(recipe.getId(), recipe.getCuisine(), recipe.getDifficulty(),
+						names(recipe.getMealTypes(), MealTypeEntity::getMealType),
+						names(recipe.getTags(), TagsEntity::getTag)))
+				.collect(Collectors.toList());
+		List<SuggestedRecipe> suggested = recipes.stream()
+				.map(recipe -> new SuggestedRecipe(recipe.getId(), recipe.getName(), recipe.getRating(),
+						recipe.getReviewCount()))
+				.collect(Collectors.toList());
+		List<RankedRecipe> ranked = recipes.stream()
+				.map(recipe -> new RankedRecipe(recipe.getId(), recipe.getName(), recipe.getCuisine(), recipe.getImage(),
+						recipe.getRating(), recipe.getReviewCount(),
+						names(recipe.getMealTypes(), MealTypeEntity::getMealType)))
+				.collect(Collectors.toList());
+		publishAfterCommit(replaced < 0 ? null : (long) recipes.size() - replaced, () -> {
+			recipeJsonCache.invalidate(recipeIds);
+			searchIndex.put(indexed);
+			filterIndex.put(filtered);
+			columnStore.put(columns);
+			suggestIndex.put(suggested);
+			facetIndex.put(faceted);
+			leaderboard.put(ranked);
+		});
+
+		log.info("RecipeDocumentWriter :: refresh :: Wrote {} recipe documents.", recipes.size());
+	}
+
+	public void delete(List<Integer> recipeIds) {
+		if (recipeIds.isEmpty()) {
+			return;
+		}
+		int removed = deleteDocuments(recipeIds);
+		List<Integer> removedIds = List.copyOf(recipeIds);
+		publishAfterCommit(removed < 0 ? null : (long) -removed, () -> {
+			recipeJsonCache.invalidate(removedIds);
+			searchIndex.remove(removedIds);
+			filterIndex.remove(removedIds);
+			columnStore.remove(removedIds);
+			suggestIndex.remove(removedIds);
+			facetIndex.remove(removedIds);
+			leaderboard.remove(removedIds);
+		});
+	}
+
+	/**
+	 * Deletes the documents of the given recipes and returns how many existed, or -1 when
+	 * the driver does not report row counts.
+	 */
+	private int deleteDocuments(List<Integer> recipeIds) {
+		int[][] counts = jdbcTemplate.batchUpdate(DELETE_DOCUMENT, recipeIds, jdbcBatchSize,
+				(ps, id) -> ps.setInt(1, id));
+		int deleted = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				if (count < 0) {
+					return -1;
+				}
+				deleted += count;
+			}
+		}
+		return deleted;
+	}
+
+	/**
+	 * Documents and recipes are one to one, so the rows replaced and removed here are the
+	 * catalog's change in size. Unknown counts make the catalog state recount instead.
+	 */
+	private void publishAfterCommit(Long countDelta, Runnable readModels) {
+		Runnable publish = () -> {
+			readModels.run();
+			if (countDelta == null) {
+				catalogState.reload();
+			} else {
+				catalogState.recordChange(countDelta);
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			publish.run();
+			return;
+		}
+		// Publishing before the commit would let a concurrent lookup cache the old row again.
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				publish.run();
+			}
+		});
+	}
+
+	/**
+	 * The {@code RecipeDto} shape the read endpoints return, built without ModelMapper.
+	 */
+	public static RecipeDto toDocument(RecipeEntity recipe) {
+		return RecipeDto.builder().id(recipe.getId()).name(recipe.getName())
+				.ingredients(names(recipe.getIngredients(), IngredientsEntity::getIngredientsname))
+				.instructions(names(recipe.getInstructions(), InstructionsEntity::getInstruction))
+				.tags(names(recipe.getTags(), TagsEntity::getTag))
+				.mealType(names(recipe.getMealTypes(), MealTypeEntity::getMealType))
+				.prepTimeMinutes(recipe.getPrepTimeMinutes()).cookTimeMinutes(recipe.getCookTimeMinutes())
+				.servings(recipe.getServings()).difficulty(recipe.getDifficulty()).cuisine(recipe.getCuisine())
+				.caloriesPerServing(recipe.getCaloriesPerServing()).userId(recipe.getUserId())
+				.image(recipe.getImage()).rating(recipe.getRating()).reviewCount(recipe.getReviewCount()).build();
+	}
+
+	private static <T> List<String> names(List<T> values, Function<T, String> name) {
+		if (values == null) {
+			return Collections.emptyList();
+		}
+		return values.stream().filter(Objects::nonNull).map(name).filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+
+	private String serialize(RecipeDto document) {
+		try {
+			return objectMapper.writeValueAsString(document);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize recipe " + document.getId(), e);
+		}
+	}
+}
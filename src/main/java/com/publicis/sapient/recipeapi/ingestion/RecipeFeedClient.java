@@ -0,0 +1,405 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Walks the external recipe feed page by page using its {@code limit}/{@code skip}
+ * parameters and decodes every page with a token-level parser, so only the recipe
+ * currently being decoded is held in memory.
+ */
+@Slf4j
+@Component
+public class RecipeFeedClient {
+
+	@Autowired
+	RestTemplate restTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${recipes.api.url}")
+	String recipesApiUrl;
+
+	@Value("${recipes.api.page-size:100}")
+	int pageSize;
+
+	@Autowired
+	FeedHttpMetrics httpMetrics;
+
+	@Value("${recipes.api.hedge.enabled:false}")
+	boolean hedgeEnabled;
+
+	@Value("${recipes.api.hedge.delay:PT2S}")
+	Duration hedgeDelay;
+
+	private ExecutorService hedgeExecutor;
+
+	private final Map<Long, PageValidator> validators = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	void start() {
+		if (hedgeEnabled) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			hedgeExecutor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "feed-page-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		if (hedgeExecutor != null) {
+			hedgeExecutor.shutdownNow();
+		}
+	}
+
+	public long streamRecipes(Consumer<RecipeBinding> consumer) {
+		return streamRecipes(0, consumer);
+	}
+
+	public long streamRecipes(long startOffset, Consumer<RecipeBinding> consumer) {
+		long skip = startOffset;
+		long streamed = 0;
+
+		while (true) {
+			URI pageUri = pageUri(skip, pageSize);
+			log.info("RecipeFeedClient :: streamRecipes :: Fetching page {}", pageUri);
+
+			FeedPage page = fetchPage(pageUri, null, (response, sink) -> readPage(response.getBody(), sink),
+					consumer);
+
+			if (page == null || page.count() == 0) {
+				break;
+			}
+
+			streamed += page.count();
+			skip += page.count();
+
+			if (page.count() < pageSize || (page.total() >= 0 && skip >= page.total())) {
+				break;
+			}
+		}
+
+		log.info("RecipeFeedClient :: streamRecipes :: Streamed {} recipes starting at offset {}", streamed,
+				startOffset);
+		return streamed;
+	}
+
+	/**
+	 * Walks the whole feed with conditional requests, sending back the {@code ETag} and
+	 * {@code Last-Modified} validators remembered for each page. A {@code 304} page is
+	 * neither downloaded nor parsed; the ids it held last time are reported to
+	 * {@code notModifiedRecipe} instead. The validators seen on this walk are returned and
+	 * only take effect once passed to {@link #storeValidators(Map)}, so a run that fails
+	 * later cannot make pages look up to date. A {@code 304} for a page no validator was
+	 * sent for is fetched again without one, and fails the walk if it repeats.
+	 */
+	public FeedResult streamChangedRecipes(long startOffset, Consumer<RecipeBinding> consumer,
+			IntConsumer notModifiedRecipe) {
+		long skip = startOffset;
+		long streamed = 0;
+		int pagesFetched = 0;
+		int pagesNotModified = 0;
+		boolean complete = true;
+		Map<Long, PageValidator> seenValidators = new HashMap<>();
+
+		while (true) {
+			URI pageUri = pageUri(skip, pageSize);
+			PageValidator previous = validators.get(skip);
+
+			PageResult page = fetchPage(pageUri, request -> addConditionalHeaders(request.getHeaders(), previous),
+					(response, sink) -> readConditionalPage(response, previous, sink), consumer);
+
+			if (page != null && page.validator() == null) {
+				// A 304 for a page no validator was sent for, as a cache in between may answer;
+				// the recipes on it are unknown, so the page is asked for again unconditionally.
+				log.warn("RecipeFeedClient :: streamChangedRecipes :: {} answered 304 with no validator sent, "
+						+ "fetching it again", pageUri);
+				page = fetchPage(pageUri, null, (response, sink) -> readConditionalPage(response, null, sink),
+						consumer);
+				if (page != null && page.validator() == null) {
+					throw new IllegalStateException(
+							"Feed page " + pageUri + " answered 304 Not Modified to an unconditional request");
+				}
+			}
+			if (page == null) {
+				complete = false;
+				break;
+			}
+
+			PageValidator validator = page.validator();
+			if (page.notModified()) {
+				pagesNotModified++;
+				for (int recipeId : validator.recipeIds()) {
+					notModifiedRecipe.accept(recipeId);
+				}
+			} else {
+				pagesFetched++;
+			}
+
+			if (validator.count() == 0) {
+				break;
+			}
+			if (validator.etag() != null || validator.lastModified() != null) {
+				seenValidators.put(skip, validator);
+			}
+
+			streamed += validator.count();
+			skip += validator.count();
+
+			if (validator.count() < pageSize || (validator.total() >= 0 && skip >= validator.total())) {
+				break;
+			}
+		}
+
+		log.info("RecipeFeedClient :: streamChangedRecipes :: Walked {} recipes from offset {}, {} pages fetched and {} "
+				+ "not modified", streamed, startOffset, pagesFetched, pagesNotModified);
+		return new FeedResult(streamed, pagesFetched, pagesNotModified, seenValidators, complete);
+	}
+
+	/**
+	 * Fetches one page. With hedging enabled, a page that has not arrived within
+	 * {@code recipes.api.hedge.delay} is requested a second time and whichever copy
+	 * arrives first is used, so one stalled connection does not hold up the walk. Each
+	 * attempt buffers its page, which the page size bounds, and only the winner's
+	 * recipes reach {@code consumer}; the page fails only if every attempt fails.
+	 */
+	<T> T fetchPage(URI pageUri, RequestCallback requestCallback, PageReader<T> reader,
+			Consumer<RecipeBinding> consumer) {
+		if (!hedgeEnabled) {
+			return restTemplate.execute(pageUri, HttpMethod.GET, requestCallback,
+					response -> reader.read(response, consumer));
+		}
+
+		AtomicBoolean decided = new AtomicBoolean();
+		BlockingQueue<PageAttempt<T>> finished = new LinkedBlockingQueue<>();
+		int launched = 1;
+		launch(new PageAttempt<>(false), pageUri, requestCallback, reader, decided, finished);
+
+		try {
+			PageAttempt<T> done = finished.poll(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+			if (done == null) {
+				log.info("RecipeFeedClient :: fetchPage :: No response from {} after {}, sending a hedged request",
+						pageUri, hedgeDelay);
+				launch(new PageAttempt<>(true), pageUri, requestCallback, reader, decided, finished);
+				launched++;
+			}
+
+			RuntimeException failure = null;
+			for (int completed = 0; completed < launched; completed++) {
+				if (done == null) {
+					done = finished.take();
+				}
+				if (done.error == null) {
+					decided.set(true);
+					if (launched > 1) {
+						httpMetrics.recordHedge(done.hedge);
+					}
+					done.recipes.forEach(consumer);
+					return done.result;
+				}
+				if (failure == null) {
+					failure = done.error;
+				} else {
+					failure.addSuppressed(done.error);
+				}
+				done = null;
+			}
+			if (launched > 1) {
+				httpMetrics.recordHedge(false);
+			}
+			throw failure;
+		} catch (InterruptedException e) {
+			decided.set(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while fetching " + pageUri, e);
+		}
+	}
+
+	private <T> void launch(PageAttempt<T> attempt, URI pageUri, RequestCallback requestCallback,
+			PageReader<T> reader, AtomicBoolean decided, BlockingQueue<PageAttempt<T>> finished) {
+		hedgeExecutor.execute(() -> {
+			try {
+				attempt.result = restTemplate.execute(pageUri, HttpMethod.GET, requestCallback,
+						response -> reader.read(response, recipe -> {
+							if (decided.get()) {
+								throw new AbandonedAttemptException();
+							}
+							attempt.recipes.add(recipe);
+						}));
+			} catch (AbandonedAttemptException e) {
+				return;
+			} catch (RuntimeException e) {
+				attempt.error = e;
+			}
+			finished.add(attempt);
+		});
+	}
+
+	public void storeValidators(Map<Long, PageValidator> pageValidators) {
+		validators.clear();
+		validators.putAll(pageValidators);
+	}
+
+	private static void addConditionalHeaders(HttpHeaders headers, PageValidator previous) {
+		if (previous == null) {
+			return;
+		}
+		if (previous.etag() != null) {
+			headers.setIfNoneMatch(previous.etag());
+		}
+		if (previous.lastModified() != null) {
+			headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+		}
+	}
+
+	private PageResult readConditionalPage(ClientHttpResponse response, PageValidator previous,
+			Consumer<RecipeBinding> consumer) throws IOException {
+		if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+			return new PageResult(previous, true);
+		}
+
+		IntStream.Builder recipeIds = IntStream.builder();
+		FeedPage page = readPage(response.getBody(), recipe -> {
+			if (recipe.getId() != null) {
+				recipeIds.add(recipe.getId());
+			}
+			consumer.accept(recipe);
+		});
+
+		HttpHeaders headers = response.getHeaders();
+		return new PageResult(new PageValidator(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED),
+				recipeIds.build().toArray(), page.count(), page.total()), false);
+	}
+
+	URI pageUri(long skip, int limit) {
+		return UriComponentsBuilder.fromUriString(recipesApiUrl).replaceQueryParam("limit", limit)
+				.replaceQueryParam("skip", skip).build().toUri();
+	}
+
+	FeedPage readPage(InputStream body, Consumer<RecipeBinding> consumer) throws IOException {
+		if (body == null) {
+			return new FeedPage(0, -1);
+		}
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "Expected a JSON object at the start of the recipe feed page");
+			}
+
+			int count = 0;
+			long total = -1;
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken token = parser.nextToken();
+
+				if ("recipes".equals(field) && token == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						consumer.accept(objectMapper.readValue(parser, RecipeBinding.class));
+						count++;
+					}
+				} else if ("total".equals(field) && token.isNumeric()) {
+					total = parser.getLongValue();
+				} else {
+					parser.skipChildren();
+				}
+			}
+			return new FeedPage(count, total);
+		}
+	}
+
+	@FunctionalInterface
+	interface PageReader<T> {
+		T read(ClientHttpResponse response, Consumer<RecipeBinding> consumer) throws IOException;
+	}
+
+	private static final class PageAttempt<T> {
+
+		private final boolean hedge;
+
+		private final List<RecipeBinding> recipes = new ArrayList<>();
+
+		private volatile T result;
+
+		private volatile RuntimeException error;
+
+		PageAttempt(boolean hedge) {
+			this.hedge = hedge;
+		}
+	}
+
+	/**
+	 * Stops an attempt that lost the race from parsing the rest of its page.
+	 */
+	private static final class AbandonedAttemptException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		AbandonedAttemptException() {
+			super(null, null, false, false);
+		}
+	}
+
+	record FeedPage(int count, long total) {
+	}
+
+	record PageResult(PageValidator validator, boolean notModified) {
+	}
+
+	/**
+	 * Validators of one feed page plus what the page held, so a {@code 304} can be
+	 * answered without the body.
+	 */
+	public record PageValidator(String etag, String lastModified, int[] recipeIds, int count, long total) {
+	}
+
+	/**
+	 * What a walk saw. {@code complete} when it reached the end of the source, so recipes
+	 * it did not see are known to be gone.
+	 */
+	public record FeedResult(long recipes, int pagesFetched, int pagesNotModified,
+			Map<Long, PageValidator> validators, boolean complete) {
+	}
+}
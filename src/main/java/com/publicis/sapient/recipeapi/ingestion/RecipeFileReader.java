@@ -0,0 +1,134 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient.FeedResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams recipes out of a local dump, either in the feed's {@code {"recipes": [...]}}
+ * shape or as NDJSON ({@code .ndjson}/{@code .jsonl}, one recipe per line), optionally
+ * gzip-compressed. The file is read through memory mappings and decoded token by token,
+ * so only the recipe being decoded is held in memory whatever the file size.
+ */
+@Slf4j
+@Component
+public class RecipeFileReader {
+
+	private static final int GZIP_MAGIC = 0x8b1f;
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${recipes.import.mapped-region-size:268435456}")
+	long mappedRegionSize;
+
+	/**
+	 * Hands every recipe after the first {@code startOffset} to {@code consumer} and
+	 * returns how many were handed over. Skipped recipes are stepped over without being
+	 * decoded.
+	 */
+	public FeedResult read(Path file, long startOffset, Consumer<RecipeBinding> consumer) {
+		boolean gzip = isGzip(file);
+		boolean ndjson = isNdjson(file);
+		log.info("RecipeFileReader :: read :: Reading {} as {}{} from offset {}", file, ndjson ? "NDJSON" : "JSON",
+				gzip ? " (gzip)" : "", startOffset);
+
+		try (InputStream input = open(file, gzip);
+				JsonParser parser = objectMapper.getFactory().createParser(input)) {
+			long count = ndjson ? readLines(parser, startOffset, consumer) : readDocument(parser, startOffset, consumer);
+			log.info("RecipeFileReader :: read :: Read {} recipes from {}", count, file);
+			return new FeedResult(count, 0, 0, Collections.emptyMap(), true);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read recipe file " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	private InputStream open(Path file, boolean gzip) throws IOException {
+		InputStream mapped = new MappedFileInputStream(file, mappedRegionSize);
+		return gzip ? new GZIPInputStream(mapped, GZIP_BUFFER_SIZE) : mapped;
+	}
+
+	private long readLines(JsonParser parser, long startOffset, Consumer<RecipeBinding> consumer)
+			throws IOException {
+		return readRecipes(parser, startOffset, consumer, parser.nextToken());
+	}
+
+	private long readDocument(JsonParser parser, long startOffset, Consumer<RecipeBinding> consumer)
+			throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.START_ARRAY) {
+			return readRecipes(parser, startOffset, consumer, parser.nextToken());
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "Expected a JSON object or array at the start of the recipe file");
+		}
+
+		long count = 0;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			token = parser.nextToken();
+			if ("recipes".equals(field) && token == JsonToken.START_ARRAY) {
+				count += readRecipes(parser, startOffset, consumer, parser.nextToken());
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return count;
+	}
+
+	private long readRecipes(JsonParser parser, long startOffset, Consumer<RecipeBinding> consumer, JsonToken token)
+			throws IOException {
+		long skipped = 0;
+		long count = 0;
+		while (token == JsonToken.START_OBJECT) {
+			if (skipped < startOffset) {
+				parser.skipChildren();
+				skipped++;
+			} else {
+				consumer.accept(objectMapper.readValue(parser, RecipeBinding.class));
+				count++;
+			}
+			token = parser.nextToken();
+		}
+		return count;
+	}
+
+	static boolean isNdjson(Path file) {
+		String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+		if (name.endsWith(".gz")) {
+			name = name.substring(0, name.length() - 3);
+		}
+		return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+	}
+
+	private static boolean isGzip(Path file) {
+		try (InputStream input = Files.newInputStream(file)) {
+			int first = input.read();
+			int second = input.read();
+			return first >= 0 && second >= 0 && (first | (second << 8)) == GZIP_MAGIC;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read recipe file " + file + ": " + e.getMessage(), e);
+		}
+	}
+}
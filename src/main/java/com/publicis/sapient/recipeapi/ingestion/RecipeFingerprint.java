@@ -0,0 +1,80 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+
+/**
+ * SHA-256 fingerprint of everything the feed says about a recipe. Fields are hashed in
+ * a fixed order with length prefixes, so the same content always yields the same hash
+ * and a null is never confused with an empty value.
+ */
+public final class RecipeFingerprint {
+
+	private static final HexFormat HEX = HexFormat.of();
+
+	private RecipeFingerprint() {
+	}
+
+	public static String of(RecipeBinding recipe) {
+		MessageDigest digest = sha256();
+		update(digest, recipe.getId());
+		update(digest, recipe.getName());
+		update(digest, recipe.getIngredients());
+		update(digest, recipe.getInstructions());
+		update(digest, recipe.getTags());
+		update(digest, recipe.getMealType());
+		update(digest, recipe.getPrepTimeMinutes());
+		update(digest, recipe.getCookTimeMinutes());
+		update(digest, recipe.getServings());
+		update(digest, recipe.getDifficulty());
+		update(digest, recipe.getCuisine());
+		update(digest, recipe.getCaloriesPerServing());
+		update(digest, recipe.getUserId());
+		update(digest, recipe.getImage());
+		update(digest, recipe.getRating() == null ? null : Float.floatToIntBits(recipe.getRating()));
+		update(digest, recipe.getReviewCount());
+		return HEX.formatHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, Integer value) {
+		if (value == null) {
+			digest.update((byte) 0);
+		} else {
+			digest.update((byte) 1);
+			digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		if (value == null) {
+			update(digest, (Integer) null);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		update(digest, bytes.length);
+		digest.update(bytes);
+	}
+
+	private static void update(MessageDigest digest, List<String> values) {
+		if (values == null) {
+			update(digest, (Integer) null);
+			return;
+		}
+		update(digest, values.size());
+		values.forEach(value -> update(digest, value));
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds the catalog from local dumps given on the command line, e.g.
+ * {@code java -jar recipeapi-app.jar --import=/backups/recipes.ndjson.gz}, before the
+ * application starts serving. The option may be repeated; files are imported in order
+ * and a failed import stops startup.
+ */
+@Slf4j
+@Component
+public class RecipeImportRunner implements ApplicationRunner {
+
+	static final String IMPORT_OPTION = "import";
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		List<String> files = args.getOptionValues(IMPORT_OPTION);
+		if (files == null || files.isEmpty()) {
+			return;
+		}
+
+		for (String value : files) {
+			Path file = Paths.get(value).toAbsolutePath().normalize();
+			if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+				throw new IllegalArgumentException("Import file not found or not readable: " + file);
+			}
+
+			long start = System.nanoTime();
+			IngestionSummary summary = recipeApiService.importRecipes(file, progress -> {
+			});
+			long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+			log.info("RecipeImportRunner :: run :: Imported {} in {} ms ({} recipes/s): {}", file, millis,
+					summary.getProcessed() * 1000 / millis, summary);
+		}
+	}
+}
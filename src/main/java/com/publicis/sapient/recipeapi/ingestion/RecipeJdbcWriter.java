@@ -0,0 +1,180 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
+import com.publicis.sapient.recipeapi.entity.InstructionsEntity;
+import com.publicis.sapient.recipeapi.entity.MealTypeEntity;
+import com.publicis.sapient.recipeapi.entity.RecipeEntity;
+import com.publicis.sapient.recipeapi.entity.TagsEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk write path for large ingestions. Recipe rows and their four link tables are
+ * written with plain JDBC batches on the transaction's connection, bypassing the
+ * persistence context entirely, so a batch costs a fixed number of statements however
+ * many recipes it holds.
+ */
+@Slf4j
+@Component
+public class RecipeJdbcWriter {
+
+	static final String INSERT_RECIPE = "INSERT INTO t_recipes (id, name, prep_time_minutes, cook_time_minutes, "
+			+ "servings, difficulty, cuisine, calories_per_serving, user_id, image, rating, review_count, content_hash) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	static final String INSERT_RECIPE_INGREDIENT = "INSERT INTO t_recipes_ingredients (recipe_id, ingredients_id) VALUES (?, ?)";
+
+	static final String INSERT_RECIPE_TAG = "INSERT INTO t_recipes_tags (recipe_id, tags_id) VALUES (?, ?)";
+
+	static final String INSERT_RECIPE_MEAL_TYPE = "INSERT INTO t_recipes_mealtype (recipe_id, mealtype_id) VALUES (?, ?)";
+
+	static final String INSERT_RECIPE_INSTRUCTION = "INSERT INTO t_recipe_instruction (recipe_id, instruction_id) VALUES (?, ?)";
+
+	static final String UPDATE_RECIPE = "UPDATE t_recipes SET name = ?, prep_time_minutes = ?, cook_time_minutes = ?, "
+			+ "servings = ?, difficulty = ?, cuisine = ?, calories_per_serving = ?, user_id = ?, image = ?, rating = ?, "
+			+ "review_count = ?, content_hash = ? WHERE id = ?";
+
+	static final List<String> DELETE_LINKS = List.of("DELETE FROM t_recipes_ingredients WHERE recipe_id = ?",
+			"DELETE FROM t_recipes_tags WHERE recipe_id = ?", "DELETE FROM t_recipes_mealtype WHERE recipe_id = ?",
+			"DELETE FROM t_recipe_instruction WHERE recipe_id = ?");
+
+	static final List<String> DELETE_RECIPE = Stream
+			.concat(DELETE_LINKS.stream(), Stream.of("DELETE FROM t_recipes WHERE id = ?")).toList();
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Value("${recipes.ingestion.jdbc-batch-size:500}")
+	int jdbcBatchSize;
+
+	/**
+	 * Inserts new recipes with their link rows and returns the number of rows written.
+	 */
+	public long insertRecipes(List<RecipeEntity> recipes) {
+		if (recipes.isEmpty()) {
+			return 0;
+		}
+
+		jdbcTemplate.batchUpdate(INSERT_RECIPE, recipes, jdbcBatchSize, (ps, recipe) -> {
+			ps.setInt(1, recipe.getId());
+			setColumns(ps, 2, recipe);
+		});
+
+		long rows = recipes.size() + insertLinks(recipes);
+		log.info("RecipeJdbcWriter :: insertRecipes :: Wrote {} recipes as {} rows.", recipes.size(), rows);
+		return rows;
+	}
+
+	/**
+	 * Rewrites stored recipes in place: their rows are updated and their link rows
+	 * replaced. Returns the number of rows written.
+	 */
+	public long updateRecipes(List<RecipeEntity> recipes) {
+		if (recipes.isEmpty()) {
+			return 0;
+		}
+
+		jdbcTemplate.batchUpdate(UPDATE_RECIPE, recipes, jdbcBatchSize, (ps, recipe) -> {
+			setColumns(ps, 1, recipe);
+			ps.setInt(13, recipe.getId());
+		});
+		List<Integer> recipeIds = recipes.stream().map(RecipeEntity::getId).toList();
+		for (String sql : DELETE_LINKS) {
+			jdbcTemplate.batchUpdate(sql, recipeIds, jdbcBatchSize, (ps, id) -> ps.setInt(1, id));
+		}
+
+		long rows = recipes.size() + insertLinks(recipes);
+		log.info("RecipeJdbcWriter :: updateRecipes :: Rewrote {} recipes as {} rows.", recipes.size(), rows);
+		return rows;
+	}
+
+	/**
+	 * Deletes recipes together with their link rows, link tables first.
+	 */
+	public void deleteRecipes(List<Integer> recipeIds) {
+		if (recipeIds.isEmpty()) {
+			return;
+		}
+
+		for (String sql : DELETE_RECIPE) {
+			jdbcTemplate.batchUpdate(sql, recipeIds, jdbcBatchSize, (ps, id) -> ps.setInt(1, id));
+		}
+
+		log.info("RecipeJdbcWriter :: deleteRecipes :: Deleted {} recipes.", recipeIds.size());
+	}
+
+	private long insertLinks(List<RecipeEntity> recipes) {
+		return insertLinks(INSERT_RECIPE_INGREDIENT, recipes, RecipeEntity::getIngredients,
+				IngredientsEntity::getIngredientsid)
+				+ insertLinks(INSERT_RECIPE_TAG, recipes, RecipeEntity::getTags, TagsEntity::getTagsId)
+				+ insertLinks(INSERT_RECIPE_MEAL_TYPE, recipes, RecipeEntity::getMealTypes, MealTypeEntity::getMealTypeId)
+				+ insertLinks(INSERT_RECIPE_INSTRUCTION, recipes, RecipeEntity::getInstructions,
+						InstructionsEntity::getInstructionsId);
+	}
+
+	private <R> int insertLinks(String sql, List<RecipeEntity> recipes, Function<RecipeEntity, List<R>> links,
+			Function<R, Integer> linkId) {
+		List<int[]> pairs = new ArrayList<>();
+		for (RecipeEntity recipe : recipes) {
+			List<R> linked = links.apply(recipe);
+			if (linked == null) {
+				continue;
+			}
+			linked.stream().map(linkId).filter(Objects::nonNull)
+					.forEach(id -> pairs.add(new int[] { recipe.getId(), id }));
+		}
+
+		if (!pairs.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, pairs, jdbcBatchSize, (ps, pair) -> {
+				ps.setInt(1, pair[0]);
+				ps.setInt(2, pair[1]);
+			});
+		}
+		return pairs.size();
+	}
+
+	/**
+	 * Binds every column but the id, from {@code name} to {@code content_hash}, starting at
+	 * parameter {@code from}.
+	 */
+	private static void setColumns(PreparedStatement ps, int from, RecipeEntity recipe) throws SQLException {
+		ps.setString(from, recipe.getName());
+		setInteger(ps, from + 1, recipe.getPrepTimeMinutes());
+		setInteger(ps, from + 2, recipe.getCookTimeMinutes());
+		setInteger(ps, from + 3, recipe.getServings());
+		ps.setString(from + 4, recipe.getDifficulty());
+		ps.setString(from + 5, recipe.getCuisine());
+		setInteger(ps, from + 6, recipe.getCaloriesPerServing());
+		setInteger(ps, from + 7, recipe.getUserId());
+		ps.setString(from + 8, recipe.getImage());
+		if (recipe.getRating() == null) {
+			ps.setNull(from + 9, Types.REAL);
+		} else {
+			ps.setFloat(from + 9, recipe.getRating());
+		}
+		setInteger(ps, from + 10, recipe.getReviewCount());
+		ps.setString(from + 11, recipe.getContentHash());
+	}
+
+	private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+		if (value == null) {
+			ps.setNull(index, Types.INTEGER);
+		} else {
+			ps.setInt(index, value);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient.FeedResult;
+
+/**
+ * Where ingestion reads recipes from: the HTTP feed or a local dump. Recipes before
+ * {@code startOffset} are skipped; ids of recipes known to be unchanged without being
+ * decoded go to {@code notModifiedRecipe}.
+ */
+@FunctionalInterface
+public interface RecipeSource {
+
+	FeedResult stream(long startOffset, Consumer<RecipeBinding> recipes, IntConsumer notModifiedRecipe);
+}
@@ -0,0 +1,38 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.exception.IngestionCapacityException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodic delta sync, enabled with {@code recipes.sync.enabled=true}. Each tick goes
+ * through the job service, so it joins a sync that is already running, and the feed's
+ * conditional responses keep an unchanged catalog from being downloaded again.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "recipes.sync.enabled", havingValue = "true")
+public class RecipeSyncScheduler {
+
+	@Autowired
+	IngestionJobService ingestionJobService;
+
+	@Scheduled(fixedDelayString = "${recipes.sync.interval:PT1H}",
+			initialDelayString = "${recipes.sync.initial-delay:PT1M}")
+	public void sync() {
+		try {
+			IngestionJobService.Submission submission = ingestionJobService.submitDeltaSync();
+			log.info("RecipeSyncScheduler :: sync :: Scheduled delta sync job {} {}", submission.job().getId(),
+					submission.joined() ? "joined" : "queued");
+		} catch (IngestionCapacityException e) {
+			log.warn("RecipeSyncScheduler :: sync :: Skipping this run: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import com.publicis.sapient.recipeapi.dto.PipelineStageStatsDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves work items from a source through a chain of stages joined by bounded queues.
+ * Each stage runs on its own workers; a full queue blocks the stage feeding it, so a
+ * slow stage holds back the ones before it instead of letting items pile up in memory.
+ * An ordered stage sees items in the order the source emitted them, whatever order the
+ * parallel stages before it finished in. The source takes a permit for each item it
+ * emits and the ordered stage returns it once the item is processed, so the items an
+ * ordered stage holds back while waiting for an earlier one are bounded too.
+ * <p>
+ * If the source fails, the items it already emitted are still drained through every
+ * stage before the failure is rethrown. If a stage fails, the whole pipeline stops.
+ */
+@Slf4j
+public class StagedPipeline<T> {
+
+	private static final long POLL_MILLIS = 50;
+
+	private static final Envelope<?> END_OF_INPUT = new Envelope<>(-1, null);
+
+	private final int queueCapacity;
+
+	private final ToLongFunction<T> recordCount;
+
+	private final StageMetrics sourceMetrics;
+
+	private final List<Stage> stages = new ArrayList<>();
+
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	private volatile long startedNanos;
+
+	private volatile long finishedNanos;
+
+	/**
+	 * Permits for items emitted but not yet through the first ordered stage, or null when
+	 * there is none.
+	 */
+	private Semaphore inFlight;
+
+	private Stage windowStage;
+
+	private long nextSequence;
+
+	private long lastEmitNanos;
+
+	public StagedPipeline(String sourceName, int queueCapacity, ToLongFunction<T> recordCount) {
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.recordCount = recordCount;
+		this.sourceMetrics = new StageMetrics(sourceName, 1, null);
+	}
+
+	public StagedPipeline<T> stage(String name, int workers, Consumer<T> work) {
+		stages.add(new Stage(name, Math.max(1, workers), false, work));
+		return this;
+	}
+
+	public StagedPipeline<T> orderedStage(String name, Consumer<T> work) {
+		stages.add(new Stage(name, 1, true, work));
+		return this;
+	}
+
+	/**
+	 * Runs {@code source} on the calling thread, handing every item it emits to the first
+	 * stage, and returns once all stages have finished with everything emitted.
+	 */
+	public void run(Consumer<Consumer<T>> source) {
+		if (stages.isEmpty()) {
+			throw new IllegalStateException("Pipeline has no stages");
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(stages.stream().mapToInt(stage -> stage.workers).sum(),
+				runnable -> new Thread(runnable, "ingestion-pipeline-" + threadNumber.incrementAndGet()));
+
+		windowStage = stages.stream().filter(stage -> stage.ordered).findFirst().orElse(null);
+		if (windowStage != null) {
+			// As many as the queues and workers can hold, so the window only bites while an
+			// ordered stage is waiting on a stalled item.
+			inFlight = new Semaphore(
+					queueCapacity * stages.size() + stages.stream().mapToInt(stage -> stage.workers).sum());
+		}
+
+		startedNanos = System.nanoTime();
+		lastEmitNanos = startedNanos;
+		for (int i = 0; i < stages.size(); i++) {
+			Stage stage = stages.get(i);
+			Stage next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+			for (int worker = 0; worker < stage.workers; worker++) {
+				executor.execute(() -> work(stage, next));
+			}
+		}
+
+		RuntimeException sourceFailure = null;
+		try {
+			source.accept(this::emit);
+		} catch (RuntimeException e) {
+			sourceFailure = e;
+		}
+
+		try {
+			endOfInput(stages.get(0), sourceMetrics);
+			executor.shutdown();
+			while (!executor.awaitTermination(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				// Stages notice a failure within one poll interval and stop on their own.
+			}
+		} catch (PipelineAbortedException e) {
+			executor.shutdown();
+		} catch (InterruptedException e) {
+			abort(e);
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		} finally {
+			finishedNanos = System.nanoTime();
+		}
+
+		Throwable stageFailure = failure.get();
+		if (stageFailure instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (stageFailure instanceof Error error) {
+			throw error;
+		}
+		if (stageFailure != null) {
+			throw new IllegalStateException("Ingestion pipeline stopped: " + stageFailure.getMessage(), stageFailure);
+		}
+		if (sourceFailure != null) {
+			throw sourceFailure;
+		}
+	}
+
+	public List<PipelineStageStatsDto> stats() {
+		long elapsedNanos = startedNanos == 0 ? 0
+				: (finishedNanos == 0 ? System.nanoTime() : finishedNanos) - startedNanos;
+		List<PipelineStageStatsDto> stats = new ArrayList<>(stages.size() + 1);
+		stats.add(sourceMetrics.toDto(elapsedNanos));
+		stages.forEach(stage -> stats.add(stage.metrics.toDto(elapsedNanos)));
+		return stats;
+	}
+
+	private void emit(T item) {
+		long now = System.nanoTime();
+		sourceMetrics.recordWork(recordCount.applyAsLong(item), now - lastEmitNanos);
+		if (inFlight != null) {
+			acquirePermit();
+		}
+		put(stages.get(0), new Envelope<>(nextSequence++, item), sourceMetrics);
+		lastEmitNanos = System.nanoTime();
+	}
+
+	private void work(Stage stage, Stage next) {
+		try {
+			Map<Long, Envelope<T>> outOfOrder = new HashMap<>();
+			long expectedSequence = 0;
+			while (true) {
+				Envelope<T> envelope = take(stage);
+				if (envelope == END_OF_INPUT) {
+					break;
+				}
+				if (!stage.ordered) {
+					process(stage, next, envelope);
+					continue;
+				}
+				outOfOrder.put(envelope.sequence(), envelope);
+				while ((envelope = outOfOrder.remove(expectedSequence)) != null) {
+					process(stage, next, envelope);
+					expectedSequence++;
+					if (stage == windowStage) {
+						inFlight.release();
+					}
+				}
+			}
+			if (stage.activeWorkers.decrementAndGet() == 0 && next != null) {
+				endOfInput(next, stage.metrics);
+			}
+		} catch (PipelineAbortedException e) {
+			// Another stage failed and has already recorded why.
+		} catch (Throwable e) {
+			abort(e);
+		}
+	}
+
+	private void process(Stage stage, Stage next, Envelope<T> envelope) {
+		long start = System.nanoTime();
+		stage.work.accept(envelope.item());
+		stage.metrics.recordWork(recordCount.applyAsLong(envelope.item()), System.nanoTime() - start);
+		if (next != null) {
+			put(next, envelope, stage.metrics);
+		}
+	}
+
+	private void acquirePermit() {
+		long start = System.nanoTime();
+		try {
+			while (!inFlight.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				checkNotAborted();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			abort(e);
+			throw new PipelineAbortedException();
+		} finally {
+			sourceMetrics.blockedNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void endOfInput(Stage stage, StageMetrics producer) {
+		for (int worker = 0; worker < stage.workers; worker++) {
+			put(stage, (Envelope<T>) END_OF_INPUT, producer);
+		}
+	}
+
+	private void put(Stage stage, Envelope<T> envelope, StageMetrics producer) {
+		long start = System.nanoTime();
+		try {
+			while (!stage.queue.offer(envelope, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				checkNotAborted();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			abort(e);
+			throw new PipelineAbortedException();
+		} finally {
+			producer.blockedNanos.add(System.nanoTime() - start);
+		}
+		stage.metrics.maxQueueDepth.accumulateAndGet(stage.queue.size(), Math::max);
+	}
+
+	private Envelope<T> take(Stage stage) throws InterruptedException {
+		long start = System.nanoTime();
+		try {
+			while (true) {
+				checkNotAborted();
+				Envelope<T> envelope = stage.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (envelope != null) {
+					return envelope;
+				}
+			}
+		} finally {
+			stage.metrics.idleNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	private void checkNotAborted() {
+		if (failure.get() != null) {
+			throw new PipelineAbortedException();
+		}
+	}
+
+	private void abort(Throwable cause) {
+		if (failure.compareAndSet(null, cause)) {
+			log.error("StagedPipeline :: abort :: Stopping pipeline after failure: {}", cause.getMessage(), cause);
+		}
+	}
+
+	private record Envelope<T>(long sequence, T item) {
+	}
+
+	private class Stage {
+
+		private final int workers;
+
+		private final boolean ordered;
+
+		private final Consumer<T> work;
+
+		private final BlockingQueue<Envelope<T>> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+		private final AtomicInteger activeWorkers;
+
+		private final StageMetrics metrics;
+
+		Stage(String name, int workers, boolean ordered, Consumer<T> work) {
+			this.workers = workers;
+			this.ordered = ordered;
+			this.work = work;
+			this.activeWorkers = new AtomicInteger(workers);
+			this.metrics = new StageMetrics(name, workers, queue);
+		}
+	}
+
+	private static class StageMetrics {
+
+		private final String name;
+
+		private final int workers;
+
+		private final BlockingQueue<?> queue;
+
+		private final LongAdder items = new LongAdder();
+
+		private final LongAdder records = new LongAdder();
+
+		private final LongAdder busyNanos = new LongAdder();
+
+		private final LongAdder blockedNanos = new LongAdder();
+
+		private final LongAdder idleNanos = new LongAdder();
+
+		private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+		StageMetrics(String name, int workers, BlockingQueue<?> queue) {
+			this.name = name;
+			this.workers = workers;
+			this.queue = queue;
+		}
+
+		void recordWork(long recordCount, long nanos) {
+			items.increment();
+			records.add(recordCount);
+			busyNanos.add(nanos);
+		}
+
+		PipelineStageStatsDto toDto(long elapsedNanos) {
+			long processed = records.sum();
+			return PipelineStageStatsDto.builder().stage(name).workers(workers).items(items.sum()).records(processed)
+					.recordsPerSecond(elapsedNanos == 0 ? 0 : processed * 1e9 / elapsedNanos)
+					.queueDepth(queue == null ? 0 : queue.size()).maxQueueDepth(maxQueueDepth.get())
+					.queueCapacity(queue == null ? 0 : queue.size() + queue.remainingCapacity())
+					.busyMillis(TimeUnit.NANOSECONDS.toMillis(busyNanos.sum()))
+					.blockedMillis(TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()))
+					.idleMillis(TimeUnit.NANOSECONDS.toMillis(idleNanos.sum())).build();
+		}
+	}
+
+	private static class PipelineAbortedException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+	}
+}
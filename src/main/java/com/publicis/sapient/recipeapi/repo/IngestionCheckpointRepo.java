@@ -0,0 +1,8 @@
+package com.publicis.sapient.recipeapi.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.publicis.sapient.recipeapi.entity.IngestionCheckpointEntity;
+
+public interface IngestionCheckpointRepo extends JpaRepository<IngestionCheckpointEntity, String> {
+}
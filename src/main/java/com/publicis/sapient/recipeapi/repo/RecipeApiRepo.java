@@ -1,15 +1,24 @@
 package com.publicis.sapient.recipeapi.repo;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
+import com.publicis.sapient.recipeapi.dto.RecipeFingerprintDto;
 import com.publicis.sapient.recipeapi.entity.RecipeEntity;
 
 public interface RecipeApiRepo extends JpaRepository<RecipeEntity, Integer> {
-	
+
+	@Query("SELECT r.id FROM RecipeEntity r WHERE r.id IN :ids")
+	List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+	@Query("SELECT new com.publicis.sapient.recipeapi.dto.RecipeFingerprintDto(r.id, r.contentHash) FROM RecipeEntity r WHERE r.id IN :ids")
+	List<RecipeFingerprintDto> findFingerprints(@Param("ids") Collection<Integer> ids);
+
+	@Query("SELECT r.id FROM RecipeEntity r")
+	List<Integer> findAllIds();
 }
 
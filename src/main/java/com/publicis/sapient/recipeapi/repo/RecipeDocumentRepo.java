@@ -0,0 +1,33 @@
+package com.publicis.sapient.recipeapi.repo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.publicis.sapient.recipeapi.entity.RecipeDocumentEntity;
+
+public interface RecipeDocumentRepo extends JpaRepository<RecipeDocumentEntity, Integer> {
+
+	@Query("SELECT d.document FROM RecipeDocumentEntity d WHERE d.id = :id")
+	Optional<String> findDocument(@Param("id") Integer id);
+
+	@Query("SELECT d.document FROM RecipeDocumentEntity d WHERE d.id IN :ids ORDER BY d.id")
+	List<String> findDocuments(@Param("ids") Collection<Integer> ids);
+
+	@Query("SELECT d.id AS id, d.document AS document FROM RecipeDocumentEntity d WHERE d.id IN :ids")
+	List<StoredDocument> findDocumentsById(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * A stored document with the id it belongs to.
+	 */
+	interface StoredDocument {
+
+		Integer getId();
+
+		String getDocument();
+	}
+}
@@ -0,0 +1,142 @@
+package com.publicis.sapient.recipeapi.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * Already serialized UTF-8 JSON, copied into the response as it is so a cached recipe
+ * is not parsed and written out again.
+ */
+public class RawJson implements JsonSerializable {
+
+	private final Utf8Value value;
+
+	public RawJson(byte[] utf8) {
+		this.value = new Utf8Value(utf8);
+	}
+
+	@Override
+	public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		gen.writeRawValue(value);
+	}
+
+	@Override
+	public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+			throws IOException {
+		serialize(gen, serializers);
+	}
+
+	@Override
+	public String toString() {
+		return value.getValue();
+	}
+
+	/**
+	 * The UTF-8 generator copies the bytes through {@link #appendUnquotedUTF8}; the
+	 * character based methods are only there for generators writing to a {@code Writer}.
+	 */
+	private static final class Utf8Value implements SerializableString {
+
+		private final byte[] utf8;
+
+		private String text;
+
+		Utf8Value(byte[] utf8) {
+			this.utf8 = utf8;
+		}
+
+		@Override
+		public String getValue() {
+			if (text == null) {
+				text = new String(utf8, StandardCharsets.UTF_8);
+			}
+			return text;
+		}
+
+		@Override
+		public int charLength() {
+			return getValue().length();
+		}
+
+		@Override
+		public byte[] asUnquotedUTF8() {
+			return utf8;
+		}
+
+		@Override
+		public int appendUnquotedUTF8(byte[] buffer, int offset) {
+			if (offset + utf8.length > buffer.length) {
+				return -1;
+			}
+			System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+			return utf8.length;
+		}
+
+		@Override
+		public int appendUnquoted(char[] buffer, int offset) {
+			String value = getValue();
+			if (offset + value.length() > buffer.length) {
+				return -1;
+			}
+			value.getChars(0, value.length(), buffer, offset);
+			return value.length();
+		}
+
+		@Override
+		public int writeUnquotedUTF8(OutputStream out) throws IOException {
+			out.write(utf8);
+			return utf8.length;
+		}
+
+		@Override
+		public int putUnquotedUTF8(ByteBuffer buffer) {
+			if (buffer.remaining() < utf8.length) {
+				return -1;
+			}
+			buffer.put(utf8);
+			return utf8.length;
+		}
+
+		@Override
+		public char[] asQuotedChars() {
+			throw quotedUnsupported();
+		}
+
+		@Override
+		public byte[] asQuotedUTF8() {
+			throw quotedUnsupported();
+		}
+
+		@Override
+		public int appendQuotedUTF8(byte[] buffer, int offset) {
+			throw quotedUnsupported();
+		}
+
+		@Override
+		public int appendQuoted(char[] buffer, int offset) {
+			throw quotedUnsupported();
+		}
+
+		@Override
+		public int writeQuotedUTF8(OutputStream out) {
+			throw quotedUnsupported();
+		}
+
+		@Override
+		public int putQuotedUTF8(ByteBuffer buffer) {
+			throw quotedUnsupported();
+		}
+
+		private static UnsupportedOperationException quotedUnsupported() {
+			return new UnsupportedOperationException("Raw JSON is never written as a string value");
+		}
+	}
+}
@@ -4,6 +4,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +21,10 @@ public class RecipeApiResponse {
 	private LocalDateTime time;
 	private Object data;
 	private Map<String, String> fieldErrors;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Map<String, Map<String, Integer>> facets;
 
 	public RecipeApiResponse(Integer status, String message, LocalDateTime time, Object data) {
 		this.status = status;
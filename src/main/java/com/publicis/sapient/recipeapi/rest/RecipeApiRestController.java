@@ -1,5 +1,6 @@
 package com.publicis.sapient.recipeapi.rest;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Iterator;
 import java.util.List;
@@ -9,32 +10,47 @@ import java.util.Optional;
 
 import org.hibernate.boot.model.naming.ImplicitNamingStrategyLegacyHbmImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.fasterxml.jackson.annotation.JacksonInject.Value;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.publicis.sapient.recipeapi.binding.RecipeBatchRequest;
 import com.publicis.sapient.recipeapi.binding.RecipeSearchRequest;
+import com.publicis.sapient.recipeapi.dto.RecipeBatchItemDto;
 import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.dto.RecipePage;
 import com.publicis.sapient.recipeapi.entity.RecipeEntity;
 import com.publicis.sapient.recipeapi.entity.RecipeEntity.RecipeEntityBuilder;
 import com.publicis.sapient.recipeapi.exception.InvalidInputException;
 import com.publicis.sapient.recipeapi.exception.RecipeNotFoundException;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJob;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService.Submission;
+import com.publicis.sapient.recipeapi.response.RawJson;
 import com.publicis.sapient.recipeapi.response.RecipeApiResponse;
 import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+import com.publicis.sapient.recipeapi.service.RecipeField;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.Ranking;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.Suggestion;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -47,9 +63,31 @@ public class RecipeApiRestController {
 	@Autowired
 	private IRecipeApiService recipeapiService;
 
+	@Autowired
+	private IngestionJobService ingestionJobService;
+
+	@Value("${recipes.batch.max-ids:500}")
+	private int batchMaxIds;
+
+	@Value("${recipes.suggest.max-limit:50}")
+	private int suggestMaxLimit;
+
+	@Value("${recipes.top.max-n:100}")
+	private int topMaxN;
+
+	/**
+	 * Starts a delta sync as a background job and answers {@code 202} with the job and its
+	 * status URL. With {@code synchronous=true} the whole feed is fetched and stored on the
+	 * request thread instead, and the stored recipes are returned.
+	 */
 	@PostMapping("/recipes/external-api")
-	public ResponseEntity<RecipeApiResponse> fetchExternalApi() {
-		log.info("RecipeApiController :: fetchExternalApi :: Initiating API data fetch.");
+	public ResponseEntity<RecipeApiResponse> fetchExternalApi(
+			@RequestParam(defaultValue = "false") boolean synchronous) {
+		log.info("RecipeApiController :: fetchExternalApi :: Initiating API data fetch. synchronous:{}", synchronous);
+
+		if (!synchronous) {
+			return streamExternalApi();
+		}
 
 		List<RecipeDto> recipes = recipeapiService.fetchExternalApiDataAndPersist();
 		RecipeApiResponse response = new RecipeApiResponse();
@@ -71,8 +109,28 @@ public class RecipeApiRestController {
 		return new ResponseEntity<>(response, HttpStatus.CREATED);
 	}
 
+	private ResponseEntity<RecipeApiResponse> streamExternalApi() {
+		Submission submission = ingestionJobService.submitDeltaSync();
+		IngestionJob job = submission.job();
+
+		log.info("RecipeApiController :: streamExternalApi :: Delta sync job {} {}", job.getId(),
+				submission.joined() ? "joined" : "accepted");
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setTime(LocalDateTime.now());
+		response.setStatus(HttpStatus.ACCEPTED.value());
+		response.setMessage(submission.joined() ? "Joined the ingestion job already in progress"
+				: "Ingestion job accepted");
+		response.setData(job.toDto());
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setLocation(URI.create("/recipes/ingestion-jobs/" + job.getId()));
+		return new ResponseEntity<>(response, headers, HttpStatus.ACCEPTED);
+	}
+
 	@GetMapping("/recipe")
-	public ResponseEntity<RecipeApiResponse> getRecipe(@RequestParam Integer recipeId) {
+	public ResponseEntity<RecipeApiResponse> getRecipe(@RequestParam Integer recipeId,
+			@RequestParam(required = false) List<String> fields) {
 
 		log.info("RecipeApiController :: getRecipe :: Fetching recipe with ID: {}", recipeId);
 
@@ -87,44 +145,155 @@ public class RecipeApiRestController {
 			throw new InvalidInputException("Recipe ID must be a positive integer starts with 1.");
 		}
 
-		RecipeDto recipe = recipeapiService.getRecipeById(recipeId);
+		// A blank 'fields' names nothing, so the whole recipe is returned.
+		if (RecipeField.parse(fields) != null) {
+			response.setStatus(HttpStatus.OK.value());
+			response.setMessage("Fetched recipes successfully");
+			response.setData(recipeapiService.getRecipeFields(recipeId, fields));
+			response.setTime(LocalDateTime.now());
+			return new ResponseEntity<>(response, HttpStatus.OK);
+		}
+
+		// The stored document is written into the envelope byte for byte.
+		byte[] recipe = recipeapiService.getRecipeJson(recipeId);
 
-		log.info("RecipeApiController :: getRecipe :: recipe:{}", recipe);
+		log.info("RecipeApiController :: getRecipe :: recipe:{} ({} bytes)", recipeId, recipe.length);
 
 		response.setStatus(HttpStatus.OK.value());
 		response.setMessage("Fetched recipes successfully");
-		response.setData(recipe);
+		response.setData(new RawJson(recipe));
 		response.setTime(LocalDateTime.now());
 
 		return new ResponseEntity<>(response, HttpStatus.OK);
 
 	}
 
-	@GetMapping("/recipes")
-	public ResponseEntity<RecipeApiResponse> getRecipes(@Valid RecipeSearchRequest request) {
+	@GetMapping("/recipes/batch")
+	public ResponseEntity<RecipeApiResponse> getRecipesBatch(@RequestParam List<Integer> ids) {
+		return recipesBatch(ids);
+	}
 
-		log.info("RecipeApiController :: getRecipes :: RecipeSearchRequest:{}", request);
+	/**
+	 * The same lookup as {@code GET /recipes/batch}, for id lists too long for a URL.
+	 */
+	@PostMapping("/recipes/batch")
+	public ResponseEntity<RecipeApiResponse> postRecipesBatch(@Valid @RequestBody RecipeBatchRequest request) {
+		return recipesBatch(request.getIds());
+	}
+
+	private ResponseEntity<RecipeApiResponse> recipesBatch(List<Integer> ids) {
+
+		log.info("RecipeApiController :: recipesBatch :: {} ids", ids.size());
+
+		if (ids.isEmpty() || ids.size() > batchMaxIds) {
+			throw new InvalidInputException("Between 1 and " + batchMaxIds + " recipe ids can be requested at once.");
+		}
+		if (ids.stream().anyMatch(id -> id == null || id < 1)) {
+			throw new InvalidInputException("Recipe ID must be a positive integer starts with 1.");
+		}
 
 		if (recipeapiService.isRecipeDataEmpty()) {
 			throw new ResponseStatusException(HttpStatus.OK,
 					"No recipes are available at the moment.try again after some time");
 		}
 
+		Map<Integer, byte[]> found = recipeapiService.getRecipesJson(ids);
+
+		// One entry per requested id, in request order; stored documents go out byte for byte.
+		List<RecipeBatchItemDto> items = ids.stream().map(id -> {
+			byte[] recipe = found.get(id);
+			return new RecipeBatchItemDto(id, recipe != null, recipe == null ? null : new RawJson(recipe));
+		}).toList();
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched " + found.size() + " of " + ids.stream().distinct().count() + " recipes");
+		response.setData(items);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	/**
+	 * Recipe names completing what has been typed so far, best rated first, served from
+	 * memory without touching the database.
+	 */
+	@GetMapping("/recipes/suggest")
+	public ResponseEntity<RecipeApiResponse> suggestRecipes(@RequestParam String prefix,
+			@RequestParam(defaultValue = "10") int limit) {
+
+		log.info("RecipeApiController :: suggestRecipes :: prefix:{} limit:{}", prefix, limit);
+
+		if (prefix.isBlank()) {
+			throw new InvalidInputException("Prefix must not be blank.");
+		}
+		if (limit < 1 || limit > suggestMaxLimit) {
+			throw new InvalidInputException("Limit must be between 1 and " + suggestMaxLimit + ".");
+		}
+
+		List<Suggestion> suggestions = recipeapiService.suggestRecipes(prefix, limit);
+
 		RecipeApiResponse response = new RecipeApiResponse();
-		RecipeDto recipeDto = new RecipeDto();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage(suggestions.isEmpty() ? "No recipes found" : "Fetched suggestions successfully");
+		response.setData(suggestions);
+		response.setTime(LocalDateTime.now());
 
-		recipeDto.setName(request.getName());
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
 
-		if (request.getCuisine() != null) {
-			recipeDto.setCuisine(request.getCuisine());
+	/**
+	 * The best rated or most reviewed recipes, optionally within a cuisine and meal type,
+	 * copied from leaderboards kept in memory.
+	 */
+	@GetMapping("/recipes/top")
+	public ResponseEntity<RecipeApiResponse> getTopRecipes(@RequestParam(defaultValue = "rating") String by,
+			@RequestParam(required = false) String cuisine, @RequestParam(required = false) String mealType,
+			@RequestParam(defaultValue = "10") int n) {
+
+		log.info("RecipeApiController :: getTopRecipes :: by:{} cuisine:{} mealType:{} n:{}", by, cuisine, mealType, n);
+
+		Ranking ranking = Ranking.forParameter(by).orElseThrow(
+				() -> new InvalidInputException("Invalid 'by': Use " + Ranking.RATING.parameter() + " or "
+						+ Ranking.REVIEW_COUNT.parameter() + "."));
+		if (n < 1 || n > topMaxN) {
+			throw new InvalidInputException("N must be between 1 and " + topMaxN + ".");
 		}
 
-		List<RecipeDto> recipes = recipeapiService.getRecipesByNameAndCuisine(recipeDto);
+		List<RankedRecipe> recipes = recipeapiService.getTopRecipes(ranking, cuisine, mealType, n);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage(recipes.isEmpty() ? "No recipes found" : "Fetched top recipes successfully");
+		response.setData(recipes);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@GetMapping("/recipes")
+	public ResponseEntity<RecipeApiResponse> getRecipes(@Valid RecipeSearchRequest request) {
+
+		log.info("RecipeApiController :: getRecipes :: RecipeSearchRequest:{}", request);
+
+		if (recipeapiService.isRecipeDataEmpty()) {
+			throw new ResponseStatusException(HttpStatus.OK,
+					"No recipes are available at the moment.try again after some time");
+		}
+
+		RecipeApiResponse response = new RecipeApiResponse();
+
+		RecipePage<?> page = RecipeField.parse(request.getFields()) == null
+				? recipeapiService.searchRecipes(request)
+				: recipeapiService.searchRecipeFields(request);
+		List<?> recipes = page.getRecipes();
 
 		log.info("RecipeApiController :: getRecipes :: recipe:{}", recipes);
 
 		response.setTime(LocalDateTime.now());
 		response.setData(recipes);
+		response.setNextCursor(page.getNextCursor());
+		response.setFacets(page.getFacets());
 
 		if (recipes.isEmpty()) {
 			response.setStatus(HttpStatus.OK.value());
@@ -140,4 +309,40 @@ public class RecipeApiRestController {
 
 	}
 
+	/**
+	 * The same search as {@link #getRecipes}, answered for {@code Accept: application/x-ndjson}
+	 * with every match, one recipe document per line, written while it is read.
+	 */
+	@GetMapping(value = "/recipes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamRecipes(@Valid RecipeSearchRequest request) {
+
+		log.info("RecipeApiController :: streamRecipes :: RecipeSearchRequest:{}", request);
+
+		// Streams cover the whole result in id order, so there is nothing to page or sort.
+		if (request.getCursor() != null || !"id".equals(request.getSort() == null ? "id" : request.getSort())) {
+			throw new InvalidInputException("Streamed results are in id order: 'sort' and 'cursor' do not apply.");
+		}
+		if (RecipeField.parse(request.getFields()) != null) {
+			throw new InvalidInputException("Streamed results are whole recipes: 'fields' does not apply.");
+		}
+		if (request.getFacets() != null && !request.getFacets().isEmpty()) {
+			throw new InvalidInputException("Streamed results carry no facet counts: 'facets' does not apply.");
+		}
+
+		if (recipeapiService.isRecipeDataEmpty()) {
+			throw new ResponseStatusException(HttpStatus.OK,
+					"No recipes are available at the moment.try again after some time");
+		}
+
+		// Matched here rather than in the body, which runs once the 200 has been sent, so
+		// invalid criteria still answer 400.
+		int[] recipeIds = recipeapiService.matchRecipeIds(request);
+
+		StreamingResponseBody body = out -> {
+			long streamed = recipeapiService.streamRecipes(recipeIds, out);
+			log.info("RecipeApiController :: streamRecipes :: Streamed {} recipes", streamed);
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
 }
@@ -0,0 +1,216 @@
+package com.publicis.sapient.recipeapi.rest;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.publicis.sapient.recipeapi.dto.DimensionCacheStatsDto;
+import com.publicis.sapient.recipeapi.dto.FeedClientStatsDto;
+import com.publicis.sapient.recipeapi.dto.IngestionJobDto;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.dto.PipelineStageStatsDto;
+import com.publicis.sapient.recipeapi.dto.RecipeCacheStatsDto;
+import com.publicis.sapient.recipeapi.dto.SyncStatusDto;
+import com.publicis.sapient.recipeapi.exception.IngestionJobNotFoundException;
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
+import com.publicis.sapient.recipeapi.ingestion.DimensionCache;
+import com.publicis.sapient.recipeapi.ingestion.FeedHttpMetrics;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJob;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService.Submission;
+import com.publicis.sapient.recipeapi.ingestion.IngestionPipelineMonitor;
+import com.publicis.sapient.recipeapi.ingestion.IngestionPhase;
+import com.publicis.sapient.recipeapi.response.RecipeApiResponse;
+import com.publicis.sapient.recipeapi.service.CatalogState;
+import com.publicis.sapient.recipeapi.service.RecipeJsonCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+@CrossOrigin()
+@Slf4j
+@RestController
+public class RecipeIngestionRestController {
+
+	@Autowired
+	private DimensionCache dimensionCache;
+
+	@Autowired
+	private IngestionJobService ingestionJobService;
+
+	@Autowired
+	private IngestionPipelineMonitor pipelineMonitor;
+
+	@Autowired
+	private FeedHttpMetrics feedHttpMetrics;
+
+	@Autowired
+	private RecipeJsonCache recipeJsonCache;
+
+	@Autowired
+	private CatalogState catalogState;
+
+	@Value("${recipes.sync.enabled:false}")
+	private boolean syncScheduled;
+
+	@Value("${recipes.sync.interval:PT1H}")
+	private String syncInterval;
+
+	@Value("${recipes.import.directory:imports}")
+	private String importDirectory;
+
+	/**
+	 * Starts an offline import of a recipe dump. {@code file} is resolved against
+	 * {@code recipes.import.directory} and may not point outside it.
+	 */
+	@PostMapping("/recipes/imports")
+	public ResponseEntity<RecipeApiResponse> importRecipes(@RequestParam String file) {
+		Path baseDirectory = Paths.get(importDirectory).toAbsolutePath().normalize();
+		Path importFile = baseDirectory.resolve(file).normalize();
+		if (!importFile.startsWith(baseDirectory)) {
+			throw new InvalidInputException("Import file must be inside the import directory.");
+		}
+		if (!Files.isRegularFile(importFile) || !Files.isReadable(importFile)) {
+			throw new InvalidInputException("Import file not found: " + file);
+		}
+
+		Submission submission = ingestionJobService.submitImport(importFile);
+		IngestionJob job = submission.job();
+
+		log.info("RecipeIngestionController :: importRecipes :: Import job {} for {} {}", job.getId(), importFile,
+				submission.joined() ? "joined" : "accepted");
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setTime(LocalDateTime.now());
+		response.setStatus(HttpStatus.ACCEPTED.value());
+		response.setMessage(submission.joined() ? "Joined the import job already in progress" : "Import job accepted");
+		response.setData(job.toDto());
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setLocation(URI.create("/recipes/ingestion-jobs/" + job.getId()));
+		return new ResponseEntity<>(response, headers, HttpStatus.ACCEPTED);
+	}
+
+	@GetMapping("/recipes/ingestion-jobs/{jobId}")
+	public ResponseEntity<RecipeApiResponse> getIngestionJob(@PathVariable String jobId) {
+		IngestionJobDto job = ingestionJobService.find(jobId).map(IngestionJob::toDto)
+				.orElseThrow(() -> new IngestionJobNotFoundException("Ingestion job not found with ID: " + jobId));
+
+		log.info("RecipeIngestionController :: getIngestionJob :: job:{}", job);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched ingestion job successfully");
+		response.setData(job);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@GetMapping("/recipes/dimension-cache")
+	public ResponseEntity<RecipeApiResponse> getDimensionCacheStats() {
+		List<DimensionCacheStatsDto> stats = dimensionCache.stats();
+
+		log.info("RecipeIngestionController :: getDimensionCacheStats :: stats:{}", stats);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched dimension cache statistics successfully");
+		response.setData(stats);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@GetMapping("/recipes/ingestion-pipeline")
+	public ResponseEntity<RecipeApiResponse> getIngestionPipelineStats() {
+		List<PipelineStageStatsDto> stats = pipelineMonitor.stats();
+
+		log.info("RecipeIngestionController :: getIngestionPipelineStats :: stats:{}", stats);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched ingestion pipeline statistics successfully");
+		response.setData(stats);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@GetMapping("/recipes/feed-client")
+	public ResponseEntity<RecipeApiResponse> getFeedClientStats() {
+		FeedClientStatsDto stats = feedHttpMetrics.stats();
+
+		log.info("RecipeIngestionController :: getFeedClientStats :: stats:{}", stats);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched feed client statistics successfully");
+		response.setData(stats);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@GetMapping("/recipes/recipe-cache")
+	public ResponseEntity<RecipeApiResponse> getRecipeCacheStats() {
+		RecipeCacheStatsDto stats = recipeJsonCache.stats();
+
+		log.info("RecipeIngestionController :: getRecipeCacheStats :: stats:{}", stats);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched recipe cache statistics successfully");
+		response.setData(stats);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	@GetMapping("/recipes/sync-status")
+	public ResponseEntity<RecipeApiResponse> getSyncStatus() {
+		Optional<IngestionJob> lastSync = ingestionJobService.lastFinished(IngestionJobService.DELTA_SYNC);
+
+		SyncStatusDto status = SyncStatusDto.builder().scheduled(syncScheduled).interval(syncInterval)
+				.lastSyncAt(lastSync.map(job -> job.toDto().getFinishedAt()).orElse(null))
+				.lastOutcome(lastSync.map(RecipeIngestionRestController::outcome).orElse("NEVER_RUN"))
+				.lastJob(lastSync.map(IngestionJob::toDto).orElse(null)).recipeCount(catalogState.recipeCount())
+				.catalogVersion(catalogState.version()).build();
+
+		log.info("RecipeIngestionController :: getSyncStatus :: status:{}", status);
+
+		RecipeApiResponse response = new RecipeApiResponse();
+		response.setStatus(HttpStatus.OK.value());
+		response.setMessage("Fetched sync status successfully");
+		response.setData(status);
+		response.setTime(LocalDateTime.now());
+
+		return new ResponseEntity<>(response, HttpStatus.OK);
+	}
+
+	private static String outcome(IngestionJob job) {
+		IngestionSummary summary = job.getSummary();
+		if (job.getPhase() == IngestionPhase.FAILED || summary == null) {
+			return "FAILED";
+		}
+		if (summary.getPagesFetched() == 0 && summary.getPagesNotModified() > 0) {
+			return "NOT_MODIFIED";
+		}
+		return summary.hasChanges() ? "UPDATED" : "UNCHANGED";
+	}
+}
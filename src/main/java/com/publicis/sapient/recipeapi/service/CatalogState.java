@@ -0,0 +1,56 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.repo.RecipeApiRepo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The number of recipes in the catalog and a version that moves forward with every
+ * committed change to it. Counted once at startup and then kept current by the write
+ * paths, so the read endpoints can check for an empty catalog without a query.
+ */
+@Slf4j
+@Component
+public class CatalogState {
+
+	@Autowired
+	RecipeApiRepo recipeRepo;
+
+	private final AtomicLong recipeCount = new AtomicLong();
+
+	private final AtomicLong version = new AtomicLong();
+
+	@PostConstruct
+	public void reload() {
+		recipeCount.set(recipeRepo.count());
+		version.incrementAndGet();
+		log.info("CatalogState :: reload :: {} recipes, version {}", recipeCount.get(), version.get());
+	}
+
+	/**
+	 * Records a committed change that added {@code countDelta} recipes, or removed them
+	 * when negative. Updates in place pass zero and still move the version on.
+	 */
+	public void recordChange(long countDelta) {
+		recipeCount.addAndGet(countDelta);
+		version.incrementAndGet();
+	}
+
+	public boolean isEmpty() {
+		return recipeCount.get() <= 0;
+	}
+
+	public long recipeCount() {
+		return recipeCount.get();
+	}
+
+	public long version() {
+		return version.get();
+	}
+}
@@ -1,23 +1,63 @@
 package com.publicis.sapient.recipeapi.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import com.publicis.sapient.recipeapi.binding.RecipeSearchRequest;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
 import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.dto.RecipePage;
+import com.publicis.sapient.recipeapi.ingestion.DimensionDictionary;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.Ranking;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.Suggestion;
 
 public interface IRecipeApiService {
 
 	public List<RecipeDto> fetchExternalApiDataAndPersist();
 
+	public IngestionSummary streamExternalApiDataAndPersist();
+
+	public IngestionSummary streamExternalApiDataAndPersist(Consumer<IngestionSummary> progress);
+
+	public IngestionSummary importRecipes(Path file, Consumer<IngestionSummary> progress);
+
 	public RecipeDto getRecipeById(Integer recipeId);
 
+	public byte[] getRecipeJson(Integer recipeId);
+
+	public Map<Integer, byte[]> getRecipesJson(Collection<Integer> recipeIds);
+
+	public Map<String, Object> getRecipeFields(Integer recipeId, List<String> fields);
+
 	public List<RecipeDto> getRecipesByNameAndCuisine(RecipeDto recipeDto);
 
+	public RecipePage<RecipeDto> searchRecipes(RecipeSearchRequest request);
+
+	public RecipePage<Map<String, Object>> searchRecipeFields(RecipeSearchRequest request);
+
+	public List<Suggestion> suggestRecipes(String prefix, int limit);
+
+	public List<RankedRecipe> getTopRecipes(Ranking ranking, String cuisine, String mealType, int n);
+
+	public int[] matchRecipeIds(RecipeSearchRequest request);
+
+	public long streamRecipes(int[] recipeIds, OutputStream out) throws IOException;
+
 	public String getEntityIdentifier(Object entity);
 
 	public <T, R> List<R> fetchOrCreateEntities(List<T> items, Function<List<T>, List<R>> findFunction,
 			Function<T, R> createFunction, Consumer<List<R>> saveFunction);
 
+	public <R> List<R> fetchOrCreateEntities(List<String> items, DimensionDictionary<R> dictionary,
+			Function<List<String>, List<R>> findFunction, Function<String, R> createFunction,
+			Consumer<List<R>> saveFunction);
+
 	public boolean isRecipeDataEmpty();
 }
@@ -1,44 +1,101 @@
 package com.publicis.sapient.recipeapi.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.publicis.sapient.recipeapi.binding.RecipeBinding;
 import com.publicis.sapient.recipeapi.binding.RecipeListBinding;
+import com.publicis.sapient.recipeapi.binding.RecipeSearchRequest;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
 import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.dto.RecipePage;
+import com.publicis.sapient.recipeapi.entity.IngestionCheckpointEntity;
 import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
 import com.publicis.sapient.recipeapi.entity.InstructionsEntity;
 import com.publicis.sapient.recipeapi.entity.MealTypeEntity;
 import com.publicis.sapient.recipeapi.entity.RecipeEntity;
 import com.publicis.sapient.recipeapi.entity.TagsEntity;
+import com.publicis.sapient.recipeapi.exception.DatabaseException;
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
 import com.publicis.sapient.recipeapi.exception.RecipeNotFoundException;
+import com.publicis.sapient.recipeapi.ingestion.DimensionCache;
+import com.publicis.sapient.recipeapi.ingestion.DimensionDictionary;
+import com.publicis.sapient.recipeapi.ingestion.IngestionPipelineMonitor;
+import com.publicis.sapient.recipeapi.ingestion.RecipeChunk;
+import com.publicis.sapient.recipeapi.ingestion.RecipeDocumentWriter;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient.FeedResult;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFileReader;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFingerprint;
+import com.publicis.sapient.recipeapi.ingestion.RecipeJdbcWriter;
+import com.publicis.sapient.recipeapi.ingestion.RecipeSource;
+import com.publicis.sapient.recipeapi.ingestion.StagedPipeline;
 import com.publicis.sapient.recipeapi.mapper.RecipeMapper;
+import com.publicis.sapient.recipeapi.repo.IngestionCheckpointRepo;
 import com.publicis.sapient.recipeapi.repo.IngredientsRepo;
 import com.publicis.sapient.recipeapi.repo.InstructionsRepo;
 import com.publicis.sapient.recipeapi.repo.MealTypeRepo;
 import com.publicis.sapient.recipeapi.repo.RecipeApiRepo;
+import com.publicis.sapient.recipeapi.repo.RecipeDocumentRepo;
 import com.publicis.sapient.recipeapi.repo.TagsRepo;
-
-import jakarta.transaction.Transactional;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Column;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Page;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Range;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.SeekPosition;
+import com.publicis.sapient.recipeapi.service.RecipeFacetIndex.Facet;
+import com.publicis.sapient.recipeapi.service.RecipeFilterIndex.Dimension;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.Ranking;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.Suggestion;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
 public class RecipeApiServiceImpl implements IRecipeApiService {
 
+	static final String DELTA_SYNC_CHECKPOINT = "delta-sync";
+
+	static final String BULK_IMPORT_CHECKPOINT = "bulk-import";
+
+	static final int DOCUMENT_FETCH_SIZE = 1000;
+
 	@Autowired
 	RecipeApiRepo recipeRepo;
 
@@ -60,9 +117,106 @@ public class RecipeApiServiceImpl implements IRecipeApiService {
 	@Autowired
 	RestTemplate restTemplate;
 	
+	@Autowired
+	RecipeFeedClient recipeFeedClient;
+
+	@Autowired
+	RecipeFileReader recipeFileReader;
+
+	@Autowired
+	DimensionCache dimensionCache;
+
+	@Autowired
+	RecipeJdbcWriter recipeJdbcWriter;
+
+	@Autowired
+	RecipeDocumentWriter documentWriter;
+
+	@Autowired
+	RecipeDocumentRepo recipeDocumentRepo;
+
+	@Autowired
+	RecipeJsonCache recipeJsonCache;
+
+	@Autowired
+	CatalogState catalogState;
+
+	@Autowired
+	RecipeSearchIndex searchIndex;
+
+	@Autowired
+	RecipeFilterIndex filterIndex;
+
+	@Autowired
+	RecipeColumnStore columnStore;
+
+	@Autowired
+	RecipeDocumentStreamer documentStreamer;
+
+	@Autowired
+	RecipeProjectionReader projectionReader;
+
+	@Autowired
+	RecipeSuggestIndex suggestIndex;
+
+	@Autowired
+	RecipeFacetIndex facetIndex;
+
+	@Autowired
+	RecipeLeaderboard leaderboard;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	IngestionCheckpointRepo checkpointRepo;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	IngestionPipelineMonitor pipelineMonitor;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
 	@Value("${recipes.api.url}")
 	String recipesApiUrl;
-	
+
+	@Value("${recipes.ingestion.batch-size:100}")
+	int batchSize;
+
+	@Value("${recipes.ingestion.bulk-writer.enabled:true}")
+	boolean bulkWriterEnabled;
+
+	@Value("${recipes.ingestion.remove-missing:true}")
+	boolean removeMissing;
+
+	@Value("${recipes.ingestion.pipeline.enabled:false}")
+	boolean pipelineEnabled;
+
+	@Value("${recipes.ingestion.pipeline.queue-capacity:4}")
+	int pipelineQueueCapacity;
+
+	@Value("${recipes.ingestion.pipeline.transform-workers:2}")
+	int transformWorkers;
+
+	@Value("${recipes.ingestion.pipeline.resolve-workers:2}")
+	int resolveWorkers;
+
+	@Value("${recipes.search.default-page-size:20}")
+	int defaultPageSize;
+
+	@Value("${recipes.catalog.max-recipe-id:5000000}")
+	int maxRecipeId = 5_000_000;
+
+	TransactionOperations chunkTransaction;
+
+	@PostConstruct
+	void initChunkTransaction() {
+		chunkTransaction = new TransactionTemplate(transactionManager);
+	}
+
 	public String getEntityIdentifier(Object entity) {
 		if (entity instanceof IngredientsEntity) {
 			return ((IngredientsEntity) entity).getIngredientsname();
@@ -109,7 +263,35 @@ public class RecipeApiServiceImpl implements IRecipeApiService {
 		return existingEntities;
 	}
 
-	@Transactional
+	/**
+	 * Dictionary-aware variant: names already known to the process-wide dimension cache
+	 * are resolved without touching the database, and only the misses are looked up and
+	 * created.
+	 */
+	public <R> List<R> fetchOrCreateEntities(List<String> items, DimensionDictionary<R> dictionary,
+			Function<List<String>, List<R>> findFunction, Function<String, R> createFunction,
+			Consumer<List<R>> saveFunction) {
+
+		if (Objects.isNull(items) || items.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<R> resolved = new ArrayList<>(items.size());
+		List<String> misses = new ArrayList<>();
+		for (String item : items) {
+			dictionary.lookup(item).ifPresentOrElse(resolved::add, () -> misses.add(item));
+		}
+
+		log.info("RecipeApiServiceImpl :: fetchOrCreateEntities : {} cache hits and {} misses for {}.",
+				resolved.size(), misses.size(), dictionary.getDimension());
+
+		if (!misses.isEmpty()) {
+			resolved.addAll(dimensionCache.fetchOrCreate(dictionary, misses,
+					names -> fetchOrCreateEntities(names, findFunction, createFunction, saveFunction)));
+		}
+		return resolved;
+	}
+
 	public List<RecipeDto> fetchExternalApiDataAndPersist() {
 		log.info("RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: Fetching recipes from external API: {}",
 				recipesApiUrl);
@@ -122,7 +304,8 @@ public class RecipeApiServiceImpl implements IRecipeApiService {
 			return Collections.emptyList();
 		}
 
-		List<RecipeBinding> recipes = response.getRecipes();
+		List<RecipeBinding> recipes = response.getRecipes().stream().filter(this::hasIndexableId)
+				.collect(Collectors.toList());
 
 		if (recipes.isEmpty()) {
 			log.warn("RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: No recipes found in external API.");
@@ -132,60 +315,653 @@ public class RecipeApiServiceImpl implements IRecipeApiService {
 		log.info("RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: Successfully fetched {} recipes.",
 				recipes.size());
 
-		List<RecipeEntity> recipeEntities = recipes.stream().map(recipe -> {
-			RecipeEntity recipeEntity = recipeMapper.modelMapper.map(recipe, RecipeEntity.class);
+		// Each chunk commits on its own, so a failure late in the response keeps the earlier chunks.
+		List<RecipeDto> saved = new ArrayList<>(recipes.size());
+		for (int from = 0; from < recipes.size(); from += batchSize) {
+			List<RecipeBinding> chunk = recipes.subList(from, Math.min(from + batchSize, recipes.size()));
+			saved.addAll(chunkTransaction.execute(status -> {
+				List<RecipeEntity> recipeEntities = resolveRecipeBatch(chunk);
 
-			recipeEntity.setIngredients(fetchOrCreateEntities(recipe.getIngredients(),
-					ingredientsRepo::findExistingIngredients, IngredientsEntity::new, ingredientsRepo::saveAll));
+				log.info("RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: Saving {} recipes to the database.",
+						recipeEntities.size());
 
-			recipeEntity.setTags(fetchOrCreateEntities(recipe.getTags(), tagsRepo::findExistingTag, TagsEntity::new,
-					tagsRepo::saveAll));
+				recipeRepo.saveAll(recipeEntities);
+				documentWriter.refresh(recipeEntities);
+				return recipeMapper.convertToDTOList(recipeEntities);
+			}));
+		}
 
-			recipeEntity.setMealTypes(fetchOrCreateEntities(recipe.getMealType(), mealRepo::findExistingMealType,
-					MealTypeEntity::new, mealRepo::saveAll));
+		log.info(
+				"RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: Successfully saved recipes to the database.");
 
-			recipeEntity.setInstructions(fetchOrCreateEntities(recipe.getInstructions(),
-					instructionsRepo::findExistingInstruction, InstructionsEntity::new, instructionsRepo::saveAll));
+		return saved;
+	}
 
-			return recipeEntity;
-		}).collect(Collectors.toList());
+	/**
+	 * Delta sync: walks the whole feed, writes only recipes whose fingerprint is new or
+	 * different from the stored one, and removes recipes the feed no longer lists. Pages
+	 * the feed answers with {@code 304 Not Modified} are skipped without parsing.
+	 * <p>
+	 * Every batch commits in its own transaction together with a checkpoint of the feed
+	 * offset reached, so a run that dies part-way resumes from that offset next time
+	 * instead of starting over.
+	 */
+	public IngestionSummary streamExternalApiDataAndPersist() {
+		return streamExternalApiDataAndPersist(progress -> {
+		});
+	}
 
-		log.info("RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: Saving {} recipes to the database.",
-				recipeEntities.size());
+	/**
+	 * Same as {@link #streamExternalApiDataAndPersist()}, reporting the running summary to
+	 * {@code progress} after every batch.
+	 */
+	public IngestionSummary streamExternalApiDataAndPersist(Consumer<IngestionSummary> progress) {
+		log.info("RecipeApiServiceImpl :: streamExternalApiDataAndPersist :: Streaming recipes from external API: {}",
+				recipesApiUrl);
 
-		recipeRepo.saveAll(recipeEntities);
+		CheckpointKey checkpointKey = new CheckpointKey(DELTA_SYNC_CHECKPOINT, recipesApiUrl);
+		return ingest(checkpointKey, recipeFeedClient::streamChangedRecipes, removeMissing, progress,
+				this::storeValidatorsAfterCommit);
+	}
 
-		log.info(
-				"RecipeApiServiceImpl :: fetchExternalApiDataAndPersist :: Successfully saved recipes to the database.");
+	/**
+	 * Offline import of a local recipe dump through the same fingerprint, batch and
+	 * checkpoint path as the feed. An import only adds and updates recipes; it never
+	 * removes recipes missing from the file.
+	 */
+	public IngestionSummary importRecipes(Path file, Consumer<IngestionSummary> progress) {
+		log.info("RecipeApiServiceImpl :: importRecipes :: Importing recipes from file: {}", file);
+
+		CheckpointKey checkpointKey = new CheckpointKey(BULK_IMPORT_CHECKPOINT, file.toUri().toString());
+		return ingest(checkpointKey,
+				(startOffset, recipes, notModified) -> recipeFileReader.read(file, startOffset, recipes), false,
+				progress, feed -> {
+				});
+	}
+
+	private IngestionSummary ingest(CheckpointKey checkpointKey, RecipeSource source, boolean removeMissingRecipes,
+			Consumer<IngestionSummary> progress, Consumer<FeedResult> onFullWalk) {
+		IngestionCheckpointEntity checkpoint = checkpointRepo.findById(checkpointKey.jobType())
+				.filter(saved -> checkpointKey.sourceUrl().equals(saved.getSourceUrl())).orElse(null);
+		long startOffset = checkpoint == null ? 0 : checkpoint.getFeedOffset();
+
+		if (startOffset > 0) {
+			log.info("RecipeApiServiceImpl :: ingest :: Resuming {} from offset {} after recipe {}",
+					checkpointKey.jobType(), startOffset, checkpoint.getLastRecipeId());
+		}
+
+		IngestionSummary summary = new IngestionSummary();
+		summary.setResumedFromOffset(startOffset);
+		BitSet seenIds = new BitSet();
+		FeedResult feed = pipelineEnabled
+				? streamThroughPipeline(checkpointKey, source, startOffset, seenIds, summary, progress)
+				: streamBatches(checkpointKey, source, startOffset, seenIds, summary, progress);
+
+		summary.setProcessed(feed.recipes());
+		summary.setPagesFetched(feed.pagesFetched());
+		summary.setPagesNotModified(feed.pagesNotModified());
+
+		boolean checkpointed = checkpoint != null || feed.recipes() > 0;
+		chunkTransaction.executeWithoutResult(status -> {
+			// A resumed run has not seen the recipes before its offset, and a walk that stopped short
+			// has not seen those after it, so neither can tell which are gone.
+			if (removeMissingRecipes && startOffset == 0 && feed.complete() && feed.recipes() > 0) {
+				removeMissingRecipes(seenIds, summary);
+			}
+			if (checkpointed) {
+				checkpointRepo.deleteById(checkpointKey.jobType());
+			}
+		});
+
+		// Validators from a partial walk do not describe the pages before the offset.
+		if (startOffset == 0 && feed.complete()) {
+			onFullWalk.accept(feed);
+		}
+
+		log.info("RecipeApiServiceImpl :: ingest :: {} finished: {}", checkpointKey.jobType(), summary);
+		return summary;
+	}
+
+	private FeedResult streamBatches(CheckpointKey checkpointKey, RecipeSource source, long startOffset,
+			BitSet seenIds, IngestionSummary summary, Consumer<IngestionSummary> progress) {
+		List<RecipeBinding> batch = new ArrayList<>(batchSize);
+		long[] walked = { startOffset };
+		FeedResult feed = source.stream(startOffset, recipe -> {
+			walked[0]++;
+			if (!hasIndexableId(recipe)) {
+				return;
+			}
+			if (recipe.getId() != null) {
+				seenIds.set(recipe.getId());
+			}
+			batch.add(recipe);
+			if (batch.size() >= batchSize) {
+				commitRecipeBatch(checkpointKey, batch, summary, walked[0]);
+				batch.clear();
+				progress.accept(summary);
+			}
+		}, recipeId -> {
+			// The page is unchanged since the last successful sync, so its recipes are too.
+			seenIds.set(recipeId);
+			walked[0]++;
+			summary.setProcessed(summary.getProcessed() + 1);
+			summary.setUnchanged(summary.getUnchanged() + 1);
+		});
+
+		if (!batch.isEmpty()) {
+			commitRecipeBatch(checkpointKey, batch, summary, walked[0]);
+			progress.accept(summary);
+		}
+		return feed;
+	}
+
+	/**
+	 * Pipelined variant of {@link #streamBatches}: the feed walk (fetch and decode) runs on
+	 * the calling thread while fingerprinting, dimension resolution and writing run as
+	 * separate stages joined by bounded queues. The writer is a single ordered stage, so
+	 * chunks and their checkpoints still commit in feed order and the summary is only
+	 * updated from one thread.
+	 */
+	private FeedResult streamThroughPipeline(CheckpointKey checkpointKey, RecipeSource source, long startOffset,
+			BitSet seenIds, IngestionSummary summary, Consumer<IngestionSummary> progress) {
+		StagedPipeline<RecipeChunk> pipeline = new StagedPipeline<RecipeChunk>("fetch", pipelineQueueCapacity,
+				RecipeChunk::recordCount).stage("transform", transformWorkers, this::fingerprintRecipes)
+				.stage("resolve", resolveWorkers, this::resolveChangedRecipes).orderedStage("write", chunk -> {
+					commitRecipeChunk(checkpointKey, chunk);
+					chunk.addTo(summary);
+					progress.accept(summary);
+				});
+		pipelineMonitor.track(pipeline);
+
+		FeedResult[] feed = new FeedResult[1];
+		pipeline.run(emit -> {
+			List<RecipeBinding> batch = new ArrayList<>(batchSize);
+			long[] walked = { startOffset };
+			long[] notModified = { 0 };
+			feed[0] = source.stream(startOffset, recipe -> {
+				walked[0]++;
+				if (!hasIndexableId(recipe)) {
+					return;
+				}
+				if (recipe.getId() != null) {
+					seenIds.set(recipe.getId());
+				}
+				batch.add(recipe);
+				if (batch.size() >= batchSize) {
+					emit.accept(new RecipeChunk(new ArrayList<>(batch), notModified[0], walked[0]));
+					batch.clear();
+					notModified[0] = 0;
+				}
+			}, recipeId -> {
+				seenIds.set(recipeId);
+				walked[0]++;
+				notModified[0]++;
+			});
+
+			if (!batch.isEmpty() || notModified[0] > 0) {
+				emit.accept(new RecipeChunk(new ArrayList<>(batch), notModified[0], walked[0]));
+			}
+		});
+
+		log.info("RecipeApiServiceImpl :: streamThroughPipeline :: Pipeline stages: {}", pipeline.stats());
+		return feed[0];
+	}
+
+	/**
+	 * The in-memory indexes hold arrays indexed by recipe id, so a recipe whose id is
+	 * negative or above {@code recipes.catalog.max-recipe-id} is left out of ingestion
+	 * instead of sizing them.
+	 */
+	private boolean hasIndexableId(RecipeBinding recipe) {
+		Integer id = recipe.getId();
+		if (id == null || (id >= 0 && id <= maxRecipeId)) {
+			return true;
+		}
+		log.warn("RecipeApiServiceImpl :: hasIndexableId :: Skipping recipe {} outside ids 0 to {}.", id, maxRecipeId);
+		return false;
+	}
+
+	private void commitRecipeChunk(CheckpointKey checkpointKey, RecipeChunk chunk) {
+		if (chunk.getRecipes().isEmpty()) {
+			return;
+		}
+		chunkTransaction.executeWithoutResult(status -> {
+			writeRecipes(chunk);
+			saveCheckpoint(checkpointKey, chunk.getFeedOffset(), chunk.getRecipes());
+		});
+	}
+
+	private void commitRecipeBatch(CheckpointKey checkpointKey, List<RecipeBinding> batch, IngestionSummary summary,
+			long feedOffset) {
+		chunkTransaction.executeWithoutResult(status -> {
+			persistRecipeBatch(batch, summary);
+			saveCheckpoint(checkpointKey, feedOffset, batch);
+		});
+	}
+
+	private void saveCheckpoint(CheckpointKey checkpointKey, long feedOffset, List<RecipeBinding> batch) {
+		checkpointRepo.save(IngestionCheckpointEntity.builder().jobType(checkpointKey.jobType())
+				.sourceUrl(checkpointKey.sourceUrl()).feedOffset(feedOffset)
+				.lastRecipeId(batch.get(batch.size() - 1).getId()).updatedAt(LocalDateTime.now()).build());
+	}
+
+	void persistRecipeBatch(List<RecipeBinding> recipes, IngestionSummary summary) {
+		RecipeChunk chunk = new RecipeChunk(recipes, 0, 0);
+		fingerprintRecipes(chunk);
+		resolveChangedRecipes(chunk);
+		writeRecipes(chunk);
+		chunk.addTo(summary);
+	}
+
+	void fingerprintRecipes(RecipeChunk chunk) {
+		chunk.setContentHashes(chunk.getRecipes().stream().map(RecipeFingerprint::of).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Compares the chunk's fingerprints with the stored ones and resolves dimensions for
+	 * the recipes that are new or changed; unchanged recipes go no further.
+	 */
+	void resolveChangedRecipes(RecipeChunk chunk) {
+		List<RecipeBinding> recipes = chunk.getRecipes();
+		if (recipes.isEmpty()) {
+			return;
+		}
+
+		Map<Integer, String> storedHashes = new HashMap<>();
+		recipeRepo.findFingerprints(recipes.stream().map(RecipeBinding::getId).filter(Objects::nonNull)
+				.collect(Collectors.toList()))
+				.forEach(stored -> storedHashes.put(stored.getId(), stored.getContentHash()));
+
+		List<RecipeBinding> changed = new ArrayList<>();
+		List<String> changedHashes = new ArrayList<>();
+		for (int i = 0; i < recipes.size(); i++) {
+			RecipeBinding recipe = recipes.get(i);
+			String contentHash = chunk.getContentHashes().get(i);
+			if (!storedHashes.containsKey(recipe.getId())) {
+				chunk.setAdded(chunk.getAdded() + 1);
+			} else if (contentHash.equals(storedHashes.get(recipe.getId()))) {
+				chunk.setUnchanged(chunk.getUnchanged() + 1);
+				continue;
+			} else {
+				chunk.setUpdated(chunk.getUpdated() + 1);
+			}
+			changed.add(recipe);
+			changedHashes.add(contentHash);
+		}
+
+		if (changed.isEmpty()) {
+			log.info("RecipeApiServiceImpl :: resolveChangedRecipes :: All {} recipes in batch are unchanged.",
+					recipes.size());
+			return;
+		}
+
+		chunk.setChangedEntities(resolveRecipeBatch(changed, storedHashes.keySet(), changedHashes));
+	}
+
+	void writeRecipes(RecipeChunk chunk) {
+		List<RecipeEntity> recipeEntities = chunk.getChangedEntities();
+		if (recipeEntities.isEmpty()) {
+			return;
+		}
+
+		log.info("RecipeApiServiceImpl :: writeRecipes :: Saving {} changed recipes out of {} to the database.",
+				recipeEntities.size(), chunk.getRecipes().size());
+
+		if (bulkWriterEnabled) {
+			Map<Boolean, List<RecipeEntity>> byNew = recipeEntities.stream()
+					.collect(Collectors.partitioningBy(RecipeEntity::isNew));
+			recipeJdbcWriter.insertRecipes(byNew.get(true));
+			// Merging changed recipes would load each one and its four collections first.
+			recipeJdbcWriter.updateRecipes(byNew.get(false));
+		} else {
+			recipeRepo.saveAll(recipeEntities);
+		}
+		documentWriter.refresh(recipeEntities);
 
-		return recipeMapper.convertToDTOList(recipeEntities);
+		// Detach the batch so the persistence context does not grow with the feed.
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private void storeValidatorsAfterCommit(FeedResult feed) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			recipeFeedClient.storeValidators(feed.validators());
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				recipeFeedClient.storeValidators(feed.validators());
+			}
+		});
+	}
+
+	private void removeMissingRecipes(BitSet seenIds, IngestionSummary summary) {
+		List<Integer> missing = recipeRepo.findAllIds().stream().filter(id -> !seenIds.get(id))
+				.collect(Collectors.toList());
+
+		if (missing.isEmpty()) {
+			return;
+		}
+
+		log.info("RecipeApiServiceImpl :: removeMissingRecipes :: Removing {} recipes no longer in the feed.",
+				missing.size());
+
+		if (bulkWriterEnabled) {
+			recipeJdbcWriter.deleteRecipes(missing);
+		} else {
+			recipeRepo.deleteAllById(missing);
+			entityManager.flush();
+			entityManager.clear();
+		}
+		documentWriter.delete(missing);
+		summary.setRemoved(missing.size());
+	}
+
+	List<RecipeEntity> resolveRecipeBatch(List<RecipeBinding> recipes) {
+		Set<Integer> existingIds = new HashSet<>(recipeRepo.findExistingIds(
+				recipes.stream().map(RecipeBinding::getId).filter(Objects::nonNull).collect(Collectors.toList())));
+		return resolveRecipeBatch(recipes, existingIds,
+				recipes.stream().map(RecipeFingerprint::of).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Resolves every dimension once for the whole batch: the distinct values of each
+	 * dimension are looked up with a single query, the missing ones are inserted together,
+	 * and the recipes are then wired from the resolved maps.
+	 */
+	List<RecipeEntity> resolveRecipeBatch(List<RecipeBinding> recipes, Set<Integer> existingIds,
+			List<String> contentHashes) {
+		Map<String, IngredientsEntity> ingredients = resolveDimension(recipes, RecipeBinding::getIngredients,
+				dimensionCache.ingredients(), ingredientsRepo::findExistingIngredients, IngredientsEntity::new,
+				ingredientsRepo::saveAll);
+
+		Map<String, TagsEntity> tags = resolveDimension(recipes, RecipeBinding::getTags, dimensionCache.tags(),
+				tagsRepo::findExistingTag, TagsEntity::new, tagsRepo::saveAll);
+
+		Map<String, MealTypeEntity> mealTypes = resolveDimension(recipes, RecipeBinding::getMealType,
+				dimensionCache.mealTypes(), mealRepo::findExistingMealType, MealTypeEntity::new, mealRepo::saveAll);
+
+		Map<String, InstructionsEntity> instructions = resolveDimension(recipes, RecipeBinding::getInstructions,
+				dimensionCache.instructions(), instructionsRepo::findExistingInstruction, InstructionsEntity::new,
+				instructionsRepo::saveAll);
+
+		List<RecipeEntity> recipeEntities = new ArrayList<>(recipes.size());
+		for (int i = 0; i < recipes.size(); i++) {
+			RecipeBinding recipe = recipes.get(i);
+			RecipeEntity recipeEntity = recipeMapper.modelMapper.map(recipe, RecipeEntity.class);
+			recipeEntity.setIngredients(wireDimension(recipe.getIngredients(), ingredients));
+			recipeEntity.setTags(wireDimension(recipe.getTags(), tags));
+			recipeEntity.setMealTypes(wireDimension(recipe.getMealType(), mealTypes));
+			recipeEntity.setInstructions(wireDimension(recipe.getInstructions(), instructions));
+			recipeEntity.setContentHash(contentHashes.get(i));
+			recipeEntity.setNewRecipe(!existingIds.contains(recipeEntity.getId()));
+			recipeEntities.add(recipeEntity);
+		}
+		return recipeEntities;
+	}
+
+	<R> Map<String, R> resolveDimension(List<RecipeBinding> recipes, Function<RecipeBinding, List<String>> values,
+			DimensionDictionary<R> dictionary, Function<List<String>, List<R>> findFunction,
+			Function<String, R> createFunction, Consumer<List<R>> saveFunction) {
+
+		List<String> distinctValues = recipes.stream().map(values).filter(Objects::nonNull).flatMap(List::stream)
+				.filter(Objects::nonNull).distinct().collect(Collectors.toList());
+
+		return fetchOrCreateEntities(distinctValues, dictionary, findFunction, createFunction, saveFunction).stream()
+				.collect(Collectors.toMap(this::getEntityIdentifier, Function.identity(), (first, second) -> first));
+	}
+
+	private <R> List<R> wireDimension(List<String> names, Map<String, R> resolved) {
+		if (names == null) {
+			return new ArrayList<>();
+		}
+		return names.stream().map(resolved::get).filter(Objects::nonNull).collect(Collectors.toList());
 	}
 
 	public List<RecipeDto> getRecipesByNameAndCuisine(RecipeDto recipeDto) {
 
 		log.info("RecipeApiServiceImpl :: getRecipesByNameAndCuisine :: recipeDto:" + " " + recipeDto);
 
-		ExampleMatcher matcher = ExampleMatcher.matching().withIgnoreCase()
-				.withMatcher("name", ExampleMatcher.GenericPropertyMatchers.contains())
-				.withMatcher("cuisine", ExampleMatcher.GenericPropertyMatchers.contains());
+		// Case-insensitive substring match on name and cuisine, answered by the trigram index.
+		int[] recipeIds = searchIndex.search(recipeDto.getName(), recipeDto.getCuisine());
+
+		log.info("RecipeApiServiceImpl :: getRecipesByNameAndCuisine :: Found {} recipes:" + " " + recipeIds.length);
+		return readDocuments(recipeIds);
+	}
+
+	public RecipePage<RecipeDto> searchRecipes(RecipeSearchRequest request) {
+
+		log.info("RecipeApiServiceImpl :: searchRecipes :: request: {}", request);
+
+		SearchPage page = pageRecipes(request);
+		return new RecipePage<>(readPage(page.recipeIds()), page.nextCursor(), page.facets());
+	}
+
+	public RecipePage<Map<String, Object>> searchRecipeFields(RecipeSearchRequest request) {
 
-		RecipeEntity recipeEntity = recipeMapper.convertToEntity(recipeDto);
-		Example<RecipeEntity> of = Example.of(recipeEntity, matcher);
-		List<RecipeEntity> recipes = recipeRepo.findAll(of);
+		log.info("RecipeApiServiceImpl :: searchRecipeFields :: request: {}", request);
 
-		log.info("RecipeApiServiceImpl :: getRecipesByNameAndCuisine :: Found {} recipes:" + " " + recipes.size());
-		return recipes.isEmpty() ? Collections.emptyList() : recipeMapper.convertToDTOList(recipes);
+		Set<RecipeField> fields = RecipeField.parse(request.getFields());
+		SearchPage page = pageRecipes(request);
+		return new RecipePage<>(projectionReader.read(page.recipeIds(), fields), page.nextCursor(), page.facets());
+	}
+
+	/**
+	 * Finds the matches of a search and cuts the requested page from them, counting the
+	 * requested facets over all the matches.
+	 */
+	private SearchPage pageRecipes(RecipeSearchRequest request) {
+		Column column = Column.forParameter(request.sortField())
+				.orElseThrow(() -> new InvalidInputException("Invalid 'sort': " + request.getSort()));
+		String sort = (request.sortDescending() ? "-" : "") + column.parameter();
+		SeekPosition after = request.getCursor() == null ? null : RecipeCursor.decode(request.getCursor(), sort);
+		int limit = request.getLimit() == null ? defaultPageSize : request.getLimit();
+		Set<Facet> facets = Facet.parse(request.getFacets());
+		int[] recipeIds = matchRecipes(request);
+
+		// Only the page is ordered and read, so the cost of a request follows the limit
+		// rather than the number of matches.
+		Page page = columnStore.page(recipeIds, column, request.sortDescending(), after, limit);
+		String nextCursor = page.next() == null ? null : RecipeCursor.encode(sort, page.next());
+
+		log.info("RecipeApiServiceImpl :: pageRecipes :: Found {} recipes, returning {}", recipeIds.length,
+				page.ids().length);
+		return new SearchPage(page.ids(), nextCursor, facets == null ? null : facetIndex.count(recipeIds, facets));
+	}
+
+	/**
+	 * Ids, in ascending order, of every recipe a search matches, for
+	 * {@link #streamRecipes(int[], OutputStream)}. Invalid criteria are rejected here,
+	 * before anything has been written.
+	 */
+	public int[] matchRecipeIds(RecipeSearchRequest request) {
+
+		log.info("RecipeApiServiceImpl :: matchRecipeIds :: request: {}", request);
+
+		return matchRecipes(request);
+	}
+
+	public long streamRecipes(int[] recipeIds, OutputStream out) throws IOException {
+		return documentStreamer.write(recipeIds, out);
+	}
+
+	/**
+	 * Ids, in ascending order, of the recipes matching the name, cuisine, filters and
+	 * ranges of a search.
+	 */
+	private int[] matchRecipes(RecipeSearchRequest request) {
+		Map<Dimension, List<String>> filters = new EnumMap<>(Dimension.class);
+		filters.put(Dimension.INGREDIENT, request.getIngredient());
+		filters.put(Dimension.TAG, request.getTag());
+		filters.put(Dimension.MEAL_TYPE, request.getMealType());
+		RecipeBitmap filtered = filterIndex.filter(filters, request.matchAll());
+		List<Range> ranges = ranges(request);
+		boolean textSearch = request.getName() != null || request.getCuisine() != null;
+
+		// Ranges alone are read from the sorted columns; next to other criteria they are
+		// checked on those criteria's matches instead.
+		if (filtered == null && !textSearch && !ranges.isEmpty()) {
+			return columnStore.range(ranges);
+		}
+		int[] recipeIds;
+		if (filtered != null && !textSearch) {
+			recipeIds = filtered.toArray();
+		} else {
+			recipeIds = searchIndex.search(request.getName(), request.getCuisine());
+			if (filtered != null) {
+				recipeIds = Arrays.stream(recipeIds).filter(filtered::contains).toArray();
+			}
+		}
+		return ranges.isEmpty() ? recipeIds : columnStore.filter(recipeIds, ranges);
+	}
+
+	private static List<Range> ranges(RecipeSearchRequest request) {
+		return Stream
+				.of(Range.between(Column.RATING, request.getMinRating(), request.getMaxRating()),
+						Range.between(Column.REVIEW_COUNT, request.getMinReviewCount(), request.getMaxReviewCount()),
+						Range.between(Column.PREP_TIME, request.getMinPrepMinutes(), request.getMaxPrepMinutes()),
+						Range.between(Column.COOK_TIME, request.getMinCookMinutes(), request.getMaxCookMinutes()),
+						Range.between(Column.TOTAL_TIME, request.getMinTotalMinutes(), request.getMaxTotalMinutes()),
+						Range.between(Column.CALORIES, request.getMinCalories(), request.getMaxCalories()),
+						Range.between(Column.SERVINGS, request.getMinServings(), request.getMaxServings()))
+				.filter(Objects::nonNull).toList();
+	}
+
+	/**
+	 * Reads the documents of a page in one statement and returns them in page order.
+	 */
+	private List<RecipeDto> readPage(int[] recipeIds) {
+		if (recipeIds.length == 0) {
+			return Collections.emptyList();
+		}
+
+		Map<Integer, RecipeDto> byId = new HashMap<>();
+		recipeDocumentRepo.findDocuments(Arrays.stream(recipeIds).boxed().toList()).forEach(document -> {
+			RecipeDto recipe = readDocument(document);
+			byId.put(recipe.getId(), recipe);
+		});
+		return Arrays.stream(recipeIds).mapToObj(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	/**
+	 * Reads the documents of the given ids, which are in ascending order, a chunk at a time.
+	 */
+	private List<RecipeDto> readDocuments(int[] recipeIds) {
+		if (recipeIds.length == 0) {
+			return Collections.emptyList();
+		}
+
+		List<RecipeDto> recipes = new ArrayList<>(recipeIds.length);
+		for (int from = 0; from < recipeIds.length; from += DOCUMENT_FETCH_SIZE) {
+			List<Integer> chunk = Arrays.stream(recipeIds, from, Math.min(from + DOCUMENT_FETCH_SIZE, recipeIds.length))
+					.boxed().toList();
+			recipeDocumentRepo.findDocuments(chunk).forEach(document -> recipes.add(readDocument(document)));
+		}
+		return recipes;
 	}
 
 	public RecipeDto getRecipeById(Integer recipeId) {
 
-		return recipeRepo.findById(recipeId).map(recipe -> {
-			log.info("RecipeApiServiceImpl :: getRecipeById : {}", recipe);
-			return recipeMapper.convertToRecipeDto(recipe);
+		return recipeDocumentRepo.findDocument(recipeId).map(document -> {
+			log.info("RecipeApiServiceImpl :: getRecipeById : {}", recipeId);
+			return readDocument(document);
 		}).orElseThrow(() -> new RecipeNotFoundException("Recipe not found with ID: " + recipeId));
 	}
 
+	public byte[] getRecipeJson(Integer recipeId) {
+		byte[] cached = recipeJsonCache.get(recipeId);
+		if (cached != null) {
+			return cached;
+		}
+
+		long stamp = recipeJsonCache.stamp(recipeId);
+		byte[] json = recipeDocumentRepo.findDocument(recipeId)
+				.map(document -> document.getBytes(StandardCharsets.UTF_8))
+				.orElseThrow(() -> new RecipeNotFoundException("Recipe not found with ID: " + recipeId));
+		log.info("RecipeApiServiceImpl :: getRecipeJson :: Loaded recipe {} ({} bytes)", recipeId, json.length);
+		recipeJsonCache.put(recipeId, json, stamp);
+		return json;
+	}
+
+	/**
+	 * The JSON of each of the given recipes that exists, keyed by id. Cached recipes are
+	 * served from memory and the rest are read by id a chunk at a time, so a batch costs
+	 * one statement per {@value #DOCUMENT_FETCH_SIZE} uncached ids.
+	 */
+	public Map<Integer, byte[]> getRecipesJson(Collection<Integer> recipeIds) {
+		Map<Integer, byte[]> found = new HashMap<>();
+		Map<Integer, Long> stamps = new LinkedHashMap<>();
+		for (Integer recipeId : new LinkedHashSet<>(recipeIds)) {
+			byte[] cached = recipeJsonCache.get(recipeId);
+			if (cached != null) {
+				found.put(recipeId, cached);
+			} else {
+				stamps.put(recipeId, recipeJsonCache.stamp(recipeId));
+			}
+		}
+
+		int cached = found.size();
+		List<Integer> misses = new ArrayList<>(stamps.keySet());
+		for (int from = 0; from < misses.size(); from += DOCUMENT_FETCH_SIZE) {
+			List<Integer> chunk = misses.subList(from, Math.min(from + DOCUMENT_FETCH_SIZE, misses.size()));
+			recipeDocumentRepo.findDocumentsById(chunk).forEach(document -> {
+				byte[] json = document.getDocument().getBytes(StandardCharsets.UTF_8);
+				found.put(document.getId(), json);
+				recipeJsonCache.put(document.getId(), json, stamps.get(document.getId()));
+			});
+		}
+
+		log.info("RecipeApiServiceImpl :: getRecipesJson :: {} cached, {} of {} uncached found", cached,
+				found.size() - cached, misses.size());
+		return found;
+	}
+
+	public Map<String, Object> getRecipeFields(Integer recipeId, List<String> fields) {
+
+		log.info("RecipeApiServiceImpl :: getRecipeFields :: recipe: {}, fields: {}", recipeId, fields);
+
+		return projectionReader.read(new int[] { recipeId }, RecipeField.parse(fields)).stream().findFirst()
+				.orElseThrow(() -> new RecipeNotFoundException("Recipe not found with ID: " + recipeId));
+	}
+
+	/**
+	 * Answered from memory alone; nothing is logged per call, as the lookup itself takes
+	 * microseconds.
+	 */
+	public List<Suggestion> suggestRecipes(String prefix, int limit) {
+		return suggestIndex.suggest(prefix, limit);
+	}
+
+	/**
+	 * Copied from a cached leaderboard; like suggestions, not logged per call.
+	 */
+	public List<RankedRecipe> getTopRecipes(Ranking ranking, String cuisine, String mealType, int n) {
+		return leaderboard.top(ranking, cuisine, mealType, n);
+	}
+
+	private RecipeDto readDocument(String document) {
+		try {
+			return objectMapper.readValue(document, RecipeDto.class);
+		} catch (JsonProcessingException e) {
+			throw new DatabaseException("Stored recipe document could not be read: " + e.getOriginalMessage());
+		}
+	}
+
 	public boolean isRecipeDataEmpty() {
-		return recipeRepo.count() == 0;
+		return catalogState.isEmpty();
+	}
+
+	/**
+	 * Identifies an ingestion's checkpoint row and the source it is valid for.
+	 */
+	private record CheckpointKey(String jobType, String sourceUrl) {
+	}
+
+	/**
+	 * The ids of a page of search results in order, the cursor of the page after it and the
+	 * facet counts of the whole search, if asked for.
+	 */
+	private record SearchPage(int[] recipeIds, String nextCursor, Map<String, Map<String, Integer>> facets) {
 	}
 }
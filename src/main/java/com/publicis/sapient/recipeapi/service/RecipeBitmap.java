@@ -0,0 +1,456 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative recipe ids in the layout of a Roaring bitmap: ids are
+ * grouped by their upper 16 bits, and each group of up to 65536 ids is held either as a
+ * sorted {@code char[]} while it has at most {@value #ARRAY_LIMIT} members or as a
+ * 65536-bit {@code long[]} once it is denser than that. A dimension value shared by a
+ * handful of recipes costs a few bytes per recipe, one shared by most of the catalog at
+ * most one bit per id.
+ * <p>
+ * {@link #and} and {@link #or} return new bitmaps and leave their arguments untouched.
+ */
+public final class RecipeBitmap {
+
+	static final int ARRAY_LIMIT = 4096;
+
+	private static final int WORDS = 1 << 10;
+
+	private char[] keys = new char[0];
+
+	private Container[] containers = new Container[0];
+
+	private int size;
+
+	public static RecipeBitmap of(int... ids) {
+		RecipeBitmap bitmap = new RecipeBitmap();
+		for (int id : ids) {
+			bitmap.add(id);
+		}
+		return bitmap;
+	}
+
+	public void add(int id) {
+		checkId(id);
+		char key = (char) (id >>> 16);
+		int index = Arrays.binarySearch(keys, 0, size, key);
+		if (index >= 0) {
+			containers[index] = containers[index].add((char) id);
+			return;
+		}
+		index = -index - 1;
+		if (size == keys.length) {
+			int capacity = Math.max(4, size * 2);
+			keys = Arrays.copyOf(keys, capacity);
+			containers = Arrays.copyOf(containers, capacity);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index] = key;
+		containers[index] = new ArrayContainer().add((char) id);
+		size++;
+	}
+
+	public void remove(int id) {
+		if (id < 0) {
+			return;
+		}
+		int index = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+		if (index < 0) {
+			return;
+		}
+		Container container = containers[index].remove((char) id);
+		if (container.cardinality() > 0) {
+			containers[index] = container;
+			return;
+		}
+		System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+		System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+		size--;
+		containers[size] = null;
+	}
+
+	public boolean contains(int id) {
+		if (id < 0) {
+			return false;
+		}
+		int index = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+		return index >= 0 && containers[index].contains((char) id);
+	}
+
+	public int cardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].cardinality();
+		}
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * The ids in ascending order.
+	 */
+	public int[] toArray() {
+		int[] ids = new int[cardinality()];
+		int offset = 0;
+		for (int i = 0; i < size; i++) {
+			offset = containers[i].copyTo(ids, offset, keys[i] << 16);
+		}
+		return ids;
+	}
+
+	public static RecipeBitmap and(RecipeBitmap left, RecipeBitmap right) {
+		RecipeBitmap result = new RecipeBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < left.size && j < right.size) {
+			if (left.keys[i] < right.keys[j]) {
+				i++;
+			} else if (left.keys[i] > right.keys[j]) {
+				j++;
+			} else {
+				Container container = left.containers[i].and(right.containers[j]);
+				if (container.cardinality() > 0) {
+					result.append(left.keys[i], container);
+				}
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public static RecipeBitmap or(RecipeBitmap left, RecipeBitmap right) {
+		RecipeBitmap result = new RecipeBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < left.size || j < right.size) {
+			if (j == right.size || (i < left.size && left.keys[i] < right.keys[j])) {
+				result.append(left.keys[i], left.containers[i].copy());
+				i++;
+			} else if (i == left.size || left.keys[i] > right.keys[j]) {
+				result.append(right.keys[j], right.containers[j].copy());
+				j++;
+			} else {
+				result.append(left.keys[i], left.containers[i].or(right.containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	public RecipeBitmap copy() {
+		return or(this, new RecipeBitmap());
+	}
+
+	/**
+	 * Approximate heap footprint of the id data, for statistics.
+	 */
+	public long sizeInBytes() {
+		long bytes = size * 2L;
+		for (int i = 0; i < size; i++) {
+			bytes += containers[i].sizeInBytes();
+		}
+		return bytes;
+	}
+
+	private void append(char key, Container container) {
+		if (size == keys.length) {
+			int capacity = Math.max(4, size * 2);
+			keys = Arrays.copyOf(keys, capacity);
+			containers = Arrays.copyOf(containers, capacity);
+		}
+		keys[size] = key;
+		containers[size] = container;
+		size++;
+	}
+
+	private static void checkId(int id) {
+		if (id < 0) {
+			throw new IllegalArgumentException("Recipe ids are non-negative: " + id);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RecipeBitmap(cardinality=" + cardinality() + ", containers=" + size + ")";
+	}
+
+	private interface Container {
+
+		Container add(char value);
+
+		Container remove(char value);
+
+		boolean contains(char value);
+
+		int cardinality();
+
+		Container and(Container other);
+
+		Container or(Container other);
+
+		Container copy();
+
+		int copyTo(int[] ids, int offset, int high);
+
+		long sizeInBytes();
+	}
+
+	private static final class ArrayContainer implements Container {
+
+		private char[] values;
+
+		private int cardinality;
+
+		ArrayContainer() {
+			this(new char[4], 0);
+		}
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		public Container add(char value) {
+			int index = Arrays.binarySearch(values, 0, cardinality, value);
+			if (index >= 0) {
+				return this;
+			}
+			if (cardinality == ARRAY_LIMIT) {
+				return toBitmap().add(value);
+			}
+			index = -index - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+			}
+			System.arraycopy(values, index, values, index + 1, cardinality - index);
+			values[index] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		public Container remove(char value) {
+			int index = Arrays.binarySearch(values, 0, cardinality, value);
+			if (index >= 0) {
+				System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+				cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		public boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		public int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		public Container and(Container other) {
+			char[] result = new char[cardinality];
+			int count = 0;
+			if (other instanceof ArrayContainer array) {
+				int i = 0;
+				int j = 0;
+				while (i < cardinality && j < array.cardinality) {
+					if (values[i] < array.values[j]) {
+						i++;
+					} else if (values[i] > array.values[j]) {
+						j++;
+					} else {
+						result[count++] = values[i];
+						i++;
+						j++;
+					}
+				}
+			} else {
+				for (int i = 0; i < cardinality; i++) {
+					if (other.contains(values[i])) {
+						result[count++] = values[i];
+					}
+				}
+			}
+			return new ArrayContainer(result, count);
+		}
+
+		@Override
+		public Container or(Container other) {
+			if (other instanceof BitmapContainer bitmap) {
+				return bitmap.or(this);
+			}
+			ArrayContainer array = (ArrayContainer) other;
+			char[] result = new char[cardinality + array.cardinality];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < cardinality || j < array.cardinality) {
+				if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+					result[count++] = values[i++];
+				} else if (i == cardinality || values[i] > array.values[j]) {
+					result[count++] = array.values[j++];
+				} else {
+					result[count++] = values[i];
+					i++;
+					j++;
+				}
+			}
+			ArrayContainer union = new ArrayContainer(result, count);
+			return count > ARRAY_LIMIT ? union.toBitmap() : union;
+		}
+
+		@Override
+		public Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+		}
+
+		@Override
+		public int copyTo(int[] ids, int offset, int high) {
+			for (int i = 0; i < cardinality; i++) {
+				ids[offset++] = high | values[i];
+			}
+			return offset;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			return values.length * 2L;
+		}
+
+		private BitmapContainer toBitmap() {
+			BitmapContainer bitmap = new BitmapContainer();
+			for (int i = 0; i < cardinality; i++) {
+				bitmap.add(values[i]);
+			}
+			return bitmap;
+		}
+	}
+
+	private static final class BitmapContainer implements Container {
+
+		private final long[] words;
+
+		private int cardinality;
+
+		BitmapContainer() {
+			this(new long[WORDS], 0);
+		}
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		public Container add(char value) {
+			long before = words[value >>> 6];
+			words[value >>> 6] = before | (1L << value);
+			if (before != words[value >>> 6]) {
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		public Container remove(char value) {
+			long before = words[value >>> 6];
+			words[value >>> 6] = before & ~(1L << value);
+			if (before != words[value >>> 6]) {
+				cardinality--;
+			}
+			return cardinality <= ARRAY_LIMIT ? toArrayContainer() : this;
+		}
+
+		@Override
+		public boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		public int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		public Container and(Container other) {
+			if (other instanceof ArrayContainer array) {
+				return array.and(this);
+			}
+			long[] otherWords = ((BitmapContainer) other).words;
+			long[] result = new long[WORDS];
+			int count = 0;
+			for (int i = 0; i < WORDS; i++) {
+				result[i] = words[i] & otherWords[i];
+				count += Long.bitCount(result[i]);
+			}
+			BitmapContainer intersection = new BitmapContainer(result, count);
+			return count <= ARRAY_LIMIT ? intersection.toArrayContainer() : intersection;
+		}
+
+		@Override
+		public Container or(Container other) {
+			long[] result = words.clone();
+			int count;
+			if (other instanceof BitmapContainer bitmap) {
+				count = 0;
+				for (int i = 0; i < WORDS; i++) {
+					result[i] |= bitmap.words[i];
+					count += Long.bitCount(result[i]);
+				}
+				return new BitmapContainer(result, count);
+			}
+			BitmapContainer union = new BitmapContainer(result, cardinality);
+			ArrayContainer array = (ArrayContainer) other;
+			for (int i = 0; i < array.cardinality; i++) {
+				union.add(array.values[i]);
+			}
+			return union;
+		}
+
+		@Override
+		public Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		@Override
+		public int copyTo(int[] ids, int offset, int high) {
+			for (int i = 0; i < WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					ids[offset++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+				}
+			}
+			return offset;
+		}
+
+		@Override
+		public long sizeInBytes() {
+			return WORDS * 8L;
+		}
+
+		private ArrayContainer toArrayContainer() {
+			char[] values = new char[cardinality];
+			int count = 0;
+			for (int i = 0; i < WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, count);
+		}
+	}
+}
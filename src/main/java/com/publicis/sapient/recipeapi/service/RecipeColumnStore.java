@@ -0,0 +1,649 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The sortable numeric fields of every recipe in primitive arrays indexed by recipe id,
+ * so a page of search results can be ordered without reading the matching rows.
+ * <p>
+ * Pages are cut by seeking past the {@code (sort key, id)} of the last recipe returned,
+ * never by an offset: a page is the {@code limit} smallest keys after that position, kept
+ * in a primitive heap of {@code limit} packed {@code (key, id)} longs while the matches are
+ * scanned once, so nothing is allocated per match. Missing values sort last in both
+ * directions.
+ * <p>
+ * Range filters use a second, value-ordered copy of each column, built when first asked
+ * for: one {@code long} per recipe packing the value over the id, so a range is two
+ * binary searches. The narrowest of the requested ranges is walked and the others are
+ * checked against the id-indexed columns. Recipes changed since a column was sorted are
+ * checked one by one, until there are enough of them for the next range query to sort
+ * the column again.
+ * <p>
+ * Loaded from {@code t_recipes} at startup and kept current by the document writer
+ * after each commit.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RecipeColumnStore {
+
+	public enum Column {
+		ID("id"), RATING("rating"), REVIEW_COUNT("reviewCount"), PREP_TIME("prepTimeMinutes"),
+		COOK_TIME("cookTimeMinutes"), TOTAL_TIME("totalMinutes"), CALORIES("caloriesPerServing"),
+		SERVINGS("servings");
+
+		private final String parameter;
+
+		Column(String parameter) {
+			this.parameter = parameter;
+		}
+
+		public String parameter() {
+			return parameter;
+		}
+
+		public static Optional<Column> forParameter(String parameter) {
+			return Arrays.stream(values()).filter(column -> column.parameter.equals(parameter)).findFirst();
+		}
+	}
+
+	/**
+	 * Stored for absent values; real values are assumed never to reach it.
+	 */
+	static final int MISSING = Integer.MAX_VALUE;
+
+	/**
+	 * Changes a sorted column tolerates, besides one in 64 of its entries, before range
+	 * queries sort it again.
+	 */
+	static final int MIN_CHANGES_BEFORE_SORT = 1024;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	/**
+	 * The largest recipe id the columns take. Their length follows the largest id stored,
+	 * so one stray id must not be allowed to size them.
+	 */
+	@Value("${recipes.catalog.max-recipe-id:5000000}")
+	int maxRecipeId = 5_000_000;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * One array per column, indexed by recipe id. {@link Column#ID} holds the id itself,
+	 * marking which recipes exist.
+	 */
+	private final int[][] columns = new int[Column.values().length][0];
+
+	/**
+	 * Per column, the {@code value << 32 | id} of every recipe with a value, in order, or
+	 * null until a range query needs it.
+	 */
+	private final long[][] sorted = new long[Column.values().length][];
+
+	/**
+	 * Per column, the recipes whose value may have changed since it was sorted.
+	 */
+	private final BitSet[] changed = new BitSet[Column.values().length];
+
+	private final int[] changeCounts = new int[Column.values().length];
+
+	private int recipeCount;
+
+	/**
+	 * A cleared candidate bitmap kept between range queries, so the common case of one
+	 * query at a time does not allocate and zero one per query.
+	 */
+	private final AtomicReference<long[]> spareCandidates = new AtomicReference<>();
+
+	@PostConstruct
+	void load() {
+		lock.writeLock().lock();
+		try {
+			jdbcTemplate.query(
+					"SELECT id, rating, review_count, prep_time_minutes, cook_time_minutes, calories_per_serving, servings FROM t_recipes",
+					(RowCallbackHandler) rs -> store(new Row(rs.getInt(1), rs.getObject(2, Float.class),
+							rs.getObject(3, Integer.class), rs.getObject(4, Integer.class),
+							rs.getObject(5, Integer.class), rs.getObject(6, Integer.class),
+							rs.getObject(7, Integer.class))));
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("RecipeColumnStore :: load :: Column capacity {} recipe ids.", columns[Column.RATING.ordinal()].length);
+	}
+
+	public void put(Collection<Row> rows) {
+		lock.writeLock().lock();
+		try {
+			rows.forEach(this::store);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<Integer> recipeIds) {
+		lock.writeLock().lock();
+		try {
+			for (int recipeId : recipeIds) {
+				if (recipeId < 0 || recipeId >= columns[0].length) {
+					continue;
+				}
+				if (exists(recipeId)) {
+					recipeCount--;
+				}
+				for (int c = 0; c < columns.length; c++) {
+					columns[c][recipeId] = MISSING;
+					markChanged(c, recipeId);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * The next page of {@code matches}, which are in ascending id order: at most
+	 * {@code limit} ids ordered by {@code column} and then by id, starting after
+	 * {@code after} (null for the first page).
+	 */
+	public Page page(int[] matches, Column column, boolean descending, SeekPosition after, int limit) {
+		lock.readLock().lock();
+		try {
+			return column == Column.ID ? pageById(matches, descending, after, limit)
+					: pageByColumn(matches, columns[column.ordinal()], descending, after, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids, in ascending order, of the recipes within every given range.
+	 */
+	public int[] range(List<Range> ranges) {
+		lock.readLock().lock();
+		try {
+			if (ranges.stream().anyMatch(range -> needsSort(range.column()))) {
+				lock.readLock().unlock();
+				lock.writeLock().lock();
+				try {
+					ranges.stream().map(Range::column).filter(this::needsSort).distinct().forEach(this::sort);
+				} finally {
+					lock.readLock().lock();
+					lock.writeLock().unlock();
+				}
+			}
+			return rangeSorted(ranges);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The ids of {@code matches}, which are in ascending order, within every given range.
+	 */
+	public int[] filter(int[] matches, List<Range> ranges) {
+		lock.readLock().lock();
+		try {
+			Bounds bounds = new Bounds(ranges);
+			int[] result = new int[matches.length];
+			int count = 0;
+			for (int id : matches) {
+				if (bounds.test(id)) {
+					result[count++] = id;
+				}
+			}
+			return Arrays.copyOf(result, count);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private int[] rangeSorted(List<Range> ranges) {
+		Range narrowest = null;
+		int from = 0;
+		int to = 0;
+		for (Range range : ranges) {
+			long[] keys = sorted[range.column().ordinal()];
+			int low = lowerBound(keys, (long) range.min() << 32);
+			int high = lowerBound(keys, ((long) range.max() << 32) | 0xffffffffL);
+			if (narrowest == null || high - low + changeCounts[range.column().ordinal()] < to - from
+					+ changeCounts[narrowest.column().ordinal()]) {
+				narrowest = range;
+				from = low;
+				to = high;
+			}
+		}
+
+		Bounds bounds = new Bounds(ranges);
+		int capacity = columns[0].length;
+		int[] result = new int[16];
+		int count = 0;
+
+		// When most recipes are candidates anyway, reading the columns straight through is
+		// cheaper than marking the candidates first.
+		if (to - from > recipeCount / 4) {
+			for (int id = 0; id < capacity; id++) {
+				if (count == result.length) {
+					result = Arrays.copyOf(result, result.length * 2);
+				}
+				result[count] = id;
+				count += bounds.passes(id);
+			}
+			return Arrays.copyOf(result, count);
+		}
+
+		long[] keys = sorted[narrowest.column().ordinal()];
+		BitSet stale = changed[narrowest.column().ordinal()];
+		List<Range> otherRanges = new ArrayList<>(ranges);
+		otherRanges.remove(narrowest);
+		Bounds others = new Bounds(otherRanges);
+
+		// Entries with a single value are already in id order, so when the narrowest range
+		// holds one value and nothing in the column changed, they are checked as they are.
+		if (from < to && stale.isEmpty() && keys[from] >>> 32 == keys[to - 1] >>> 32) {
+			result = new int[to - from];
+			for (int i = from; i < to; i++) {
+				int id = (int) keys[i];
+				result[count] = id;
+				count += others.passes(id);
+			}
+			return Arrays.copyOf(result, count);
+		}
+
+		// Otherwise the candidates come in value order; marking them in a bitmap first lets
+		// the other columns be read in id order and leaves the ids sorted. Entries of the
+		// narrowest column are in its range by construction unless changed since it was
+		// sorted, and changed recipes are checked against every range up front.
+		long[] candidates = takeCandidates(capacity);
+		for (int i = from; i < to; i++) {
+			int id = (int) keys[i];
+			if (!stale.get(id)) {
+				candidates[id >>> 6] |= 1L << id;
+			}
+		}
+		for (int id = stale.nextSetBit(0); id >= 0 && id < capacity; id = stale.nextSetBit(id + 1)) {
+			if (bounds.test(id)) {
+				candidates[id >>> 6] |= 1L << id;
+			}
+		}
+		int words = (capacity + 63) >>> 6;
+		for (int word = 0; word < words; word++) {
+			long bits = candidates[word];
+			if (bits == 0) {
+				continue;
+			}
+			// Cleared as read, so the bitmap goes back empty.
+			candidates[word] = 0;
+			if (count + Long.SIZE > result.length) {
+				result = Arrays.copyOf(result, Math.max(count + Long.SIZE, result.length * 2));
+			}
+			for (; bits != 0; bits &= bits - 1) {
+				int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+				result[count] = id;
+				count += others.passes(id);
+			}
+		}
+		spareCandidates.set(candidates);
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * An empty candidate bitmap covering {@code capacity} ids: the one left by the last
+	 * range query when no other query holds it, else a new one.
+	 */
+	private long[] takeCandidates(int capacity) {
+		long[] candidates = spareCandidates.getAndSet(null);
+		int words = (capacity + 63) >>> 6;
+		return candidates != null && candidates.length >= words ? candidates : new long[words];
+	}
+
+	private boolean needsSort(Column column) {
+		long[] keys = sorted[column.ordinal()];
+		return keys == null
+				|| changeCounts[column.ordinal()] > Math.max(MIN_CHANGES_BEFORE_SORT, keys.length / 64);
+	}
+
+	private void sort(Column column) {
+		int[] values = columns[column.ordinal()];
+		long[] keys = new long[values.length];
+		int count = 0;
+		for (int id = 0; id < values.length; id++) {
+			if (values[id] != MISSING) {
+				keys[count++] = ((long) values[id] << 32) | id;
+			}
+		}
+		keys = Arrays.copyOf(keys, count);
+		Arrays.sort(keys);
+		sorted[column.ordinal()] = keys;
+		changed[column.ordinal()] = new BitSet();
+		changeCounts[column.ordinal()] = 0;
+	}
+
+	private void markChanged(int column, int id) {
+		if (sorted[column] != null && !changed[column].get(id)) {
+			changed[column].set(id);
+			changeCounts[column]++;
+		}
+	}
+
+	/**
+	 * Index of the first key not less than {@code key}.
+	 */
+	private static int lowerBound(long[] keys, long key) {
+		int index = Arrays.binarySearch(keys, key);
+		return index >= 0 ? index : -index - 1;
+	}
+
+	private static Page pageById(int[] matches, boolean descending, SeekPosition after, int limit) {
+		int[] page = new int[Math.min(limit, matches.length)];
+		int count = 0;
+		if (descending) {
+			int from = after == null ? matches.length - 1 : insertionPoint(matches, after.id()) - 1;
+			for (int i = from; i >= 0 && count < limit; i--) {
+				page[count++] = matches[i];
+			}
+			boolean more = from - count >= 0;
+			return page(page, count, more, id -> -(long) id);
+		}
+		int from = after == null ? 0 : insertionPoint(matches, after.id() + 1);
+		for (int i = from; i < matches.length && count < limit; i++) {
+			page[count++] = matches[i];
+		}
+		boolean more = from + count < matches.length;
+		return page(page, count, more, id -> id);
+	}
+
+	private static Page pageByColumn(int[] matches, int[] values, boolean descending, SeekPosition after,
+			int limit) {
+		// Positions packed as sort key over id compare as longs in page order. The heap keeps
+		// the best limit + 1, largest first; the extra entry tells whether a next page exists.
+		long seek = after == null ? 0 : pack(after);
+		long[] heap = new long[limit + 1];
+		int size = 0;
+		for (int id : matches) {
+			long position = pack(sortKey(values, id, descending), id);
+			if (after != null && position <= seek) {
+				continue;
+			}
+			if (size < heap.length) {
+				siftUp(heap, size++, position);
+			} else if (position < heap[0]) {
+				siftDown(heap, size, position);
+			}
+		}
+
+		Arrays.sort(heap, 0, size);
+		boolean more = size > limit;
+		int count = Math.min(size, limit);
+		int[] ids = new int[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = (int) heap[i];
+		}
+		return new Page(ids, more && count > 0 ? unpack(heap[count - 1]) : null);
+	}
+
+	private static long pack(long key, int id) {
+		int clamped = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, key));
+		return ((long) clamped << 32) | (id & 0xffffffffL);
+	}
+
+	private static long pack(SeekPosition position) {
+		return pack(position.key(), position.id());
+	}
+
+	private static SeekPosition unpack(long position) {
+		int key = (int) (position >> 32);
+		return new SeekPosition(key == Integer.MAX_VALUE ? Long.MAX_VALUE : key, (int) position);
+	}
+
+	/**
+	 * Adds {@code position} at index {@code index} of a max-heap and restores the order.
+	 */
+	private static void siftUp(long[] heap, int index, long position) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (heap[parent] >= position) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = position;
+	}
+
+	/**
+	 * Replaces the largest entry of a max-heap of {@code size} with {@code position}.
+	 */
+	private static void siftDown(long[] heap, int size, long position) {
+		int index = 0;
+		for (int child = 1; child < size; child = 2 * index + 1) {
+			if (child + 1 < size && heap[child + 1] > heap[child]) {
+				child++;
+			}
+			if (heap[child] <= position) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = position;
+	}
+
+	private static Page page(int[] page, int count, boolean more, IntToLongFunction key) {
+		int[] ids = Arrays.copyOf(page, count);
+		SeekPosition last = more && count > 0 ? new SeekPosition(key.applyAsLong(ids[count - 1]), ids[count - 1])
+				: null;
+		return new Page(ids, last);
+	}
+
+	private static long sortKey(int[] values, int id, boolean descending) {
+		int value = id < values.length ? values[id] : MISSING;
+		if (value == MISSING) {
+			return Long.MAX_VALUE;
+		}
+		return descending ? -(long) value : value;
+	}
+
+	/**
+	 * Index of the first element of {@code sorted} not less than {@code id}.
+	 */
+	private static int insertionPoint(int[] sorted, int id) {
+		int index = Arrays.binarySearch(sorted, id);
+		return index >= 0 ? index : -index - 1;
+	}
+
+	private void store(Row row) {
+		int id = row.id();
+		if (id < 0 || id > maxRecipeId) {
+			log.warn("RecipeColumnStore :: store :: Ignoring recipe {} outside ids 0 to {}.", id, maxRecipeId);
+			return;
+		}
+		if (id >= columns[0].length) {
+			int capacity = Math.max(id + 1, columns[0].length * 3 / 2);
+			for (int c = 0; c < columns.length; c++) {
+				int from = columns[c].length;
+				columns[c] = Arrays.copyOf(columns[c], capacity);
+				Arrays.fill(columns[c], from, capacity, MISSING);
+			}
+		}
+		if (!exists(id)) {
+			recipeCount++;
+		}
+		columns[Column.ID.ordinal()][id] = id;
+		columns[Column.RATING.ordinal()][id] = row.rating() == null ? MISSING : sortable(row.rating());
+		columns[Column.REVIEW_COUNT.ordinal()][id] = orMissing(row.reviewCount());
+		columns[Column.PREP_TIME.ordinal()][id] = orMissing(row.prepTimeMinutes());
+		columns[Column.COOK_TIME.ordinal()][id] = orMissing(row.cookTimeMinutes());
+		// Unknown when either part is.
+		columns[Column.TOTAL_TIME.ordinal()][id] = row.prepTimeMinutes() == null || row.cookTimeMinutes() == null
+				? MISSING
+				: row.prepTimeMinutes() + row.cookTimeMinutes();
+		columns[Column.CALORIES.ordinal()][id] = orMissing(row.caloriesPerServing());
+		columns[Column.SERVINGS.ordinal()][id] = orMissing(row.servings());
+		for (int c = 0; c < columns.length; c++) {
+			markChanged(c, id);
+		}
+	}
+
+	/**
+	 * Whether a recipe is stored: the {@link Column#ID} column holds the id of each.
+	 */
+	private boolean exists(int id) {
+		return columns[Column.ID.ordinal()][id] != MISSING;
+	}
+
+	private static int orMissing(Integer value) {
+		return value == null ? MISSING : value;
+	}
+
+	/**
+	 * Maps a float onto an int with the same ordering.
+	 */
+	static int sortable(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7fffffff);
+	}
+
+	/**
+	 * The columns and bounds of a set of ranges in flat arrays, for checking recipes
+	 * against all of them in a tight loop.
+	 */
+	private final class Bounds {
+
+		private final int[][] values;
+
+		private final int[] min;
+
+		private final int[] max;
+
+		/**
+		 * {@code max - min} with the sign bit flipped, to compare {@code value - min}
+		 * against as unsigned.
+		 */
+		private final int[] span;
+
+		/**
+		 * Whether some range has its minimum above its maximum, which no value passes.
+		 */
+		private boolean empty;
+
+		Bounds(List<Range> ranges) {
+			values = new int[ranges.size()][];
+			min = new int[ranges.size()];
+			max = new int[ranges.size()];
+			span = new int[ranges.size()];
+			for (int r = 0; r < ranges.size(); r++) {
+				values[r] = columns[ranges.get(r).column().ordinal()];
+				min[r] = ranges.get(r).min();
+				max[r] = ranges.get(r).max();
+				span[r] = (max[r] - min[r]) ^ Integer.MIN_VALUE;
+				empty |= min[r] > max[r];
+			}
+		}
+
+		/**
+		 * 1 when the recipe, whose id must be below the column capacity, has a value
+		 * within every range, else 0. Computed without branching on the values, which
+		 * pass or fail too unpredictably for branches to pay off.
+		 */
+		int passes(int id) {
+			if (empty) {
+				return 0;
+			}
+			// Unrolled for the usual one or two ranges, which keeps the checks free of branches.
+			switch (values.length) {
+			case 0:
+				return 1;
+			case 1:
+				return within(0, id) ? 1 : 0;
+			case 2:
+				return within(0, id) & within(1, id) ? 1 : 0;
+			default:
+				int pass = 1;
+				for (int r = 0; r < values.length; r++) {
+					pass &= within(r, id) ? 1 : 0;
+				}
+				return pass;
+			}
+		}
+
+		private boolean within(int r, int id) {
+			return ((values[r][id] - min[r]) ^ Integer.MIN_VALUE) <= span[r];
+		}
+
+		/**
+		 * Whether the recipe has a value within every range; {@link #MISSING} lies above
+		 * every upper bound.
+		 */
+		boolean test(int id) {
+			for (int r = 0; r < values.length; r++) {
+				int value = id < values[r].length ? values[r][id] : MISSING;
+				if (value < min[r] || value > max[r]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The sortable fields of a recipe as ingestion wrote them.
+	 */
+	public record Row(int id, Float rating, Integer reviewCount, Integer prepTimeMinutes, Integer cookTimeMinutes,
+			Integer caloriesPerServing, Integer servings) {
+	}
+
+	/**
+	 * An inclusive range of stored values of a column.
+	 */
+	public record Range(Column column, int min, int max) {
+
+		/**
+		 * The range between two optional bounds given in request units, or null when
+		 * neither is given. Ratings are compared as floats.
+		 */
+		public static Range between(Column column, Number min, Number max) {
+			if (min == null && max == null) {
+				return null;
+			}
+			return new Range(column, min == null ? Integer.MIN_VALUE : stored(column, min),
+					max == null ? MISSING - 1 : Math.min(MISSING - 1, stored(column, max)));
+		}
+
+		private static int stored(Column column, Number bound) {
+			return column == Column.RATING ? sortable(bound.floatValue()) : bound.intValue();
+		}
+	}
+
+	/**
+	 * A place in the sort order: the sort key of a recipe, already negated for descending
+	 * order, and its id as tie-breaker.
+	 */
+	public record SeekPosition(long key, int id) {
+	}
+
+	/**
+	 * The ids of a page in order, and where the next page starts, or null on the last page.
+	 */
+	public record Page(int[] ids, SeekPosition next) {
+	}
+}
@@ -0,0 +1,50 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.SeekPosition;
+
+/**
+ * The {@code cursor} of {@code GET /recipes}: the position of the last recipe of a page
+ * together with the sort it was cut for, as an opaque URL-safe token. Clients pass it
+ * back unchanged to get the page that follows.
+ */
+final class RecipeCursor {
+
+	private static final String VERSION = "v1";
+
+	private RecipeCursor() {
+	}
+
+	static String encode(String sort, SeekPosition position) {
+		String token = String.join("|", VERSION, sort, Long.toString(position.key()),
+				Integer.toString(position.id()));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * The position a cursor stands for, rejecting cursors that were not issued by
+	 * {@link #encode} or were issued for another sort.
+	 */
+	static SeekPosition decode(String cursor, String sort) {
+		String[] parts;
+		try {
+			parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidInputException("Invalid 'cursor': Pass back the nextCursor of a previous page.");
+		}
+		if (parts.length != 4 || !VERSION.equals(parts[0])) {
+			throw new InvalidInputException("Invalid 'cursor': Pass back the nextCursor of a previous page.");
+		}
+		if (!parts[1].equals(sort)) {
+			throw new InvalidInputException("Invalid 'cursor': It was issued for sort '" + parts[1] + "'.");
+		}
+		try {
+			return new SeekPosition(Long.parseLong(parts[2]), Integer.parseInt(parts[3]));
+		} catch (NumberFormatException e) {
+			throw new InvalidInputException("Invalid 'cursor': Pass back the nextCursor of a previous page.");
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes stored recipe documents to a stream as newline-delimited JSON, one line per
+ * recipe, without collecting them first.
+ * <p>
+ * Every search is read with a single forward-only, read-only query in one read-only
+ * transaction, fetched {@code recipes.search.stream.fetch-size} rows at a time and copied
+ * to the output row by row. Up to one fetch of matches is looked up by id; larger results
+ * scan the id range between the first and last match and skip the rows in between that
+ * did not match, walking the sorted ids alongside the rows. The documents are already
+ * JSON, so nothing is mapped on the way; beyond the matched ids themselves, heap use is
+ * one fetch of rows whatever the number of recipes, and the output is flushed after each
+ * fetch's worth of lines.
+ */
+@Slf4j
+@Component
+public class RecipeDocumentStreamer {
+
+	static final String SELECT_DOCUMENTS = "SELECT id, document FROM t_recipe_document WHERE id = ANY(?) ORDER BY id";
+
+	static final String SCAN_DOCUMENTS = "SELECT id, document FROM t_recipe_document WHERE id BETWEEN ? AND ? ORDER BY id";
+
+	private static final byte NEWLINE = '\n';
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Value("${recipes.search.stream.fetch-size:500}")
+	int fetchSize;
+
+	TransactionOperations readTransaction;
+
+	@PostConstruct
+	void initReadTransaction() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		readTransaction = template;
+	}
+
+	/**
+	 * Writes the documents of {@code recipeIds}, which are in ascending order, and returns
+	 * how many were written. Ids without a document are skipped.
+	 */
+	public long write(int[] recipeIds, OutputStream out) throws IOException {
+		if (recipeIds.length == 0) {
+			return 0;
+		}
+		long written;
+		try {
+			written = readTransaction.execute(status -> recipeIds.length <= fetchSize
+					? stream(SELECT_DOCUMENTS, (con, ps) -> ps.setArray(1,
+							con.createArrayOf("INTEGER", Arrays.stream(recipeIds).boxed().toArray())), recipeIds, out)
+					: stream(SCAN_DOCUMENTS, (con, ps) -> {
+						ps.setInt(1, recipeIds[0]);
+						ps.setInt(2, recipeIds[recipeIds.length - 1]);
+					}, recipeIds, out));
+			out.flush();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		log.info("RecipeDocumentStreamer :: write :: Streamed {} of {} recipes.", written, recipeIds.length);
+		return written;
+	}
+
+	/**
+	 * Runs {@code sql}, whose rows are {@code (id, document)} in id order, and writes the
+	 * documents whose id is in {@code recipeIds}.
+	 */
+	private long stream(String sql, Parameters parameters, int[] recipeIds, OutputStream out) {
+		long[] written = { 0 };
+		int[] next = { 0 };
+		jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			ps.setFetchSize(fetchSize);
+			parameters.set(con, ps);
+			return ps;
+		}, (RowCallbackHandler) rs -> {
+			int id = rs.getInt(1);
+			while (next[0] < recipeIds.length && recipeIds[next[0]] < id) {
+				next[0]++;
+			}
+			if (next[0] == recipeIds.length || recipeIds[next[0]] != id) {
+				return;
+			}
+			try {
+				out.write(rs.getString(2).getBytes(StandardCharsets.UTF_8));
+				out.write(NEWLINE);
+				if (++written[0] % fetchSize == 0) {
+					out.flush();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return written[0];
+	}
+
+	@FunctionalInterface
+	private interface Parameters {
+		void set(Connection con, PreparedStatement ps) throws SQLException;
+	}
+}
@@ -0,0 +1,299 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts of the cuisines, difficulties, meal types and tags among the matches of a
+ * search, for {@code facets=}.
+ * <p>
+ * Each facet is dictionary-encoded: its distinct values get small int codes, and the
+ * codes of every recipe are kept in arrays indexed by recipe id, a single code for
+ * cuisine and difficulty and a short code array for meal types and tags. Counting is one
+ * pass over the matches incrementing an {@code int[]} per facet, with no query and no
+ * string handling until the non-zero counts are named.
+ * <p>
+ * Values are grouped without regard to case and reported as first seen. Loaded from
+ * {@code t_recipes} and the link tables at startup and kept current by the document
+ * writer after each commit.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RecipeFacetIndex {
+
+	public enum Facet {
+		CUISINE("cuisine", false), DIFFICULTY("difficulty", false), MEAL_TYPE("mealType", true), TAG("tag", true);
+
+		private final String parameter;
+
+		private final boolean multiValued;
+
+		Facet(String parameter, boolean multiValued) {
+			this.parameter = parameter;
+			this.multiValued = multiValued;
+		}
+
+		public String parameter() {
+			return parameter;
+		}
+
+		/**
+		 * The facets named by a {@code facets=} parameter, or null when it names none.
+		 */
+		public static Set<Facet> parse(List<String> names) {
+			if (names == null || names.stream().allMatch(name -> name == null || name.isBlank())) {
+				return null;
+			}
+			Set<Facet> facets = EnumSet.noneOf(Facet.class);
+			for (String name : names) {
+				if (name == null || name.isBlank()) {
+					continue;
+				}
+				facets.add(Arrays.stream(values()).filter(facet -> facet.parameter.equals(name.trim())).findFirst()
+						.orElseThrow(() -> new InvalidInputException("Invalid 'facets': Unknown facet '" + name.trim()
+								+ "'. Use " + Arrays.stream(values()).map(Facet::parameter)
+										.collect(Collectors.joining(", "))
+								+ ".")));
+			}
+			return facets;
+		}
+	}
+
+	static final int MISSING = -1;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	/**
+	 * The largest recipe id the code arrays take, as for {@link RecipeColumnStore}.
+	 */
+	@Value("${recipes.catalog.max-recipe-id:5000000}")
+	int maxRecipeId = 5_000_000;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Facet, FacetColumn> columns = new EnumMap<>(Facet.class);
+
+	public RecipeFacetIndex() {
+		for (Facet facet : Facet.values()) {
+			columns.put(facet, new FacetColumn(facet.multiValued));
+		}
+	}
+
+	@PostConstruct
+	void load() {
+		Map<Integer, FacetedRecipe> loaded = new HashMap<>();
+		jdbcTemplate.query("SELECT id, cuisine, difficulty FROM t_recipes",
+				(RowCallbackHandler) rs -> loaded.put(rs.getInt(1),
+						new FacetedRecipe(rs.getInt(1), rs.getString(2), rs.getString(3), new ArrayList<>(),
+								new ArrayList<>())));
+		jdbcTemplate.query("SELECT l.recipe_id, d.meal_type FROM t_recipes_mealtype l "
+				+ "JOIN t_meal_type d ON d.meal_type_id = l.mealtype_id", (RowCallbackHandler) rs -> {
+					FacetedRecipe recipe = loaded.get(rs.getInt(1));
+					if (recipe != null) {
+						recipe.mealTypes().add(rs.getString(2));
+					}
+				});
+		jdbcTemplate.query("SELECT l.recipe_id, d.tag FROM t_recipes_tags l JOIN t_tags d ON d.tags_id = l.tags_id",
+				(RowCallbackHandler) rs -> {
+					FacetedRecipe recipe = loaded.get(rs.getInt(1));
+					if (recipe != null) {
+						recipe.tags().add(rs.getString(2));
+					}
+				});
+
+		put(loaded.values());
+		log.info("RecipeFacetIndex :: load :: {} recipes under {} cuisines, {} difficulties, {} meal types and {} tags.",
+				loaded.size(), columns.get(Facet.CUISINE).values.size(), columns.get(Facet.DIFFICULTY).values.size(),
+				columns.get(Facet.MEAL_TYPE).values.size(), columns.get(Facet.TAG).values.size());
+	}
+
+	/**
+	 * How many of the given recipes carry each value of each facet, keyed by facet
+	 * parameter and then by value, most frequent values first. Values no match carries
+	 * are left out.
+	 */
+	public Map<String, Map<String, Integer>> count(int[] recipeIds, Set<Facet> facets) {
+		Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+		lock.readLock().lock();
+		try {
+			for (Facet facet : facets) {
+				FacetColumn column = columns.get(facet);
+				result.put(facet.parameter(), column.name(column.count(recipeIds)));
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	/**
+	 * Encodes the given recipes, replacing what was stored for ids seen before.
+	 */
+	public void put(Collection<FacetedRecipe> recipes) {
+		lock.writeLock().lock();
+		try {
+			for (FacetedRecipe recipe : recipes) {
+				if (recipe.id() < 0 || recipe.id() > maxRecipeId) {
+					log.warn("RecipeFacetIndex :: put :: Ignoring recipe {} outside ids 0 to {}.", recipe.id(),
+							maxRecipeId);
+					continue;
+				}
+				columns.get(Facet.CUISINE).set(recipe.id(), List.of(Objects.toString(recipe.cuisine(), "")));
+				columns.get(Facet.DIFFICULTY).set(recipe.id(), List.of(Objects.toString(recipe.difficulty(), "")));
+				columns.get(Facet.MEAL_TYPE).set(recipe.id(), recipe.mealTypes());
+				columns.get(Facet.TAG).set(recipe.id(), recipe.tags());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<Integer> recipeIds) {
+		lock.writeLock().lock();
+		try {
+			for (int recipeId : recipeIds) {
+				columns.values().forEach(column -> column.clear(recipeId));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * The dictionary of one facet and the codes of every recipe. Codes are never reused,
+	 * so a value no recipe carries any more just counts zero.
+	 */
+	private static final class FacetColumn {
+
+		private static final int[] NONE = new int[0];
+
+		final boolean multiValued;
+
+		/**
+		 * Values by code, as first seen.
+		 */
+		final List<String> values = new ArrayList<>();
+
+		final Map<String, Integer> codes = new HashMap<>();
+
+		/**
+		 * The code of each recipe, indexed by id, for single-valued facets.
+		 */
+		int[] single = new int[0];
+
+		/**
+		 * The codes of each recipe, indexed by id, for multi-valued facets.
+		 */
+		int[][] multi = new int[0][];
+
+		FacetColumn(boolean multiValued) {
+			this.multiValued = multiValued;
+		}
+
+		int[] count(int[] recipeIds) {
+			int[] counts = new int[values.size()];
+			if (multiValued) {
+				for (int id : recipeIds) {
+					int[] recipeCodes = id < multi.length ? multi[id] : null;
+					if (recipeCodes != null) {
+						for (int code : recipeCodes) {
+							counts[code]++;
+						}
+					}
+				}
+			} else {
+				for (int id : recipeIds) {
+					int code = id < single.length ? single[id] : MISSING;
+					if (code != MISSING) {
+						counts[code]++;
+					}
+				}
+			}
+			return counts;
+		}
+
+		Map<String, Integer> name(int[] counts) {
+			List<Integer> present = new ArrayList<>();
+			for (int code = 0; code < counts.length; code++) {
+				if (counts[code] > 0) {
+					present.add(code);
+				}
+			}
+			present.sort((a, b) -> counts[a] != counts[b] ? Integer.compare(counts[b], counts[a])
+					: values.get(a).compareToIgnoreCase(values.get(b)));
+			Map<String, Integer> named = new LinkedHashMap<>();
+			present.forEach(code -> named.put(values.get(code), counts[code]));
+			return named;
+		}
+
+		void set(int recipeId, List<String> recipeValues) {
+			int[] recipeCodes = recipeValues == null ? NONE
+					: recipeValues.stream().filter(Objects::nonNull).map(String::trim).filter(value -> !value.isEmpty())
+							.mapToInt(this::encode).distinct().toArray();
+			if (multiValued) {
+				if (recipeId >= multi.length) {
+					multi = Arrays.copyOf(multi, Math.max(recipeId + 1, multi.length * 3 / 2));
+				}
+				multi[recipeId] = recipeCodes.length == 0 ? null : recipeCodes;
+			} else {
+				if (recipeId >= single.length) {
+					int from = single.length;
+					single = Arrays.copyOf(single, Math.max(recipeId + 1, single.length * 3 / 2));
+					Arrays.fill(single, from, single.length, MISSING);
+				}
+				single[recipeId] = recipeCodes.length == 0 ? MISSING : recipeCodes[0];
+			}
+		}
+
+		void clear(int recipeId) {
+			if (recipeId < 0) {
+				return;
+			}
+			if (recipeId < multi.length) {
+				multi[recipeId] = null;
+			}
+			if (recipeId < single.length) {
+				single[recipeId] = MISSING;
+			}
+		}
+
+		private int encode(String value) {
+			return codes.computeIfAbsent(value.toLowerCase(Locale.ROOT), key -> {
+				values.add(value);
+				return values.size() - 1;
+			});
+		}
+	}
+
+	/**
+	 * The faceted fields of a recipe as ingestion wrote them.
+	 */
+	public record FacetedRecipe(int id, String cuisine, String difficulty, List<String> mealTypes, List<String> tags) {
+	}
+}
@@ -0,0 +1,81 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
+
+/**
+ * The properties of a recipe that {@code fields=} can ask for, in document order. Scalar
+ * properties name the {@code t_recipes} column they are read from; the collections only
+ * exist in the stored document.
+ */
+public enum RecipeField {
+
+	ID("id", "id", Integer.class), NAME("name", "name", String.class), INGREDIENTS("ingredients"),
+	INSTRUCTIONS("instructions"), TAGS("tags"), MEAL_TYPE("mealType"),
+	PREP_TIME("prepTimeMinutes", "prep_time_minutes", Integer.class),
+	COOK_TIME("cookTimeMinutes", "cook_time_minutes", Integer.class),
+	SERVINGS("servings", "servings", Integer.class), DIFFICULTY("difficulty", "difficulty", String.class),
+	CUISINE("cuisine", "cuisine", String.class),
+	CALORIES("caloriesPerServing", "calories_per_serving", Integer.class),
+	USER_ID("userId", "user_id", Integer.class), IMAGE("image", "image", String.class),
+	RATING("rating", "rating", Float.class), REVIEW_COUNT("reviewCount", "review_count", Integer.class);
+
+	private final String property;
+
+	private final String column;
+
+	private final Class<?> type;
+
+	RecipeField(String property) {
+		this(property, null, null);
+	}
+
+	RecipeField(String property, String column, Class<?> type) {
+		this.property = property;
+		this.column = column;
+		this.type = type;
+	}
+
+	public String property() {
+		return property;
+	}
+
+	public String column() {
+		return column;
+	}
+
+	public Class<?> type() {
+		return type;
+	}
+
+	public boolean isColumn() {
+		return column != null;
+	}
+
+	/**
+	 * The fields named by a {@code fields=} parameter, or null when it names none and the
+	 * whole recipe is wanted.
+	 */
+	public static Set<RecipeField> parse(List<String> names) {
+		if (names == null || names.stream().allMatch(name -> name == null || name.isBlank())) {
+			return null;
+		}
+		Set<RecipeField> fields = EnumSet.noneOf(RecipeField.class);
+		for (String name : names) {
+			if (name == null || name.isBlank()) {
+				continue;
+			}
+			fields.add(Arrays.stream(values()).filter(field -> field.property.equals(name.trim())).findFirst()
+					.orElseThrow(() -> new InvalidInputException("Invalid 'fields': Unknown field '" + name.trim()
+							+ "'. Use " + Arrays.stream(values()).map(RecipeField::property)
+									.collect(Collectors.joining(", "))
+							+ ".")));
+		}
+		return fields;
+	}
+}
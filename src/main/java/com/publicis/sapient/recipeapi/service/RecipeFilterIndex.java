@@ -0,0 +1,203 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One {@link RecipeBitmap} per ingredient, tag and meal type, holding the ids of the
+ * recipes that use it. Filters on {@code GET /recipes} are answered by intersecting or
+ * uniting these bitmaps rather than joining the link tables.
+ * <p>
+ * Values are matched whole and without regard to case. The bitmaps are built from the
+ * link tables at startup and kept current by the document writer after each commit.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RecipeFilterIndex {
+
+	public enum Dimension {
+		INGREDIENT("SELECT l.recipe_id, d.ingredientsname FROM t_recipes_ingredients l "
+				+ "JOIN t_ingredients d ON d.ingredientsid = l.ingredients_id"),
+		TAG("SELECT l.recipe_id, d.tag FROM t_recipes_tags l JOIN t_tags d ON d.tags_id = l.tags_id"),
+		MEAL_TYPE("SELECT l.recipe_id, d.meal_type FROM t_recipes_mealtype l "
+				+ "JOIN t_meal_type d ON d.meal_type_id = l.mealtype_id");
+
+		private final String loadQuery;
+
+		Dimension(String loadQuery) {
+			this.loadQuery = loadQuery;
+		}
+	}
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Dimension, Map<String, RecipeBitmap>> bitmaps = new EnumMap<>(Dimension.class);
+
+	/**
+	 * The values each recipe is indexed under, so an update can take it out of the bitmaps
+	 * it no longer belongs to.
+	 */
+	private final Map<Integer, Map<Dimension, List<String>>> recipes = new HashMap<>();
+
+	public RecipeFilterIndex() {
+		for (Dimension dimension : Dimension.values()) {
+			bitmaps.put(dimension, new HashMap<>());
+		}
+	}
+
+	@PostConstruct
+	void load() {
+		Map<Integer, Map<Dimension, List<String>>> loaded = new HashMap<>();
+		for (Dimension dimension : Dimension.values()) {
+			jdbcTemplate.query(dimension.loadQuery, (RowCallbackHandler) rs -> loaded
+					.computeIfAbsent(rs.getInt(1), id -> new EnumMap<>(Dimension.class))
+					.computeIfAbsent(dimension, key -> new ArrayList<>()).add(rs.getString(2)));
+		}
+
+		lock.writeLock().lock();
+		try {
+			new ArrayList<>(recipes.keySet()).forEach(this::unindex);
+			loaded.forEach(this::index);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("RecipeFilterIndex :: load :: Indexed {} recipes under {} ingredients, {} tags and {} meal types.",
+				loaded.size(), bitmaps.get(Dimension.INGREDIENT).size(), bitmaps.get(Dimension.TAG).size(),
+				bitmaps.get(Dimension.MEAL_TYPE).size());
+	}
+
+	/**
+	 * The recipes carrying all ({@code matchAll}) or any of the given values of each
+	 * dimension; dimensions are always combined with AND. Returns {@code null} when no
+	 * values are given at all, meaning no filter applies.
+	 */
+	public RecipeBitmap filter(Map<Dimension, List<String>> criteria, boolean matchAll) {
+		RecipeBitmap result = null;
+		lock.readLock().lock();
+		try {
+			for (Map.Entry<Dimension, List<String>> criterion : criteria.entrySet()) {
+				List<String> values = normalize(criterion.getValue());
+				if (values.isEmpty()) {
+					continue;
+				}
+				RecipeBitmap matches = match(bitmaps.get(criterion.getKey()), values, matchAll);
+				result = result == null ? matches : RecipeBitmap.and(result, matches);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return result;
+	}
+
+	/**
+	 * Indexes the given recipes, replacing what was indexed for ids seen before.
+	 */
+	public void put(Collection<FilteredRecipe> updates) {
+		lock.writeLock().lock();
+		try {
+			for (FilteredRecipe update : updates) {
+				unindex(update.id());
+				Map<Dimension, List<String>> values = new EnumMap<>(Dimension.class);
+				values.put(Dimension.INGREDIENT, update.ingredients());
+				values.put(Dimension.TAG, update.tags());
+				values.put(Dimension.MEAL_TYPE, update.mealTypes());
+				index(update.id(), values);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<Integer> recipeIds) {
+		lock.writeLock().lock();
+		try {
+			recipeIds.forEach(this::unindex);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static RecipeBitmap match(Map<String, RecipeBitmap> dimension, List<String> values, boolean matchAll) {
+		RecipeBitmap result = null;
+		for (String value : values) {
+			RecipeBitmap recipesWithValue = dimension.get(value);
+			if (recipesWithValue == null) {
+				if (matchAll) {
+					return new RecipeBitmap();
+				}
+				continue;
+			}
+			if (result == null) {
+				result = recipesWithValue.copy();
+			} else {
+				result = matchAll ? RecipeBitmap.and(result, recipesWithValue)
+						: RecipeBitmap.or(result, recipesWithValue);
+			}
+		}
+		return result == null ? new RecipeBitmap() : result;
+	}
+
+	private void index(int recipeId, Map<Dimension, List<String>> values) {
+		Map<Dimension, List<String>> indexed = new EnumMap<>(Dimension.class);
+		values.forEach((dimension, names) -> {
+			List<String> normalized = normalize(names);
+			normalized.forEach(value -> bitmaps.get(dimension).computeIfAbsent(value, key -> new RecipeBitmap())
+					.add(recipeId));
+			indexed.put(dimension, normalized);
+		});
+		recipes.put(recipeId, indexed);
+	}
+
+	private void unindex(int recipeId) {
+		Map<Dimension, List<String>> indexed = recipes.remove(recipeId);
+		if (indexed == null) {
+			return;
+		}
+		indexed.forEach((dimension, values) -> values.forEach(value -> {
+			RecipeBitmap bitmap = bitmaps.get(dimension).get(value);
+			if (bitmap != null) {
+				bitmap.remove(recipeId);
+				if (bitmap.isEmpty()) {
+					bitmaps.get(dimension).remove(value);
+				}
+			}
+		}));
+	}
+
+	private static List<String> normalize(List<String> values) {
+		if (values == null) {
+			return List.of();
+		}
+		return values.stream().filter(Objects::nonNull).map(value -> value.trim().toLowerCase(Locale.ROOT))
+				.filter(value -> !value.isEmpty()).collect(Collectors.toCollection(LinkedHashSet::new)).stream()
+				.toList();
+	}
+
+	/**
+	 * The dimension values of a recipe as ingestion resolved them.
+	 */
+	public record FilteredRecipe(int id, List<String> ingredients, List<String> tags, List<String> mealTypes) {
+	}
+}
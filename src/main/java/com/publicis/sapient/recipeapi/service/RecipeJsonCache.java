@@ -0,0 +1,286 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.publicis.sapient.recipeapi.dto.RecipeCacheStatsDto;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serialized recipe documents, kept as the UTF-8 bytes the lookup endpoint writes out.
+ * <p>
+ * The cache holds at most {@code recipes.cache.recipe-json.max-bytes} of JSON, split
+ * evenly over up to {@value #STRIPES} segments picked by recipe id, each with its own lock,
+ * so lookups of different recipes rarely wait on one another. A segment gets at least
+ * {@value #MIN_SEGMENT_BYTES} bytes, so a small cache is a single segment. Within a
+ * segment entries are kept in access order and a new entry only displaces the least
+ * recently used one when it has been asked for more often, going by a small count-min
+ * sketch of recent lookups. A burst of one-off ids therefore cannot flush the recipes that
+ * are read all day.
+ * <p>
+ * Ingestion invalidates the ids it rewrites once its transaction commits. A loader takes
+ * a {@link #stamp(int)} before reading the database and {@link #put(int, byte[], long)}
+ * drops the bytes if the id was invalidated in between, so a lookup racing a sync can
+ * never park the old document in the cache.
+ */
+@Slf4j
+@Component
+public class RecipeJsonCache {
+
+	static final int STRIPES = 64;
+
+	static final long MIN_SEGMENT_BYTES = 1 << 20;
+
+	@Value("${recipes.cache.recipe-json.max-bytes:67108864}")
+	long maxBytes;
+
+	private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+	private Segment[] segments;
+
+	@PostConstruct
+	void init() {
+		int count = Integer.highestOneBit((int) Math.max(1, Math.min(maxBytes / MIN_SEGMENT_BYTES, STRIPES)));
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(maxBytes / count);
+		}
+		log.info("RecipeJsonCache :: init :: Caching up to {} bytes of recipe JSON in {} segments.", maxBytes, count);
+	}
+
+	/**
+	 * Returns the cached JSON of a recipe, or {@code null} when it has to be loaded.
+	 */
+	public byte[] get(int recipeId) {
+		Segment segment = segment(recipeId);
+		segment.lock.lock();
+		try {
+			return segment.get(recipeId);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * The invalidation stamp to hand back to {@link #put(int, byte[], long)} once the
+	 * recipe has been loaded.
+	 */
+	public long stamp(int recipeId) {
+		return stamps.get(stripe(recipeId));
+	}
+
+	/**
+	 * Caches a loaded recipe unless it was invalidated since {@code stamp} was taken or the
+	 * admission policy prefers the entries already held.
+	 */
+	public void put(int recipeId, byte[] json, long stamp) {
+		Segment segment = segment(recipeId);
+		segment.lock.lock();
+		try {
+			// Invalidation bumps the stamp under this same lock, so it cannot slip in between.
+			if (stamps.get(stripe(recipeId)) == stamp) {
+				segment.put(recipeId, json);
+			}
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	public void invalidate(Collection<Integer> recipeIds) {
+		for (Integer recipeId : recipeIds) {
+			Segment segment = segment(recipeId);
+			segment.lock.lock();
+			try {
+				stamps.incrementAndGet(stripe(recipeId));
+				segment.remove(recipeId);
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	public RecipeCacheStatsDto stats() {
+		long entries = 0;
+		long usedBytes = 0;
+		long hits = 0;
+		long misses = 0;
+		long evictions = 0;
+		long rejections = 0;
+		long invalidations = 0;
+		for (Segment segment : segments) {
+			segment.lock.lock();
+			try {
+				entries += segment.entries.size();
+				usedBytes += segment.usedBytes;
+				hits += segment.hits;
+				misses += segment.misses;
+				evictions += segment.evictions;
+				rejections += segment.rejections;
+				invalidations += segment.invalidations;
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+		long lookups = hits + misses;
+		return RecipeCacheStatsDto.builder().entries(entries).usedBytes(usedBytes).maxBytes(maxBytes)
+				.hits(hits).misses(misses).hitRate(lookups == 0 ? 0 : (double) hits / lookups).evictions(evictions)
+				.rejections(rejections).invalidations(invalidations).build();
+	}
+
+	private Segment segment(int recipeId) {
+		return segments[stripe(recipeId) & (segments.length - 1)];
+	}
+
+	private static int stripe(int recipeId) {
+		return Math.floorMod(recipeId * 0x9E3779B9, STRIPES);
+	}
+
+	/**
+	 * One share of the cache: an access-ordered map within its own byte budget and its own
+	 * sketch, guarded by {@code lock}.
+	 */
+	private static final class Segment {
+
+		final ReentrantLock lock = new ReentrantLock();
+
+		final LinkedHashMap<Integer, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+		final long maxBytes;
+
+		final FrequencySketch sketch;
+
+		long usedBytes;
+
+		long hits;
+
+		long misses;
+
+		long evictions;
+
+		long rejections;
+
+		long invalidations;
+
+		Segment(long maxBytes) {
+			this.maxBytes = maxBytes;
+			this.sketch = new FrequencySketch(maxBytes / 1024);
+		}
+
+		byte[] get(int recipeId) {
+			sketch.increment(recipeId);
+			byte[] json = entries.get(recipeId);
+			if (json == null) {
+				misses++;
+			} else {
+				hits++;
+			}
+			return json;
+		}
+
+		void put(int recipeId, byte[] json) {
+			if (json.length > maxBytes) {
+				rejections++;
+				return;
+			}
+
+			// Admission is decided before anything is dropped, so a rejected reload leaves the
+			// copy already held in place. Reading it moves it to the recent end, so the eldest
+			// entry compared against is always another recipe.
+			byte[] previous = entries.get(recipeId);
+			long freed = previous == null ? 0 : previous.length;
+			Iterator<Map.Entry<Integer, byte[]>> eldest = entries.entrySet().iterator();
+			if (usedBytes - freed + json.length > maxBytes && eldest.hasNext()
+					&& sketch.frequency(recipeId) <= sketch.frequency(eldest.next().getKey())) {
+				rejections++;
+				return;
+			}
+
+			if (previous != null) {
+				entries.remove(recipeId);
+				usedBytes -= freed;
+			}
+			eldest = entries.entrySet().iterator();
+			while (usedBytes + json.length > maxBytes) {
+				usedBytes -= eldest.next().getValue().length;
+				eldest.remove();
+				evictions++;
+			}
+			entries.put(recipeId, json);
+			usedBytes += json.length;
+		}
+
+		void remove(int recipeId) {
+			byte[] json = entries.remove(recipeId);
+			if (json != null) {
+				usedBytes -= json.length;
+				invalidations++;
+			}
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4-bit counters over four rows. Every counter is halved once the
+	 * sketch has seen ten lookups per slot, so popularity fades when traffic moves on.
+	 */
+	static final class FrequencySketch {
+
+		private static final int[] SEEDS = { 0x97CB3127, 0xB492B66F, 0x9AE16A3B, 0xC2B2AE35 };
+
+		private static final int MAX_COUNT = 15;
+
+		private final byte[][] rows;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(long expectedEntries) {
+			int width = Integer.highestOneBit((int) Math.min(Math.max(expectedEntries, 256), 1 << 20) * 2 - 1);
+			rows = new byte[SEEDS.length][width];
+			mask = width - 1;
+			sampleSize = 10 * width;
+		}
+
+		void increment(int key) {
+			for (int row = 0; row < rows.length; row++) {
+				int index = index(key, row);
+				if (rows[row][index] < MAX_COUNT) {
+					rows[row][index]++;
+				}
+			}
+			if (++additions == sampleSize) {
+				for (byte[] counters : rows) {
+					for (int i = 0; i < counters.length; i++) {
+						counters[i] >>= 1;
+					}
+				}
+				additions /= 2;
+			}
+		}
+
+		int frequency(int key) {
+			int frequency = MAX_COUNT;
+			for (int row = 0; row < rows.length; row++) {
+				frequency = Math.min(frequency, rows[row][index(key, row)]);
+			}
+			return frequency;
+		}
+
+		private int index(int key, int row) {
+			int hash = key * SEEDS[row];
+			hash ^= hash >>> 16;
+			return hash & mask;
+		}
+	}
+}
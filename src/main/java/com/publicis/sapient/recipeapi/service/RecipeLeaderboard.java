@@ -0,0 +1,281 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The best rated and most reviewed recipes, overall and per cuisine and meal type, for
+ * {@code GET /recipes/top}.
+ * <p>
+ * Each combination asked for gets a board: its best {@code recipes.top.max-n} recipes in
+ * order, picked with a bounded heap over the catalog the first time it is requested. A
+ * request copies the first {@code n} entries of the board.
+ * <p>
+ * Boards are patched as ingestion commits rather than rebuilt: a changed recipe that now
+ * beats the last entry takes its place, and one that drops out of a board that was full
+ * leaves the board to be picked again on its next request, as a recipe outside it may now
+ * belong in it. Cuisines and meal types are matched without regard to case.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RecipeLeaderboard {
+
+	public enum Ranking {
+		RATING("rating", Comparator.comparing(RankedRecipe::rating, Comparator.reverseOrder())
+				.thenComparing(RankedRecipe::reviewCount, Comparator.nullsLast(Comparator.reverseOrder()))),
+		REVIEW_COUNT("reviewCount", Comparator.comparing(RankedRecipe::reviewCount, Comparator.reverseOrder())
+				.thenComparing(RankedRecipe::rating, Comparator.nullsLast(Comparator.reverseOrder())));
+
+		private final String parameter;
+
+		private final Comparator<RankedRecipe> order;
+
+		Ranking(String parameter, Comparator<RankedRecipe> order) {
+			this.parameter = parameter;
+			this.order = order.thenComparingInt(RankedRecipe::id);
+		}
+
+		public String parameter() {
+			return parameter;
+		}
+
+		public static Optional<Ranking> forParameter(String parameter) {
+			return Arrays.stream(values()).filter(ranking -> ranking.parameter.equals(parameter)).findFirst();
+		}
+
+		/**
+		 * Whether the recipe has the value this ranking orders by.
+		 */
+		boolean ranks(RankedRecipe recipe) {
+			return this == RATING ? recipe.rating() != null : recipe.reviewCount() != null;
+		}
+	}
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Value("${recipes.top.max-n:100}")
+	int capacity;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, RankedRecipe> recipes = new HashMap<>();
+
+	private final Map<BoardKey, Board> boards = new HashMap<>();
+
+	@PostConstruct
+	void load() {
+		Map<Integer, RankedRecipe> loaded = new HashMap<>();
+		jdbcTemplate.query("SELECT id, name, cuisine, image, rating, review_count FROM t_recipes",
+				(RowCallbackHandler) rs -> loaded.put(rs.getInt(1),
+						new RankedRecipe(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+								rs.getObject(5, Float.class), rs.getObject(6, Integer.class), new ArrayList<>())));
+		jdbcTemplate.query("SELECT l.recipe_id, d.meal_type FROM t_recipes_mealtype l "
+				+ "JOIN t_meal_type d ON d.meal_type_id = l.mealtype_id", (RowCallbackHandler) rs -> {
+					RankedRecipe recipe = loaded.get(rs.getInt(1));
+					if (recipe != null) {
+						recipe.mealTypes().add(rs.getString(2));
+					}
+				});
+
+		lock.writeLock().lock();
+		try {
+			recipes.clear();
+			recipes.putAll(loaded);
+			boards.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("RecipeLeaderboard :: load :: {} recipes.", loaded.size());
+	}
+
+	/**
+	 * The first {@code n} recipes of the board for the given ranking, cuisine and meal
+	 * type, either of which may be null for all of them.
+	 */
+	public List<RankedRecipe> top(Ranking ranking, String cuisine, String mealType, int n) {
+		BoardKey key = new BoardKey(ranking, normalize(cuisine), normalize(mealType));
+		lock.readLock().lock();
+		try {
+			Board board = boards.get(key);
+			if (board == null || board.stale) {
+				lock.readLock().unlock();
+				lock.writeLock().lock();
+				try {
+					board = boards.get(key);
+					if (board == null || board.stale) {
+						board = build(key);
+						boards.put(key, board);
+					}
+				} finally {
+					lock.readLock().lock();
+					lock.writeLock().unlock();
+				}
+			}
+			return List.of(Arrays.copyOf(board.entries, Math.min(n, board.size)));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Takes in the given recipes, replacing earlier versions, and patches the boards they
+	 * enter, move in or leave.
+	 */
+	public void put(Collection<RankedRecipe> updates) {
+		lock.writeLock().lock();
+		try {
+			for (RankedRecipe update : updates) {
+				RankedRecipe previous = recipes.put(update.id(), update);
+				boards.forEach((key, board) -> board.replace(key, previous, update));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<Integer> recipeIds) {
+		lock.writeLock().lock();
+		try {
+			for (Integer recipeId : recipeIds) {
+				RankedRecipe previous = recipes.remove(recipeId);
+				if (previous != null) {
+					boards.forEach((key, board) -> board.replace(key, previous, null));
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Picks the best {@code capacity} members of a board with a heap holding the worst of
+	 * them on top, then sorts just those.
+	 */
+	private Board build(BoardKey key) {
+		Comparator<RankedRecipe> order = key.ranking().order;
+		PriorityQueue<RankedRecipe> best = new PriorityQueue<>(capacity + 1, order.reversed());
+		int members = 0;
+		for (RankedRecipe recipe : recipes.values()) {
+			if (!key.admits(recipe)) {
+				continue;
+			}
+			members++;
+			if (best.size() < capacity) {
+				best.add(recipe);
+			} else if (order.compare(recipe, best.peek()) < 0) {
+				best.poll();
+				best.add(recipe);
+			}
+		}
+		RankedRecipe[] entries = best.toArray(new RankedRecipe[capacity]);
+		Arrays.sort(entries, 0, best.size(), order);
+		return new Board(entries, best.size(), members <= capacity);
+	}
+
+	private static String normalize(String value) {
+		return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * A recipe as the boards see it, and as {@code GET /recipes/top} returns it.
+	 */
+	public record RankedRecipe(int id, String name, String cuisine, String image, Float rating, Integer reviewCount,
+			List<String> mealTypes) {
+	}
+
+	private record BoardKey(Ranking ranking, String cuisine, String mealType) {
+
+		boolean admits(RankedRecipe recipe) {
+			return recipe != null && ranking.ranks(recipe)
+					&& (cuisine == null || cuisine.equals(normalize(recipe.cuisine())))
+					&& (mealType == null || recipe.mealTypes().stream().map(RecipeLeaderboard::normalize)
+							.anyMatch(mealType::equals));
+		}
+	}
+
+	/**
+	 * The first {@code size} entries in order. {@code complete} when every member of the
+	 * board is among them, so nothing outside can move up when an entry leaves.
+	 */
+	private static final class Board {
+
+		final RankedRecipe[] entries;
+
+		int size;
+
+		boolean complete;
+
+		boolean stale;
+
+		Board(RankedRecipe[] entries, int size, boolean complete) {
+			this.entries = entries;
+			this.size = size;
+			this.complete = complete;
+		}
+
+		void replace(BoardKey key, RankedRecipe previous, RankedRecipe update) {
+			if (stale) {
+				return;
+			}
+			boolean left = previous != null && removeEntry(previous.id());
+			Comparator<RankedRecipe> order = key.ranking().order;
+			if (key.admits(update) && (complete || size > 0 && order.compare(update, entries[size - 1]) < 0)) {
+				insert(update, order);
+			} else if (left && !complete) {
+				// An entry left a board that did not hold every member; whichever recipe now
+				// ranks last is not known without picking again.
+				stale = true;
+			}
+		}
+
+		private boolean removeEntry(int recipeId) {
+			for (int i = 0; i < size; i++) {
+				if (entries[i].id() == recipeId) {
+					System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+					entries[--size] = null;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void insert(RankedRecipe recipe, Comparator<RankedRecipe> order) {
+			int at = 0;
+			while (at < size && order.compare(entries[at], recipe) < 0) {
+				at++;
+			}
+			if (size == entries.length) {
+				// The last entry drops out, so the board no longer holds every member.
+				complete = false;
+				if (at == size) {
+					return;
+				}
+				size--;
+			}
+			System.arraycopy(entries, at, entries, at + 1, size - at);
+			entries[at] = recipe;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.publicis.sapient.recipeapi.exception.DatabaseException;
+
+/**
+ * Reads only the requested properties of recipes for {@code fields=}.
+ * <p>
+ * When every requested field is a scalar, the query selects just those columns of
+ * {@code t_recipes}: the stored document, with its ingredient and instruction lists, is
+ * neither read nor parsed. Collections exist only in the document, so asking for one
+ * reads the documents and drops the unrequested properties before they are serialized.
+ */
+@Component
+public class RecipeProjectionReader {
+
+	private static final TypeReference<LinkedHashMap<String, Object>> DOCUMENT = new TypeReference<>() {
+	};
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * The requested fields of the given recipes, in the order of {@code recipeIds}. Ids
+	 * without a recipe are left out. Null fields, as parsed from a blank {@code fields=},
+	 * read every field.
+	 */
+	public List<Map<String, Object>> read(int[] recipeIds, Set<RecipeField> requested) {
+		if (recipeIds.length == 0) {
+			return List.of();
+		}
+		Set<RecipeField> fields = requested == null ? EnumSet.allOf(RecipeField.class) : requested;
+		Integer[] ids = Arrays.stream(recipeIds).boxed().toArray(Integer[]::new);
+		Map<Integer, Map<String, Object>> byId = fields.stream().allMatch(RecipeField::isColumn)
+				? readColumns(ids, fields)
+				: readDocuments(ids, fields);
+		return Arrays.stream(recipeIds).mapToObj(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	private Map<Integer, Map<String, Object>> readColumns(Integer[] ids, Set<RecipeField> fields) {
+		String sql = Stream.concat(Stream.of("id"), fields.stream().filter(field -> field != RecipeField.ID)
+				.map(RecipeField::column)).collect(Collectors.joining(", ", "SELECT ", " FROM t_recipes WHERE id = ANY(?)"));
+		Map<Integer, Map<String, Object>> byId = new HashMap<>();
+		jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(sql);
+			ps.setArray(1, con.createArrayOf("INTEGER", ids));
+			return ps;
+		}, (RowCallbackHandler) rs -> {
+			Map<String, Object> recipe = new LinkedHashMap<>();
+			int column = 2;
+			for (RecipeField field : fields) {
+				recipe.put(field.property(), rs.getObject(field == RecipeField.ID ? 1 : column++, field.type()));
+			}
+			byId.put(rs.getInt(1), recipe);
+		});
+		return byId;
+	}
+
+	private Map<Integer, Map<String, Object>> readDocuments(Integer[] ids, Set<RecipeField> fields) {
+		Set<String> properties = fields.stream().map(RecipeField::property).collect(Collectors.toSet());
+		Map<Integer, Map<String, Object>> byId = new HashMap<>();
+		jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement("SELECT id, document FROM t_recipe_document WHERE id = ANY(?)");
+			ps.setArray(1, con.createArrayOf("INTEGER", ids));
+			return ps;
+		}, (RowCallbackHandler) rs -> {
+			Map<String, Object> recipe = parse(rs.getString(2));
+			recipe.keySet().retainAll(properties);
+			byId.put(rs.getInt(1), recipe);
+		});
+		return byId;
+	}
+
+	private Map<String, Object> parse(String document) {
+		try {
+			return objectMapper.readValue(document, DOCUMENT);
+		} catch (JsonProcessingException e) {
+			throw new DatabaseException("Stored recipe document could not be read: " + e.getOriginalMessage());
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trigram index over recipe names and cuisines answering the case-insensitive substring
+ * search of {@code GET /recipes} without a table scan.
+ * <p>
+ * Every three-character sequence of a lower-cased name or cuisine maps to the sorted ids
+ * of the recipes containing it. A search term is looked up by intersecting the postings
+ * of its own trigrams, smallest first, and the few candidates left are checked against
+ * the indexed text, since sharing all trigrams does not by itself make the term a
+ * substring. Terms shorter than three characters have no trigrams and are checked
+ * against every indexed recipe.
+ * <p>
+ * Loaded from {@code t_recipe_document} at startup and kept current by the document
+ * writer after each commit.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RecipeSearchIndex {
+
+	static final int GRAM = 3;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, IndexedRecipe> recipes = new HashMap<>();
+
+	private final Map<Long, Postings> nameGrams = new HashMap<>();
+
+	private final Map<Long, Postings> cuisineGrams = new HashMap<>();
+
+	private final Postings allIds = new Postings();
+
+	@PostConstruct
+	void load() {
+		lock.writeLock().lock();
+		try {
+			jdbcTemplate.query("SELECT id, name, cuisine FROM t_recipe_document ORDER BY id",
+					(RowCallbackHandler) rs -> index(new IndexedRecipe(rs.getInt(1), rs.getString(2), rs.getString(3))));
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("RecipeSearchIndex :: load :: Indexed {} recipes, {} name and {} cuisine trigrams.", allIds.size,
+				nameGrams.size(), cuisineGrams.size());
+	}
+
+	/**
+	 * Ids, in ascending order, of the recipes whose name contains {@code name} and whose
+	 * cuisine contains {@code cuisine}, ignoring case. A null term matches every recipe.
+	 */
+	public int[] search(String name, String cuisine) {
+		String nameTerm = normalize(name);
+		String cuisineTerm = normalize(cuisine);
+
+		lock.readLock().lock();
+		try {
+			int[] candidates = intersect(null, nameTerm, nameGrams);
+			candidates = intersect(candidates, cuisineTerm, cuisineGrams);
+			if (candidates == null) {
+				candidates = allIds.toArray();
+			}
+
+			int matches = 0;
+			for (int id : candidates) {
+				IndexedRecipe recipe = recipes.get(id);
+				if (contains(recipe.name(), nameTerm) && contains(recipe.cuisine(), cuisineTerm)) {
+					candidates[matches++] = id;
+				}
+			}
+			return Arrays.copyOf(candidates, matches);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the given recipes, replacing what was indexed for ids seen before.
+	 */
+	public void put(Collection<IndexedRecipe> updates) {
+		lock.writeLock().lock();
+		try {
+			updates.forEach(this::index);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<Integer> recipeIds) {
+		lock.writeLock().lock();
+		try {
+			recipeIds.forEach(this::unindex);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return allIds.size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void index(IndexedRecipe update) {
+		unindex(update.id());
+		IndexedRecipe recipe = new IndexedRecipe(update.id(), normalize(update.name()), normalize(update.cuisine()));
+		recipes.put(recipe.id(), recipe);
+		allIds.add(recipe.id());
+		for (long gram : trigrams(recipe.name())) {
+			nameGrams.computeIfAbsent(gram, key -> new Postings()).add(recipe.id());
+		}
+		for (long gram : trigrams(recipe.cuisine())) {
+			cuisineGrams.computeIfAbsent(gram, key -> new Postings()).add(recipe.id());
+		}
+	}
+
+	private void unindex(int recipeId) {
+		IndexedRecipe recipe = recipes.remove(recipeId);
+		if (recipe == null) {
+			return;
+		}
+		allIds.remove(recipeId);
+		removePostings(nameGrams, recipe.name(), recipeId);
+		removePostings(cuisineGrams, recipe.cuisine(), recipeId);
+	}
+
+	private static void removePostings(Map<Long, Postings> grams, String text, int recipeId) {
+		for (long gram : trigrams(text)) {
+			Postings postings = grams.get(gram);
+			if (postings != null && postings.remove(recipeId) && postings.size == 0) {
+				grams.remove(gram);
+			}
+		}
+	}
+
+	/**
+	 * Narrows {@code candidates} (null for all recipes) to the ids holding every trigram of
+	 * {@code term}. Terms without trigrams leave the candidates as they are.
+	 */
+	private static int[] intersect(int[] candidates, String term, Map<Long, Postings> grams) {
+		long[] termGrams = trigrams(term);
+		if (termGrams.length == 0) {
+			return candidates;
+		}
+
+		Postings[] lists = new Postings[termGrams.length];
+		for (int i = 0; i < termGrams.length; i++) {
+			lists[i] = grams.get(termGrams[i]);
+			if (lists[i] == null) {
+				return new int[0];
+			}
+		}
+		Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+
+		int[] result = candidates == null ? lists[0].toArray() : lists[0].retain(candidates);
+		for (int i = candidates == null ? 1 : 0; i < lists.length && result.length > 0; i++) {
+			result = lists[i].retain(result);
+		}
+		return result;
+	}
+
+	private static boolean contains(String text, String term) {
+		return term == null || (text != null && text.contains(term));
+	}
+
+	private static String normalize(String value) {
+		return value == null ? null : value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Distinct trigrams of {@code text}, each packed into a long as three UTF-16 chars.
+	 */
+	static long[] trigrams(String text) {
+		if (text == null || text.length() < GRAM) {
+			return new long[0];
+		}
+		long[] grams = new long[text.length() - GRAM + 1];
+		for (int i = 0; i < grams.length; i++) {
+			grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+		}
+		return Arrays.stream(grams).sorted().distinct().toArray();
+	}
+
+	/**
+	 * The name and cuisine the index holds for a recipe.
+	 */
+	public record IndexedRecipe(int id, String name, String cuisine) {
+	}
+
+	/**
+	 * A sorted, growable array of recipe ids. Ingestion mostly appends increasing ids, which
+	 * needs no shifting.
+	 */
+	static final class Postings {
+
+		private int[] ids = new int[4];
+
+		private int size;
+
+		void add(int id) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index >= 0) {
+				return;
+			}
+			index = -index - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, index, ids, index + 1, size - index);
+			ids[index] = id;
+			size++;
+		}
+
+		boolean remove(int id) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			size--;
+			return true;
+		}
+
+		/**
+		 * The ids of {@code sorted} that are also in this list, in the same order.
+		 */
+		int[] retain(int[] sorted) {
+			int[] result = new int[Math.min(sorted.length, size)];
+			int matches = 0;
+			int from = 0;
+			for (int id : sorted) {
+				int index = Arrays.binarySearch(ids, from, size, id);
+				if (index >= 0) {
+					result[matches++] = id;
+					from = index + 1;
+				} else {
+					from = -index - 1;
+				}
+				if (from == size) {
+					break;
+				}
+			}
+			return Arrays.copyOf(result, matches);
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(ids, size);
+		}
+	}
+}
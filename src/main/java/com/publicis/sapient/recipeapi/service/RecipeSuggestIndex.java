@@ -0,0 +1,423 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ranked name completions for the search box, answered from memory.
+ * <p>
+ * Every word of a lower-cased recipe name starts one entry, and the entries are sorted
+ * by the text from that word on, so the names a prefix completes form one contiguous run
+ * found by binary search. An entry is just a reference to its recipe and an offset into
+ * the recipe's name; no per-character nodes are kept. A segment tree over the entries
+ * holds the best-ranked entry of each span, and the top {@code limit} of a run are
+ * taken best first from it in {@code O(limit log n)}. Recipes rank by rating, then by
+ * review count.
+ * <p>
+ * Entries live in two sorted runs: the catalog, and the recipes ingestion changed since
+ * the catalog was last rebuilt. Each update merges into the small run, which is folded
+ * into the catalog once it outgrows an eighth of it, so keeping up with a sync costs
+ * linear merges rather than re-sorting the whole catalog. Renamed and removed recipes
+ * leave their old entries behind, marked retired, until the next merge drops them.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class RecipeSuggestIndex {
+
+	static final int MIN_RECENT_ENTRIES = 4096;
+
+	private static final Comparator<Candidate> RANK = Comparator.comparingLong((Candidate candidate) -> candidate.score)
+			.reversed().thenComparingInt(candidate -> candidate.id);
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, Candidate> recipes = new HashMap<>();
+
+	private Run catalog = Run.EMPTY;
+
+	private Run recent = Run.EMPTY;
+
+	private int retiredEntries;
+
+	@PostConstruct
+	void load() {
+		List<Candidate> loaded = new ArrayList<>();
+		jdbcTemplate.query("SELECT id, name, rating, review_count FROM t_recipes",
+				(RowCallbackHandler) rs -> loaded.add(candidate(new SuggestedRecipe(rs.getInt(1), rs.getString(2),
+						rs.getObject(3, Float.class), rs.getObject(4, Integer.class)))));
+
+		lock.writeLock().lock();
+		try {
+			recipes.clear();
+			loaded.forEach(candidate -> recipes.put(candidate.id, candidate));
+			catalog = Run.of(recipes.values());
+			recent = Run.EMPTY;
+			retiredEntries = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("RecipeSuggestIndex :: load :: {} recipes under {} name entries.", recipes.size(), catalog.size());
+	}
+
+	/**
+	 * Up to {@code limit} recipes with a word of their name starting with {@code prefix},
+	 * ignoring case, best ranked first.
+	 */
+	public List<Suggestion> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		if (key.isEmpty() || limit < 1) {
+			return List.of();
+		}
+
+		lock.readLock().lock();
+		try {
+			List<Candidate> found = new ArrayList<>(limit * 2);
+			catalog.collect(key, limit, found);
+			recent.collect(key, limit, found);
+			found.sort(RANK);
+			return found.stream().limit(limit).map(candidate -> new Suggestion(candidate.id, candidate.name))
+					.toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the given recipes, replacing the names and ranks of ids seen before.
+	 */
+	public void put(Collection<SuggestedRecipe> updates) {
+		lock.writeLock().lock();
+		try {
+			List<Candidate> added = new ArrayList<>(updates.size());
+			for (SuggestedRecipe update : updates) {
+				Candidate candidate = candidate(update);
+				retire(recipes.put(candidate.id, candidate));
+				added.add(candidate);
+			}
+			recent = Run.merge(recent, Run.of(added));
+			mergeIfDue();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<Integer> recipeIds) {
+		lock.writeLock().lock();
+		try {
+			recipeIds.forEach(recipeId -> retire(recipes.remove(recipeId)));
+			mergeIfDue();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return recipes.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void retire(Candidate candidate) {
+		if (candidate != null && !candidate.retired) {
+			candidate.retired = true;
+			retiredEntries += candidate.wordStarts.length;
+		}
+	}
+
+	private void mergeIfDue() {
+		if (recent.size() + retiredEntries > Math.max(MIN_RECENT_ENTRIES, catalog.size() / 8)) {
+			catalog = Run.merge(catalog, recent);
+			recent = Run.EMPTY;
+			retiredEntries = 0;
+		}
+	}
+
+	private static Candidate candidate(SuggestedRecipe recipe) {
+		String name = recipe.name() == null ? "" : recipe.name();
+		return new Candidate(recipe.id(), name, normalize(name), score(recipe.rating(), recipe.reviewCount()));
+	}
+
+	private static String normalize(String value) {
+		return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Rating in the upper half and review count in the lower, so a higher rating always
+	 * wins and review counts only break ties. Unrated recipes rank last.
+	 */
+	private static long score(Float rating, Integer reviewCount) {
+		long high = rating == null ? Integer.MIN_VALUE : RecipeColumnStore.sortable(rating);
+		long low = reviewCount == null ? 0 : Math.max(0, reviewCount);
+		return (high << 32) | low;
+	}
+
+	/**
+	 * Offsets of the words of a normalized name: the first letter or digit of the name
+	 * and every one that follows some other character.
+	 */
+	static int[] wordStarts(String name) {
+		int[] starts = new int[name.length()];
+		int count = 0;
+		for (int i = 0; i < name.length(); i++) {
+			if (Character.isLetterOrDigit(name.charAt(i))
+					&& (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)))) {
+				starts[count++] = i;
+			}
+		}
+		return Arrays.copyOf(starts, count);
+	}
+
+	/**
+	 * The name and ranking fields of a recipe as ingestion wrote them.
+	 */
+	public record SuggestedRecipe(int id, String name, Float rating, Integer reviewCount) {
+	}
+
+	/**
+	 * A completion: the recipe's id and its name as stored.
+	 */
+	public record Suggestion(int id, String name) {
+	}
+
+	private static final class Candidate {
+
+		final int id;
+
+		final String name;
+
+		final String key;
+
+		final int[] wordStarts;
+
+		final long score;
+
+		/**
+		 * Set once the recipe is renamed, re-ranked or removed; only written under the
+		 * index's write lock.
+		 */
+		boolean retired;
+
+		Candidate(int id, String name, String key, long score) {
+			this.id = id;
+			this.name = name;
+			this.key = key;
+			this.wordStarts = RecipeSuggestIndex.wordStarts(key);
+			this.score = score;
+		}
+	}
+
+	/**
+	 * Entries sorted by the name text from their word on, with a segment tree of the best
+	 * ranked entry of every span.
+	 */
+	private static final class Run {
+
+		static final Run EMPTY = new Run(new Candidate[0], new int[0]);
+
+		final Candidate[] candidates;
+
+		final int[] offsets;
+
+		final int leaves;
+
+		final int[] tree;
+
+		Run(Candidate[] candidates, int[] offsets) {
+			this.candidates = candidates;
+			this.offsets = offsets;
+			this.leaves = Integer.highestOneBit(Math.max(1, candidates.length - 1)) << 1;
+			this.tree = new int[leaves * 2];
+			Arrays.fill(tree, -1);
+			for (int i = 0; i < candidates.length; i++) {
+				tree[leaves + i] = i;
+			}
+			for (int node = leaves - 1; node > 0; node--) {
+				tree[node] = better(tree[node * 2], tree[node * 2 + 1]);
+			}
+		}
+
+		int size() {
+			return candidates.length;
+		}
+
+		static Run of(Collection<Candidate> added) {
+			int count = added.stream().mapToInt(candidate -> candidate.wordStarts.length).sum();
+			Candidate[] candidates = new Candidate[count];
+			int[] offsets = new int[count];
+			int i = 0;
+			for (Candidate candidate : added) {
+				for (int offset : candidate.wordStarts) {
+					candidates[i] = candidate;
+					offsets[i++] = offset;
+				}
+			}
+			Integer[] order = new Integer[count];
+			Arrays.setAll(order, index -> index);
+			Arrays.sort(order,
+					(a, b) -> compareSuffixes(candidates[a].key, offsets[a], candidates[b].key, offsets[b]));
+			Candidate[] sortedCandidates = new Candidate[count];
+			int[] sortedOffsets = new int[count];
+			for (int j = 0; j < count; j++) {
+				sortedCandidates[j] = candidates[order[j]];
+				sortedOffsets[j] = offsets[order[j]];
+			}
+			return new Run(sortedCandidates, sortedOffsets);
+		}
+
+		/**
+		 * Both runs' entries in order, without the retired ones.
+		 */
+		static Run merge(Run a, Run b) {
+			Candidate[] candidates = new Candidate[a.size() + b.size()];
+			int[] offsets = new int[candidates.length];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < a.size() || j < b.size()) {
+				if (i < a.size() && a.candidates[i].retired) {
+					i++;
+				} else if (j < b.size() && b.candidates[j].retired) {
+					j++;
+				} else if (j == b.size() || (i < a.size() && compareSuffixes(a.candidates[i].key, a.offsets[i],
+						b.candidates[j].key, b.offsets[j]) <= 0)) {
+					candidates[count] = a.candidates[i];
+					offsets[count++] = a.offsets[i++];
+				} else {
+					candidates[count] = b.candidates[j];
+					offsets[count++] = b.offsets[j++];
+				}
+			}
+			return new Run(Arrays.copyOf(candidates, count), Arrays.copyOf(offsets, count));
+		}
+
+		/**
+		 * Adds the best {@code limit} current recipes among the entries completing
+		 * {@code key} to {@code found}, taking ranges best first: the best entry of a range
+		 * is emitted and the parts left and right of it are queued in its place.
+		 */
+		void collect(String key, int limit, List<Candidate> found) {
+			int from = lowerBound(key, false);
+			int to = lowerBound(key, true);
+			if (from >= to) {
+				return;
+			}
+
+			PriorityQueue<int[]> ranges = new PriorityQueue<>(
+					(x, y) -> RANK.compare(candidates[x[2]], candidates[y[2]]));
+			ranges.add(new int[] { from, to, best(from, to) });
+			int start = found.size();
+			while (!ranges.isEmpty() && found.size() - start < limit) {
+				int[] range = ranges.poll();
+				int entry = range[2];
+				Candidate candidate = candidates[entry];
+				// A name repeating a word has equally ranked entries for it, met one after another.
+				if (!candidate.retired && (found.size() == start || found.get(found.size() - 1) != candidate)) {
+					found.add(candidate);
+				}
+				if (range[0] < entry) {
+					ranges.add(new int[] { range[0], entry, best(range[0], entry) });
+				}
+				if (entry + 1 < range[1]) {
+					ranges.add(new int[] { entry + 1, range[1], best(entry + 1, range[1]) });
+				}
+			}
+		}
+
+		/**
+		 * The best-ranked entry in {@code [from, to)}.
+		 */
+		private int best(int from, int to) {
+			int result = -1;
+			for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+				if ((l & 1) == 1) {
+					result = better(result, tree[l++]);
+				}
+				if ((r & 1) == 1) {
+					result = better(result, tree[--r]);
+				}
+			}
+			return result;
+		}
+
+		private int better(int a, int b) {
+			if (a < 0) {
+				return b;
+			}
+			if (b < 0) {
+				return a;
+			}
+			return RANK.compare(candidates[a], candidates[b]) <= 0 ? a : b;
+		}
+
+		/**
+		 * The first entry whose text does not sort before {@code key}, or with
+		 * {@code after}, the first entry after those that start with it.
+		 */
+		private int lowerBound(String key, boolean after) {
+			int low = 0;
+			int high = candidates.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				int cmp = comparePrefix(candidates[mid].key, offsets[mid], key);
+				if (cmp < 0 || (after && cmp == 0)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	/**
+	 * Compares the text of {@code name} from {@code offset} with {@code key}, counting text
+	 * that starts with the key as equal to it.
+	 */
+	private static int comparePrefix(String name, int offset, String key) {
+		for (int i = 0; i < key.length(); i++) {
+			if (offset + i == name.length()) {
+				return -1;
+			}
+			int cmp = Character.compare(name.charAt(offset + i), key.charAt(i));
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return 0;
+	}
+
+	private static int compareSuffixes(String a, int aOffset, String b, int bOffset) {
+		int length = Math.min(a.length() - aOffset, b.length() - bOffset);
+		for (int i = 0; i < length; i++) {
+			int cmp = Character.compare(a.charAt(aOffset + i), b.charAt(bOffset + i));
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return Integer.compare(a.length() - aOffset, b.length() - bOffset);
+	}
+}
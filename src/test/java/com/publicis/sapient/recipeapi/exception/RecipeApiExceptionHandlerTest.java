@@ -48,6 +48,22 @@ class RecipeApiExceptionHandlerTest {
 		assertEquals("Recipe not found", response.getBody().getMessage());
 	}
 
+	@Test
+	void handleIngestionJobNFException() {
+		IngestionJobNotFoundException exception = new IngestionJobNotFoundException("Ingestion job not found");
+		ResponseEntity<RecipeApiResponse> response = exceptionHandler.handleIngestionJobNFException(exception);
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+		assertEquals("Ingestion job not found", response.getBody().getMessage());
+	}
+
+	@Test
+	void handleIngestionCapacityException() {
+		IngestionCapacityException exception = new IngestionCapacityException("Ingestion queue is full");
+		ResponseEntity<RecipeApiResponse> response = exceptionHandler.handleIngestionCapacityException(exception);
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals("Ingestion queue is full", response.getBody().getMessage());
+	}
+
 	@Test
 	void handleInvalidInputException() {
 		InvalidInputException exception = new InvalidInputException("Invalid input");
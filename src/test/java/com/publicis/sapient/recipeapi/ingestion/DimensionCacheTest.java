@@ -0,0 +1,120 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.publicis.sapient.recipeapi.dto.DimensionCacheStatsDto;
+import com.publicis.sapient.recipeapi.entity.TagsEntity;
+
+class DimensionCacheTest {
+
+	private DimensionCache dimensionCache;
+
+	private final Map<String, Integer> tagTable = new ConcurrentHashMap<>();
+
+	private final AtomicInteger sequence = new AtomicInteger();
+
+	private final AtomicInteger constraintViolations = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		dimensionCache = new DimensionCache();
+		dimensionCache.requiresNewTransaction = TransactionOperations.withoutTransaction();
+	}
+
+	@Test
+	void testLookupCountsHitsAndMisses() {
+		DimensionDictionary<TagsEntity> tags = dimensionCache.tags();
+		tags.register(new TagsEntity(7, "Italian"));
+
+		assertTrue(tags.lookup("Italian").isPresent());
+		assertEquals(7, tags.lookup("Italian").get().getTagsId());
+		assertTrue(tags.lookup("Thai").isEmpty());
+
+		DimensionCacheStatsDto stats = tags.stats();
+		assertEquals(1, stats.getSize());
+		assertEquals(2, stats.getHits());
+		assertEquals(1, stats.getMisses());
+	}
+
+	@Test
+	void testConcurrentCreateIfAbsentResolvesEveryNameToOneRow() throws Exception {
+		List<String> names = List.of("Vegan", "Quick", "Dessert", "Spicy", "Baking");
+		int threads = 8;
+		CyclicBarrier start = new CyclicBarrier(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<List<TagsEntity>>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return dimensionCache.fetchOrCreate(dimensionCache.tags(), names, this::fetchOrCreateTags);
+				}));
+			}
+
+			for (Future<List<TagsEntity>> result : results) {
+				Map<String, Integer> resolved = result.get().stream()
+						.collect(Collectors.toMap(TagsEntity::getTag, TagsEntity::getTagsId));
+				assertEquals(tagTable, resolved);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(names.size(), tagTable.size());
+		assertEquals(names.size(), dimensionCache.tags().stats().getSize());
+		for (String name : names) {
+			assertEquals(tagTable.get(name), dimensionCache.tags().lookup(name).get().getTagsId());
+		}
+	}
+
+	@Test
+	void testFetchOrCreateGivesUpAfterRepeatedConstraintViolations() {
+		Function<List<String>, List<TagsEntity>> alwaysClashing = names -> {
+			throw new DataIntegrityViolationException("duplicate key");
+		};
+
+		assertThrows(DataIntegrityViolationException.class,
+				() -> dimensionCache.fetchOrCreate(dimensionCache.tags(), List.of("Vegan"), alwaysClashing));
+	}
+
+	/**
+	 * Mimics fetchOrCreateEntities against a table with a unique constraint: rows another
+	 * thread inserted first make this insert fail, like the database would.
+	 */
+	private List<TagsEntity> fetchOrCreateTags(List<String> names) {
+		List<TagsEntity> resolved = new ArrayList<>();
+		for (String name : names) {
+			Integer existing = tagTable.get(name);
+			if (existing != null) {
+				resolved.add(new TagsEntity(existing, name));
+				continue;
+			}
+			int id = sequence.incrementAndGet();
+			if (tagTable.putIfAbsent(name, id) != null) {
+				constraintViolations.incrementAndGet();
+				throw new DataIntegrityViolationException("Unique index or primary key violation: " + name);
+			}
+			resolved.add(new TagsEntity(id, name));
+		}
+		return resolved;
+	}
+}
@@ -0,0 +1,163 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.dto.IngestionJobDto;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.exception.IngestionCapacityException;
+
+class IngestionJobServiceTest {
+
+	private IngestionJobService ingestionJobService;
+
+	@BeforeEach
+	void setUp() {
+		ingestionJobService = new IngestionJobService();
+		ingestionJobService.poolSize = 1;
+		ingestionJobService.queueCapacity = 1;
+		ingestionJobService.historySize = 10;
+		ingestionJobService.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		ingestionJobService.stop();
+	}
+
+	@Test
+	void testJobReportsProgressAndCompletes() throws Exception {
+		CountDownLatch halfway = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+
+		IngestionJob job = ingestionJobService.submit("sync", running -> {
+			running.recordProgress(500);
+			halfway.countDown();
+			await(resume);
+			return new IngestionSummary(1000, 10, 5, 985, 0, 10, 0, 0);
+		}).job();
+
+		assertTrue(halfway.await(5, TimeUnit.SECONDS));
+		IngestionJobDto inProgress = job.toDto();
+		assertEquals("RUNNING", inProgress.getPhase());
+		assertEquals(500, inProgress.getRecordsProcessed());
+
+		resume.countDown();
+		awaitFinished(job);
+
+		IngestionJobDto finished = ingestionJobService.find(job.getId()).get().toDto();
+		assertEquals("COMPLETED", finished.getPhase());
+		assertEquals(1000, finished.getRecordsProcessed());
+		assertEquals(985, finished.getSummary().getUnchanged());
+		assertTrue(finished.getRecordsPerSecond() > 0);
+		assertTrue(finished.getErrors().isEmpty());
+	}
+
+	@Test
+	void testIdenticalJobJoinsRunningJob() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		AtomicInteger runs = new AtomicInteger();
+
+		IngestionJobService.Submission first = ingestionJobService.submit("sync", running -> {
+			runs.incrementAndGet();
+			started.countDown();
+			await(resume);
+			return new IngestionSummary();
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		IngestionJobService.Submission second = ingestionJobService.submit("sync", running -> {
+			runs.incrementAndGet();
+			return new IngestionSummary();
+		});
+
+		assertFalse(first.joined());
+		assertTrue(second.joined());
+		assertSame(first.job(), second.job());
+
+		resume.countDown();
+		awaitFinished(first.job());
+		assertEquals(1, runs.get());
+
+		// Once the job has finished, the same request starts a fresh job.
+		IngestionJobService.Submission third = ingestionJobService.submit("sync", running -> new IngestionSummary());
+		assertFalse(third.joined());
+		assertNotEquals(first.job().getId(), third.job().getId());
+	}
+
+	@Test
+	void testFailedJobRecordsError() throws Exception {
+		IngestionJob job = ingestionJobService.submit("sync", running -> {
+			throw new IllegalStateException("feed unavailable");
+		}).job();
+
+		awaitFinished(job);
+
+		assertEquals(IngestionPhase.FAILED, job.getPhase());
+		assertEquals("IllegalStateException: feed unavailable", job.toDto().getErrors().get(0));
+	}
+
+	@Test
+	void testJobFailsOnError() throws Exception {
+		IngestionJob job = ingestionJobService.submit("sync", running -> {
+			throw new NoClassDefFoundError("com/example/Missing");
+		}).job();
+
+		awaitFinished(job);
+
+		assertEquals(IngestionPhase.FAILED, job.getPhase());
+		assertEquals("NoClassDefFoundError: com/example/Missing", job.toDto().getErrors().get(0));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (ingestionJobService.lastFinished("sync").isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertSame(job, ingestionJobService.lastFinished("sync").orElseThrow());
+		assertFalse(ingestionJobService.submit("sync", running -> new IngestionSummary()).joined());
+	}
+
+	@Test
+	void testSubmitFailsWhenQueueIsFull() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		ingestionJobService.submit("first", running -> {
+			started.countDown();
+			await(resume);
+			return new IngestionSummary();
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		ingestionJobService.submit("second", running -> new IngestionSummary());
+
+		assertThrows(IngestionCapacityException.class,
+				() -> ingestionJobService.submit("third", running -> new IngestionSummary()));
+		resume.countDown();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitFinished(IngestionJob job) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!job.isFinished() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(job.isFinished(), "job did not finish in time");
+	}
+}
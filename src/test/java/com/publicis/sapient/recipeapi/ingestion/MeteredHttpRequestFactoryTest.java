@@ -0,0 +1,108 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.publicis.sapient.recipeapi.dto.FeedClientStatsDto;
+
+class MeteredHttpRequestFactoryTest {
+
+	private final FeedHttpMetrics metrics = new FeedHttpMetrics();
+
+	private MeteredHttpRequestFactory requestFactory;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		requestFactory.destroy();
+	}
+
+	@Test
+	void testGzipPagesAreDecodedOverReusedConnection() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			feed.enableGzip();
+			RecipeFeedClient recipeFeedClient = feedClient(feed, Duration.ofSeconds(5), Duration.ofSeconds(10));
+			List<Integer> ids = new ArrayList<>();
+
+			long streamed = recipeFeedClient.streamRecipes(recipe -> ids.add(recipe.getId()));
+
+			assertEquals(250, streamed);
+			assertEquals(250, ids.get(249));
+
+			FeedClientStatsDto stats = metrics.stats();
+			assertEquals(3, stats.getRequests());
+			assertEquals(3, stats.getCompressedResponses());
+			assertEquals(0, stats.getFailures());
+			assertEquals(feed.bytesServed(), stats.getBytesReceived());
+			// Stub recipes differ in a few digits, so they compress far better than 3:1.
+			assertTrue(stats.getBytesDecoded() > 3 * stats.getBytesReceived(), stats.toString());
+			assertTrue(stats.getMaxLatencyMillis() >= stats.getP50LatencyMillis());
+			assertEquals(1, feed.connectionsSeen());
+		}
+	}
+
+	@Test
+	void testReadTimeoutBoundsSlowResponse() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			feed.setResponseDelay(2_000);
+			RecipeFeedClient recipeFeedClient = feedClient(feed, Duration.ofMillis(200), Duration.ofSeconds(10));
+
+			long start = System.nanoTime();
+			ResourceAccessException error = assertThrows(ResourceAccessException.class,
+					() -> recipeFeedClient.streamRecipes(recipe -> {
+					}));
+
+			assertInstanceOf(SocketTimeoutException.class, error.getCause());
+			assertTrue(elapsedMillis(start) < 1_500, "took " + elapsedMillis(start) + " ms");
+			assertEquals(1, metrics.stats().getFailures());
+			assertEquals(0, metrics.stats().getDeadlinesExceeded());
+		}
+	}
+
+	@Test
+	void testTotalDeadlineAbortsStalledBody() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			// Headers arrive promptly, so only the total deadline can end the exchange early.
+			feed.setBodyStall(5_000);
+			RecipeFeedClient recipeFeedClient = feedClient(feed, Duration.ofSeconds(10), Duration.ofMillis(300));
+
+			long start = System.nanoTime();
+			ResourceAccessException error = assertThrows(ResourceAccessException.class,
+					() -> recipeFeedClient.streamRecipes(recipe -> {
+					}));
+
+			assertInstanceOf(SocketTimeoutException.class, error.getCause());
+			assertTrue(error.getCause().getMessage().contains("total deadline"), error.getCause().getMessage());
+			assertTrue(elapsedMillis(start) < 3_000, "took " + elapsedMillis(start) + " ms");
+			assertEquals(1, metrics.stats().getFailures());
+			assertEquals(1, metrics.stats().getDeadlinesExceeded());
+		}
+	}
+
+	private RecipeFeedClient feedClient(StubRecipeFeedServer feed, Duration readTimeout, Duration totalTimeout) {
+		requestFactory = new MeteredHttpRequestFactory(Duration.ofSeconds(1), readTimeout, totalTimeout, 4, metrics);
+		RecipeFeedClient recipeFeedClient = new RecipeFeedClient();
+		recipeFeedClient.restTemplate = new RestTemplate(requestFactory);
+		recipeFeedClient.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		recipeFeedClient.httpMetrics = metrics;
+		recipeFeedClient.recipesApiUrl = feed.url();
+		recipeFeedClient.pageSize = 100;
+		return recipeFeedClient;
+	}
+
+	private static long elapsedMillis(long start) {
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+}
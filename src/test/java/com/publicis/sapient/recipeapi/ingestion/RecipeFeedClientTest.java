@@ -0,0 +1,209 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+
+class RecipeFeedClientTest {
+
+	private RecipeFeedClient recipeFeedClient;
+
+	@BeforeEach
+	void setUp() {
+		recipeFeedClient = new RecipeFeedClient();
+		recipeFeedClient.restTemplate = new RestTemplate();
+		recipeFeedClient.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	}
+
+	@Test
+	void testReadPageDecodesRecipesAndSkipsUnknownFields() throws Exception {
+		String page = "{\"meta\":{\"source\":\"stub\"},\"recipes\":[" + StubRecipeFeedServer.recipeJson(1) + ","
+				+ StubRecipeFeedServer.recipeJson(2) + "],\"total\":2,\"skip\":0,\"limit\":30}";
+		List<RecipeBinding> recipes = new ArrayList<>();
+
+		RecipeFeedClient.FeedPage result = recipeFeedClient
+				.readPage(new ByteArrayInputStream(page.getBytes(StandardCharsets.UTF_8)), recipes::add);
+
+		assertEquals(2, result.count());
+		assertEquals(2, result.total());
+		assertEquals("Stub Recipe 2", recipes.get(1).getName());
+		assertEquals(4, recipes.get(0).getIngredients().size());
+	}
+
+	@Test
+	void testStreamRecipesWalksEveryPage() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			recipeFeedClient.recipesApiUrl = feed.url();
+			recipeFeedClient.pageSize = 100;
+			List<Integer> ids = new ArrayList<>();
+
+			long streamed = recipeFeedClient.streamRecipes(recipe -> ids.add(recipe.getId()));
+
+			assertEquals(250, streamed);
+			assertEquals(250, ids.size());
+			assertEquals(1, ids.get(0));
+			assertEquals(250, ids.get(249));
+			assertEquals(List.of(0L, 100L, 200L), feed.requestedOffsets());
+		}
+	}
+
+	@Test
+	void testStreamRecipesResumesFromOffset() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			recipeFeedClient.recipesApiUrl = feed.url();
+			recipeFeedClient.pageSize = 100;
+			List<Integer> ids = new ArrayList<>();
+
+			long streamed = recipeFeedClient.streamRecipes(180, recipe -> ids.add(recipe.getId()));
+
+			assertEquals(70, streamed);
+			assertEquals(181, ids.get(0));
+			assertEquals(List.of(180L), feed.requestedOffsets());
+		}
+	}
+
+	@Test
+	void testStreamChangedRecipesSkipsPagesNotModified() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			recipeFeedClient.recipesApiUrl = feed.url();
+			recipeFeedClient.pageSize = 100;
+
+			RecipeFeedClient.FeedResult first = recipeFeedClient.streamChangedRecipes(0, recipe -> {
+			}, recipeId -> {
+			});
+			assertEquals(3, first.pagesFetched());
+			assertEquals(3, first.validators().size());
+
+			// Validators only apply once stored, after the caller's work has succeeded.
+			assertEquals(3, recipeFeedClient.streamChangedRecipes(0, recipe -> {
+			}, recipeId -> {
+			}).pagesFetched());
+			recipeFeedClient.storeValidators(first.validators());
+
+			feed.reviseRecipe(150);
+			List<Integer> parsed = new ArrayList<>();
+			List<Integer> notModified = new ArrayList<>();
+
+			RecipeFeedClient.FeedResult second = recipeFeedClient
+					.streamChangedRecipes(0, recipe -> parsed.add(recipe.getId()), notModified::add);
+
+			assertEquals(250, second.recipes());
+			assertEquals(1, second.pagesFetched());
+			assertEquals(2, second.pagesNotModified());
+			assertEquals(2, feed.notModifiedResponses());
+			assertEquals(100, parsed.size());
+			assertEquals(101, parsed.get(0));
+			assertEquals(150, notModified.size());
+			assertEquals(250, notModified.get(149));
+		}
+	}
+
+	@Test
+	void testUnexpectedNotModifiedPageIsFetchedAgain() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			recipeFeedClient.recipesApiUrl = feed.url();
+			recipeFeedClient.pageSize = 100;
+			feed.answerNotModified(100, 1);
+			List<Integer> ids = new ArrayList<>();
+
+			RecipeFeedClient.FeedResult result = recipeFeedClient.streamChangedRecipes(0,
+					recipe -> ids.add(recipe.getId()), recipeId -> {
+					});
+
+			assertTrue(result.complete());
+			assertEquals(250, result.recipes());
+			assertEquals(IntStream.rangeClosed(1, 250).boxed().toList(), ids);
+			assertEquals(List.of(0L, 100L, 100L, 200L), feed.requestedOffsets());
+
+			feed.answerNotModified(100, 2);
+			assertThrows(IllegalStateException.class, () -> recipeFeedClient.streamChangedRecipes(0, recipe -> {
+			}, recipeId -> {
+			}));
+		}
+	}
+
+	@Test
+	void testHedgedRequestAnswersForStalledPage() throws Exception {
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(250)) {
+			recipeFeedClient.recipesApiUrl = feed.url();
+			recipeFeedClient.pageSize = 100;
+			recipeFeedClient.httpMetrics = new FeedHttpMetrics();
+			recipeFeedClient.hedgeEnabled = true;
+			recipeFeedClient.hedgeDelay = Duration.ofMillis(100);
+			recipeFeedClient.start();
+
+			try {
+				// Pages that answer within the hedge delay are requested once.
+				assertEquals(250, recipeFeedClient.streamRecipes(recipe -> {
+				}));
+				assertEquals(0, recipeFeedClient.httpMetrics.stats().getHedgedRequests());
+
+				feed.setTotalRecipes(260);
+				feed.delayFirstAttemptPerPage(3_000);
+				List<Integer> ids = new ArrayList<>();
+				long start = System.nanoTime();
+
+				RecipeFeedClient.FeedResult result = recipeFeedClient.streamChangedRecipes(0,
+						recipe -> ids.add(recipe.getId()), recipeId -> {
+						});
+
+				long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+				assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + " ms");
+				assertEquals(260, result.recipes());
+				assertEquals(IntStream.rangeClosed(1, 260).boxed().toList(), ids);
+				assertEquals(3, recipeFeedClient.httpMetrics.stats().getHedgedRequests());
+				assertEquals(3, recipeFeedClient.httpMetrics.stats().getHedgeWins());
+			} finally {
+				recipeFeedClient.stop();
+			}
+		}
+	}
+
+	@Test
+	void testStreamRecipesKeepsMemoryBoundedForLargeFeed() throws Exception {
+		int totalRecipes = 500_000;
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+		try (StubRecipeFeedServer feed = new StubRecipeFeedServer(totalRecipes)) {
+			recipeFeedClient.recipesApiUrl = feed.url();
+			recipeFeedClient.pageSize = 5_000;
+
+			long baseline = retainedHeap(memory);
+			AtomicLong peakRetained = new AtomicLong();
+			AtomicLong seen = new AtomicLong();
+
+			long streamed = recipeFeedClient.streamRecipes(recipe -> {
+				if (seen.incrementAndGet() % 50_000 == 0) {
+					peakRetained.accumulateAndGet(retainedHeap(memory) - baseline, Math::max);
+				}
+			});
+
+			assertEquals(totalRecipes, streamed);
+			// The feed is far larger than the budget, so a bounded peak proves nothing accumulates.
+			assertTrue(feed.bytesServed() > 200L * 1024 * 1024, "feed was only " + feed.bytesServed() + " bytes");
+			assertTrue(peakRetained.get() < 32L * 1024 * 1024, "retained heap grew by " + peakRetained.get());
+		}
+	}
+
+	private static long retainedHeap(MemoryMXBean memory) {
+		System.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
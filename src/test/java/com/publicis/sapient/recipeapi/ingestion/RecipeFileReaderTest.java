@@ -0,0 +1,103 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient.FeedResult;
+
+class RecipeFileReaderTest {
+
+	@TempDir
+	Path directory;
+
+	private RecipeFileReader recipeFileReader;
+
+	@BeforeEach
+	void setUp() {
+		recipeFileReader = new RecipeFileReader();
+		recipeFileReader.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		// A tiny region forces recipes to straddle mapping boundaries.
+		recipeFileReader.mappedRegionSize = 97;
+	}
+
+	@Test
+	void testReadsFeedShapedDocument() throws IOException {
+		Path file = directory.resolve("recipes.json");
+		Files.writeString(file, "{\"meta\":{\"exported\":true},\"recipes\":[" + recipes(1, 25, ",")
+				+ "],\"total\":25,\"skip\":0,\"limit\":0}");
+		List<RecipeBinding> recipes = new ArrayList<>();
+
+		FeedResult result = recipeFileReader.read(file, 0, recipes::add);
+
+		assertEquals(25, result.recipes());
+		assertEquals(25, recipes.size());
+		assertEquals("Stub Recipe 25", recipes.get(24).getName());
+		assertEquals(4, recipes.get(0).getIngredients().size());
+	}
+
+	@Test
+	void testReadsTopLevelArray() throws IOException {
+		Path file = directory.resolve("recipes.json");
+		Files.writeString(file, "[" + recipes(1, 3, ",") + "]");
+		List<RecipeBinding> recipes = new ArrayList<>();
+
+		assertEquals(3, recipeFileReader.read(file, 0, recipes::add).recipes());
+		assertEquals(3, recipes.get(2).getId());
+	}
+
+	@Test
+	void testReadsGzipNdjsonFromOffset() throws IOException {
+		Path file = directory.resolve("recipes.ndjson.gz");
+		try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+			output.write((recipes(1, 40, "\n") + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		List<Integer> ids = new ArrayList<>();
+
+		FeedResult result = recipeFileReader.read(file, 30, recipe -> ids.add(recipe.getId()));
+
+		assertEquals(10, result.recipes());
+		assertEquals(31, ids.get(0));
+		assertEquals(40, ids.get(9));
+	}
+
+	@Test
+	void testDetectsNdjsonByExtension() {
+		assertTrue(RecipeFileReader.isNdjson(Path.of("dump.ndjson")));
+		assertTrue(RecipeFileReader.isNdjson(Path.of("dump.JSONL.gz")));
+		assertFalse(RecipeFileReader.isNdjson(Path.of("dump.json.gz")));
+	}
+
+	@Test
+	void testMalformedFileFails() throws IOException {
+		Path file = directory.resolve("broken.ndjson");
+		Files.writeString(file, StubRecipeFeedServer.recipeJson(1) + "\n{\"id\":2,\"name\":");
+
+		assertThrows(UncheckedIOException.class, () -> recipeFileReader.read(file, 0, recipe -> {
+		}));
+	}
+
+	private static String recipes(long first, long last, String separator) {
+		return LongStream.rangeClosed(first, last).mapToObj(StubRecipeFeedServer::recipeJson)
+				.collect(Collectors.joining(separator));
+	}
+}
@@ -0,0 +1,65 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+
+class RecipeFingerprintTest {
+
+	@Test
+	void testSameContentGivesSameFingerprint() {
+		assertEquals(RecipeFingerprint.of(recipe()), RecipeFingerprint.of(recipe()));
+		assertEquals(64, RecipeFingerprint.of(recipe()).length());
+	}
+
+	@Test
+	void testAnyFieldChangeGivesNewFingerprint() {
+		String original = RecipeFingerprint.of(recipe());
+
+		RecipeBinding rated = recipe();
+		rated.setRating(4.6f);
+		RecipeBinding reordered = recipe();
+		reordered.setIngredients(List.of("Water", "Flour"));
+
+		assertNotEquals(original, RecipeFingerprint.of(rated));
+		assertNotEquals(original, RecipeFingerprint.of(reordered));
+	}
+
+	@Test
+	void testNullAndEmptyValuesAreDistinguished() {
+		RecipeBinding emptyTags = recipe();
+		emptyTags.setTags(new ArrayList<>());
+		RecipeBinding nullTags = recipe();
+		nullTags.setTags(null);
+		RecipeBinding emptyCuisine = recipe();
+		emptyCuisine.setCuisine("");
+		RecipeBinding nullCuisine = recipe();
+		nullCuisine.setCuisine(null);
+
+		assertNotEquals(RecipeFingerprint.of(emptyTags), RecipeFingerprint.of(nullTags));
+		assertNotEquals(RecipeFingerprint.of(emptyCuisine), RecipeFingerprint.of(nullCuisine));
+	}
+
+	@Test
+	void testFieldBoundariesAreNotAmbiguous() {
+		RecipeBinding first = recipe();
+		first.setIngredients(List.of("ab", "c"));
+		RecipeBinding second = recipe();
+		second.setIngredients(List.of("a", "bc"));
+
+		assertNotEquals(RecipeFingerprint.of(first), RecipeFingerprint.of(second));
+	}
+
+	private static RecipeBinding recipe() {
+		return RecipeBinding.builder().id(1).name("Bread").ingredients(List.of("Flour", "Water"))
+				.instructions(List.of("Mix", "Bake")).tags(List.of("Baking")).mealType(List.of("Breakfast"))
+				.prepTimeMinutes(10).cookTimeMinutes(30).servings(2).difficulty("Easy").cuisine("French")
+				.caloriesPerServing(250).userId(7).image("image").rating(4.5f).reviewCount(3).build();
+	}
+}
@@ -0,0 +1,61 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+
+class RecipeImportRunnerTest {
+
+	@TempDir
+	Path directory;
+
+	private RecipeImportRunner recipeImportRunner;
+
+	private IRecipeApiService recipeApiService;
+
+	@BeforeEach
+	void setUp() {
+		recipeApiService = mock(IRecipeApiService.class);
+		recipeImportRunner = new RecipeImportRunner();
+		recipeImportRunner.recipeApiService = recipeApiService;
+	}
+
+	@Test
+	void testImportsFileGivenOnCommandLine() throws IOException {
+		Path file = Files.writeString(directory.resolve("recipes.ndjson"), "");
+		when(recipeApiService.importRecipes(eq(file), any())).thenReturn(new IngestionSummary());
+
+		recipeImportRunner.run(new DefaultApplicationArguments("--import=" + file));
+
+		verify(recipeApiService).importRecipes(eq(file), any());
+	}
+
+	@Test
+	void testDoesNothingWithoutImportOption() {
+		recipeImportRunner.run(new DefaultApplicationArguments("--server.port=8081"));
+
+		verify(recipeApiService, never()).importRecipes(any(), any());
+	}
+
+	@Test
+	void testMissingFileStopsStartup() {
+		assertThrows(IllegalArgumentException.class, () -> recipeImportRunner
+				.run(new DefaultApplicationArguments("--import=" + directory.resolve("missing.json"))));
+	}
+}
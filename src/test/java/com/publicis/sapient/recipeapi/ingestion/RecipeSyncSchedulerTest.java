@@ -0,0 +1,44 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.exception.IngestionCapacityException;
+
+class RecipeSyncSchedulerTest {
+
+	private RecipeSyncScheduler recipeSyncScheduler;
+
+	private IngestionJobService ingestionJobService;
+
+	@BeforeEach
+	void setUp() {
+		ingestionJobService = mock(IngestionJobService.class);
+		recipeSyncScheduler = new RecipeSyncScheduler();
+		recipeSyncScheduler.ingestionJobService = ingestionJobService;
+	}
+
+	@Test
+	void testSyncSubmitsDeltaSyncJob() {
+		when(ingestionJobService.submitDeltaSync())
+				.thenReturn(new IngestionJobService.Submission(new IngestionJob(IngestionJobService.DELTA_SYNC), false));
+
+		recipeSyncScheduler.sync();
+
+		verify(ingestionJobService, times(1)).submitDeltaSync();
+	}
+
+	@Test
+	void testSyncSkipsRunWhenQueueIsFull() {
+		when(ingestionJobService.submitDeltaSync()).thenThrow(new IngestionCapacityException("Ingestion queue is full"));
+
+		recipeSyncScheduler.sync();
+
+		verify(ingestionJobService, times(1)).submitDeltaSync();
+	}
+}
@@ -0,0 +1,192 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares write throughput of the ingestion write paths against an H2 server reached
+ * over TCP, so statement round trips cost what they would against a real database. Run
+ * with {@code mvn test -Dtest=RecipeWriteBenchmarkTest -Dbenchmark=true [-Dbenchmark.recipes=100000]}.
+ */
+@SpringBootTest(properties = "recipes.ingestion.batch-size=1000")
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecipeWriteBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 100_000);
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	DimensionCache dimensionCache;
+
+	@Autowired
+	IngestionPipelineMonitor pipelineMonitor;
+
+	@MockitoBean
+	RecipeFeedClient recipeFeedClient;
+
+	private static final List<String> TABLES = List.of("t_recipes_ingredients", "t_recipes_tags",
+			"t_recipes_mealtype", "t_recipe_instruction", "t_recipes", "t_ingredients", "t_tags", "t_meal_type",
+			"t_instructions");
+
+	private static Server databaseServer;
+
+	@DynamicPropertySource
+	static void databaseOverTcp(DynamicPropertyRegistry registry) throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		databaseServer = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+		registry.add("spring.datasource.url", () -> "jdbc:h2:tcp://localhost:" + port + "/mem:benchmark");
+	}
+
+	@AfterAll
+	static void stopDatabase() {
+		databaseServer.stop();
+	}
+
+	@Test
+	void compareWritePaths() {
+		run("Warm-up", 0, true, 50, RECIPES / 10);
+		run("Warm-up", 4, false, 50, RECIPES / 10);
+
+		double rowByRow = run("JPA, no JDBC batching", 1, false, 1);
+		double batched = run("JPA, JDBC batching", 2, false, 50);
+		double bulk = run("JDBC bulk writer", 3, true, 50);
+		double pipelined = runPipelined("Pipelined bulk writer", 5);
+
+		System.out.printf("Speed-up over row-by-row: JPA batched %.1fx, JDBC bulk %.1fx, pipelined %.1fx%n",
+				batched / rowByRow, bulk / rowByRow, pipelined / rowByRow);
+		assertTrue(bulk > rowByRow);
+	}
+
+	private double run(String label, int round, boolean bulkWriter, int jdbcBatchSize) {
+		return run(label, round, bulkWriter, jdbcBatchSize, RECIPES);
+	}
+
+	private double run(String label, int round, boolean bulkWriter, int jdbcBatchSize, int count) {
+		List<RecipeBinding> recipes = prepare(round, count, bulkWriter, false);
+		long start = System.nanoTime();
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+			recipeApiService.streamExternalApiDataAndPersist();
+		});
+		return report(label, recipes.size(), start);
+	}
+
+	/**
+	 * Runs the staged pipeline, which commits from its own writer thread, so there is no
+	 * outer transaction whose session settings it would pick up.
+	 */
+	private double runPipelined(String label, int round) {
+		List<RecipeBinding> recipes = prepare(round, RECIPES, true, true);
+		long start = System.nanoTime();
+		recipeApiService.streamExternalApiDataAndPersist();
+		double rowsPerSecond = report(label, recipes.size(), start);
+		pipelineMonitor.stats().forEach(stage -> System.out.printf(
+				"  %-10s %d worker(s), busy %,d ms, blocked %,d ms, idle %,d ms, max queue %d%n", stage.getStage(),
+				stage.getWorkers(), stage.getBusyMillis(), stage.getBlockedMillis(), stage.getIdleMillis(),
+				stage.getMaxQueueDepth()));
+		return rowsPerSecond;
+	}
+
+	private List<RecipeBinding> prepare(int round, int count, boolean bulkWriter, boolean pipeline) {
+		Object service = AopTestUtils.getTargetObject(recipeApiService);
+		ReflectionTestUtils.setField(service, "bulkWriterEnabled", bulkWriter);
+		ReflectionTestUtils.setField(service, "pipelineEnabled", pipeline);
+		List<RecipeBinding> recipes = recipes(round, count);
+		doAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			recipes.forEach(consumer);
+			return new RecipeFeedClient.FeedResult(recipes.size(), 1, 0, Collections.emptyMap(), true);
+		}).when(recipeFeedClient).streamChangedRecipes(anyLong(), any(), any());
+
+		resetCatalog();
+		return recipes;
+	}
+
+	private double report(String label, int recipeCount, long start) {
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long rows = countRows();
+
+		double rowsPerSecond = rows / seconds;
+		System.out.printf("%-24s %,d recipes, %,d rows in %.2fs = %,.0f rows/s%n", label, recipeCount, rows,
+				seconds, rowsPerSecond);
+		return rowsPerSecond;
+	}
+
+	/**
+	 * Every round starts from an empty catalog so later rounds do not pay for the rows
+	 * earlier ones left behind.
+	 */
+	private void resetCatalog() {
+		TABLES.forEach(table -> jdbcTemplate.execute("DELETE FROM " + table));
+		dimensionCache.ingredients().clear();
+		dimensionCache.tags().clear();
+		dimensionCache.mealTypes().clear();
+		dimensionCache.instructions().clear();
+		System.gc();
+	}
+
+	private long countRows() {
+		return TABLES.stream().mapToLong(table -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table,
+				Long.class)).sum();
+	}
+
+	private static List<RecipeBinding> recipes(int round, int count) {
+		List<RecipeBinding> recipes = new ArrayList<>(count);
+		int firstId = round * 10_000_000 + 1;
+		for (int id = firstId; id < firstId + count; id++) {
+			recipes.add(RecipeBinding.builder().id(id).name("Benchmark Recipe " + id)
+					.ingredients(List.of("R" + round + " ingredient " + (id % 2000), "R" + round + " ingredient "
+							+ (id % 1500), "R" + round + " salt", "R" + round + " oil"))
+					.instructions(List.of("R" + round + " prepare " + id, "R" + round + " cook " + id))
+					.tags(List.of("R" + round + " tag " + (id % 200))).mealType(List.of("R" + round + " meal " + (id % 6)))
+					.prepTimeMinutes(id % 60).cookTimeMinutes(id % 90).servings(4).difficulty("Easy")
+					.cuisine("Cuisine " + (id % 20)).caloriesPerServing(300).userId(1).image("image")
+					.rating(4.5f).reviewCount(id % 100).build());
+		}
+		return recipes;
+	}
+}
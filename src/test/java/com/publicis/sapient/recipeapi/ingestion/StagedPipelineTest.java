@@ -0,0 +1,137 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.dto.PipelineStageStatsDto;
+
+class StagedPipelineTest {
+
+	@Test
+	void testOrderedStageSeesItemsInSourceOrder() {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		StagedPipeline<int[]> pipeline = new StagedPipeline<int[]>("source", 2, item -> 1)
+				.stage("transform", 4, item -> {
+					sleep(ThreadLocalRandom.current().nextInt(3));
+					item[0] = item[0] * 10;
+				}).orderedStage("write", item -> written.add(item[0]));
+
+		pipeline.run(emit -> IntStream.range(0, 50).forEach(i -> emit.accept(new int[] { i })));
+
+		assertEquals(IntStream.range(0, 50).map(i -> i * 10).boxed().collect(Collectors.toList()), written);
+		List<PipelineStageStatsDto> stats = pipeline.stats();
+		assertEquals(List.of("source", "transform", "write"),
+				stats.stream().map(PipelineStageStatsDto::getStage).collect(Collectors.toList()));
+		assertEquals(4, stats.get(1).getWorkers());
+		stats.forEach(stage -> assertEquals(50, stage.getRecords()));
+	}
+
+	@Test
+	void testSlowStageBlocksTheSource() {
+		StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("source", 1, item -> 1)
+				.orderedStage("write", item -> sleep(5));
+
+		pipeline.run(emit -> IntStream.range(0, 20).forEach(emit::accept));
+
+		PipelineStageStatsDto source = pipeline.stats().get(0);
+		PipelineStageStatsDto write = pipeline.stats().get(1);
+		assertTrue(source.getBlockedMillis() > 0, "source was never held back");
+		assertEquals(1, write.getMaxQueueDepth());
+		assertEquals(1, write.getQueueCapacity());
+		assertTrue(write.getBusyMillis() >= 20 * 5 - 10);
+	}
+
+	@Test
+	void testStalledItemBoundsWhatTheOrderedStageHoldsBack() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger emitted = new AtomicInteger();
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("source", 2, item -> 1)
+				.stage("resolve", 2, item -> {
+					if (item == 0) {
+						await(release);
+					}
+				}).orderedStage("write", written::add);
+
+		Thread runner = new Thread(() -> pipeline.run(emit -> IntStream.range(0, 1000).forEach(i -> {
+			emit.accept(i);
+			emitted.incrementAndGet();
+		})));
+		runner.start();
+		sleep(500);
+
+		// Two queues of two and three workers: nothing beyond that is emitted while item 0 is stuck.
+		assertTrue(emitted.get() <= 2 * 2 + 3, emitted.get() + " items emitted behind the stalled one");
+		assertTrue(written.isEmpty());
+
+		release.countDown();
+		runner.join(10_000);
+		assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), written);
+	}
+
+	@Test
+	void testStageFailureStopsThePipeline() {
+		IllegalStateException failure = new IllegalStateException("write failed");
+		AtomicInteger emitted = new AtomicInteger();
+		StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("source", 2, item -> 1)
+				.stage("transform", 2, item -> {
+				}).orderedStage("write", item -> {
+					if (item == 10) {
+						throw failure;
+					}
+				});
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> pipeline.run(emit -> {
+			for (int i = 0;; i++) {
+				emit.accept(i);
+				emitted.incrementAndGet();
+			}
+		}));
+
+		assertSame(failure, thrown);
+		assertTrue(emitted.get() < 100);
+	}
+
+	@Test
+	void testSourceFailureDrainsEmittedItems() {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("source", 2, item -> 1)
+				.stage("transform", 3, item -> sleep(1)).orderedStage("write", written::add);
+
+		assertThrows(IllegalArgumentException.class, () -> pipeline.run(emit -> {
+			IntStream.range(0, 10).forEach(emit::accept);
+			throw new IllegalArgumentException("feed unavailable");
+		}));
+
+		assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), written);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package com.publicis.sapient.recipeapi.ingestion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the external recipe feed. Pages are generated on the fly from
+ * {@code limit}/{@code skip}, so arbitrarily large catalogs cost no memory on the
+ * server side.
+ */
+public class StubRecipeFeedServer implements AutoCloseable {
+
+	private final HttpServer server;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	private volatile int totalRecipes;
+
+	private final Map<Long, Integer> revisions = new ConcurrentHashMap<>();
+
+	private final AtomicLong bytesServed = new AtomicLong();
+
+	private final List<Long> requestedOffsets = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong notModifiedResponses = new AtomicLong();
+
+	private volatile long failFromOffset = -1;
+
+	private final Map<Long, AtomicLong> forcedNotModified = new ConcurrentHashMap<>();
+
+	private volatile boolean gzip;
+
+	private volatile long responseDelayMillis;
+
+	private volatile long bodyStallMillis;
+
+	private volatile long firstAttemptDelayMillis;
+
+	private final Map<Long, AtomicLong> attemptsPerOffset = new ConcurrentHashMap<>();
+
+	private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+	public StubRecipeFeedServer(int totalRecipes) throws IOException {
+		this.totalRecipes = totalRecipes;
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.createContext("/recipes", this::handlePage);
+		this.server.setExecutor(executor);
+		this.server.start();
+	}
+
+	public String url() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/recipes";
+	}
+
+	public long bytesServed() {
+		return bytesServed.get();
+	}
+
+	public List<Long> requestedOffsets() {
+		return requestedOffsets;
+	}
+
+	public long notModifiedResponses() {
+		return notModifiedResponses.get();
+	}
+
+	/**
+	 * Number of distinct client connections seen, to tell keep-alive reuse apart from a
+	 * connection per request.
+	 */
+	public int connectionsSeen() {
+		return clientPorts.size();
+	}
+
+	/**
+	 * Compresses pages for clients that send {@code Accept-Encoding: gzip}.
+	 */
+	public void enableGzip() {
+		this.gzip = true;
+	}
+
+	/**
+	 * Waits this long before answering any page, as a slow upstream would.
+	 */
+	public void setResponseDelay(long millis) {
+		this.responseDelayMillis = millis;
+	}
+
+	/**
+	 * Sends the status line and headers, then stalls this long before the body, as a
+	 * connection that stops making progress part way through a response would.
+	 */
+	public void setBodyStall(long millis) {
+		this.bodyStallMillis = millis;
+	}
+
+	/**
+	 * Delays only the next request for each page; repeated requests for the page are
+	 * answered at once, as a single bad connection or overloaded replica would behave.
+	 */
+	public void delayFirstAttemptPerPage(long millis) {
+		attemptsPerOffset.clear();
+		this.firstAttemptDelayMillis = millis;
+	}
+
+	public void setTotalRecipes(int totalRecipes) {
+		this.totalRecipes = totalRecipes;
+	}
+
+	/**
+	 * Changes the content the feed serves for a recipe, as an upstream edit would.
+	 */
+	public void reviseRecipe(long id) {
+		revisions.merge(id, 1, Integer::sum);
+	}
+
+	/**
+	 * Answers {@code 500} for every page at or after {@code offset}, as a feed outage part
+	 * way through a walk would; a negative offset restores normal service.
+	 */
+	public void failPagesFrom(long offset) {
+		this.failFromOffset = offset;
+	}
+
+	/**
+	 * Answers {@code 304} to the next {@code times} requests for the page at
+	 * {@code offset} whatever validators they carry, as a misbehaving cache in front of
+	 * the feed would.
+	 */
+	public void answerNotModified(long offset, int times) {
+		forcedNotModified.put(offset, new AtomicLong(times));
+	}
+
+	private void handlePage(HttpExchange exchange) throws IOException {
+		long limit = queryParam(exchange, "limit", 30);
+		long skip = queryParam(exchange, "skip", 0);
+		requestedOffsets.add(skip);
+		clientPorts.add(exchange.getRemoteAddress().getPort());
+
+		long attempt = attemptsPerOffset.computeIfAbsent(skip, offset -> new AtomicLong()).incrementAndGet();
+		pause(attempt == 1 ? responseDelayMillis + firstAttemptDelayMillis : responseDelayMillis);
+
+		if (failFromOffset >= 0 && skip >= failFromOffset) {
+			exchange.sendResponseHeaders(500, -1);
+			exchange.close();
+			return;
+		}
+
+		AtomicLong forced = forcedNotModified.get(skip);
+		if (forced != null && forced.getAndDecrement() > 0) {
+			notModifiedResponses.incrementAndGet();
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+
+		long end = limit == 0 ? totalRecipes : Math.min(totalRecipes, skip + limit);
+
+		String etag = pageEtag(skip, end);
+		exchange.getResponseHeaders().add("ETag", etag);
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			notModifiedResponses.incrementAndGet();
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+
+		boolean compress = gzip && String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding"))
+				.contains("gzip");
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		if (compress) {
+			exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+		}
+		exchange.sendResponseHeaders(200, 0);
+		exchange.getResponseBody().flush();
+		pause(bodyStallMillis);
+
+		OutputStream wire = new CountingStream(exchange.getResponseBody());
+		try (OutputStream body = compress ? new GZIPOutputStream(wire, 64 * 1024) : wire;
+				Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 64 * 1024)) {
+			writer.write("{\"recipes\":[");
+			for (long id = skip + 1; id <= end; id++) {
+				if (id > skip + 1) {
+					writer.write(',');
+				}
+				writer.write(recipeJson(id, revisions.getOrDefault(id, 0)));
+			}
+			writer.write("],\"total\":" + totalRecipes + ",\"skip\":" + skip + ",\"limit\":" + limit + "}");
+		}
+	}
+
+	private static void pause(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Changes whenever anything the page body contains changes, like a real feed's ETag.
+	 */
+	private String pageEtag(long skip, long end) {
+		long revision = 0;
+		for (Map.Entry<Long, Integer> entry : revisions.entrySet()) {
+			if (entry.getKey() > skip && entry.getKey() <= end) {
+				revision += entry.getKey() * 1000 + entry.getValue();
+			}
+		}
+		return "\"" + skip + "-" + end + "-" + totalRecipes + "-" + revision + "\"";
+	}
+
+	public static String recipeJson(long id) {
+		return recipeJson(id, 0);
+	}
+
+	public static String recipeJson(long id, int revision) {
+		return "{\"id\":" + id + ",\"name\":\"Stub Recipe " + id + "\","
+				+ "\"ingredients\":[\"Flour\",\"Water\",\"Salt\",\"Ingredient " + (id % 500) + "\"],"
+				+ "\"instructions\":[\"Mix the flour, water and salt for recipe " + id + " until smooth.\","
+				+ "\"Rest the dough for thirty minutes, then shape and bake until golden brown.\"],"
+				+ "\"prepTimeMinutes\":" + (id % 60) + ",\"cookTimeMinutes\":" + (id % 90) + ",\"servings\":4,"
+				+ "\"difficulty\":\"Easy\",\"cuisine\":\"Cuisine " + (id % 20) + "\",\"caloriesPerServing\":"
+				+ (100 + id % 700) + ",\"tags\":[\"Tag " + (id % 50) + "\",\"Baking\"],\"userId\":" + (id % 200)
+				+ ",\"image\":\"https://cdn.example.com/recipe-images/" + id + ".webp\",\"rating\":"
+				+ (3 + (id % 20) / 10.0) + ",\"reviewCount\":" + (id % 100 + revision * 1000)
+				+ ",\"mealType\":[\"Dinner\"]}";
+	}
+
+	private static long queryParam(HttpExchange exchange, String name, long defaultValue) {
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return defaultValue;
+		}
+		for (String pair : query.split("&")) {
+			String[] parts = pair.split("=", 2);
+			if (parts.length == 2 && parts[0].equals(name)) {
+				return Long.parseLong(parts[1]);
+			}
+		}
+		return defaultValue;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private class CountingStream extends OutputStream {
+
+		private final OutputStream delegate;
+
+		CountingStream(OutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			bytesServed.incrementAndGet();
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			bytesServed.addAndGet(len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+	}
+}
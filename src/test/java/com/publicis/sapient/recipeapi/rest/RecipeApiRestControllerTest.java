@@ -1,21 +1,32 @@
 package com.publicis.sapient.recipeapi.rest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,9 +38,19 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
 import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.dto.IngestionJobDto;
 import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.dto.RecipePage;
 import com.publicis.sapient.recipeapi.dto.RecipeDto.RecipeDtoBuilder;
+import com.publicis.sapient.recipeapi.exception.IngestionCapacityException;
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJob;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService.Submission;
 import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.Ranking;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.Suggestion;
 
 import lombok.Builder;
 
@@ -39,15 +60,18 @@ public class RecipeApiRestControllerTest {
 	@MockitoBean
 	private IRecipeApiService recipeApiService;
 
+	@MockitoBean
+	private IngestionJobService ingestionJobService;
+
 	@Autowired
 	MockMvc mockMvc;
 
 	@Test
-	public void testFetchExternalApiRecipesEmpty() throws Exception {
+	public void testFetchExternalApiSynchronousRecipesEmpty() throws Exception {
 		
 		when(recipeApiService.fetchExternalApiDataAndPersist()).thenReturn(Collections.emptyList());
 		
-		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api");
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api?synchronous=true");
 		
 	     MvcResult result = mockMvc.perform(request).andReturn();
 		
@@ -61,7 +85,7 @@ public class RecipeApiRestControllerTest {
 	}
 
 	@Test
-	public void testFetchExternalApiRecipesSuccess() throws Exception {
+	public void testFetchExternalApiSynchronousRecipesSuccess() throws Exception {
 		List<RecipeDto> recipesList = new ArrayList<>();
 		RecipeDto recipe1 = RecipeDto.builder().id(2).name("Classic Margherita Pizza")
 				.ingredients(new ArrayList<>(Arrays.asList("Pizza dough", "ram")))
@@ -83,7 +107,7 @@ public class RecipeApiRestControllerTest {
 
 		when(recipeApiService.fetchExternalApiDataAndPersist()).thenReturn(recipesList);
 
-		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api");
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api?synchronous=true");
 
 		MvcResult result = mockMvc.perform(request).andReturn();
 
@@ -96,18 +120,62 @@ public class RecipeApiRestControllerTest {
 		assertEquals(expectedResult, actualResult);
 	}
 
+	@Test
+	public void testFetchExternalApiAcceptsJobByDefault() throws Exception {
+
+		IngestionJob job = mock(IngestionJob.class);
+		when(job.getId()).thenReturn("job-1");
+		when(job.toDto()).thenReturn(IngestionJobDto.builder().id("job-1").phase("QUEUED").build());
+		when(ingestionJobService.submitDeltaSync()).thenReturn(new Submission(job, false));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api");
+
+		MvcResult result = mockMvc.perform(request).andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+
+		assertEquals(202, response.getStatus());
+		assertEquals("/recipes/ingestion-jobs/job-1", response.getHeader("Location"));
+		Assertions.assertThat(response.getContentAsString()).contains("\"id\":\"job-1\"", "Ingestion job accepted");
+		verify(recipeApiService, never()).fetchExternalApiDataAndPersist();
+	}
+
+	@Test
+	public void testFetchExternalApiJoinsRunningJob() throws Exception {
+
+		IngestionJob job = mock(IngestionJob.class);
+		when(job.getId()).thenReturn("job-1");
+		when(job.toDto()).thenReturn(IngestionJobDto.builder().id("job-1").phase("RUNNING").build());
+		when(ingestionJobService.submitDeltaSync()).thenReturn(new Submission(job, true));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api");
+
+		MvcResult result = mockMvc.perform(request).andReturn();
+
+		assertEquals(202, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains("Joined the ingestion job");
+	}
+
+	@Test
+	public void testFetchExternalApiQueueFull() throws Exception {
+
+		when(ingestionJobService.submitDeltaSync())
+				.thenThrow(new IngestionCapacityException("Ingestion queue is full. Please try again later."));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/recipes/external-api");
+
+		MvcResult result = mockMvc.perform(request).andReturn();
+
+		assertEquals(503, result.getResponse().getStatus());
+	}
+
 	@Test
 	public void testGetRecipeSuccess() throws Exception {
 
-		RecipeDto recipe = RecipeDto.builder().id(2).name("Classic Margherita Pizza")
-				.ingredients(new ArrayList<>(Arrays.asList("Pizza dough", "ram")))
-				.instructions(new ArrayList(Arrays.asList("Preheat the oven to 475°F (245°C).",
-						"Roll out the pizza dough and spread tomato sauce evenly")))
-				.prepTimeMinutes(20).cookTimeMinutes(15).servings(4).difficulty("Easy").cuisine(null)
-				.caloriesPerServing(null).tags(null).userId(null).image(null).rating(null).reviewCount(null)
-				.mealType(null).build();
+		String recipe = "{\"id\":2,\"name\":\"Classic Margherita Pizza\",\"ingredients\":[\"Pizza dough\",\"ram\"],"
+				+ "\"instructions\":[\"Preheat the oven to 475°F (245°C).\"],\"prepTimeMinutes\":20}";
 
-		when(recipeApiService.getRecipeById(anyInt())).thenReturn(recipe);
+		when(recipeApiService.getRecipeJson(anyInt())).thenReturn(recipe.getBytes(StandardCharsets.UTF_8));
 
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/recipe?recipeId=1");
 
@@ -120,6 +188,7 @@ public class RecipeApiRestControllerTest {
 		int expectedResult = 200;
 
 		assertEquals(expectedResult, actualResult);
+		Assertions.assertThat(response.getContentAsString(StandardCharsets.UTF_8)).contains("\"data\":" + recipe);
 
 	}
 
@@ -199,7 +268,7 @@ public class RecipeApiRestControllerTest {
 
 		recipesList.addAll(Arrays.asList(recipe1, recipe2));
 
-		when(recipeApiService.getRecipesByNameAndCuisine(any())).thenReturn(recipesList);
+		when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage(recipesList, null));
 
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
 				.get("/recipes?cuisine=Italian&name=Classic Margherita");
@@ -255,7 +324,7 @@ public class RecipeApiRestControllerTest {
 	@Test
 	public void testGetRecipesEmpty() throws Exception {	
 		
-	when(recipeApiService.getRecipesByNameAndCuisine(any())).thenReturn(Collections.emptyList());
+	when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage(Collections.emptyList(), null));
 	
 	MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/recipes?cuisine=ita&name=Class");
 	
@@ -274,7 +343,7 @@ public class RecipeApiRestControllerTest {
 	@Test
 	public void testGetRecipesByNameSuccess() throws Exception {	
 		
-	when(recipeApiService.getRecipesByNameAndCuisine(any())).thenReturn(Collections.emptyList());
+	when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage(Collections.emptyList(), null));
 	
 	MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/recipes?name=Class");
 	
@@ -290,4 +359,271 @@ public class RecipeApiRestControllerTest {
 	
 	}
 
+	@Test
+	public void testGetRecipesByFiltersWithoutName() throws Exception {
+
+		when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage(Collections.emptyList(), null));
+
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.get("/recipes?ingredient=Tofu&ingredient=Basil&tag=Vegan&match=any"))
+				.andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+	}
+
+	@Test
+	public void testGetRecipesWithoutNameOrFilter() throws Exception {
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?cuisine=Italian")).andReturn();
+
+		assertEquals(400, result.getResponse().getStatus());
+	}
+
+	@Test
+	public void testGetRecipesInvalidMatch() throws Exception {
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?tag=Vegan&match=some")).andReturn();
+
+		assertEquals(400, result.getResponse().getStatus());
+	}
+
+	@Test
+	public void testGetRecipesReturnsNextCursor() throws Exception {
+
+		RecipeDto recipe = RecipeDto.builder().id(1).name("Classic Margherita Pizza").build();
+		when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage(List.of(recipe), "next-page"));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&limit=1&sort=-rating"))
+				.andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains("\"nextCursor\":\"next-page\"");
+	}
+
+	@Test
+	public void testGetRecipesReturnsFacets() throws Exception {
+
+		RecipeDto recipe = RecipeDto.builder().id(1).name("Classic Margherita Pizza").build();
+		when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage<>(List.of(recipe), null,
+				Map.of("cuisine", Map.of("Italian", 12))));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&facets=cuisine"))
+				.andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString())
+				.contains("\"facets\":{\"cuisine\":{\"Italian\":12}}");
+	}
+
+	@Test
+	public void testGetRecipesByRangeAlone() throws Exception {
+
+		when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage<>(List.of(), null));
+
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.get("/recipes?maxTotalMinutes=30&minRating=4.5&maxCalories=500"))
+				.andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		verify(recipeApiService).searchRecipes(argThat(request -> request.getMaxTotalMinutes() == 30
+				&& request.getMinRating() == 4.5f && request.getMaxCalories() == 500));
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes?minCalories=-1")).andReturn()
+				.getResponse().getStatus());
+	}
+
+	@Test
+	public void testGetRecipesInvalidPaging() throws Exception {
+
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&limit=0")).andReturn()
+				.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&limit=101")).andReturn()
+				.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&sort=servings")).andReturn()
+				.getResponse().getStatus());
+	}
+
+	@Test
+	public void testStreamRecipesWritesNdjson() throws Exception {
+
+		when(recipeApiService.matchRecipeIds(any())).thenReturn(new int[] { 1, 2 });
+		when(recipeApiService.streamRecipes(any(), any())).thenAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(1);
+			out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+			return 2L;
+		});
+
+		MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza")
+				.accept(MediaType.APPLICATION_NDJSON)).andReturn();
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started)).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+		assertEquals("{\"id\":1}\n{\"id\":2}\n", result.getResponse().getContentAsString());
+	}
+
+	@Test
+	public void testStreamRecipesValidatesBeforeStreaming() throws Exception {
+
+		when(recipeApiService.matchRecipeIds(any())).thenThrow(new InvalidInputException("Invalid range"));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza")
+				.accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+		assertEquals(400, result.getResponse().getStatus());
+		assertFalse(result.getRequest().isAsyncStarted());
+		verify(recipeApiService, never()).streamRecipes(any(), any());
+	}
+
+	@Test
+	public void testStreamRecipesWhenCatalogIsEmpty() throws Exception {
+
+		when(recipeApiService.isRecipeDataEmpty()).thenReturn(true);
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza")
+				.accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		assertFalse(result.getRequest().isAsyncStarted());
+		verify(recipeApiService, never()).matchRecipeIds(any());
+		verify(recipeApiService, never()).streamRecipes(any(), any());
+	}
+
+	@Test
+	public void testStreamRecipesRejectsPaging() throws Exception {
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&sort=-rating")
+				.accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+		assertEquals(400, result.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=2")
+				.accept(MediaType.APPLICATION_NDJSON)).andReturn().getResponse().getStatus());
+	}
+
+	@Test
+	public void testFieldsSelectTheProjection() throws Exception {
+
+		when(recipeApiService.getRecipeFields(7, List.of("id", "name"))).thenReturn(Map.of("id", 7, "name", "Pizza"));
+		when(recipeApiService.searchRecipeFields(any()))
+				.thenReturn(new RecipePage<>(List.of(Map.<String, Object>of("name", "Pizza")), null));
+
+		MvcResult single = mockMvc.perform(MockMvcRequestBuilders.get("/recipe?recipeId=7&fields=id,name")).andReturn();
+		MvcResult search = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza&fields=name")).andReturn();
+
+		assertEquals(200, single.getResponse().getStatus());
+		Assertions.assertThat(single.getResponse().getContentAsString()).contains("\"name\":\"Pizza\"");
+		assertEquals(200, search.getResponse().getStatus());
+		Assertions.assertThat(search.getResponse().getContentAsString()).contains("[{\"name\":\"Pizza\"}]");
+		verify(recipeApiService, never()).getRecipeJson(anyInt());
+		verify(recipeApiService, never()).searchRecipes(any());
+	}
+
+	@Test
+	public void testBlankFieldsReturnTheWholeRecipe() throws Exception {
+
+		when(recipeApiService.getRecipeJson(7)).thenReturn("{\"id\":7}".getBytes(StandardCharsets.UTF_8));
+		when(recipeApiService.searchRecipes(any())).thenReturn(new RecipePage<>(List.of(), null));
+
+		MvcResult single = mockMvc.perform(MockMvcRequestBuilders.get("/recipe?recipeId=7&fields=,")).andReturn();
+		MvcResult search = mockMvc.perform(MockMvcRequestBuilders.get("/recipes?name=Pizza").param("fields", " "))
+				.andReturn();
+
+		assertEquals(200, single.getResponse().getStatus());
+		Assertions.assertThat(single.getResponse().getContentAsString()).contains("\"data\":{\"id\":7}");
+		assertEquals(200, search.getResponse().getStatus());
+		verify(recipeApiService, never()).getRecipeFields(anyInt(), any());
+		verify(recipeApiService, never()).searchRecipeFields(any());
+	}
+
+	@Test
+	public void testGetRecipesBatchKeepsRequestOrderAndMarksMissingIds() throws Exception {
+
+		when(recipeApiService.getRecipesJson(List.of(3, 99, 1))).thenReturn(
+				Map.of(3, "{\"id\":3}".getBytes(StandardCharsets.UTF_8), 1, "{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/batch?ids=3,99,1")).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains(
+				"[{\"id\":3,\"found\":true,\"recipe\":{\"id\":3}},{\"id\":99,\"found\":false},"
+						+ "{\"id\":1,\"found\":true,\"recipe\":{\"id\":1}}]");
+	}
+
+	@Test
+	public void testPostRecipesBatch() throws Exception {
+
+		when(recipeApiService.getRecipesJson(List.of(2))).thenReturn(Map.of());
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/recipes/batch")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[2]}")).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains("{\"id\":2,\"found\":false}");
+	}
+
+	@Test
+	public void testRecipesBatchRejectsInvalidIds() throws Exception {
+
+		String tooMany = IntStream.rangeClosed(1, 501).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/batch?ids=" + tooMany)).andReturn()
+				.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/batch?ids=1,0")).andReturn()
+				.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.post("/recipes/batch")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[]}")).andReturn().getResponse()
+				.getStatus());
+		verify(recipeApiService, never()).getRecipesJson(any());
+	}
+
+	@Test
+	public void testSuggestRecipes() throws Exception {
+
+		when(recipeApiService.suggestRecipes("piz", 10))
+				.thenReturn(List.of(new Suggestion(2, "Pizza Bianca"), new Suggestion(1, "Margherita Pizza")));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/suggest?prefix=piz")).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString())
+				.contains("[{\"id\":2,\"name\":\"Pizza Bianca\"},{\"id\":1,\"name\":\"Margherita Pizza\"}]");
+	}
+
+	@Test
+	public void testSuggestRecipesRejectsBlankPrefixAndBadLimit() throws Exception {
+
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/suggest").param("prefix", " ")).andReturn()
+				.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/suggest?prefix=piz&limit=51"))
+				.andReturn().getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/suggest?prefix=piz&limit=0"))
+				.andReturn().getResponse().getStatus());
+		verify(recipeApiService, never()).suggestRecipes(any(), anyInt());
+	}
+
+	@Test
+	public void testGetTopRecipes() throws Exception {
+
+		when(recipeApiService.getTopRecipes(Ranking.REVIEW_COUNT, "Italian", null, 2))
+				.thenReturn(List.of(new RankedRecipe(7, "Margherita Pizza", "Italian", null, 4.5f, 120, List.of("Dinner"))));
+
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.get("/recipes/top?by=reviewCount&cuisine=Italian&n=2")).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString())
+				.contains("\"id\":7,\"name\":\"Margherita Pizza\"").contains("\"reviewCount\":120");
+	}
+
+	@Test
+	public void testGetTopRecipesRejectsUnknownRankingAndBadN() throws Exception {
+
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/top?by=calories")).andReturn()
+				.getResponse().getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/top?n=101")).andReturn().getResponse()
+				.getStatus());
+		assertEquals(400, mockMvc.perform(MockMvcRequestBuilders.get("/recipes/top?n=0")).andReturn().getResponse()
+				.getStatus());
+		verify(recipeApiService, never()).getTopRecipes(any(), any(), any(), anyInt());
+	}
+
 }
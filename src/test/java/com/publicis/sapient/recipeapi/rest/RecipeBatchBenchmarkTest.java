@@ -0,0 +1,128 @@
+package com.publicis.sapient.recipeapi.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.publicis.sapient.recipeapi.ingestion.StubRecipeFeedServer;
+import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+import com.publicis.sapient.recipeapi.service.RecipeJsonCache;
+
+/**
+ * Compares resolving a page render's worth of recipe ids with one {@code GET /recipe}
+ * per id against a single {@code GET /recipes/batch}, over HTTP on the loopback
+ * interface and with the recipe cache emptied before every render. Run with
+ * {@code mvn test -Dtest=RecipeBatchBenchmarkTest -Dbenchmark=true [-Dbenchmark.ids=50]}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.datasource.url=jdbc:h2:mem:batchbenchmark")
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecipeBatchBenchmarkTest {
+
+	private static final int RECIPES = 10_000;
+
+	private static final int IDS_PER_RENDER = Integer.getInteger("benchmark.ids", 50);
+
+	private static final int RENDERS = 200;
+
+	private static StubRecipeFeedServer feed;
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	RecipeJsonCache recipeJsonCache;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@DynamicPropertySource
+	static void feedProperties(DynamicPropertyRegistry registry) {
+		try {
+			feed = new StubRecipeFeedServer(RECIPES);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		registry.add("recipes.api.url", feed::url);
+	}
+
+	@AfterAll
+	static void stopFeed() {
+		feed.close();
+	}
+
+	@Test
+	void compareSingleAndBatchLookups() throws Exception {
+		recipeApiService.streamExternalApiDataAndPersist();
+		List<List<Integer>> renders = renders(new Random(7));
+		run("Warm-up, single", renders.subList(0, 20), false);
+		run("Warm-up, batch", renders.subList(0, 20), true);
+
+		double single = run(IDS_PER_RENDER + " x GET /recipe", renders, false);
+		double batch = run("GET /recipes/batch", renders, true);
+
+		System.out.printf("Batch speed-up: %.1fx%n", single / batch);
+		assertTrue(batch < single);
+	}
+
+	/**
+	 * Resolves every render and returns the mean milliseconds per render.
+	 */
+	private double run(String label, List<List<Integer>> renders, boolean batch) throws Exception {
+		long nanos = 0;
+		long requests = 0;
+		for (List<Integer> ids : renders) {
+			recipeJsonCache.invalidate(ids);
+			long start = System.nanoTime();
+			if (batch) {
+				get("/recipes/batch?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+				requests++;
+			} else {
+				for (Integer id : ids) {
+					get("/recipe?recipeId=" + id);
+					requests++;
+				}
+			}
+			nanos += System.nanoTime() - start;
+		}
+		double millisPerRender = nanos / 1e6 / renders.size();
+		System.out.printf("%-24s %,d renders, %,d requests, %.2f ms per render%n", label, renders.size(), requests,
+				millisPerRender);
+		return millisPerRender;
+	}
+
+	private void get(String path) throws Exception {
+		HttpResponse<byte[]> response = client.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(200, response.statusCode());
+	}
+
+	private static List<List<Integer>> renders(Random random) {
+		return IntStream.range(0, RENDERS)
+				.mapToObj(render -> random.ints(IDS_PER_RENDER, 1, RECIPES + 1).boxed().toList()).toList();
+	}
+}
@@ -0,0 +1,226 @@
+package com.publicis.sapient.recipeapi.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.publicis.sapient.recipeapi.dto.DimensionCacheStatsDto;
+import com.publicis.sapient.recipeapi.dto.FeedClientStatsDto;
+import com.publicis.sapient.recipeapi.dto.IngestionJobDto;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.dto.PipelineStageStatsDto;
+import com.publicis.sapient.recipeapi.dto.RecipeCacheStatsDto;
+import com.publicis.sapient.recipeapi.ingestion.DimensionCache;
+import com.publicis.sapient.recipeapi.ingestion.FeedHttpMetrics;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJob;
+import com.publicis.sapient.recipeapi.ingestion.IngestionJobService;
+import com.publicis.sapient.recipeapi.ingestion.IngestionPhase;
+import com.publicis.sapient.recipeapi.ingestion.IngestionPipelineMonitor;
+import com.publicis.sapient.recipeapi.service.CatalogState;
+import com.publicis.sapient.recipeapi.service.RecipeJsonCache;
+
+@WebMvcTest(value = RecipeIngestionRestController.class, properties = "recipes.import.directory=target/test-imports")
+public class RecipeIngestionRestControllerTest {
+
+	@MockitoBean
+	private DimensionCache dimensionCache;
+
+	@MockitoBean
+	private IngestionJobService ingestionJobService;
+
+	@MockitoBean
+	private IngestionPipelineMonitor pipelineMonitor;
+
+	@MockitoBean
+	private FeedHttpMetrics feedHttpMetrics;
+
+	@MockitoBean
+	private RecipeJsonCache recipeJsonCache;
+
+	@MockitoBean
+	private CatalogState catalogState;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Test
+	public void testGetDimensionCacheStats() throws Exception {
+
+		when(dimensionCache.stats()).thenReturn(Arrays.asList(new DimensionCacheStatsDto("ingredients", 10, 40, 10),
+				new DimensionCacheStatsDto("tags", 3, 12, 3)));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/recipes/dimension-cache");
+
+		MvcResult result = mockMvc.perform(request).andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+
+		assertEquals(200, response.getStatus());
+		Assertions.assertThat(response.getContentAsString()).contains("\"dimension\":\"ingredients\"")
+				.contains("\"hits\":40");
+	}
+
+	@Test
+	public void testGetIngestionPipelineStats() throws Exception {
+
+		when(pipelineMonitor.stats()).thenReturn(Arrays.asList(
+				PipelineStageStatsDto.builder().stage("fetch").workers(1).records(500).blockedMillis(120).build(),
+				PipelineStageStatsDto.builder().stage("write").workers(1).records(500).queueDepth(4).queueCapacity(4)
+						.build()));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/ingestion-pipeline")).andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+
+		assertEquals(200, response.getStatus());
+		Assertions.assertThat(response.getContentAsString()).contains("\"stage\":\"write\"")
+				.contains("\"blockedMillis\":120").contains("\"queueDepth\":4");
+	}
+
+	@Test
+	public void testGetFeedClientStats() throws Exception {
+
+		when(feedHttpMetrics.stats()).thenReturn(FeedClientStatsDto.builder().requests(12).hedgedRequests(2)
+				.hedgeWins(1).bytesReceived(4096).bytesDecoded(40960).p95LatencyMillis(180).build());
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/feed-client")).andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+
+		assertEquals(200, response.getStatus());
+		Assertions.assertThat(response.getContentAsString()).contains("\"requests\":12")
+				.contains("\"hedgeWins\":1").contains("\"bytesDecoded\":40960").contains("\"p95LatencyMillis\":180");
+	}
+
+	@Test
+	public void testGetRecipeCacheStats() throws Exception {
+
+		when(recipeJsonCache.stats()).thenReturn(RecipeCacheStatsDto.builder().entries(40).usedBytes(81920)
+				.maxBytes(1048576).hits(900).misses(100).hitRate(0.9).evictions(3).build());
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/recipe-cache")).andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+
+		assertEquals(200, response.getStatus());
+		Assertions.assertThat(response.getContentAsString()).contains("\"entries\":40")
+				.contains("\"usedBytes\":81920").contains("\"hitRate\":0.9").contains("\"evictions\":3");
+	}
+
+	@Test
+	public void testGetIngestionJob() throws Exception {
+
+		IngestionJob job = mock(IngestionJob.class);
+		when(job.toDto()).thenReturn(IngestionJobDto.builder().id("job-1").phase("RUNNING").recordsProcessed(1200)
+				.recordsPerSecond(400).errors(Collections.emptyList()).build());
+		when(ingestionJobService.find("job-1")).thenReturn(Optional.of(job));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/ingestion-jobs/job-1")).andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+
+		assertEquals(200, response.getStatus());
+		Assertions.assertThat(response.getContentAsString()).contains("\"phase\":\"RUNNING\"")
+				.contains("\"recordsProcessed\":1200");
+	}
+
+	@Test
+	public void testGetIngestionJobNotFound() throws Exception {
+
+		when(ingestionJobService.find("missing")).thenReturn(Optional.empty());
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/ingestion-jobs/missing")).andReturn();
+
+		assertEquals(404, result.getResponse().getStatus());
+	}
+
+	@Test
+	public void testGetSyncStatusNotModified() throws Exception {
+
+		IngestionJob job = mock(IngestionJob.class);
+		when(job.getPhase()).thenReturn(IngestionPhase.COMPLETED);
+		when(job.getSummary()).thenReturn(new IngestionSummary(250, 0, 0, 250, 0, 0, 3, 0));
+		when(job.toDto()).thenReturn(IngestionJobDto.builder().id("job-1").phase("COMPLETED").build());
+		when(ingestionJobService.lastFinished(IngestionJobService.DELTA_SYNC)).thenReturn(Optional.of(job));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/sync-status")).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString())
+				.contains("\"lastOutcome\":\"NOT_MODIFIED\"").contains("\"id\":\"job-1\"");
+	}
+
+	@Test
+	public void testGetSyncStatusNeverRun() throws Exception {
+
+		when(ingestionJobService.lastFinished(IngestionJobService.DELTA_SYNC)).thenReturn(Optional.empty());
+		when(catalogState.recipeCount()).thenReturn(0L);
+		when(catalogState.version()).thenReturn(1L);
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/recipes/sync-status")).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains("\"lastOutcome\":\"NEVER_RUN\"")
+				.contains("\"scheduled\":false").contains("\"recipeCount\":0").contains("\"catalogVersion\":1");
+	}
+
+	@Test
+	public void testImportRecipesAccepted() throws Exception {
+
+		Path file = Files.createDirectories(Path.of("target/test-imports")).resolve("recipes.ndjson.gz");
+		Files.write(file, new byte[0]);
+		IngestionJob job = mock(IngestionJob.class);
+		when(job.getId()).thenReturn("job-9");
+		when(job.toDto()).thenReturn(IngestionJobDto.builder().id("job-9").type("bulk-import").phase("QUEUED").build());
+		when(ingestionJobService.submitImport(file.toAbsolutePath().normalize()))
+				.thenReturn(new IngestionJobService.Submission(job, false));
+
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.post("/recipes/imports").param("file", "recipes.ndjson.gz"))
+				.andReturn();
+
+		assertEquals(202, result.getResponse().getStatus());
+		assertEquals("/recipes/ingestion-jobs/job-9", result.getResponse().getHeader("Location"));
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains("Import job accepted");
+	}
+
+	@Test
+	public void testImportRecipesRejectsPathOutsideImportDirectory() throws Exception {
+
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.post("/recipes/imports").param("file", "../pom.xml")).andReturn();
+
+		assertEquals(400, result.getResponse().getStatus());
+		verify(ingestionJobService, never()).submitImport(any());
+	}
+
+	@Test
+	public void testImportRecipesMissingFile() throws Exception {
+
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.post("/recipes/imports").param("file", "missing.json")).andReturn();
+
+		assertEquals(400, result.getResponse().getStatus());
+		Assertions.assertThat(result.getResponse().getContentAsString()).contains("Import file not found");
+	}
+}
@@ -0,0 +1,106 @@
+package com.publicis.sapient.recipeapi.rest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.publicis.sapient.recipeapi.ingestion.StubRecipeFeedServer;
+import com.publicis.sapient.recipeapi.service.IRecipeApiService;
+
+/**
+ * Compares response size and time of {@code GET /recipes} pages with and without a
+ * {@code fields=} projection, walking every page of a search with the cursor. Run with
+ * {@code mvn test -Dtest=RecipeProjectionBenchmarkTest -Dbenchmark=true [-Dbenchmark.recipes=20000]}.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:projectionbenchmark")
+@AutoConfigureMockMvc
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecipeProjectionBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 20_000);
+
+	private static final String SEARCH = "/recipes?mealType=Dinner&limit=100";
+
+	private static StubRecipeFeedServer feed;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void feedProperties(DynamicPropertyRegistry registry) {
+		try {
+			feed = new StubRecipeFeedServer(RECIPES);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		registry.add("recipes.api.url", feed::url);
+	}
+
+	@AfterAll
+	static void stopFeed() {
+		feed.close();
+	}
+
+	@Test
+	void compareProjectedAndFullPages() throws Exception {
+		recipeApiService.streamExternalApiDataAndPersist();
+		walk("Warm-up", SEARCH);
+		walk("Warm-up", SEARCH + "&fields=id,name,cuisine,rating,image");
+
+		long[] full = walk("Whole recipes", SEARCH);
+		long[] projected = walk("id,name,cuisine,rating,image", SEARCH + "&fields=id,name,cuisine,rating,image");
+		walk("id,name,ingredients", SEARCH + "&fields=id,name,ingredients");
+
+		System.out.printf("Projection: %.1fx fewer bytes, %.1fx faster%n", (double) full[0] / projected[0],
+				(double) full[1] / projected[1]);
+		assertTrue(projected[0] < full[0]);
+	}
+
+	/**
+	 * Fetches every page of a search and returns the bytes sent and the nanoseconds taken.
+	 */
+	private long[] walk(String label, String search) throws Exception {
+		long bytes = 0;
+		int pages = 0;
+		String cursor = null;
+		long start = System.nanoTime();
+		do {
+			MvcResult result = mockMvc
+					.perform(MockMvcRequestBuilders.get(cursor == null ? search : search + "&cursor=" + cursor))
+					.andReturn();
+			byte[] body = result.getResponse().getContentAsByteArray();
+			bytes += body.length;
+			pages++;
+			JsonNode next = objectMapper.readTree(body).get("nextCursor");
+			cursor = next == null ? null : next.asText();
+		} while (cursor != null);
+		long nanos = System.nanoTime() - start;
+
+		System.out.printf("%-30s %,d pages, %,d bytes (%,d per page) in %.2fs = %.2f ms per page%n", label, pages,
+				bytes, bytes / pages, nanos / 1e9, nanos / 1e6 / pages);
+		return new long[] { bytes, nanos };
+	}
+}
@@ -3,23 +3,30 @@ package com.publicis.sapient.recipeapi.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import javax.swing.tree.RowMapper;
 
@@ -44,27 +51,46 @@ import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.ui.ModelMapExtensionsKt;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.publicis.sapient.recipeapi.Application;
 import com.publicis.sapient.recipeapi.binding.RecipeBinding;
 import com.publicis.sapient.recipeapi.binding.RecipeListBinding;
+import com.publicis.sapient.recipeapi.binding.RecipeSearchRequest;
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
 import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.dto.RecipePage;
 import com.publicis.sapient.recipeapi.dto.RecipeDto.RecipeDtoBuilder;
+import com.publicis.sapient.recipeapi.dto.RecipeFingerprintDto;
+import com.publicis.sapient.recipeapi.entity.IngestionCheckpointEntity;
 import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
 import com.publicis.sapient.recipeapi.entity.InstructionsEntity;
 import com.publicis.sapient.recipeapi.entity.MealTypeEntity;
 import com.publicis.sapient.recipeapi.entity.RecipeEntity;
 import com.publicis.sapient.recipeapi.entity.TagsEntity;
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
 import com.publicis.sapient.recipeapi.exception.RecipeNotFoundException;
+import com.publicis.sapient.recipeapi.ingestion.DimensionCache;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient.FeedResult;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFingerprint;
+import com.publicis.sapient.recipeapi.ingestion.RecipeDocumentWriter;
+import com.publicis.sapient.recipeapi.ingestion.RecipeJdbcWriter;
 import com.publicis.sapient.recipeapi.mapper.RecipeMapper;
+import com.publicis.sapient.recipeapi.repo.IngestionCheckpointRepo;
 import com.publicis.sapient.recipeapi.repo.IngredientsRepo;
 import com.publicis.sapient.recipeapi.repo.InstructionsRepo;
 import com.publicis.sapient.recipeapi.repo.MealTypeRepo;
 import com.publicis.sapient.recipeapi.repo.RecipeApiRepo;
+import com.publicis.sapient.recipeapi.repo.RecipeDocumentRepo;
 import com.publicis.sapient.recipeapi.repo.TagsRepo;
 
+import jakarta.persistence.EntityManager;
+
 @SpringBootTest()
 @ExtendWith(MockitoExtension.class)
 public class RecipeApiServiceImplTest {
@@ -114,6 +140,38 @@ public class RecipeApiServiceImplTest {
 	@MockitoBean
 	RecipeApiServiceImpl mockRecipeApiService;
 
+	@MockitoBean
+	RecipeFeedClient recipeFeedClient;
+
+	@MockitoBean
+	RecipeJdbcWriter recipeJdbcWriter;
+
+	@MockitoBean
+	IngestionCheckpointRepo checkpointRepo;
+
+	@MockitoBean
+	RecipeDocumentRepo recipeDocumentRepo;
+
+	@MockitoBean
+	RecipeDocumentWriter documentWriter;
+
+	@MockitoBean
+	CatalogState catalogState;
+
+	@MockitoBean
+	RecipeSearchIndex searchIndex;
+
+	@MockitoBean
+	RecipeFilterIndex filterIndex;
+
+	ObjectMapper objectMapper = new ObjectMapper();
+
+	EntityManager entityManager = mock(EntityManager.class);
+
+	DimensionCache dimensionCache = new DimensionCache();
+
+	RecipeColumnStore columnStore = new RecipeColumnStore();
+
 	@InjectMocks
 	public RecipeApiServiceImpl recipeApiService;
 
@@ -121,6 +179,14 @@ public class RecipeApiServiceImplTest {
 	void setup() {
 		ReflectionTestUtils.setField(recipeMapper, "modelMapper", modelMapper);
         ReflectionTestUtils.setField(recipeApiService, "recipesApiUrl", "https://dummyjson.com/recipes");
+        ReflectionTestUtils.setField(recipeApiService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(recipeApiService, "batchSize", 2);
+        ReflectionTestUtils.setField(dimensionCache, "requiresNewTransaction", TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(recipeApiService, "dimensionCache", dimensionCache);
+        ReflectionTestUtils.setField(recipeApiService, "chunkTransaction", TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(recipeApiService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(recipeApiService, "columnStore", columnStore);
+        ReflectionTestUtils.setField(recipeApiService, "defaultPageSize", 20);
 
 	}
 
@@ -140,30 +206,25 @@ public class RecipeApiServiceImplTest {
 						new ArrayList<>(Arrays.asList(new MealTypeEntity(1, "Dinner"), new MealTypeEntity(2, "Snack"))))
 				.build());
 
-		RecipeDto recipeDto = RecipeDto.builder().id(2).name("Classic Margherita Pizza")
-				.ingredients(new ArrayList<>(Arrays.asList("Pizza dough", "ram")))
-				.instructions(new ArrayList(Arrays.asList("Preheat the oven to 475°F (245°C).",
-						"Roll out the pizza dough and spread tomato sauce evenly")))
-				.prepTimeMinutes(20).cookTimeMinutes(15).servings(4).difficulty("Easy").cuisine(null)
-				.caloriesPerServing(null).tags(null).userId(null).image(null).rating(null).reviewCount(null)
-				.mealType(null).build();
+		RecipeDto recipeDto = RecipeDocumentWriter.toDocument(recipeEntity.get());
 
 		int recipeId = 1;
-		System.out.println(recipeMapper);
-		when(recipeApiRepo.findById(recipeId)).thenReturn(recipeEntity);
-		when(recipeMapper.convertToRecipeDto(recipeEntity.get())).thenReturn(recipeDto);
+		when(recipeDocumentRepo.findDocument(recipeId)).thenReturn(Optional.of(toJson(recipeDto)));
 
 		RecipeDto recipe = recipeApiService.getRecipeById(recipeId);
 
 		assertNotNull(recipe);
 		assertEquals(recipeDto, recipe);
+		assertEquals(Arrays.asList("Dinner", "Snack"), recipe.getMealType());
+		verify(recipeApiRepo, never()).findById(anyInt());
+		verify(recipeMapper, never()).convertToRecipeDto(any());
 
 	}
 
 	@Test
 	public void testGetRecipeByIdNotFound() {
 		int recipeId = 31;
-		when(recipeApiRepo.findById(recipeId)).thenReturn(Optional.empty());
+		when(recipeDocumentRepo.findDocument(recipeId)).thenReturn(Optional.empty());
 
 		Exception exception = assertThrows(RecipeNotFoundException.class, () -> {
 			recipeApiService.getRecipeById(recipeId);
@@ -172,6 +233,63 @@ public class RecipeApiServiceImplTest {
 		assertEquals("Recipe not found with ID: 31", exception.getMessage());
 	}
 
+	@Test
+	public void testGetRecipeJsonServesRepeatLookupsFromCache() {
+		RecipeJsonCache recipeJsonCache = new RecipeJsonCache();
+		recipeJsonCache.maxBytes = 1024;
+		recipeJsonCache.init();
+		ReflectionTestUtils.setField(recipeApiService, "recipeJsonCache", recipeJsonCache);
+		String document = "{\"id\":7,\"name\":\"Pad Thai\"}";
+		when(recipeDocumentRepo.findDocument(7)).thenReturn(Optional.of(document));
+
+		byte[] first = recipeApiService.getRecipeJson(7);
+		byte[] second = recipeApiService.getRecipeJson(7);
+
+		assertEquals(document, new String(first, StandardCharsets.UTF_8));
+		assertSame(first, second);
+		verify(recipeDocumentRepo, times(1)).findDocument(7);
+		assertEquals(1, recipeJsonCache.stats().getHits());
+	}
+
+	@Test
+	public void testGetRecipesJsonLoadsOnlyUncachedIdsInChunks() {
+		RecipeJsonCache recipeJsonCache = new RecipeJsonCache();
+		recipeJsonCache.maxBytes = 1 << 20;
+		recipeJsonCache.init();
+		ReflectionTestUtils.setField(recipeApiService, "recipeJsonCache", recipeJsonCache);
+		recipeJsonCache.put(5, "{\"id\":5}".getBytes(StandardCharsets.UTF_8), recipeJsonCache.stamp(5));
+		when(recipeDocumentRepo.findDocumentsById(anyList())).thenAnswer(invocation -> {
+			List<Integer> ids = invocation.getArgument(0);
+			return ids.stream().filter(id -> id != 9).map(id -> storedDocument(id, "{\"id\":" + id + "}")).toList();
+		});
+		List<Integer> requested = new ArrayList<>(IntStream.rangeClosed(1, 1500).boxed().toList());
+		requested.add(5);
+
+		Map<Integer, byte[]> result = recipeApiService.getRecipesJson(requested);
+
+		assertEquals(1499, result.size());
+		assertNull(result.get(9));
+		assertEquals("{\"id\":1500}", new String(result.get(1500), StandardCharsets.UTF_8));
+		// Recipe 5 is cached; the 1499 others are read 1000 ids at a time.
+		verify(recipeDocumentRepo, times(2)).findDocumentsById(anyList());
+		verify(recipeDocumentRepo, never()).findDocumentsById(argThat(ids -> ids.contains(5)));
+	}
+
+	private static RecipeDocumentRepo.StoredDocument storedDocument(int id, String document) {
+		return new RecipeDocumentRepo.StoredDocument() {
+
+			@Override
+			public Integer getId() {
+				return id;
+			}
+
+			@Override
+			public String getDocument() {
+				return document;
+			}
+		};
+	}
+
 	@Test
 	public void testFetchOrCreateEntitiesSucess() {
 
@@ -251,6 +369,22 @@ public class RecipeApiServiceImplTest {
 		assertEquals(Collections.emptyList(), result);
 	}
 
+	@Test
+	public void testFetchOrCreateEntitiesUsesDictionaryBeforeDatabase() {
+		List<String> names = Arrays.asList("Salt", "Pepper");
+		dimensionCache.ingredients().register(new IngredientsEntity(5, "Salt"));
+		when(ingredientsRepo.findExistingIngredients(Arrays.asList("Pepper")))
+				.thenReturn(Arrays.asList(new IngredientsEntity(6, "Pepper")));
+
+		List<IngredientsEntity> result = recipeApiService.fetchOrCreateEntities(names, dimensionCache.ingredients(),
+				ingredientsRepo::findExistingIngredients, IngredientsEntity::new, ingredientsRepo::saveAll);
+
+		assertEquals(2, result.size());
+		verify(ingredientsRepo, times(1)).findExistingIngredients(Arrays.asList("Pepper"));
+		verify(ingredientsRepo, times(0)).saveAll(anyList());
+		assertEquals(6, dimensionCache.ingredients().lookup("Pepper").get().getIngredientsid());
+	}
+
 	@Test
 	public void testGetEntityIdentifierIngredientsEntity() {
 		String ingredientsname = "ingredientsname";
@@ -294,14 +428,11 @@ public class RecipeApiServiceImplTest {
 	void testGetRecipesByNameAndCuisineSuccess() {
 		RecipeDto recipeDto = RecipeDto.builder().name("Pizza").cuisine("Italian").build();
 
-		RecipeEntity recipeEntity = RecipeEntity.builder().name("Pizza").cuisine("Italian").build();
-
-		List<RecipeEntity> recipeEntities = Arrays.asList(recipeEntity);
-		List<RecipeDto> expectedDtos = Arrays.asList(recipeDto);
+		RecipeDto stored = RecipeDto.builder().id(7).name("Pizza").cuisine("Italian").build();
+		List<RecipeDto> expectedDtos = Arrays.asList(stored);
 
-		when(recipeMapper.convertToEntity(recipeDto)).thenReturn(recipeEntity);
-		when(recipeApiRepo.findAll(any(Example.class))).thenReturn(recipeEntities);
-		when(recipeMapper.convertToDTOList(recipeEntities)).thenReturn(expectedDtos);
+		when(searchIndex.search("Pizza", "Italian")).thenReturn(new int[] { 7 });
+		when(recipeDocumentRepo.findDocuments(List.of(7))).thenReturn(List.of(toJson(stored)));
 
 		List<RecipeDto> result = recipeApiService.getRecipesByNameAndCuisine(recipeDto);
 
@@ -315,17 +446,124 @@ public class RecipeApiServiceImplTest {
 	void testGetRecipesByNameAndCuisineEmpty() {
 		RecipeDto recipeDto = RecipeDto.builder().name("Pizza").cuisine("Italian").build();
 
-		RecipeEntity recipeEntity = RecipeEntity.builder().name("Pizza").cuisine("Italian").build();
-
-		List<RecipeEntity> recipeEntities = Arrays.asList(recipeEntity);
-
-		when(recipeMapper.convertToEntity(recipeDto)).thenReturn(recipeEntity);
-		when(recipeApiRepo.findAll(any(Example.class))).thenReturn(Collections.emptyList());
+		when(searchIndex.search("Pizza", "Italian")).thenReturn(new int[0]);
 
 		List<RecipeDto> result = recipeApiService.getRecipesByNameAndCuisine(recipeDto);
 
 		assertEquals(Collections.emptyList(), result);
+		verify(recipeDocumentRepo, never()).findDocuments(anyList());
+	}
+
+	@Test
+	void testSearchRecipesIntersectsNameMatchesWithFilters() {
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Pizza");
+		request.setTag(List.of("Vegan"));
+
+		when(searchIndex.search("Pizza", null)).thenReturn(new int[] { 3, 7, 9 });
+		when(filterIndex.filter(anyMap(), eq(true))).thenReturn(RecipeBitmap.of(7, 8, 9));
+		when(recipeDocumentRepo.findDocuments(List.of(7, 9))).thenReturn(
+				List.of(toJson(RecipeDto.builder().id(7).build()), toJson(RecipeDto.builder().id(9).build())));
+
+		List<RecipeDto> result = recipeApiService.searchRecipes(request).getRecipes();
+
+		assertEquals(List.of(7, 9), result.stream().map(RecipeDto::getId).toList());
+	}
+
+	@Test
+	void testSearchRecipesByFiltersAlone() {
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setMealType(List.of("Lunch", "Dinner"));
+		request.setMatch("any");
+
+		when(filterIndex.filter(anyMap(), eq(false))).thenReturn(RecipeBitmap.of(4, 2));
+		when(recipeDocumentRepo.findDocuments(List.of(2, 4))).thenReturn(Collections.emptyList());
+
+		recipeApiService.searchRecipes(request);
+
+		verify(searchIndex, never()).search(any(), any());
+		verify(recipeDocumentRepo).findDocuments(List.of(2, 4));
+	}
+
+	@Test
+	void testSearchRecipesPagesBySortKeyWithCursor() {
+		columnStore.put(List.of(new RecipeColumnStore.Row(1, 4.5f, 10, 5, 5, 100, null),
+				new RecipeColumnStore.Row(2, 4.9f, 20, 5, 5, 100, null),
+				new RecipeColumnStore.Row(3, 4.5f, 30, 5, 5, 100, null),
+				new RecipeColumnStore.Row(4, null, 40, 5, 5, 100, null)));
+		when(searchIndex.search("Pizza", null)).thenReturn(new int[] { 1, 2, 3, 4 });
+		when(recipeDocumentRepo.findDocuments(anyList())).thenAnswer(invocation -> {
+			List<Integer> ids = invocation.getArgument(0);
+			return ids.stream().sorted().map(id -> toJson(RecipeDto.builder().id(id).build())).toList();
+		});
+
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Pizza");
+		request.setSort("-rating");
+		request.setLimit(2);
+		RecipePage<RecipeDto> first = recipeApiService.searchRecipes(request);
 
+		assertEquals(List.of(2, 1), first.getRecipes().stream().map(RecipeDto::getId).toList());
+		assertNotNull(first.getNextCursor());
+
+		request.setCursor(first.getNextCursor());
+		RecipePage<RecipeDto> second = recipeApiService.searchRecipes(request);
+
+		assertEquals(List.of(3, 4), second.getRecipes().stream().map(RecipeDto::getId).toList());
+		assertNull(second.getNextCursor());
+
+		request.setSort("reviewCount");
+		assertThrows(InvalidInputException.class, () -> recipeApiService.searchRecipes(request));
+	}
+
+	@Test
+	void testSearchRecipesChecksRangesOnNameMatches() {
+		columnStore.put(List.of(new RecipeColumnStore.Row(1, 4.5f, 10, 5, 5, 100, 4),
+				new RecipeColumnStore.Row(2, 4.9f, 20, 5, 5, 200, 4),
+				new RecipeColumnStore.Row(3, 4.5f, 30, 5, 5, 150, 2),
+				new RecipeColumnStore.Row(5, 4.5f, 30, 5, 5, 120, 6)));
+		when(searchIndex.search("Pizza", null)).thenReturn(new int[] { 1, 2, 3, 4 });
+		when(recipeDocumentRepo.findDocuments(anyList())).thenReturn(Collections.emptyList());
+
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Pizza");
+		request.setMaxCalories(150);
+		request.setMinServings(4);
+		recipeApiService.searchRecipes(request);
+
+		// Recipe 5 is in range but not a name match; 4 has no columns at all.
+		verify(recipeDocumentRepo).findDocuments(List.of(1));
+	}
+
+	@Test
+	void testSearchRecipeFieldsRejectsUnknownFields() {
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Pizza");
+		request.setFields(List.of("name", "secret"));
+
+		InvalidInputException e = assertThrows(InvalidInputException.class,
+				() -> recipeApiService.searchRecipeFields(request));
+
+		assertTrue(e.getMessage().contains("'secret'"));
+		verify(searchIndex, never()).search(any(), any());
+	}
+
+	@Test
+	void testGetRecipesByNameFetchesDocumentsInChunks() {
+		RecipeDto recipeDto = RecipeDto.builder().name("Stew").build();
+		int[] recipeIds = IntStream.rangeClosed(1, 2500).toArray();
+
+		when(searchIndex.search("Stew", null)).thenReturn(recipeIds);
+		when(recipeDocumentRepo.findDocuments(anyList())).thenAnswer(invocation -> {
+			List<Integer> ids = invocation.getArgument(0);
+			return ids.stream().map(id -> toJson(RecipeDto.builder().id(id).name("Stew " + id).build())).toList();
+		});
+
+		List<RecipeDto> result = recipeApiService.getRecipesByNameAndCuisine(recipeDto);
+
+		assertEquals(2500, result.size());
+		assertEquals(2500, result.get(2499).getId());
+		verify(recipeDocumentRepo, times(3)).findDocuments(anyList());
 	}
 
 	@Test
@@ -425,9 +663,222 @@ public class RecipeApiServiceImplTest {
 
 	}
 
+	@Test
+	void testStreamExternalApiDataAndPersistSavesInBatches() {
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			for (int id = 1; id <= 3; id++) {
+				consumer.accept(RecipeBinding.builder().id(id).name("Recipe " + id).build());
+			}
+			return new FeedResult(3, 1, 0, Collections.emptyMap(), true);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+
+		List<Long> progress = new ArrayList<>();
+		IngestionSummary result = recipeApiService
+				.streamExternalApiDataAndPersist(summary -> progress.add(summary.getProcessed()));
+
+		assertEquals(3, result.getProcessed());
+		assertEquals(3, result.getAdded());
+		assertEquals(Arrays.asList(2L, 3L), progress);
+		verify(recipeApiRepo, times(2)).saveAll(anyList());
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistUsesBulkWriterForNewAndChangedRecipes() {
+		ReflectionTestUtils.setField(recipeApiService, "bulkWriterEnabled", true);
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			for (int id = 1; id <= 3; id++) {
+				consumer.accept(RecipeBinding.builder().id(id).name("Recipe " + id).build());
+			}
+			return new FeedResult(3, 1, 0, Collections.emptyMap(), true);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+		when(recipeApiRepo.findFingerprints(anyList()))
+				.thenReturn(Arrays.asList(new RecipeFingerprintDto(3, "stale fingerprint")));
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(3, result.getProcessed());
+		assertEquals(2, result.getAdded());
+		assertEquals(1, result.getUpdated());
+		verify(recipeJdbcWriter, times(2)).insertRecipes(anyList());
+		verify(recipeJdbcWriter, times(2)).updateRecipes(anyList());
+		verify(recipeJdbcWriter, times(1)).updateRecipes(argThat(recipes -> recipes.size() == 1));
+		verify(recipeApiRepo, times(0)).saveAll(anyList());
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistSkipsUnchangedRecipes() {
+		List<RecipeBinding> recipes = Arrays.asList(RecipeBinding.builder().id(1).name("Recipe 1").build(),
+				RecipeBinding.builder().id(2).name("Recipe 2").build());
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			recipes.forEach(consumer);
+			return new FeedResult(2, 1, 0, Collections.emptyMap(), true);
+		});
+		when(recipeApiRepo.findFingerprints(anyList()))
+				.thenReturn(Arrays.asList(new RecipeFingerprintDto(1, RecipeFingerprint.of(recipes.get(0))),
+						new RecipeFingerprintDto(2, RecipeFingerprint.of(recipes.get(1)))));
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(2, result.getUnchanged());
+		assertFalse(result.hasChanges());
+		verify(recipeApiRepo, times(0)).saveAll(anyList());
+		verify(recipeJdbcWriter, times(0)).insertRecipes(anyList());
+		verify(ingredientsRepo, times(0)).findExistingIngredients(anyList());
+		verify(entityManager, times(0)).flush();
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistRemovesRecipesMissingFromFeed() {
+		ReflectionTestUtils.setField(recipeApiService, "bulkWriterEnabled", true);
+		ReflectionTestUtils.setField(recipeApiService, "removeMissing", true);
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			consumer.accept(RecipeBinding.builder().id(1).name("Recipe 1").build());
+			return new FeedResult(1, 1, 0, Collections.emptyMap(), true);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+		when(recipeApiRepo.findAllIds()).thenReturn(Arrays.asList(1, 7, 9));
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(2, result.getRemoved());
+		verify(recipeJdbcWriter, times(1)).deleteRecipes(Arrays.asList(7, 9));
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistCheckpointsEveryBatch() {
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			for (int id = 1; id <= 3; id++) {
+				consumer.accept(RecipeBinding.builder().id(id).name("Recipe " + id).build());
+			}
+			return new FeedResult(3, 1, 0, Collections.emptyMap(), true);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+
+		recipeApiService.streamExternalApiDataAndPersist();
+
+		ArgumentCaptor<IngestionCheckpointEntity> checkpoints = ArgumentCaptor.forClass(IngestionCheckpointEntity.class);
+		verify(checkpointRepo, times(2)).save(checkpoints.capture());
+		assertEquals(2, checkpoints.getAllValues().get(0).getFeedOffset());
+		assertEquals(3, checkpoints.getAllValues().get(1).getFeedOffset());
+		assertEquals(3, checkpoints.getAllValues().get(1).getLastRecipeId());
+		verify(checkpointRepo, times(1)).deleteById("delta-sync");
+		verify(recipeFeedClient, times(1)).storeValidators(any());
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistResumesFromCheckpoint() {
+		ReflectionTestUtils.setField(recipeApiService, "removeMissing", true);
+		when(checkpointRepo.findById("delta-sync")).thenReturn(Optional.of(IngestionCheckpointEntity.builder()
+				.jobType("delta-sync").sourceUrl("https://dummyjson.com/recipes").feedOffset(40).lastRecipeId(40)
+				.build()));
+		when(recipeFeedClient.streamChangedRecipes(eq(40L), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			consumer.accept(RecipeBinding.builder().id(41).name("Recipe 41").build());
+			return new FeedResult(1, 1, 0, Collections.emptyMap(), true);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(40, result.getResumedFromOffset());
+		assertEquals(1, result.getAdded());
+		verify(recipeApiRepo, times(0)).findAllIds();
+		verify(recipeFeedClient, times(0)).storeValidators(any());
+		verify(checkpointRepo, times(1)).deleteById("delta-sync");
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistKeepsRecipesWhenWalkStopsShort() {
+		ReflectionTestUtils.setField(recipeApiService, "removeMissing", true);
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			consumer.accept(RecipeBinding.builder().id(1).name("Recipe 1").build());
+			return new FeedResult(1, 1, 0, Collections.emptyMap(), false);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(0, result.getRemoved());
+		verify(recipeApiRepo, times(0)).findAllIds();
+		verify(recipeFeedClient, times(0)).storeValidators(any());
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistSkipsIdsBeyondTheLimit() {
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any())).thenAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			consumer.accept(RecipeBinding.builder().id(1).name("Recipe 1").build());
+			consumer.accept(RecipeBinding.builder().id(2_000_000_000).name("Recipe 2000000000").build());
+			return new FeedResult(2, 1, 0, Collections.emptyMap(), true);
+		});
+		when(modelMapper.map(any(RecipeBinding.class), eq(RecipeEntity.class))).thenAnswer(invocation -> {
+			RecipeBinding inputRecipe = invocation.getArgument(0);
+			return RecipeEntity.builder().id(inputRecipe.getId()).name(inputRecipe.getName()).build();
+		});
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(1, result.getAdded());
+		verify(modelMapper, times(0)).map(argThat((RecipeBinding recipe) -> recipe.getId() == 2_000_000_000),
+				eq(RecipeEntity.class));
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistIgnoresCheckpointForOtherFeed() {
+		when(checkpointRepo.findById("delta-sync")).thenReturn(Optional.of(IngestionCheckpointEntity.builder()
+				.jobType("delta-sync").sourceUrl("https://other.example.com/recipes").feedOffset(40).build()));
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any()))
+				.thenReturn(new FeedResult(0, 1, 0, Collections.emptyMap(), true));
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(0, result.getResumedFromOffset());
+		verify(recipeFeedClient, times(1)).streamChangedRecipes(eq(0L), any(), any());
+	}
+
+	@Test
+	void testStreamExternalApiDataAndPersistEmptyFeed() {
+		ReflectionTestUtils.setField(recipeApiService, "removeMissing", true);
+		when(recipeFeedClient.streamChangedRecipes(anyLong(), any(), any()))
+				.thenReturn(new FeedResult(0, 1, 0, Collections.emptyMap(), true));
+
+		IngestionSummary result = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(0, result.getProcessed());
+		verify(recipeApiRepo, times(0)).saveAll(anyList());
+		verify(recipeApiRepo, times(0)).findAllIds();
+	}
+
 	@Test
 	    public void testIsRecipeDataEmptyTrue() {
-	    	when(recipeApiRepo.count()).thenReturn((long) 0);
+	    	when(catalogState.isEmpty()).thenReturn(true);
 	    	
 	    	Boolean result = recipeApiService.isRecipeDataEmpty();
 	    	assertTrue(result);
@@ -435,9 +886,17 @@ public class RecipeApiServiceImplTest {
 
 	@Test
 	    public void testIsRecipeDataEmptyFalse() {
-	    	when(recipeApiRepo.count()).thenReturn((long) 1);
+	    	when(catalogState.isEmpty()).thenReturn(false);
 	    	
 	    	Boolean result = recipeApiService.isRecipeDataEmpty();
 	    	assertFalse(result);
 	    }
+
+	private String toJson(RecipeDto recipeDto) {
+		try {
+			return objectMapper.writeValueAsString(recipeDto);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
 }
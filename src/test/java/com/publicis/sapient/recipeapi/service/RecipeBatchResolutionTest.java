@@ -0,0 +1,180 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.publicis.sapient.recipeapi.binding.RecipeBinding;
+import com.publicis.sapient.recipeapi.dto.DimensionCacheStatsDto;
+import com.publicis.sapient.recipeapi.entity.IngredientsEntity;
+import com.publicis.sapient.recipeapi.entity.InstructionsEntity;
+import com.publicis.sapient.recipeapi.ingestion.DimensionCache;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient.FeedResult;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"recipes.ingestion.batch-size=1000", "recipes.ingestion.remove-missing=false" })
+@DirtiesContext
+@Import(StatementRecorder.class)
+class RecipeBatchResolutionTest {
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	DimensionCache dimensionCache;
+
+	@MockitoBean
+	RecipeFeedClient recipeFeedClient;
+
+	@Autowired
+	StatementRecorder statements;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void testStatementsPerBatchDoNotGrowWithRecipeCount() {
+		ingest(1, 10);
+		List<String> smallBatchLookups = lookups();
+		List<String> smallBatchWrites = recipeWrites();
+		ingest(1001, 50);
+
+		// One IN lookup per dimension plus one fingerprint lookup, whatever the batch size.
+		assertEquals(5, smallBatchLookups.size());
+		assertEquals(smallBatchLookups.size(), lookups().size());
+		// One JDBC batch per table for the recipes, their links and their documents.
+		assertEquals(List.of("insert into t_recipes", "insert into t_recipes_ingredients", "insert into t_recipes_tags",
+				"insert into t_recipes_mealtype", "insert into t_recipe_instruction", "delete from t_recipe_document",
+				"insert into t_recipe_document"), smallBatchWrites);
+		assertEquals(smallBatchWrites, recipeWrites());
+	}
+
+	@Test
+	void testSharedDimensionValuesAreInsertedOncePerBatch() {
+		statistics.clear();
+
+		ingest(2001, 40);
+
+		// 40 recipes share three staple ingredients plus one of five spices, and one closing instruction.
+		assertEquals(8, statistics.getEntityStatistics(IngredientsEntity.class.getName()).getInsertCount());
+		assertEquals(41, statistics.getEntityStatistics(InstructionsEntity.class.getName()).getInsertCount());
+		// Each dimension's new values go out as one JDBC batch.
+		assertEquals(1, statements.statements("insert into t_ingredients ").size());
+		assertEquals(1, statements.statements("insert into t_instructions ").size());
+	}
+
+	@Test
+	void testReingestionResolvesDimensionsFromCache() {
+		ingest(3001, 20);
+		long hitsBefore = totalHits();
+
+		List<RecipeBinding> changed = recipes(3001, 20);
+		changed.forEach(recipe -> recipe.setReviewCount(11));
+		feed(changed);
+		statistics.clear();
+		statements.clear();
+		recipeApiService.streamExternalApiDataAndPersist();
+
+		// Only the fingerprint lookup still reaches the database.
+		assertEquals(1, lookups().size());
+		assertTrue(lookups().get(0).contains("content_hash"));
+		assertTrue(totalHits() - hitsBefore >= 8 + 21 + 2);
+		// Changed recipes are rewritten in batches too, without loading them first.
+		assertEquals(List.of("update t_recipes", "delete from t_recipes_ingredients", "delete from t_recipes_tags",
+				"delete from t_recipes_mealtype", "delete from t_recipe_instruction", "insert into t_recipes_ingredients",
+				"insert into t_recipes_tags", "insert into t_recipes_mealtype", "insert into t_recipe_instruction",
+				"delete from t_recipe_document", "insert into t_recipe_document"), recipeWrites());
+	}
+
+	@Test
+	void testUnchangedReingestionSkipsDimensionResolution() {
+		ingest(4001, 20);
+		long hitsBefore = totalHits();
+
+		ingest(4001, 20);
+
+		// The fingerprint lookup is all that runs besides the checkpoint bookkeeping.
+		assertEquals(1, statements.statements().stream().filter(sql -> !sql.contains("t_ingestion_checkpoint")).count());
+		assertEquals(1, lookups().size());
+		assertEquals(hitsBefore, totalHits());
+		assertEquals(List.of(), recipeWrites());
+	}
+
+	private long totalHits() {
+		return dimensionCache.stats().stream().mapToLong(DimensionCacheStatsDto::getHits).sum();
+	}
+
+	private void ingest(int firstId, int count) {
+		feed(recipes(firstId, count));
+		statistics.clear();
+		statements.clear();
+		recipeApiService.streamExternalApiDataAndPersist();
+	}
+
+	/**
+	 * The selects of the last ingestion, leaving out id sequences and the checkpoint.
+	 */
+	private List<String> lookups() {
+		return statements.statements("select").stream()
+				.filter(sql -> !sql.startsWith("select next value") && !sql.contains("t_ingestion_checkpoint")).toList();
+	}
+
+	/**
+	 * The statements of the last ingestion that wrote recipes, their links or their
+	 * documents, cut to the table they write.
+	 */
+	private List<String> recipeWrites() {
+		return statements.statements().stream()
+				.map(sql -> sql.replaceAll("^((insert into|delete from|update) t_recipe[a-z_]*).*", "$1"))
+				.filter(sql -> sql.matches("(insert into|delete from|update) t_recipe.*")).toList();
+	}
+
+	private void feed(List<RecipeBinding> recipes) {
+		doAnswer(invocation -> {
+			Consumer<RecipeBinding> consumer = invocation.getArgument(1);
+			recipes.forEach(consumer);
+			return new FeedResult(recipes.size(), 1, 0, Collections.emptyMap(), true);
+		}).when(recipeFeedClient).streamChangedRecipes(anyLong(), any(), any());
+	}
+
+	private static List<RecipeBinding> recipes(int firstId, int count) {
+		List<RecipeBinding> recipes = new ArrayList<>();
+		for (int id = firstId; id < firstId + count; id++) {
+			recipes.add(RecipeBinding.builder().id(id).name("Batch Recipe " + id)
+					.ingredients(List.of("Flour " + firstId, "Water " + firstId, "Salt " + firstId,
+							"Spice " + (id % 5) + " of batch " + firstId))
+					.instructions(List.of("Knead recipe " + id, "Bake batch " + firstId))
+					.tags(List.of("Baking " + firstId)).mealType(List.of("Dinner " + firstId)).prepTimeMinutes(10)
+					.cookTimeMinutes(20).servings(2).difficulty("Easy").cuisine("Italian").caloriesPerServing(300).userId(1)
+					.image("image").rating(4.5f).reviewCount(10).build());
+		}
+		return recipes;
+	}
+}
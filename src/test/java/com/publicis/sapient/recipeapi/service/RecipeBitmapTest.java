@@ -0,0 +1,86 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RecipeBitmapTest {
+
+	@Test
+	void testAddRemoveAndContains() {
+		RecipeBitmap bitmap = RecipeBitmap.of(70_000, 3, 65_536, 3, 1);
+
+		assertArrayEquals(new int[] { 1, 3, 65_536, 70_000 }, bitmap.toArray());
+		assertTrue(bitmap.contains(65_536));
+		assertFalse(bitmap.contains(2));
+
+		bitmap.remove(65_536);
+		bitmap.remove(70_000);
+		bitmap.remove(12);
+
+		assertArrayEquals(new int[] { 1, 3 }, bitmap.toArray());
+		assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+	}
+
+	@Test
+	void testDenseGroupSwitchesToBitsAndBack() {
+		RecipeBitmap bitmap = new RecipeBitmap();
+		for (int id = 0; id < 10_000; id += 2) {
+			bitmap.add(id);
+		}
+		// 5000 ids in one group are held as 65536 bits rather than 5000 chars.
+		assertEquals(8192 + 2, bitmap.sizeInBytes());
+
+		for (int id = 0; id < 2_000; id += 2) {
+			bitmap.remove(id);
+		}
+
+		assertEquals(4_000, bitmap.cardinality());
+		assertEquals(4_000 * 2 + 2, bitmap.copy().sizeInBytes());
+		assertEquals(2_000, bitmap.toArray()[0]);
+	}
+
+	@Test
+	void testAndOrMatchBitSet() {
+		Random random = new Random(17);
+		for (int round = 0; round < 20; round++) {
+			// Mix sparse and dense groups so every pairing of container kinds is exercised.
+			BitSet leftIds = randomIds(random, round % 3 == 0 ? 0.2 : 0.01);
+			BitSet rightIds = randomIds(random, round % 2 == 0 ? 0.3 : 0.02);
+			RecipeBitmap left = toBitmap(leftIds);
+			RecipeBitmap right = toBitmap(rightIds);
+
+			BitSet and = (BitSet) leftIds.clone();
+			and.and(rightIds);
+			BitSet or = (BitSet) leftIds.clone();
+			or.or(rightIds);
+
+			assertArrayEquals(and.stream().toArray(), RecipeBitmap.and(left, right).toArray());
+			assertArrayEquals(or.stream().toArray(), RecipeBitmap.or(left, right).toArray());
+			assertEquals(or.cardinality(), RecipeBitmap.or(left, right).cardinality());
+			// The arguments are left as they were.
+			assertArrayEquals(leftIds.stream().toArray(), left.toArray());
+		}
+	}
+
+	private static BitSet randomIds(Random random, double density) {
+		BitSet ids = new BitSet();
+		for (int id = 0; id < 200_000; id++) {
+			if (random.nextDouble() < density) {
+				ids.set(id);
+			}
+		}
+		return ids;
+	}
+
+	private static RecipeBitmap toBitmap(BitSet ids) {
+		return RecipeBitmap.of(ids.stream().toArray());
+	}
+}
@@ -0,0 +1,226 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Column;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Page;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Range;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Row;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.SeekPosition;
+
+class RecipeColumnStoreTest {
+
+	@Test
+	void testPagesMatchAFullSortAcrossCursors() {
+		Random random = new Random(42);
+		RecipeColumnStore store = new RecipeColumnStore();
+		List<Row> rows = new ArrayList<>();
+		for (int id = 1; id <= 2000; id++) {
+			Integer calories = random.nextInt(10) == 0 ? null : random.nextInt(50);
+			rows.add(new Row(id, random.nextInt(50) / 10f, random.nextInt(100), 10, 20, calories, null));
+		}
+		store.put(rows);
+		int[] matches = IntStream.rangeClosed(1, 2000).filter(id -> id % 3 != 0).toArray();
+
+		for (boolean descending : new boolean[] { false, true }) {
+			Comparator<Row> byCalories = Comparator.comparing(Row::caloriesPerServing,
+					Comparator.nullsLast(descending ? Comparator.<Integer>reverseOrder() : Comparator.<Integer>naturalOrder()));
+			int[] expected = rows.stream().filter(row -> row.id() % 3 != 0)
+					.sorted(byCalories.thenComparingInt(Row::id)).mapToInt(Row::id).toArray();
+
+			assertArrayEquals(expected, walk(store, matches, Column.CALORIES, descending, 37));
+		}
+	}
+
+	@Test
+	void testRatingsSortAsFloats() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		store.put(List.of(new Row(1, 4.5f, null, null, null, null, null), new Row(2, -1f, null, null, null, null, null),
+				new Row(3, 0f, null, null, null, null, null), new Row(4, null, null, null, null, null, null),
+				new Row(5, 4.75f, null, null, null, null, null)));
+
+		assertArrayEquals(new int[] { 2, 3, 1, 5, 4 }, walk(store, new int[] { 1, 2, 3, 4, 5 }, Column.RATING, false, 2));
+		assertArrayEquals(new int[] { 5, 1, 3, 2, 4 }, walk(store, new int[] { 1, 2, 3, 4, 5 }, Column.RATING, true, 2));
+	}
+
+	@Test
+	void testIdPagesSeekInTheMatches() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		int[] matches = { 2, 4, 6, 8, 10 };
+
+		assertArrayEquals(matches, walk(store, matches, Column.ID, false, 2));
+		assertArrayEquals(new int[] { 10, 8, 6, 4, 2 }, walk(store, matches, Column.ID, true, 2));
+
+		Page last = store.page(matches, Column.ID, false, new SeekPosition(6, 6), 2);
+		assertArrayEquals(new int[] { 8, 10 }, last.ids());
+		assertNull(last.next());
+	}
+
+	@Test
+	void testIdsBeyondTheLimitAreIgnored() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		store.put(List.of(new Row(1, 1f, 5, null, null, null, null),
+				new Row(2_000_000_000, 2f, 1, null, null, null, null), new Row(-3, 3f, 1, null, null, null, null)));
+		store.remove(List.of(-3, 2_000_000_000));
+
+		assertArrayEquals(new int[] { 1 }, store.range(List.of(Range.between(Column.RATING, 0f, null))));
+	}
+
+	@Test
+	void testCursorsPastMissingValuesKeepTheirPosition() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		store.put(List.of(new Row(1, null, 3, null, null, null, null), new Row(2, null, null, null, null, null, null),
+				new Row(3, null, null, null, null, null, null), new Row(4, null, 1, null, null, null, null)));
+		int[] matches = { 1, 2, 3, 4 };
+
+		Page first = store.page(matches, Column.REVIEW_COUNT, true, null, 3);
+		assertArrayEquals(new int[] { 1, 4, 2 }, first.ids());
+		assertEquals(new SeekPosition(Long.MAX_VALUE, 2), first.next());
+		assertArrayEquals(new int[] { 3 }, store.page(matches, Column.REVIEW_COUNT, true, first.next(), 3).ids());
+		assertArrayEquals(new int[] { 1, 4, 2, 3 }, store.page(matches, Column.REVIEW_COUNT, true, null, 10).ids());
+	}
+
+	@Test
+	void testRemovedRecipesSortLast() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		store.put(List.of(new Row(1, 1f, 5, null, null, null, null), new Row(2, 2f, 1, null, null, null, null)));
+		store.remove(List.of(2));
+
+		assertArrayEquals(new int[] { 1, 2 }, store.page(new int[] { 1, 2 }, Column.REVIEW_COUNT, false, null, 5).ids());
+	}
+
+	@Test
+	void testRangesMatchAFullScanAcrossUpdates() {
+		Random random = new Random(7);
+		RecipeColumnStore store = new RecipeColumnStore();
+		Map<Integer, Row> rows = new HashMap<>();
+		List<Row> initial = new ArrayList<>();
+		for (int id = 1; id <= 5000; id++) {
+			initial.add(randomRow(random, id));
+		}
+		store.put(initial);
+		initial.forEach(row -> rows.put(row.id(), row));
+
+		for (int round = 0; round < 30; round++) {
+			List<Range> ranges = new ArrayList<>();
+			ranges.add(Range.between(Column.TOTAL_TIME, null, 20 + random.nextInt(100)));
+			if (random.nextBoolean()) {
+				ranges.add(Range.between(Column.RATING, random.nextInt(50) / 10f, null));
+			}
+			if (random.nextBoolean()) {
+				int min = random.nextInt(500);
+				ranges.add(Range.between(Column.CALORIES, min, min + random.nextInt(300)));
+			}
+			int[] expected = rows.values().stream().filter(row -> within(row, ranges)).mapToInt(Row::id).sorted()
+					.toArray();
+
+			assertArrayEquals(expected, store.range(ranges), "round " + round);
+			assertArrayEquals(expected, store.filter(IntStream.rangeClosed(1, 6000).toArray(), ranges));
+
+			// Changes pile up between range queries until the columns are sorted again.
+			List<Row> updates = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				updates.add(randomRow(random, 1 + random.nextInt(6000)));
+			}
+			store.put(updates);
+			updates.forEach(row -> rows.put(row.id(), row));
+			List<Integer> removed = random.ints(20, 1, 6001).boxed().toList();
+			store.remove(removed);
+			removed.forEach(rows::remove);
+		}
+	}
+
+	@Test
+	void testSingleValueRangesMatchAFullScanAcrossUpdates() {
+		Random random = new Random(3);
+		RecipeColumnStore store = new RecipeColumnStore();
+		List<Row> rows = new ArrayList<>();
+		for (int id = 1; id <= 5000; id++) {
+			rows.add(randomRow(random, id));
+		}
+		store.put(rows);
+		List<Range> ranges = List.of(Range.between(Column.RATING, 4.2f, 4.2f), Range.between(Column.CALORIES, null, 400));
+		int[] all = IntStream.rangeClosed(1, 5000).toArray();
+
+		int[] matches = store.range(ranges);
+		assertTrue(matches.length > 0);
+		assertArrayEquals(store.filter(all, ranges), matches);
+
+		// A changed recipe is no longer where the sorted column has it.
+		store.put(List.of(new Row(matches[0], 1f, null, null, null, 100, null), new Row(4999, 4.2f, null, null, null, 100, null)));
+		assertArrayEquals(store.filter(all, ranges), store.range(ranges));
+	}
+
+	@Test
+	void testInvertedRangesMatchNothing() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		store.put(List.of(new Row(1, 4f, 10, 5, 5, 300, 2), new Row(2, 4.5f, 20, 5, 10, 400, 4)));
+
+		// Through the sorted column and through the straight read of every column.
+		assertArrayEquals(new int[0], store.range(List.of(Range.between(Column.RATING, 4.5f, 4f))));
+		assertArrayEquals(new int[0], store.range(List.of(Range.between(Column.TOTAL_TIME, null, 100),
+				Range.between(Column.CALORIES, 400, 300))));
+		assertArrayEquals(new int[] { 1 }, store.range(List.of(Range.between(Column.TOTAL_TIME, null, 100),
+				Range.between(Column.CALORIES, 300, 300))));
+	}
+
+	@Test
+	void testTotalTimeIsPrecomputedAndRatingsCompareAsFloats() {
+		RecipeColumnStore store = new RecipeColumnStore();
+		store.put(List.of(new Row(1, 4.5f, null, 10, 15, null, 4), new Row(2, 4.4f, null, 10, 25, null, 2),
+				new Row(3, 4.9f, null, 5, null, null, null)));
+
+		assertArrayEquals(new int[] { 1, 2 }, store.range(List.of(Range.between(Column.TOTAL_TIME, 25, 35))));
+		assertArrayEquals(new int[] { 1 }, store.range(List.of(Range.between(Column.TOTAL_TIME, null, 30))));
+		assertArrayEquals(new int[] { 1, 3 }, store.range(List.of(Range.between(Column.RATING, 4.5f, null))));
+		assertArrayEquals(new int[] { 1 }, store.range(List.of(Range.between(Column.SERVINGS, 3, 4))));
+		assertNull(Range.between(Column.CALORIES, null, null));
+	}
+
+	private static Row randomRow(Random random, int id) {
+		Integer prep = random.nextInt(20) == 0 ? null : random.nextInt(60);
+		Float rating = random.nextInt(20) == 0 ? null : random.nextInt(50) / 10f;
+		return new Row(id, rating, random.nextInt(100), prep, random.nextInt(90), random.nextInt(800),
+				1 + random.nextInt(8));
+	}
+
+	private static boolean within(Row row, List<Range> ranges) {
+		for (Range range : ranges) {
+			Number value = switch (range.column()) {
+			case TOTAL_TIME -> row.prepTimeMinutes() == null ? null : row.prepTimeMinutes() + row.cookTimeMinutes();
+			case RATING -> row.rating() == null ? null : RecipeColumnStore.sortable(row.rating());
+			case CALORIES -> row.caloriesPerServing();
+			default -> throw new IllegalArgumentException(range.column().name());
+			};
+			if (value == null || value.intValue() < range.min() || value.intValue() > range.max()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int[] walk(RecipeColumnStore store, int[] matches, Column column, boolean descending, int limit) {
+		List<Integer> walked = new ArrayList<>();
+		SeekPosition after = null;
+		do {
+			Page page = store.page(matches, column, descending, after, limit);
+			assertTrue(page.ids().length <= limit);
+			IntStream.of(page.ids()).forEach(walked::add);
+			after = page.next();
+		} while (after != null);
+		return walked.stream().mapToInt(Integer::intValue).toArray();
+	}
+}
@@ -0,0 +1,248 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.client.HttpServerErrorException;
+
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.exception.RecipeNotFoundException;
+import com.publicis.sapient.recipeapi.ingestion.RecipeFeedClient;
+import com.publicis.sapient.recipeapi.ingestion.RecipeJdbcWriter;
+import com.publicis.sapient.recipeapi.ingestion.StubRecipeFeedServer;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Column;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Range;
+import com.publicis.sapient.recipeapi.service.RecipeFacetIndex.Facet;
+import com.publicis.sapient.recipeapi.service.RecipeFilterIndex.Dimension;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.datasource.url=jdbc:h2:mem:deltasync", "recipes.api.page-size=100",
+		"recipes.ingestion.batch-size=100", "recipes.ingestion.pipeline.enabled=true" })
+@DirtiesContext
+class RecipeDeltaSyncTest {
+
+	private static StubRecipeFeedServer feed;
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	RecipeJsonCache recipeJsonCache;
+
+	@Autowired
+	CatalogState catalogState;
+
+	@Autowired
+	RecipeFeedClient recipeFeedClient;
+
+	@Autowired
+	RecipeFilterIndex filterIndex;
+
+	@Autowired
+	RecipeFacetIndex facetIndex;
+
+	@Autowired
+	RecipeColumnStore columnStore;
+
+	@MockitoSpyBean
+	RecipeJdbcWriter recipeJdbcWriter;
+
+	@DynamicPropertySource
+	static void feedProperties(DynamicPropertyRegistry registry) {
+		try {
+			feed = new StubRecipeFeedServer(250);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		registry.add("recipes.api.url", feed::url);
+	}
+
+	@AfterAll
+	static void stopFeed() {
+		feed.close();
+	}
+
+	@Test
+	void testDeltaSyncWritesOnlyWhatChangedAndResumesAfterFailure() {
+		IngestionSummary initial = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(new IngestionSummary(250, 250, 0, 0, 0, 3, 0, 0), initial);
+		assertEquals(250, countRecipes());
+		assertEquals(250, catalogState.recipeCount());
+		long version = catalogState.version();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		clearInvocations(recipeJdbcWriter);
+
+		IngestionSummary unchanged = recipeApiService.streamExternalApiDataAndPersist();
+
+		// Every page answers 304, so nothing is parsed and only the removal scan queries.
+		assertEquals(new IngestionSummary(250, 0, 0, 250, 0, 0, 3, 0), unchanged);
+		assertFalse(unchanged.hasChanges());
+		assertEquals(3, feed.notModifiedResponses());
+		assertEquals(1, statistics.getQueryExecutionCount());
+		assertEquals(0, statistics.getEntityInsertCount() + statistics.getEntityUpdateCount());
+		verify(recipeJdbcWriter, never()).insertRecipes(anyList());
+		verify(recipeJdbcWriter, never()).deleteRecipes(anyList());
+		assertEquals(version, catalogState.version());
+
+		// Cached lookups must not outlive the sync that rewrites or removes the recipe.
+		assertTrue(recipeJson(150).contains("\"reviewCount\":50"));
+		assertTrue(recipeJson(248).contains("\"id\":248"));
+		assertEquals(2, recipeJsonCache.stats().getEntries());
+
+		feed.reviseRecipe(150);
+
+		IngestionSummary onePage = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(new IngestionSummary(250, 0, 1, 249, 0, 1, 2, 0), onePage);
+		assertEquals(1050, reviewCount(150));
+		assertEquals(1050, recipeApiService.getRecipeById(150).getReviewCount());
+		assertTrue(recipeJson(150).contains("\"reviewCount\":1050"));
+		assertTrue(recipeJson(248).contains("\"id\":248"));
+
+		feed.reviseRecipe(5);
+		feed.reviseRecipe(120);
+		feed.reviseRecipe(245);
+		feed.setTotalRecipes(240);
+
+		IngestionSummary delta = recipeApiService.streamExternalApiDataAndPersist();
+
+		// The total is part of every page, so every page changes; only two recipes did.
+		assertEquals(new IngestionSummary(240, 0, 2, 238, 10, 3, 0, 0), delta);
+		assertEquals(240, countRecipes());
+		assertEquals(240, countDocuments());
+		assertEquals(240, catalogState.recipeCount());
+		assertTrue(catalogState.version() > version);
+		assertEquals(1005, reviewCount(5));
+		assertEquals(1005, recipeApiService.getRecipeById(5).getReviewCount());
+		assertThrows(RecipeNotFoundException.class, () -> recipeApiService.getRecipeJson(248));
+		// Recipes 241 to 250 are gone from the search index as well.
+		assertEquals(List.of(24, 240), recipeApiService
+				.getRecipesByNameAndCuisine(RecipeDto.builder().name("stub recipe 24").build()).stream()
+				.map(RecipeDto::getId).toList());
+
+		feed.reviseRecipe(10);
+		feed.reviseRecipe(180);
+		feed.reviseRecipe(230);
+		feed.failPagesFrom(200);
+
+		assertThrows(HttpServerErrorException.class, () -> recipeApiService.streamExternalApiDataAndPersist());
+
+		// The two pages before the outage were committed along with the checkpoint.
+		assertEquals(1010, reviewCount(10));
+		assertEquals(1080, reviewCount(180));
+		assertEquals(30, reviewCount(230));
+		assertEquals(200, checkpointOffset());
+
+		feed.failPagesFrom(-1);
+		feed.requestedOffsets().clear();
+
+		IngestionSummary resumed = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(new IngestionSummary(40, 0, 1, 39, 0, 1, 0, 200), resumed);
+		assertEquals(200L, feed.requestedOffsets().get(0));
+		assertEquals(1030, reviewCount(230));
+		assertEquals(240, countRecipes());
+		assertEquals(0, countCheckpoints());
+
+		// Validators live in memory, so after a restart a 304 from a cache in between is
+		// unexpected; the walk must not stop there and take the later pages for deleted.
+		recipeFeedClient.storeValidators(Map.of());
+		feed.answerNotModified(100, 1);
+
+		IngestionSummary afterRestart = recipeApiService.streamExternalApiDataAndPersist();
+
+		assertEquals(240, afterRestart.getProcessed());
+		assertEquals(0, afterRestart.getRemoved());
+		assertEquals(240, countRecipes());
+
+		recipeFeedClient.storeValidators(Map.of());
+		feed.answerNotModified(100, 2);
+
+		assertThrows(IllegalStateException.class, () -> recipeApiService.streamExternalApiDataAndPersist());
+		assertEquals(240, countRecipes());
+		assertEquals(240, catalogState.recipeCount());
+
+		// The read models were patched by every sync above; loading them from the tables
+		// gives the same answers.
+		List<Object> maintained = readModelAnswers();
+		filterIndex.load();
+		facetIndex.load();
+		columnStore.load();
+		assertEquals(maintained, readModelAnswers());
+	}
+
+	private List<Object> readModelAnswers() {
+		int[] recipeIds = IntStream.rangeClosed(1, 250).toArray();
+		return List.of(
+				Arrays.toString(filterIndex.filter(Map.of(Dimension.TAG, List.of("Baking")), true).toArray()),
+				Arrays.toString(filterIndex
+						.filter(Map.of(Dimension.INGREDIENT, List.of("Ingredient 7", "Ingredient 245")), false)
+						.toArray()),
+				facetIndex.count(recipeIds, EnumSet.allOf(Facet.class)),
+				Arrays.toString(columnStore.page(recipeIds, Column.REVIEW_COUNT, true, null, 250).ids()),
+				Arrays.toString(columnStore.range(List.of(Range.between(Column.RATING, 4.5f, null)))));
+	}
+
+	private String recipeJson(int recipeId) {
+		return new String(recipeApiService.getRecipeJson(recipeId), StandardCharsets.UTF_8);
+	}
+
+	private long checkpointOffset() {
+		return jdbcTemplate.queryForObject("SELECT feed_offset FROM t_ingestion_checkpoint", Long.class);
+	}
+
+	private int countCheckpoints() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_ingestion_checkpoint", Integer.class);
+	}
+
+	private int reviewCount(int recipeId) {
+		return jdbcTemplate.queryForObject("SELECT review_count FROM t_recipes WHERE id = ?", Integer.class,
+				recipeId);
+	}
+
+	private int countDocuments() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_recipe_document", Integer.class);
+	}
+
+	private int countRecipes() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_recipes", Integer.class);
+	}
+}
@@ -0,0 +1,80 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.exception.InvalidInputException;
+import com.publicis.sapient.recipeapi.service.RecipeFacetIndex.Facet;
+import com.publicis.sapient.recipeapi.service.RecipeFacetIndex.FacetedRecipe;
+
+class RecipeFacetIndexTest {
+
+	@Test
+	void testCountsOnlyTheGivenRecipesMostFrequentFirst() {
+		RecipeFacetIndex index = new RecipeFacetIndex();
+		index.put(List.of(new FacetedRecipe(1, "Italian", "Easy", List.of("Dinner"), List.of("Pizza", "Italian")),
+				new FacetedRecipe(2, "italian ", "Medium", List.of("Dinner", "Lunch"), List.of("Pasta")),
+				new FacetedRecipe(3, "Thai", "Easy", List.of("Lunch"), List.of("Curry", "Spicy")),
+				new FacetedRecipe(40, null, null, List.of(), List.of("pizza", "Pizza"))));
+
+		Map<String, Map<String, Integer>> counts = index.count(new int[] { 1, 2, 40, 99 }, EnumSet.allOf(Facet.class));
+
+		assertEquals(List.of("cuisine", "difficulty", "mealType", "tag"), List.copyOf(counts.keySet()));
+		assertEquals(Map.of("Italian", 2), counts.get("cuisine"));
+		assertEquals(Map.of("Easy", 1, "Medium", 1), counts.get("difficulty"));
+		assertEquals(List.of("Dinner", "Lunch"), List.copyOf(counts.get("mealType").keySet()));
+		assertEquals(List.of(2, 1), List.copyOf(counts.get("mealType").values()));
+		assertEquals(List.of("Pizza", "Italian", "Pasta"), List.copyOf(counts.get("tag").keySet()));
+		assertEquals(2, counts.get("tag").get("Pizza"));
+	}
+
+	@Test
+	void testEqualCountsAreOrderedByValue() {
+		RecipeFacetIndex index = new RecipeFacetIndex();
+		index.put(List.of(new FacetedRecipe(1, "Cuisine 7", "Easy", List.of(), List.of()),
+				new FacetedRecipe(2, "cuisine 17", "Easy", List.of(), List.of()),
+				new FacetedRecipe(3, "Thai", "Easy", List.of(), List.of())));
+
+		assertEquals(List.of("cuisine 17", "Cuisine 7", "Thai"),
+				List.copyOf(index.count(new int[] { 1, 2, 3 }, EnumSet.of(Facet.CUISINE)).get("cuisine").keySet()));
+	}
+
+	@Test
+	void testUpdatesAndRemovalsMoveCounts() {
+		RecipeFacetIndex index = new RecipeFacetIndex();
+		index.put(List.of(new FacetedRecipe(1, "Italian", "Easy", List.of("Dinner"), List.of("Pizza")),
+				new FacetedRecipe(2, "Thai", "Easy", List.of("Lunch"), List.of("Curry"))));
+
+		index.put(List.of(new FacetedRecipe(1, "Greek", "Hard", List.of("Lunch"), List.of())));
+		index.remove(List.of(2));
+
+		assertEquals(Map.of("cuisine", Map.of("Greek", 1), "tag", Map.of()),
+				index.count(new int[] { 1, 2 }, EnumSet.of(Facet.CUISINE, Facet.TAG)));
+	}
+
+	@Test
+	void testIdsBeyondTheLimitAreIgnored() {
+		RecipeFacetIndex index = new RecipeFacetIndex();
+		index.put(List.of(new FacetedRecipe(2_000_000_000, "Thai", "Easy", List.of("Lunch"), List.of("Curry")),
+				new FacetedRecipe(1, "Greek", "Easy", List.of(), List.of())));
+		index.remove(List.of(-1));
+
+		assertEquals(Map.of("cuisine", Map.of("Greek", 1)),
+				index.count(new int[] { 1, 2_000_000_000 }, EnumSet.of(Facet.CUISINE)));
+	}
+
+	@Test
+	void testParseFacets() {
+		assertEquals(Set.of(Facet.MEAL_TYPE, Facet.TAG), Facet.parse(List.of("tag", " mealType")));
+		assertNull(Facet.parse(List.of(" ")));
+		assertThrows(InvalidInputException.class, () -> Facet.parse(List.of("cuisine", "ingredient")));
+	}
+}
@@ -0,0 +1,59 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.publicis.sapient.recipeapi.dto.IngestionSummary;
+import com.publicis.sapient.recipeapi.ingestion.StubRecipeFeedServer;
+
+@SpringBootTest
+class RecipeFileImportTest {
+
+	@TempDir
+	Path directory;
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void testImportPersistsThroughFingerprintPath() throws IOException {
+		Path file = directory.resolve("recipes.ndjson.gz");
+		try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+			output.write(LongStream.rangeClosed(90001, 90030).mapToObj(StubRecipeFeedServer::recipeJson)
+					.collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8));
+		}
+
+		IngestionSummary imported = recipeApiService.importRecipes(file, progress -> {
+		});
+
+		assertEquals(30, imported.getProcessed());
+		assertEquals(30, imported.getAdded());
+		assertEquals(30, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_recipes WHERE id BETWEEN 90001 AND 90030", Integer.class));
+		assertEquals(4, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_recipes_ingredients WHERE recipe_id = 90007", Integer.class));
+
+		IngestionSummary reimported = recipeApiService.importRecipes(file, progress -> {
+		});
+
+		assertEquals(30, reimported.getUnchanged());
+		assertEquals(0, reimported.getAdded() + reimported.getUpdated() + reimported.getRemoved());
+	}
+}
@@ -0,0 +1,65 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.service.RecipeFilterIndex.Dimension;
+import com.publicis.sapient.recipeapi.service.RecipeFilterIndex.FilteredRecipe;
+
+class RecipeFilterIndexTest {
+
+	private RecipeFilterIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new RecipeFilterIndex();
+		index.put(List.of(
+				new FilteredRecipe(1, List.of("Pizza dough", "Tomato sauce", "Basil"), List.of("Pizza", "Italian"),
+						List.of("Dinner")),
+				new FilteredRecipe(2, List.of("Tofu", "Broccoli"), List.of("Vegan", "Asian"),
+						List.of("Lunch", "Dinner")),
+				new FilteredRecipe(3, List.of("Basil", "Tofu"), List.of("Vegan"), List.of("Lunch"))));
+	}
+
+	@Test
+	void testAllValuesOfDimensionMustMatch() {
+		assertArrayEquals(new int[] { 3 }, filter(Dimension.INGREDIENT, List.of("tofu", "BASIL"), true));
+		assertArrayEquals(new int[0], filter(Dimension.INGREDIENT, List.of("tofu", "saffron"), true));
+	}
+
+	@Test
+	void testAnyValueOfDimensionMatches() {
+		assertArrayEquals(new int[] { 1, 2 }, filter(Dimension.TAG, List.of("italian", "asian", "saffron"), false));
+	}
+
+	@Test
+	void testDimensionsAreCombinedWithAnd() {
+		Map<Dimension, List<String>> criteria = new EnumMap<>(Dimension.class);
+		criteria.put(Dimension.TAG, List.of("Vegan"));
+		criteria.put(Dimension.MEAL_TYPE, List.of("Dinner", "Breakfast"));
+
+		assertArrayEquals(new int[] { 2 }, index.filter(criteria, false).toArray());
+		assertNull(index.filter(Map.of(Dimension.TAG, List.of(" ")), true));
+	}
+
+	@Test
+	void testUpdatesMoveRecipesBetweenBitmaps() {
+		index.put(List.of(new FilteredRecipe(3, List.of("Chickpeas"), List.of("Vegan"), List.of("Dinner"))));
+		index.remove(List.of(2));
+
+		assertArrayEquals(new int[] { 1 }, filter(Dimension.INGREDIENT, List.of("Basil"), true));
+		assertArrayEquals(new int[] { 1, 3 }, filter(Dimension.MEAL_TYPE, List.of("Dinner"), true));
+		assertArrayEquals(new int[0], filter(Dimension.MEAL_TYPE, List.of("Lunch"), true));
+	}
+
+	private int[] filter(Dimension dimension, List<String> values, boolean matchAll) {
+		return index.filter(Map.of(dimension, values), matchAll).toArray();
+	}
+}
@@ -0,0 +1,188 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.dto.RecipeCacheStatsDto;
+
+class RecipeJsonCacheTest {
+
+	private RecipeJsonCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new RecipeJsonCache();
+		cache.maxBytes = 1_000;
+		cache.init();
+	}
+
+	@Test
+	void testHitsAndMissesAreCounted() {
+		assertNull(cache.get(1));
+		cache.put(1, json(100), cache.stamp(1));
+
+		assertNotNull(cache.get(1));
+
+		RecipeCacheStatsDto stats = cache.stats();
+		assertEquals(1, stats.getHits());
+		assertEquals(1, stats.getMisses());
+		assertEquals(0.5, stats.getHitRate());
+		assertEquals(1, stats.getEntries());
+		assertEquals(100, stats.getUsedBytes());
+	}
+
+	@Test
+	void testByteBudgetIsNeverExceeded() {
+		for (int id = 1; id <= 50; id++) {
+			// Each id is looked up a few times before being loaded, so every one is admitted.
+			for (int lookup = 0; lookup <= id % 4 + 1; lookup++) {
+				cache.get(id);
+			}
+			cache.put(id, json(120 + id), cache.stamp(id));
+			assertTrue(cache.stats().getUsedBytes() <= 1_000, cache.stats().toString());
+		}
+
+		assertTrue(cache.stats().getEvictions() > 0);
+	}
+
+	@Test
+	void testOneOffLookupsDoNotDisplaceHotRecipes() {
+		for (int id = 1; id <= 4; id++) {
+			load(id, 250);
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int id = 1; id <= 4; id++) {
+				cache.get(id);
+			}
+		}
+
+		// A scan over ids nobody asks for twice.
+		for (int id = 100; id < 200; id++) {
+			load(id, 250);
+		}
+
+		for (int id = 1; id <= 4; id++) {
+			assertNotNull(cache.get(id), "recipe " + id + " was evicted");
+		}
+		assertEquals(100, cache.stats().getRejections());
+		assertEquals(0, cache.stats().getEvictions());
+	}
+
+	@Test
+	void testFrequentNewcomerEvictsLeastRecentlyUsed() {
+		for (int id = 1; id <= 4; id++) {
+			load(id, 250);
+		}
+		for (int lookup = 0; lookup < 3; lookup++) {
+			cache.get(9);
+		}
+
+		load(9, 250);
+
+		assertNotNull(cache.get(9));
+		assertNull(cache.get(1));
+		assertEquals(1, cache.stats().getEvictions());
+	}
+
+	@Test
+	void testRejectedReloadKeepsTheCachedCopy() {
+		for (int id = 1; id <= 4; id++) {
+			load(id, 250);
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int id = 2; id <= 4; id++) {
+				cache.get(id);
+			}
+		}
+
+		// Recipe 1 grows, so it only fits by evicting one of the busier recipes.
+		cache.put(1, json(300), cache.stamp(1));
+
+		assertEquals(250, cache.get(1).length);
+		assertEquals(1, cache.stats().getRejections());
+		assertEquals(0, cache.stats().getEvictions());
+		assertEquals(1_000, cache.stats().getUsedBytes());
+	}
+
+	@Test
+	void testInvalidationRemovesEntryAndDropsInFlightLoad() {
+		load(5, 100);
+		long stamp = cache.stamp(6);
+
+		cache.invalidate(List.of(5, 6));
+		cache.put(6, json(100), stamp);
+
+		assertNull(cache.get(5));
+		assertNull(cache.get(6));
+		assertEquals(1, cache.stats().getInvalidations());
+		assertEquals(0, cache.stats().getUsedBytes());
+
+		cache.put(6, json(100), cache.stamp(6));
+		assertNotNull(cache.get(6));
+	}
+
+	@Test
+	void testEntryLargerThanBudgetIsRejected() {
+		cache.put(1, json(1_001), cache.stamp(1));
+
+		assertNull(cache.get(1));
+		assertEquals(1, cache.stats().getRejections());
+	}
+
+	@Test
+	void testConcurrentLookupsKeepCountsAndBudget() throws Exception {
+		RecipeJsonCache segmented = new RecipeJsonCache();
+		segmented.maxBytes = 64 * RecipeJsonCache.MIN_SEGMENT_BYTES;
+		segmented.init();
+		int threads = 8;
+		int lookups = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int seed = t;
+				futures.add(executor.submit(() -> {
+					Random random = new Random(seed);
+					for (int i = 0; i < lookups; i++) {
+						int id = random.nextInt(20_000);
+						if (segmented.get(id) == null) {
+							segmented.put(id, json(4_096 + random.nextInt(4_096)), segmented.stamp(id));
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		RecipeCacheStatsDto stats = segmented.stats();
+		assertEquals((long) threads * lookups, stats.getHits() + stats.getMisses());
+		assertTrue(stats.getUsedBytes() <= segmented.maxBytes, stats.toString());
+		assertTrue(stats.getEvictions() + stats.getRejections() > 0, stats.toString());
+	}
+
+	private void load(int id, int size) {
+		cache.get(id);
+		cache.put(id, json(size), cache.stamp(id));
+	}
+
+	private static byte[] json(int size) {
+		return new byte[size];
+	}
+}
@@ -0,0 +1,74 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.Ranking;
+
+/**
+ * Times {@link RecipeLeaderboard#top} from a cached board against picking the board
+ * again, and the cost of patching boards as recipes change. Run with
+ * {@code mvn test -Dtest=RecipeLeaderboardBenchmarkTest -Dbenchmark=true [-Dbenchmark.recipes=200000]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecipeLeaderboardBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 200_000);
+
+	@Test
+	void timeTopRecipes() {
+		Random random = new Random(5);
+		RecipeLeaderboard leaderboard = new RecipeLeaderboard();
+		leaderboard.capacity = 100;
+		List<RankedRecipe> recipes = new ArrayList<>(RECIPES);
+		for (int id = 1; id <= RECIPES; id++) {
+			recipes.add(recipe(random, id));
+		}
+		leaderboard.put(recipes);
+
+		// Every combination is asked for once, so each call picks a new board.
+		int runs = 0;
+		long start = System.nanoTime();
+		for (Ranking ranking : Ranking.values()) {
+			for (int cuisine = 0; cuisine < 20; cuisine++) {
+				for (String mealType : new String[] { null, "Dinner", "Lunch" }) {
+					leaderboard.top(ranking, "Cuisine " + cuisine, mealType, 10);
+					runs++;
+				}
+			}
+		}
+		double buildMicros = (System.nanoTime() - start) / 1e3 / runs;
+
+		runs = 100_000;
+		start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			assertEquals(10, leaderboard.top(Ranking.RATING, "Cuisine 3", null, 10).size());
+		}
+		double cachedMicros = (System.nanoTime() - start) / 1e3 / runs;
+
+		List<RankedRecipe> updates = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			updates.add(recipe(random, 1 + random.nextInt(RECIPES)));
+		}
+		start = System.nanoTime();
+		leaderboard.put(updates);
+		double updateMicros = (System.nanoTime() - start) / 1e3 / updates.size();
+
+		System.out.printf("%,d recipes: %,10.2f us cached top 10, %,10.1f us picking the board, %,8.2f us per update%n",
+				RECIPES, cachedMicros, buildMicros, updateMicros);
+		assertTrue(cachedMicros * 100 < buildMicros);
+	}
+
+	private static RankedRecipe recipe(Random random, int id) {
+		return new RankedRecipe(id, "Recipe " + id, "Cuisine " + random.nextInt(20), null, random.nextInt(21) / 10f + 3,
+				random.nextInt(2000), List.of(random.nextBoolean() ? "Dinner" : "Lunch"));
+	}
+}
@@ -0,0 +1,98 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.RankedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeLeaderboard.Ranking;
+
+class RecipeLeaderboardTest {
+
+	private static final List<String> CUISINES = List.of("Italian", "Thai", "Greek");
+
+	private static final List<String> MEAL_TYPES = List.of("Dinner", "Lunch", "Snack");
+
+	@Test
+	void testBoardsMatchAFullSortAcrossUpdates() {
+		Random random = new Random(7);
+		RecipeLeaderboard leaderboard = leaderboard(5);
+		Map<Integer, RankedRecipe> catalog = new HashMap<>();
+		List<RankedRecipe> initial = new ArrayList<>();
+		for (int id = 1; id <= 60; id++) {
+			initial.add(recipe(random, id));
+		}
+		leaderboard.put(initial);
+		initial.forEach(recipe -> catalog.put(recipe.id(), recipe));
+
+		for (int round = 0; round < 200; round++) {
+			for (Ranking ranking : Ranking.values()) {
+				for (String cuisine : new String[] { null, "italian", "Thai " }) {
+					for (String mealType : new String[] { null, "LUNCH" }) {
+						assertEquals(expected(catalog, ranking, cuisine, mealType, 5),
+								leaderboard.top(ranking, cuisine, mealType, 5).stream().map(RankedRecipe::id).toList(),
+								"round " + round + " " + ranking + " " + cuisine + " " + mealType);
+					}
+				}
+			}
+			int id = 1 + random.nextInt(70);
+			if (random.nextInt(5) == 0) {
+				leaderboard.remove(List.of(id));
+				catalog.remove(id);
+			} else {
+				RankedRecipe update = recipe(random, id);
+				leaderboard.put(List.of(update));
+				catalog.put(id, update);
+			}
+		}
+	}
+
+	@Test
+	void testRecipesWithoutTheRankedValueAreLeftOut() {
+		RecipeLeaderboard leaderboard = leaderboard(3);
+		leaderboard.put(List.of(new RankedRecipe(1, "A", "Thai", null, 4.5f, null, List.of("Dinner")),
+				new RankedRecipe(2, "B", "Thai", null, null, 40, List.of("Dinner")),
+				new RankedRecipe(3, "C", "Thai", null, 4.5f, 12, List.of("Dinner")),
+				new RankedRecipe(4, "D", "Thai", null, 4.9f, 3, List.of())));
+
+		assertEquals(List.of(4, 3, 1), leaderboard.top(Ranking.RATING, null, null, 10).stream().map(RankedRecipe::id).toList());
+		assertEquals(List.of(3, 1), leaderboard.top(Ranking.RATING, "thai", "dinner", 2).stream().map(RankedRecipe::id).toList());
+		assertEquals(List.of(2, 3, 4),
+				leaderboard.top(Ranking.REVIEW_COUNT, null, null, 3).stream().map(RankedRecipe::id).toList());
+		assertEquals(List.of(), leaderboard.top(Ranking.RATING, "Greek", null, 3));
+	}
+
+	private static RecipeLeaderboard leaderboard(int capacity) {
+		RecipeLeaderboard leaderboard = new RecipeLeaderboard();
+		leaderboard.capacity = capacity;
+		return leaderboard;
+	}
+
+	private static RankedRecipe recipe(Random random, int id) {
+		Float rating = random.nextInt(10) == 0 ? null : random.nextInt(10) / 2f;
+		Integer reviewCount = random.nextInt(10) == 0 ? null : random.nextInt(30);
+		return new RankedRecipe(id, "Recipe " + id, CUISINES.get(random.nextInt(CUISINES.size())), null, rating,
+				reviewCount, random.nextBoolean() ? List.of(MEAL_TYPES.get(random.nextInt(MEAL_TYPES.size()))) : List.of());
+	}
+
+	private static List<Integer> expected(Map<Integer, RankedRecipe> catalog, Ranking ranking, String cuisine,
+			String mealType, int n) {
+		Comparator<RankedRecipe> byRating = Comparator.comparing(RankedRecipe::rating, Comparator.reverseOrder());
+		Comparator<RankedRecipe> byReviews = Comparator.comparing(RankedRecipe::reviewCount, Comparator.reverseOrder());
+		Comparator<RankedRecipe> order = ranking == Ranking.RATING
+				? byRating.thenComparing(RankedRecipe::reviewCount, Comparator.nullsLast(Comparator.reverseOrder()))
+				: byReviews.thenComparing(RankedRecipe::rating, Comparator.nullsLast(Comparator.reverseOrder()));
+		return catalog.values().stream()
+				.filter(recipe -> ranking == Ranking.RATING ? recipe.rating() != null : recipe.reviewCount() != null)
+				.filter(recipe -> cuisine == null || recipe.cuisine().equalsIgnoreCase(cuisine.trim()))
+				.filter(recipe -> mealType == null || recipe.mealTypes().stream().anyMatch(mealType::equalsIgnoreCase))
+				.sorted(order.thenComparingInt(RankedRecipe::id)).limit(n).map(RankedRecipe::id).toList();
+	}
+}
@@ -0,0 +1,82 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Column;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Range;
+import com.publicis.sapient.recipeapi.service.RecipeColumnStore.Row;
+
+/**
+ * Times combined range filters on {@link RecipeColumnStore#range} over a synthetic
+ * catalog, against checking every recipe's columns, as the median of batches of runs.
+ * Run with {@code mvn test -Dtest=RecipeRangeBenchmarkTest -Dbenchmark=true
+ * -Djacoco.skip=true [-Dbenchmark.recipes=1000000]}; the coverage agent otherwise slows
+ * the measured loops.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecipeRangeBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 1_000_000);
+
+	@Test
+	void timeRangeQueries() {
+		Random random = new Random(11);
+		RecipeColumnStore store = new RecipeColumnStore();
+		List<Row> rows = new ArrayList<>(RECIPES);
+		for (int id = 1; id <= RECIPES; id++) {
+			rows.add(new Row(id, 3 + random.nextInt(21) / 10f, random.nextInt(500), 5 + random.nextInt(55),
+					random.nextInt(120), 80 + random.nextInt(900), 1 + random.nextInt(8)));
+		}
+		store.put(rows);
+
+		time(store, "maxTotalMinutes=30&minRating=4.5&maxCalories=500",
+				List.of(Range.between(Column.TOTAL_TIME, null, 30), Range.between(Column.RATING, 4.5f, null),
+						Range.between(Column.CALORIES, null, 500)));
+		time(store, "maxTotalMinutes=15&minRating=4.8",
+				List.of(Range.between(Column.TOTAL_TIME, null, 15), Range.between(Column.RATING, 4.8f, null)));
+		time(store, "minRating=5&minServings=8&maxCalories=200",
+				List.of(Range.between(Column.RATING, 5f, null), Range.between(Column.SERVINGS, 8, null),
+						Range.between(Column.CALORIES, null, 200)));
+		time(store, "maxTotalMinutes=120&minRating=3.5",
+				List.of(Range.between(Column.TOTAL_TIME, null, 120), Range.between(Column.RATING, 3.5f, null)));
+	}
+
+	private static void time(RecipeColumnStore store, String label, List<Range> ranges) {
+		int[] all = java.util.stream.IntStream.rangeClosed(1, RECIPES).toArray();
+		int matches = store.range(ranges).length;
+		double sortedMicros = median(() -> store.range(ranges), 500, 20);
+		double scanMicros = median(() -> store.filter(all, ranges), 20, 2);
+		System.out.printf("%-50s %,9d matches: %,10.1f us sorted columns, %,10.1f us full scan%n", label, matches,
+				sortedMicros, scanMicros);
+		assertTrue(sortedMicros <= scanMicros * 1.5);
+	}
+
+	/**
+	 * Median microseconds per run over 30 batches of {@code batch} runs, after
+	 * {@code warmup} runs to let the JIT settle; the median keeps a shared CPU's stalls
+	 * out of the figure.
+	 */
+	private static double median(Runnable query, int warmup, int batch) {
+		for (int i = 0; i < warmup; i++) {
+			query.run();
+		}
+		double[] micros = new double[30];
+		for (int b = 0; b < micros.length; b++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < batch; i++) {
+				query.run();
+			}
+			micros[b] = (System.nanoTime() - start) / 1e3 / batch;
+		}
+		Arrays.sort(micros);
+		return micros[micros.length / 2];
+	}
+}
@@ -0,0 +1,255 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.publicis.sapient.recipeapi.binding.RecipeSearchRequest;
+import com.publicis.sapient.recipeapi.dto.RecipeDto;
+import com.publicis.sapient.recipeapi.dto.RecipePage;
+import com.publicis.sapient.recipeapi.ingestion.StubRecipeFeedServer;
+
+/**
+ * The JDBC statements each read path issues over a catalog ingested from the stub feed,
+ * as recorded at the data source. What the reads return is covered by the tests of the
+ * components behind them.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:readquerycount")
+@Import(StatementRecorder.class)
+@DirtiesContext
+class RecipeReadQueryCountTest {
+
+	private static final String SELECT_DOCUMENTS = "from t_recipe_document";
+
+	private static StubRecipeFeedServer feed;
+
+	@Autowired
+	IRecipeApiService recipeApiService;
+
+	@Autowired
+	RecipeDocumentStreamer documentStreamer;
+
+	@Autowired
+	StatementRecorder statements;
+
+	@DynamicPropertySource
+	static void feedProperties(DynamicPropertyRegistry registry) {
+		try {
+			feed = new StubRecipeFeedServer(300);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		registry.add("recipes.api.url", feed::url);
+	}
+
+	@AfterAll
+	static void stopFeed() {
+		feed.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		if (recipeApiService.isRecipeDataEmpty()) {
+			recipeApiService.streamExternalApiDataAndPersist();
+		}
+		statements.clear();
+	}
+
+	@Test
+	void testGetRecipeByIdIsOneDocumentRead() {
+		assertEquals("Stub Recipe 42", recipeApiService.getRecipeById(42).getName());
+
+		// The assembled document, with no joins into the dimension tables.
+		assertDocumentReads(1);
+		assertFalse(statements.statements().get(0).contains(" join "));
+	}
+
+	@Test
+	void testEmptinessCheckIsAnsweredInMemory() {
+		assertFalse(recipeApiService.isRecipeDataEmpty());
+
+		assertEquals(List.of(), statements.statements());
+	}
+
+	@Test
+	void testHotLookupSkipsTheDatabase() {
+		byte[] first = recipeApiService.getRecipeJson(77);
+		assertDocumentReads(1);
+
+		statements.clear();
+		byte[] second = recipeApiService.getRecipeJson(77);
+
+		assertSame(first, second);
+		assertEquals(List.of(), statements.statements());
+	}
+
+	@Test
+	void testSearchIsOneStatementWhateverTheMatches() {
+		for (String name : List.of("Stub Recipe 29", "Stub Recipe")) {
+			statements.clear();
+			assertFalse(recipeApiService.getRecipesByNameAndCuisine(RecipeDto.builder().name(name).build()).isEmpty());
+
+			// Matching documents come back whole from one statement.
+			assertDocumentReads(1);
+		}
+	}
+
+	@Test
+	void testFiltersRangesAndFacetsReadOnlyThePage() {
+		RecipeSearchRequest filtered = new RecipeSearchRequest();
+		filtered.setTag(List.of("tag 7", "Baking"));
+		filtered.setMealType(List.of("Dinner"));
+		RecipeSearchRequest ranged = new RecipeSearchRequest();
+		ranged.setMinRating(4.8f);
+		ranged.setMaxTotalMinutes(60);
+		RecipeSearchRequest faceted = new RecipeSearchRequest();
+		faceted.setTag(List.of("tag 7"));
+		faceted.setLimit(2);
+		faceted.setFacets(List.of("cuisine", "difficulty", "mealType", "tag"));
+
+		for (RecipeSearchRequest request : List.of(filtered, ranged, faceted)) {
+			statements.clear();
+			RecipePage<RecipeDto> page = recipeApiService.searchRecipes(request);
+
+			assertFalse(page.getRecipes().isEmpty());
+			// Matching, ranges and facet counts come from memory; only the page's documents are read.
+			assertDocumentReads(1);
+		}
+	}
+
+	@Test
+	void testEveryCursorPageIsOneStatement() {
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Stub Recipe");
+		request.setSort("-reviewCount");
+		request.setLimit(40);
+
+		List<Integer> walked = new ArrayList<>();
+		int pages = 0;
+		do {
+			statements.clear();
+			RecipePage<RecipeDto> page = recipeApiService.searchRecipes(request);
+			assertDocumentReads(1);
+			page.getRecipes().forEach(recipe -> walked.add(recipe.getId()));
+			request.setCursor(page.getNextCursor());
+			pages++;
+		} while (request.getCursor() != null);
+
+		assertEquals(8, pages);
+		assertEquals(300, walked.stream().distinct().count());
+	}
+
+	@Test
+	void testStreamIsOneStatementForEveryMatch() throws IOException {
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Stub Recipe");
+		int[] recipeIds = recipeApiService.matchRecipeIds(request);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		statements.clear();
+		long streamed = recipeApiService.streamRecipes(recipeIds, out);
+
+		List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+		assertEquals(300, streamed);
+		assertEquals(300, lines.size());
+		assertTrue(lines.get(0).startsWith("{\"id\":1,"));
+		assertTrue(lines.get(299).startsWith("{\"id\":300,"));
+		assertEquals(List.of(RecipeDocumentStreamer.SELECT_DOCUMENTS.toLowerCase()), statements.statements());
+	}
+
+	@Test
+	void testStreamScansTheIdRangeWhenMatchesExceedOneFetch() throws IOException {
+		int[] recipeIds = IntStream.rangeClosed(1, 300).filter(id -> id % 3 == 0).toArray();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int fetchSize = documentStreamer.fetchSize;
+		documentStreamer.fetchSize = 25;
+
+		long streamed;
+		try {
+			streamed = recipeApiService.streamRecipes(recipeIds, out);
+		} finally {
+			documentStreamer.fetchSize = fetchSize;
+		}
+
+		List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+		assertEquals(100, streamed);
+		assertTrue(lines.get(0).startsWith("{\"id\":3,"));
+		assertTrue(lines.get(1).startsWith("{\"id\":6,"));
+		assertTrue(lines.get(99).startsWith("{\"id\":300,"));
+		assertEquals(List.of(RecipeDocumentStreamer.SCAN_DOCUMENTS.toLowerCase()), statements.statements());
+	}
+
+	@Test
+	void testFieldsAreProjectedInTheQuery() {
+		RecipeSearchRequest request = new RecipeSearchRequest();
+		request.setName("Stub Recipe 7");
+		request.setFields(List.of("id", "name", "cuisine", "rating", "image"));
+
+		List<Map<String, Object>> recipes = recipeApiService.searchRecipeFields(request).getRecipes();
+
+		assertEquals(List.of(7, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79), recipes.stream().map(recipe -> recipe.get("id"))
+				.toList());
+		// Scalar fields are the only columns selected, in one statement, and no document is read.
+		assertEquals(List.of("select id, name, cuisine, image, rating from t_recipes where id = any(?)"),
+				statements.statements());
+
+		statements.clear();
+		assertEquals(Map.of("name", "Stub Recipe 42", "tags", List.of("Tag 42", "Baking")),
+				recipeApiService.getRecipeFields(42, List.of("tags", "name")));
+		// Collections live only in the stored document, which is read once.
+		assertEquals(List.of("select id, document from t_recipe_document where id = any(?)"), statements.statements());
+	}
+
+	@Test
+	void testBatchLookupIsOneStatementForTheUncachedIds() {
+		Map<Integer, byte[]> first = recipeApiService.getRecipesJson(List.of(201, 9999, 202, 201));
+
+		assertEquals(2, first.size());
+		assertDocumentReads(1);
+
+		statements.clear();
+		Map<Integer, byte[]> second = recipeApiService.getRecipesJson(List.of(202, 201));
+
+		assertSame(first.get(201), second.get(201));
+		assertEquals(List.of(), statements.statements());
+	}
+
+	@Test
+	void testSuggestionsAndLeaderboardsAreAnsweredInMemory() {
+		assertEquals(3, recipeApiService.suggestRecipes("recipe 29", 3).size());
+		assertEquals(5, recipeApiService.getTopRecipes(RecipeLeaderboard.Ranking.REVIEW_COUNT, null, "dinner", 5).size());
+		assertEquals(4, recipeApiService.getTopRecipes(RecipeLeaderboard.Ranking.RATING, "cuisine 7", null, 4).size());
+
+		assertEquals(List.of(), statements.statements());
+	}
+
+	/**
+	 * Asserts that the statements since the last clear are {@code count} reads of stored
+	 * documents and nothing else.
+	 */
+	private void assertDocumentReads(int count) {
+		List<String> executed = statements.statements();
+		assertEquals(count, executed.size(), () -> executed.toString());
+		executed.forEach(sql -> assertTrue(sql.startsWith("select") && sql.contains(SELECT_DOCUMENTS), sql));
+	}
+}
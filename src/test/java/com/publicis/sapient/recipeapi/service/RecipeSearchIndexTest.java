@@ -0,0 +1,84 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.service.RecipeSearchIndex.IndexedRecipe;
+
+class RecipeSearchIndexTest {
+
+	private RecipeSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new RecipeSearchIndex();
+		index.put(List.of(new IndexedRecipe(1, "Classic Margherita Pizza", "Italian"),
+				new IndexedRecipe(2, "Vegetarian Stir-Fry", "Asian"),
+				new IndexedRecipe(3, "Chocolate Chip Cookies", "American"),
+				new IndexedRecipe(4, "Margarita Cocktail", null),
+				new IndexedRecipe(5, "Pizza Bianca", "Italian")));
+	}
+
+	@Test
+	void testSubstringMatchIgnoresCase() {
+		assertArrayEquals(new int[] { 1, 5 }, index.search("PIZZA", null));
+		assertArrayEquals(new int[] { 1 }, index.search("herita piz", null));
+		assertArrayEquals(new int[] { 1, 5 }, index.search("pizza", "ital"));
+	}
+
+	@Test
+	void testSharedTrigramsAloneDoNotMatch() {
+		// "marg" and "rita" both occur in recipe 4, but not "margrita".
+		assertArrayEquals(new int[0], index.search("margrita", null));
+		assertArrayEquals(new int[] { 4 }, index.search("margarita", null));
+	}
+
+	@Test
+	void testShortTermsAndCuisineAreChecked() {
+		assertArrayEquals(new int[] { 1, 3, 5 }, index.search("c", "a"));
+		assertArrayEquals(new int[] { 1, 2, 3, 5 }, index.search(null, ""));
+		assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, index.search(null, null));
+	}
+
+	@Test
+	void testLikeWildcardsAreLiteral() {
+		index.put(List.of(new IndexedRecipe(6, "100%_Rye Bread", null)));
+
+		assertArrayEquals(new int[] { 6 }, index.search("100%_rye", null));
+		assertArrayEquals(new int[0], index.search("%", "%"));
+		assertArrayEquals(new int[0], index.search("pi_za", null));
+	}
+
+	@Test
+	void testUpdatesAndRemovalsAreReflected() {
+		index.put(List.of(new IndexedRecipe(5, "Focaccia", "Italian")));
+		index.remove(List.of(1, 42));
+
+		assertArrayEquals(new int[0], index.search("pizza", null));
+		assertArrayEquals(new int[] { 5 }, index.search("focaccia", "italian"));
+		assertEquals(4, index.size());
+	}
+
+	@Test
+	void testOutOfOrderInsertsKeepIdsSorted() {
+		List<IndexedRecipe> recipes = new ArrayList<>();
+		for (int id = 2000; id > 1000; id -= 7) {
+			recipes.add(new IndexedRecipe(id, "Stew " + id, "French"));
+		}
+		index.put(recipes);
+
+		int[] stews = index.search("stew", "french");
+
+		assertEquals(recipes.size(), stews.length);
+		for (int i = 1; i < stews.length; i++) {
+			assertTrue(stews[i - 1] < stews[i]);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.SuggestedRecipe;
+
+/**
+ * Times {@link RecipeSuggestIndex#suggest} over a synthetic catalog of three-word names,
+ * from one-letter prefixes matching a large share of it to whole words, and how long
+ * loading the catalog through ingestion-sized updates takes. Run with
+ * {@code mvn test -Dtest=RecipeSuggestBenchmarkTest -Dbenchmark=true [-Dbenchmark.recipes=200000]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecipeSuggestBenchmarkTest {
+
+	private static final int RECIPES = Integer.getInteger("benchmark.recipes", 200_000);
+
+	private static final String[] WORDS = { "chicken", "beef", "tofu", "spicy", "garlic", "lemon", "pasta", "pizza",
+			"curry", "salad", "soup", "tacos", "roasted", "grilled", "creamy", "stew", "bread", "cake", "pie", "rice",
+			"noodles", "salmon", "shrimp", "mushroom", "honey" };
+
+	private static final String[] PREFIXES = { "c", "pi", "chick", "spicy", "mushroom", "zz" };
+
+	@Test
+	void timeSuggestions() {
+		Random random = new Random(7);
+		RecipeSuggestIndex index = new RecipeSuggestIndex();
+		long start = System.nanoTime();
+		for (int from = 1; from <= RECIPES; from += 500) {
+			List<SuggestedRecipe> batch = new ArrayList<>();
+			for (int id = from; id < from + 500 && id <= RECIPES; id++) {
+				String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+						+ WORDS[random.nextInt(WORDS.length)] + " " + id;
+				batch.add(new SuggestedRecipe(id, name, random.nextInt(50) / 10f, random.nextInt(1000)));
+			}
+			index.put(batch);
+		}
+		System.out.printf("Indexed %,d recipes in batches of 500 in %.2fs%n", RECIPES, (System.nanoTime() - start) / 1e9);
+		assertEquals(RECIPES, index.size());
+
+		for (int round = 0; round < 3; round++) {
+			for (String prefix : PREFIXES) {
+				int calls = 100_000;
+				long nanos = System.nanoTime();
+				int found = 0;
+				for (int i = 0; i < calls; i++) {
+					found += index.suggest(prefix, 10).size();
+				}
+				nanos = System.nanoTime() - nanos;
+				if (round == 2) {
+					System.out.printf("prefix %-10s %2d suggestions, %.2f us per call%n", "'" + prefix + "'",
+							found / calls, nanos / 1e3 / calls);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.publicis.sapient.recipeapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.SuggestedRecipe;
+import com.publicis.sapient.recipeapi.service.RecipeSuggestIndex.Suggestion;
+
+class RecipeSuggestIndexTest {
+
+	private static final String[] WORDS = { "pizza", "pasta", "pastry", "pie", "chicken", "chili", "curry", "salad",
+			"soup", "spicy", "sweet", "tart" };
+
+	@Test
+	void testCompletesAnyWordBestRatedFirst() {
+		RecipeSuggestIndex index = new RecipeSuggestIndex();
+		index.put(List.of(new SuggestedRecipe(1, "Classic Margherita Pizza", 4.6f, 98),
+				new SuggestedRecipe(2, "Pizza Bianca", 4.6f, 120), new SuggestedRecipe(3, "Pita Bread", 4.9f, 10),
+				new SuggestedRecipe(4, "Spicy Pepperoni Pizza", null, 500),
+				new SuggestedRecipe(5, "Pasta alla Pizzaiola", 4.8f, 40)));
+
+		assertEquals(List.of(new Suggestion(5, "Pasta alla Pizzaiola"), new Suggestion(2, "Pizza Bianca"),
+				new Suggestion(1, "Classic Margherita Pizza"), new Suggestion(4, "Spicy Pepperoni Pizza")),
+				index.suggest("  PIZ", 10));
+		assertEquals(List.of(new Suggestion(3, "Pita Bread"), new Suggestion(5, "Pasta alla Pizzaiola")),
+				index.suggest("p", 2));
+		assertEquals(List.of(), index.suggest("izza", 10));
+		assertEquals(List.of(), index.suggest(" ", 10));
+	}
+
+	@Test
+	void testRenamedAndRemovedRecipesAreNotSuggested() {
+		RecipeSuggestIndex index = new RecipeSuggestIndex();
+		index.put(List.of(new SuggestedRecipe(1, "Chicken Curry", 4.5f, 10),
+				new SuggestedRecipe(2, "Chicken Chicken Soup", 4.0f, 10)));
+
+		index.put(List.of(new SuggestedRecipe(1, "Tofu Curry", 4.5f, 10)));
+		assertEquals(List.of(new Suggestion(2, "Chicken Chicken Soup")), index.suggest("chick", 10));
+		assertEquals(List.of(new Suggestion(1, "Tofu Curry")), index.suggest("tofu", 10));
+
+		index.remove(List.of(2));
+		assertEquals(List.of(), index.suggest("chick", 10));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void testSuggestionsMatchAFullScanAcrossMerges() {
+		Random random = new Random(42);
+		RecipeSuggestIndex index = new RecipeSuggestIndex();
+		Map<Integer, SuggestedRecipe> expected = new HashMap<>();
+
+		for (int round = 0; round < 40; round++) {
+			List<SuggestedRecipe> batch = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				int id = 1 + random.nextInt(1500);
+				String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+				Float rating = random.nextInt(20) == 0 ? null : random.nextInt(50) / 10f;
+				batch.add(new SuggestedRecipe(id, name, rating, random.nextInt(30)));
+			}
+			index.put(batch);
+			batch.forEach(recipe -> expected.put(recipe.id(), recipe));
+
+			List<Integer> removed = random.ints(10, 1, 1501).boxed().toList();
+			index.remove(removed);
+			removed.forEach(expected::remove);
+
+			for (String prefix : new String[] { "p", "pa", "past", "c", "chi", "s", "tart", "x" }) {
+				assertEquals(fullScan(expected, prefix, 7), index.suggest(prefix, 7), "round " + round + ", " + prefix);
+			}
+		}
+		assertTrue(index.size() > 500);
+		assertEquals(expected.size(), index.size());
+	}
+
+	private static List<Suggestion> fullScan(Map<Integer, SuggestedRecipe> recipes, String prefix, int limit) {
+		Comparator<SuggestedRecipe> rank = Comparator
+				.comparing(SuggestedRecipe::rating, Comparator.nullsLast(Comparator.<Float>reverseOrder()))
+				.thenComparing(SuggestedRecipe::reviewCount, Comparator.reverseOrder())
+				.thenComparingInt(SuggestedRecipe::id);
+		return recipes.values().stream().filter(recipe -> {
+			for (String word : recipe.name().toLowerCase(Locale.ROOT).split(" ")) {
+				if (word.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}).sorted(rank).limit(limit).map(recipe -> new Suggestion(recipe.id(), recipe.name())).toList();
+	}
+}
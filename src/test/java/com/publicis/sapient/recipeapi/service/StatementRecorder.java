@@ -0,0 +1,142 @@
+package com.publicis.sapient.recipeapi.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the application's data source and records the SQL of every statement executed
+ * through it, whether it comes from Hibernate or from a {@code JdbcTemplate}. A JDBC batch
+ * is recorded once, as it is one round trip. Add it to a test context with
+ * {@code @Import(StatementRecorder.class)}.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+	private final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)) {
+			return new RecordingDataSource(dataSource);
+		}
+		return bean;
+	}
+
+	public void clear() {
+		statements.clear();
+	}
+
+	/**
+	 * The statements executed since the last {@link #clear()}, in order and lower case.
+	 */
+	public List<String> statements() {
+		return List.copyOf(statements);
+	}
+
+	/**
+	 * The executed statements that start with {@code prefix}, such as {@code "select"}.
+	 */
+	public List<String> statements(String prefix) {
+		return statements.stream().filter(sql -> sql.startsWith(prefix)).toList();
+	}
+
+	private void record(String sql) {
+		statements.add(sql.trim().toLowerCase(Locale.ROOT));
+	}
+
+	private final class RecordingDataSource extends DelegatingDataSource {
+
+		RecordingDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection connection = super.getConnection();
+			return wrap(Connection.class, new ConnectionHandler(connection));
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			Connection connection = super.getConnection(username, password);
+			return wrap(Connection.class, new ConnectionHandler(connection));
+		}
+	}
+
+	private final class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = forward(target, method, args);
+			String name = method.getName();
+			if ((name.equals("prepareStatement") || name.equals("prepareCall")) && result instanceof Statement) {
+				String sql = (String) args[0];
+				return wrap(method.getReturnType(), new StatementHandler((Statement) result, sql));
+			}
+			if (name.equals("createStatement") && result instanceof Statement) {
+				return wrap(method.getReturnType(), new StatementHandler((Statement) result, null));
+			}
+			return result;
+		}
+	}
+
+	private final class StatementHandler implements InvocationHandler {
+
+		private final Statement target;
+
+		private final String preparedSql;
+
+		private final List<String> batch = new ArrayList<>();
+
+		StatementHandler(Statement target, String preparedSql) {
+			this.target = target;
+			this.preparedSql = preparedSql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("addBatch") && args != null && args.length == 1) {
+				batch.add((String) args[0]);
+			} else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+				record(preparedSql != null ? preparedSql : String.join("; ", batch));
+				batch.clear();
+			} else if (name.startsWith("execute")) {
+				record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+			}
+			return forward(target, method, args);
+		}
+	}
+
+	private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[] { type },
+				handler));
+	}
+}